@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.common.antlr;
+
+import java.util.function.Function;
+import lombok.experimental.UtilityClass;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * Two-stage parsing recommended by ANTLR for performance. The query is parsed by faster SLL
+ * prediction first which bails out on the first syntax error. Because SLL may fail on input
+ * that is actually valid, the query is parsed again by full LL prediction with normal error
+ * reporting only in this case.
+ */
+@UtilityClass
+public class TwoStageParser {
+
+  /**
+   * Parse the token stream already bound to the parser.
+   * @param parser        ANTLR parser
+   * @param entryRule     entry rule of the grammar to invoke
+   * @param errorListener error listener to report syntax error in LL stage
+   * @return              parse tree root
+   */
+  public <P extends Parser> ParseTree parse(P parser, Function<P, ParseTree> entryRule,
+                                            ANTLRErrorListener errorListener) {
+    parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    parser.removeErrorListeners();
+    parser.setErrorHandler(new BailErrorStrategy());
+    try {
+      return entryRule.apply(parser);
+    } catch (ParseCancellationException e) {
+      parser.getTokenStream().seek(0);
+      parser.reset();
+      parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+      parser.addErrorListener(errorListener);
+      parser.setErrorHandler(new DefaultErrorStrategy());
+      return entryRule.apply(parser);
+    }
+  }
+
+}
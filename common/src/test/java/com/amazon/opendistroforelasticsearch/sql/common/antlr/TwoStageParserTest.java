@@ -0,0 +1,115 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.common.antlr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TwoStageParserTest {
+
+  private final Parser parser = mock(Parser.class);
+
+  private final ParserATNSimulator interpreter = new ParserATNSimulator(parser, null, null, null);
+
+  private final TokenStream tokens = mock(TokenStream.class);
+
+  private final ANTLRErrorListener errorListener = mock(ANTLRErrorListener.class);
+
+  private final ParseTree tree = mock(ParseTree.class);
+
+  @SuppressWarnings("unchecked")
+  private final Function<Parser, ParseTree> entryRule = mock(Function.class);
+
+  /** Prediction mode of each parse because it's set by final method which cannot be verified. */
+  private final List<PredictionMode> predictionModes = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    when(parser.getInterpreter()).thenReturn(interpreter);
+    when(parser.getTokenStream()).thenReturn(tokens);
+  }
+
+  @Test
+  public void parseBySllOnlyIfSucceeded() {
+    when(entryRule.apply(parser)).thenAnswer(invocation -> parsed(tree));
+
+    assertSame(tree, TwoStageParser.parse(parser, entryRule, errorListener));
+    assertEquals(Arrays.asList(PredictionMode.SLL), predictionModes);
+    verify(parser, never()).addErrorListener(errorListener);
+  }
+
+  @Test
+  public void parseByLlAgainIfSllFailed() {
+    when(entryRule.apply(parser))
+        .thenAnswer(invocation -> parsed(null))
+        .thenAnswer(invocation -> parsed(tree));
+
+    assertSame(tree, TwoStageParser.parse(parser, entryRule, errorListener));
+    assertEquals(Arrays.asList(PredictionMode.SLL, PredictionMode.LL), predictionModes);
+    verify(tokens).seek(0);
+    verify(parser).reset();
+    verify(parser).addErrorListener(errorListener);
+  }
+
+  @Test
+  public void syntaxErrorReportedInLlShouldBeThrown() {
+    SyntaxCheckException error =
+        new SyntaxCheckException("Failed to parse query due to syntax error");
+    when(entryRule.apply(parser))
+        .thenThrow(new ParseCancellationException())
+        .thenThrow(error);
+
+    try {
+      TwoStageParser.parse(parser, entryRule, errorListener);
+      fail("Expected syntax error not thrown");
+    } catch (SyntaxCheckException e) {
+      assertSame(error, e);
+      assertEquals("Failed to parse query due to syntax error", e.getMessage());
+    }
+  }
+
+  /**
+   * Record prediction mode of current parse and return the tree or bail out if it's null.
+   */
+  private ParseTree parsed(ParseTree result) {
+    predictionModes.add(interpreter.getPredictionMode());
+    if (result == null) {
+      throw new ParseCancellationException();
+    }
+    return result;
+  }
+
+}
@@ -15,6 +15,10 @@
 
 package com.amazon.opendistroforelasticsearch.sql.analysis;
 
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -26,12 +30,39 @@ public class AnalysisContext {
    */
   private TypeEnvironment environment;
 
+  /**
+   * Types of parameter values to be bound to the parameter markers in prepared statement.
+   */
+  private final List<ExprType> parameterTypes;
+
   public AnalysisContext() {
-    this.environment = new TypeEnvironment(null);
+    this(Collections.emptyList());
   }
 
   public AnalysisContext(TypeEnvironment environment) {
     this.environment = environment;
+    this.parameterTypes = Collections.emptyList();
+  }
+
+  public AnalysisContext(List<ExprType> parameterTypes) {
+    this.environment = new TypeEnvironment(null);
+    this.parameterTypes = parameterTypes;
+  }
+
+  /**
+   * Get type of the parameter value bound to the parameter marker at the given index.
+   * Syntax check exception is thrown if no value is bound, so that the query falls back
+   * to old engine as before parameter marker is supported.
+   *
+   * @param index index of parameter marker
+   * @return parameter type
+   */
+  public ExprType getParameterType(int index) {
+    if (index >= parameterTypes.size()) {
+      throw new SyntaxCheckException(
+          String.format("no value is bound to parameter at index %d", index));
+    }
+    return parameterTypes.get(index);
   }
 
   /**
@@ -29,6 +29,7 @@ import com.amazon.opendistroforelasticsearch.sql.ast.expression.IntervalUnit;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.Literal;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.Not;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.Or;
+import com.amazon.opendistroforelasticsearch.sql.ast.expression.Parameter;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.QualifiedName;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.UnresolvedAttribute;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.UnresolvedExpression;
@@ -87,6 +88,11 @@ public class ExpressionAnalyzer extends AbstractNodeVisitor<Expression, Analysis
         .literal(ExprValueUtils.fromObjectValue(node.getValue(), node.getType().getCoreType()));
   }
 
+  @Override
+  public Expression visitParameter(Parameter node, AnalysisContext context) {
+    return DSL.parameter(node.getIndex(), context.getParameterType(node.getIndex()));
+  }
+
   @Override
   public Expression visitInterval(Interval node, AnalysisContext context) {
     Expression value = node.getValue().accept(this, context);
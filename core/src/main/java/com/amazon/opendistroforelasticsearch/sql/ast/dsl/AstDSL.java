@@ -32,6 +32,7 @@ import com.amazon.opendistroforelasticsearch.sql.ast.expression.Literal;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.Map;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.Not;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.Or;
+import com.amazon.opendistroforelasticsearch.sql.ast.expression.Parameter;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.QualifiedName;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.UnresolvedAttribute;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.UnresolvedExpression;
@@ -127,6 +128,10 @@ public class AstDSL {
     return new Let(var, expression);
   }
 
+  public static Parameter parameter(int index) {
+    return new Parameter(index);
+  }
+
   public static Literal intLiteral(Integer value) {
     return literal(value, DataType.INTEGER);
   }
@@ -80,6 +80,10 @@ public class DSL {
     return new ReferenceExpression(ref, type);
   }
 
+  public static ParameterExpression parameter(int index, ExprType type) {
+    return new ParameterExpression(index, type);
+  }
+
   /**
    * Wrap a named expression if not yet. The intent is that different languages may use
    * Alias or not when building AST. This caused either named or unnamed expression
@@ -0,0 +1,60 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Parameter marker in prepared statement which is typed during analysis but
+ * has no value until bound to a literal before each execution.
+ */
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class ParameterExpression implements Expression {
+  @Getter
+  private final int index;
+
+  private final ExprType type;
+
+  @Override
+  public ExprValue valueOf(Environment<Expression, ExprValue> env) {
+    throw new ExpressionEvaluationException(
+        String.format("parameter at index %d is not bound to any value", index));
+  }
+
+  @Override
+  public ExprType type() {
+    return type;
+  }
+
+  @Override
+  public <T, C> T accept(ExpressionNodeVisitor<T, C> visitor, C context) {
+    return visitor.visitParameter(this, context);
+  }
+
+  @Override
+  public String toString() {
+    return "?";
+  }
+}
@@ -18,9 +18,12 @@ package com.amazon.opendistroforelasticsearch.sql.planner;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.HashJoinOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
@@ -40,13 +43,18 @@ public class Planner {
 
   /**
    * Generate optimal physical plan for logical plan. If no table involved,
-   * translate logical plan to physical by default implementor.
+   * translate logical plan to physical by default implementor. If join involved,
+   * each side of the join is planned separately and joined by hash join.
    * TODO: for now just delegate entire logical plan to storage engine.
    *
    * @param plan logical plan
    * @return optimal physical plan
    */
   public PhysicalPlan plan(LogicalPlan plan) {
+    if (hasJoin(plan)) {
+      return planJoin(plan);
+    }
+
     String tableName = findTableName(plan);
     if (isNullOrEmpty(tableName)) {
       return plan.accept(new DefaultImplementor<>(), null);
@@ -56,6 +64,41 @@ public class Planner {
     return table.implement(plan);
   }
 
+  /**
+   * Plan each side of join separately so that operators close to each relation can be pushed down
+   * by its own storage. Operators above join are translated by default implementor.
+   */
+  private PhysicalPlan planJoin(LogicalPlan plan) {
+    return plan.accept(new DefaultImplementor<Object>() {
+      @Override
+      public PhysicalPlan visitJoin(LogicalJoin node, Object context) {
+        return new HashJoinOperator(
+            plan(node.getLeft()),
+            plan(node.getRight()),
+            node.getJoinType(),
+            node.getLeftKeys(),
+            node.getRightKeys(),
+            node.getRightAlias(),
+            AlwaysHealthyMonitor.ALWAYS_HEALTHY_MONITOR);
+      }
+    }, null);
+  }
+
+  private boolean hasJoin(LogicalPlan plan) {
+    return plan.accept(new LogicalPlanNodeVisitor<Boolean, Object>() {
+
+      @Override
+      protected Boolean visitNode(LogicalPlan node, Object context) {
+        return node.getChild().stream().anyMatch(child -> child.accept(this, context));
+      }
+
+      @Override
+      public Boolean visitJoin(LogicalJoin node, Object context) {
+        return true;
+      }
+    }, null);
+  }
+
   private String findTableName(LogicalPlan plan) {
     return plan.accept(new LogicalPlanNodeVisitor<String, Object>() {
 
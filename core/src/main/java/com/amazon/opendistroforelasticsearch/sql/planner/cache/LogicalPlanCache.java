@@ -0,0 +1,162 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.cache;
+
+import static com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine.UNKNOWN_METADATA_VERSION;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+
+/**
+ * Bounded LRU cache of analyzed logical plans shared by all requests on the node.
+ * Entry is keyed by query language and exact query text because output column name is taken
+ * from the original text of select item. Because analysis result depends on the field types
+ * of the tables involved, an entry is only reused if the metadata version of storage engine
+ * is unchanged or the current field types of all its tables are still the same as when it was
+ * analyzed. Logical plan is immutable and thus safe to be planned into fresh physical operators
+ * again and again.
+ */
+public class LogicalPlanCache {
+
+  /**
+   * Default max number of logical plans cached.
+   */
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  private final Cache<String, CachedPlan> plans;
+
+  private final AtomicLong hitCount = new AtomicLong();
+
+  private final AtomicLong missCount = new AtomicLong();
+
+  public LogicalPlanCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LogicalPlanCache(int capacity) {
+    this.plans = CacheBuilder.newBuilder().maximumSize(capacity).build();
+  }
+
+  /**
+   * Get logical plan of the query from cache or analyze and cache it if absent or outdated.
+   * @param language      query language
+   * @param query         query text
+   * @param storageEngine storage engine to look up current field types of tables
+   * @param analyzer      analyze function which generates logical plan for the query
+   * @return              logical plan
+   */
+  public LogicalPlan getOrAnalyze(String language, String query, StorageEngine storageEngine,
+                                  Supplier<LogicalPlan> analyzer) {
+    return getOrAnalyze(language + ":" + query, storageEngine, analyzer);
+  }
+
+  /**
+   * Get parameterized logical plan of the prepared statement from cache or analyze and cache it
+   * if absent or outdated. Because function resolution depends on the types of parameter values,
+   * a plan is cached for each combination of parameter types.
+   * @param language        query language
+   * @param query           query text with parameter markers
+   * @param parameterTypes  types of parameter values
+   * @param storageEngine   storage engine to look up current field types of tables
+   * @param analyzer        analyze function which generates logical plan for the query
+   * @return                parameterized logical plan
+   */
+  public LogicalPlan getOrAnalyze(String language, String query, List<ExprType> parameterTypes,
+                                  StorageEngine storageEngine, Supplier<LogicalPlan> analyzer) {
+    return getOrAnalyze(language + parameterTypes + ":" + query, storageEngine, analyzer);
+  }
+
+  private LogicalPlan getOrAnalyze(String key, StorageEngine storageEngine,
+                                   Supplier<LogicalPlan> analyzer) {
+    long metadataVersion = storageEngine.getMetadataVersion();
+    CachedPlan cached = plans.getIfPresent(key);
+    if (cached != null && cached.isValid(storageEngine, metadataVersion)) {
+      hitCount.incrementAndGet();
+      return cached.plan;
+    }
+
+    missCount.incrementAndGet();
+    LogicalPlan plan = analyzer.get();
+    plans.put(key, new CachedPlan(plan, fieldTypesOf(plan, storageEngine), metadataVersion));
+    return plan;
+  }
+
+  public long hitCount() {
+    return hitCount.get();
+  }
+
+  public long missCount() {
+    return missCount.get();
+  }
+
+  public long size() {
+    return plans.size();
+  }
+
+  private Map<String, Map<String, ExprType>> fieldTypesOf(LogicalPlan plan,
+                                                          StorageEngine storageEngine) {
+    Map<String, Map<String, ExprType>> fieldTypes = new HashMap<>();
+    collectFieldTypes(plan, storageEngine, fieldTypes);
+    return fieldTypes;
+  }
+
+  private void collectFieldTypes(LogicalPlan plan, StorageEngine storageEngine,
+                                 Map<String, Map<String, ExprType>> fieldTypes) {
+    if (plan instanceof LogicalRelation) {
+      String tableName = ((LogicalRelation) plan).getRelationName();
+      fieldTypes.put(tableName, storageEngine.getTable(tableName).getFieldTypes());
+    }
+    plan.getChild().forEach(child -> collectFieldTypes(child, storageEngine, fieldTypes));
+  }
+
+  @AllArgsConstructor
+  private static class CachedPlan {
+    private final LogicalPlan plan;
+    private final Map<String, Map<String, ExprType>> fieldTypes;
+
+    /** Metadata version in which the field types above are known to be current. */
+    private volatile long metadataVersion;
+
+    /**
+     * Field types are only fetched and compared if metadata changed since last validation.
+     * The plan is then still valid in the new metadata version if no field type changed.
+     */
+    boolean isValid(StorageEngine storageEngine, long currentVersion) {
+      if (currentVersion != UNKNOWN_METADATA_VERSION && currentVersion == metadataVersion) {
+        return true;
+      }
+
+      boolean isValid = fieldTypes.entrySet().stream().allMatch(table ->
+          table.getValue().equals(storageEngine.getTable(table.getKey()).getFieldTypes()));
+      if (isValid) {
+        metadataVersion = currentVersion;
+      }
+      return isValid;
+    }
+  }
+
+}
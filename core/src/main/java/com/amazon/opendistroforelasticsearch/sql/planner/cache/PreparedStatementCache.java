@@ -0,0 +1,99 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.cache;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bounded LRU cache of prepared statements shared by all requests on the node.
+ * Statement id handed out is derived from the exact query text, so the same query
+ * prepared on any node gets the same id. Because prepared statement may be evicted or
+ * prepared on another node, execute request always carries the query text along with the id
+ * and the statement is prepared again transparently if not found in cache.
+ */
+public class PreparedStatementCache {
+
+  /**
+   * Default max number of prepared statements cached.
+   */
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  private final Cache<String, PreparedStatement> statements;
+
+  public PreparedStatementCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public PreparedStatementCache(int capacity) {
+    this.statements = CacheBuilder.newBuilder().maximumSize(capacity).build();
+  }
+
+  /**
+   * Prepare the query and cache its abstract syntax tree.
+   * @param query   query text with parameter markers
+   * @param parser  parse function which generates abstract syntax tree for the query
+   * @return        statement id
+   */
+  public String prepare(String query, Supplier<UnresolvedPlan> parser) {
+    String statementId = statementIdOf(query);
+    statements.put(statementId, new PreparedStatement(query, parser.get()));
+    return statementId;
+  }
+
+  /**
+   * Get abstract syntax tree of the prepared statement from cache or prepare it again if absent
+   * or the statement id doesn't match the query.
+   * @param statementId statement id
+   * @param query       query text with parameter markers
+   * @param parser      parse function which generates abstract syntax tree for the query
+   * @return            abstract syntax tree
+   */
+  public UnresolvedPlan getOrPrepare(String statementId, String query,
+                                     Supplier<UnresolvedPlan> parser) {
+    PreparedStatement statement = statements.getIfPresent(statementId);
+    if (statement != null && statement.query.equals(query)) {
+      return statement.ast;
+    }
+    statement = new PreparedStatement(query, parser.get());
+    statements.put(statementIdOf(query), statement);
+    return statement.ast;
+  }
+
+  public long size() {
+    return statements.size();
+  }
+
+  static String statementIdOf(String query) {
+    return Hashing.murmur3_128()
+                  .hashString(query, StandardCharsets.UTF_8)
+                  .toString();
+  }
+
+  @RequiredArgsConstructor
+  private static class PreparedStatement {
+    private final String query;
+    private final UnresolvedPlan ast;
+  }
+
+}
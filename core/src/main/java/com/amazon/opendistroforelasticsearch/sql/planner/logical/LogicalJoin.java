@@ -0,0 +1,58 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.logical;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import java.util.Arrays;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Equi-join of two logical plans. Row on left side is joined with row on right side if each
+ * expression in {@link LogicalJoin#leftKeys} evaluated on left row equals to the correspondent
+ * expression in {@link LogicalJoin#rightKeys} evaluated on right row. Field of right row is
+ * qualified by {@link LogicalJoin#rightAlias} if the same name is present in left row.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@RequiredArgsConstructor
+public class LogicalJoin extends LogicalPlan {
+  private final LogicalPlan left;
+  private final LogicalPlan right;
+  private final JoinType joinType;
+  private final List<Expression> leftKeys;
+  private final List<Expression> rightKeys;
+  private final String rightAlias;
+
+  @Override
+  public List<LogicalPlan> getChild() {
+    return Arrays.asList(left, right);
+  }
+
+  @Override
+  public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
+    return visitor.visitJoin(this, context);
+  }
+
+  public enum JoinType {
+    INNER,
+    LEFT
+  }
+}
@@ -22,6 +22,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin.JoinType;
 import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import java.util.List;
@@ -95,6 +96,11 @@ public class LogicalPlanDSL {
     return new LogicalRareTopN(input, commandType, noOfResults, Arrays.asList(fields), groupByList);
   }
 
+  public static LogicalPlan join(LogicalPlan left, LogicalPlan right, JoinType joinType,
+      List<Expression> leftKeys, List<Expression> rightKeys, String rightAlias) {
+    return new LogicalJoin(left, right, joinType, leftKeys, rightKeys, rightAlias);
+  }
+
   @SafeVarargs
   public LogicalPlan values(List<LiteralExpression>... values) {
     return new LogicalValues(Arrays.asList(values));
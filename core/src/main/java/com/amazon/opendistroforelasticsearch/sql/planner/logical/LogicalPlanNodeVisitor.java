@@ -71,4 +71,8 @@ public abstract class LogicalPlanNodeVisitor<R, C> {
     return visitNode(plan, context);
   }
 
+  public R visitJoin(LogicalJoin plan, C context) {
+    return visitNode(plan, context);
+  }
+
 }
@@ -0,0 +1,164 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.logical;
+
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ParameterExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionImplementation;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bind parameter values to the parameter markers in an analyzed logical plan of prepared
+ * statement. The parameterized plan is left untouched and thus can be cached and bound to
+ * different values again. For now parameter marker is only supported in filter condition.
+ */
+@RequiredArgsConstructor
+public class ParameterBinder extends LogicalPlanNodeVisitor<LogicalPlan, List<ExprValue>> {
+
+  private final BuiltinFunctionRepository repository;
+
+  /**
+   * Bind parameter values to the logical plan.
+   * @param plan        parameterized logical plan
+   * @param parameters  parameter values in the order of parameter markers
+   * @return            logical plan with parameter markers replaced by literal values
+   */
+  public LogicalPlan bind(LogicalPlan plan, List<ExprValue> parameters) {
+    return plan.accept(this, parameters);
+  }
+
+  /**
+   * Throw syntax check exception to fall back to old engine for logical plan node
+   * that parameter binding is not supported for yet.
+   */
+  @Override
+  protected LogicalPlan visitNode(LogicalPlan plan, List<ExprValue> parameters) {
+    throw new SyntaxCheckException(String.format(
+        "Binding parameters to logical plan node %s is not supported", plan));
+  }
+
+  @Override
+  public LogicalPlan visitRelation(LogicalRelation plan, List<ExprValue> parameters) {
+    return plan;
+  }
+
+  @Override
+  public LogicalPlan visitValues(LogicalValues plan, List<ExprValue> parameters) {
+    return plan;
+  }
+
+  @Override
+  public LogicalPlan visitFilter(LogicalFilter plan, List<ExprValue> parameters) {
+    return new LogicalFilter(
+        bindChild(plan, parameters),
+        plan.getCondition().accept(new ExpressionBinder(), parameters));
+  }
+
+  @Override
+  public LogicalPlan visitProject(LogicalProject plan, List<ExprValue> parameters) {
+    plan.getProjectList().forEach(this::verifyNoParameter);
+    return new LogicalProject(bindChild(plan, parameters), plan.getProjectList());
+  }
+
+  @Override
+  public LogicalPlan visitAggregation(LogicalAggregation plan, List<ExprValue> parameters) {
+    plan.getAggregatorList().forEach(this::verifyNoParameter);
+    plan.getGroupByList().forEach(this::verifyNoParameter);
+    return new LogicalAggregation(
+        bindChild(plan, parameters), plan.getAggregatorList(), plan.getGroupByList());
+  }
+
+  private LogicalPlan bindChild(LogicalPlan plan, List<ExprValue> parameters) {
+    return plan.getChild().get(0).accept(this, parameters);
+  }
+
+  /**
+   * Throw syntax check exception to fall back to old engine if parameter marker is found
+   * in expression other than filter condition.
+   */
+  private void verifyNoParameter(Expression expression) {
+    if (expression.accept(new ParameterFinder(), null)) {
+      throw new SyntaxCheckException(String.format(
+          "Parameter marker in expression %s is not supported yet", expression));
+    }
+  }
+
+  /**
+   * Rebuild function expression with parameter markers in its arguments replaced.
+   */
+  private class ExpressionBinder extends ExpressionNodeVisitor<Expression, List<ExprValue>> {
+
+    @Override
+    public Expression visitNode(Expression node, List<ExprValue> parameters) {
+      return node;
+    }
+
+    @Override
+    public Expression visitParameter(ParameterExpression node, List<ExprValue> parameters) {
+      return DSL.literal(parameters.get(node.getIndex()));
+    }
+
+    @Override
+    public Expression visitFunction(FunctionExpression node, List<ExprValue> parameters) {
+      List<Expression> arguments = node.getArguments().stream()
+                                       .map(arg -> arg.accept(this, parameters))
+                                       .collect(Collectors.toList());
+      if (arguments.equals(node.getArguments())) {
+        return node;
+      }
+      return (Expression) repository.compile(node.getFunctionName(), arguments);
+    }
+  }
+
+  /**
+   * Find out if there is any parameter marker in the expression.
+   */
+  private static class ParameterFinder extends ExpressionNodeVisitor<Boolean, Object> {
+
+    @Override
+    public Boolean visitNode(Expression node, Object context) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitParameter(ParameterExpression node, Object context) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitNamed(NamedExpression node, Object context) {
+      return node.getDelegated().accept(this, context);
+    }
+
+    @Override
+    public Boolean visitChildren(FunctionImplementation node, Object context) {
+      return node.getArguments().stream().anyMatch(arg -> arg.accept(this, context));
+    }
+  }
+
+}
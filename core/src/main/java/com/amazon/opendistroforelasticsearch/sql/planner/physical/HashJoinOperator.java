@@ -0,0 +1,186 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin.JoinType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Hash join operator. The hash table is built from all rows of right input on
+ * {@link HashJoinOperator#rightKeys} and then probed by each row of left input on
+ * {@link HashJoinOperator#leftKeys}. The joined row contains fields of left row followed by
+ * fields of right row, among which the one with the same name as any field of left row is
+ * qualified by {@link HashJoinOperator#rightAlias}. For left join, left row is returned as
+ * it is if no right row is matched. Rows with null or missing key never match. Numeric keys
+ * of different types are normalized before hashing, so the same number matches regardless of
+ * its type, ex. integer 1, long 1 and double 1.0.
+ * The {@link ResourceMonitor} is checked periodically while building the hash table so that a
+ * large right input fails the query instead of exhausting the memory.
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@RequiredArgsConstructor
+public class HashJoinOperator extends PhysicalPlan {
+
+  /**
+   * Number of rows put into hash table between two checks on resource monitor.
+   */
+  private static final int RESOURCE_CHECK_INTERVAL = 1000;
+
+  @Getter
+  private final PhysicalPlan left;
+  @Getter
+  private final PhysicalPlan right;
+  @Getter
+  private final JoinType joinType;
+  @Getter
+  private final List<Expression> leftKeys;
+  @Getter
+  private final List<Expression> rightKeys;
+  @Getter
+  private final String rightAlias;
+  @Getter
+  @ToString.Exclude
+  private final ResourceMonitor monitor;
+
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final Map<List<ExprValue>, List<ExprValue>> hashTable = new HashMap<>();
+
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Iterator<ExprValue> joined = Collections.emptyIterator();
+
+  @Override
+  public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
+    return visitor.visitHashJoin(this, context);
+  }
+
+  @Override
+  public List<PhysicalPlan> getChild() {
+    return Arrays.asList(left, right);
+  }
+
+  @Override
+  public void open() {
+    super.open();
+
+    long buildRows = 0;
+    while (right.hasNext()) {
+      if (buildRows++ % RESOURCE_CHECK_INTERVAL == 0 && !monitor.isHealthy()) {
+        throw new IllegalStateException(
+            "resource is not enough to build hash table for join, quit.");
+      }
+
+      ExprValue row = right.next();
+      List<ExprValue> key = joinKey(row, rightKeys);
+      if (key != null) {
+        hashTable.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    hashTable.clear();
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!joined.hasNext() && left.hasNext()) {
+      ExprValue leftRow = left.next();
+      List<ExprValue> key = joinKey(leftRow, leftKeys);
+      List<ExprValue> matched = (key == null) ? null : hashTable.get(key);
+
+      if (matched != null) {
+        List<ExprValue> rows = new ArrayList<>(matched.size());
+        matched.forEach(rightRow -> rows.add(combine(leftRow, rightRow)));
+        joined = rows.iterator();
+      } else if (joinType == JoinType.LEFT) {
+        joined = Collections.singletonList(leftRow).iterator();
+      }
+    }
+    return joined.hasNext();
+  }
+
+  @Override
+  public ExprValue next() {
+    return joined.next();
+  }
+
+  /**
+   * Evaluate join key on the row.
+   * @return key values or null if any of them is null or missing
+   */
+  private List<ExprValue> joinKey(ExprValue row, List<Expression> keys) {
+    List<ExprValue> key = new ArrayList<>(keys.size());
+    for (Expression keyExpr : keys) {
+      ExprValue value = keyExpr.valueOf(row.bindingTuples());
+      if (value.isNull() || value.isMissing()) {
+        return null;
+      }
+      key.add(normalize(value));
+    }
+    return key;
+  }
+
+  /**
+   * Normalize number to long if it's integral or double otherwise. Float is converted by its
+   * string form so that it's equal to the double of the same literal, ex. 2.5 or 0.1.
+   */
+  private ExprValue normalize(ExprValue value) {
+    if (!value.isNumber()) {
+      return value;
+    }
+    if (value.type() != FLOAT && value.type() != DOUBLE) {
+      return ExprValueUtils.longValue(value.longValue());
+    }
+    double number = (value.type() == FLOAT)
+        ? Double.parseDouble(value.floatValue().toString()) : value.doubleValue();
+    long integral = (long) number;
+    return (integral == number)
+        ? ExprValueUtils.longValue(integral) : ExprValueUtils.doubleValue(number);
+  }
+
+  private ExprValue combine(ExprValue leftRow, ExprValue rightRow) {
+    Map<String, ExprValue> leftTuple = leftRow.tupleValue();
+    Map<String, ExprValue> tuple = new LinkedHashMap<>(leftTuple);
+    rightRow.tupleValue().forEach((name, value) -> tuple.put(
+        leftTuple.containsKey(name) ? rightAlias + "." + name : name, value));
+    return ExprTupleValue.fromExprValueMap(tuple);
+  }
+}
@@ -22,6 +22,8 @@ import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin.JoinType;
 import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import java.util.List;
@@ -93,6 +95,13 @@ public class PhysicalPlanDSL {
         groups);
   }
 
+  public static HashJoinOperator hashJoin(PhysicalPlan left, PhysicalPlan right,
+      JoinType joinType, List<Expression> leftKeys, List<Expression> rightKeys,
+      String rightAlias) {
+    return new HashJoinOperator(left, right, joinType, leftKeys, rightKeys, rightAlias,
+        AlwaysHealthyMonitor.ALWAYS_HEALTHY_MONITOR);
+  }
+
   @SafeVarargs
   public ValuesOperator values(List<LiteralExpression>... values) {
     return new ValuesOperator(Arrays.asList(values));
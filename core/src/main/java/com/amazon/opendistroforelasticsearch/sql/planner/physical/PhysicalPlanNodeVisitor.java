@@ -72,4 +72,8 @@ public abstract class PhysicalPlanNodeVisitor<R, C> {
   public R visitRareTopN(RareTopNOperator node, C context) {
     return visitNode(node, context);
   }
+
+  public R visitHashJoin(HashJoinOperator node, C context) {
+    return visitNode(node, context);
+  }
 }
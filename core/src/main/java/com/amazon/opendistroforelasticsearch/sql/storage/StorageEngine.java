@@ -24,4 +24,17 @@ public interface StorageEngine {
    * Get {@link Table} from storage engine.
    */
   Table getTable(String name);
+
+  /**
+   * Metadata version returned if storage engine doesn't track it.
+   */
+  long UNKNOWN_METADATA_VERSION = -1L;
+
+  /**
+   * Get version of table metadata which changes whenever field types of any table may have
+   * changed. This is supposed to be cheap so caller can use it to skip fetching field types.
+   */
+  default long getMetadataVersion() {
+    return UNKNOWN_METADATA_VERSION;
+  }
 }
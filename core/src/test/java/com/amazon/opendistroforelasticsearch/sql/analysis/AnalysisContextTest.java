@@ -15,10 +15,13 @@
 
 package com.amazon.opendistroforelasticsearch.sql.analysis;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
+import java.util.Collections;
 import org.junit.jupiter.api.Test;
 
 class AnalysisContextTest {
@@ -47,4 +50,18 @@ class AnalysisContextTest {
     NullPointerException exception = assertThrows(NullPointerException.class, () -> context.pop());
     assertEquals("Fail to pop context due to no environment present", exception.getMessage());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void getBoundParameterTypeShouldPass() {
+    AnalysisContext context = new AnalysisContext(Collections.singletonList(INTEGER));
+    assertNotNull(context.peek());
+    assertEquals(INTEGER, context.getParameterType(0));
+  }
+
+  @Test
+  public void getUnboundParameterTypeShouldFail() {
+    SyntaxCheckException exception =
+        assertThrows(SyntaxCheckException.class, () -> context.getParameterType(0));
+    assertEquals("no value is bound to parameter at index 0", exception.getMessage());
+  }
+}
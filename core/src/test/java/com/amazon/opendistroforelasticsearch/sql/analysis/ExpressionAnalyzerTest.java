@@ -34,6 +34,7 @@ import com.amazon.opendistroforelasticsearch.sql.exception.SemanticCheckExceptio
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import java.util.Collections;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.context.annotation.Configuration;
@@ -152,6 +153,21 @@ class ExpressionAnalyzerTest extends AnalyzerTestBase {
         exception.getMessage());
   }
 
+  @Test
+  public void parameter() {
+    assertEquals(
+        DSL.parameter(0, INTEGER),
+        expressionAnalyzer.analyze(
+            AstDSL.parameter(0), new AnalysisContext(Collections.singletonList(INTEGER))));
+  }
+
+  @Test
+  public void unbound_parameter_syntax_check_failed() {
+    SyntaxCheckException exception = assertThrows(SyntaxCheckException.class,
+        () -> analyze(AstDSL.parameter(0)));
+    assertEquals("no value is bound to parameter at index 0", exception.getMessage());
+  }
+
   @Test
   public void undefined_aggregation_function() {
     SemanticCheckException exception = assertThrows(SemanticCheckException.class,
@@ -20,6 +20,7 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.I
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.parameter;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -42,6 +43,7 @@ class ExpressionNodeVisitorTest {
     ExpressionNodeVisitor<Object, Object> visitor = new ExpressionNodeVisitor<Object, Object>(){};
     assertNull(literal(10).accept(visitor, null));
     assertNull(ref("name", STRING).accept(visitor, null));
+    assertNull(parameter(0, STRING).accept(visitor, null));
     assertNull(named("bool", literal(true)).accept(visitor, null));
     assertNull(dsl.abs(literal(-10)).accept(visitor, null));
     assertNull(dsl.sum(literal(10)).accept(visitor, null));
@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ParameterExpressionTest extends ExpressionTestBase {
+
+  @Test
+  public void resolve_type() {
+    assertEquals(INTEGER, DSL.parameter(0, INTEGER).type());
+    assertEquals(1, DSL.parameter(1, INTEGER).getIndex());
+    assertEquals("?", DSL.parameter(0, INTEGER).toString());
+  }
+
+  @Test
+  public void unbound_parameter_cannot_be_evaluated() {
+    ExpressionEvaluationException exception = assertThrows(ExpressionEvaluationException.class,
+        () -> DSL.parameter(2, INTEGER).valueOf(valueEnv()));
+    assertEquals("parameter at index 2 is not bound to any value", exception.getMessage());
+  }
+}
@@ -26,6 +26,7 @@ import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin.JoinType;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
@@ -111,6 +112,40 @@ public class PlannerTest extends PhysicalPlanTestBase {
     );
   }
 
+  @Test
+  public void plan_each_side_of_join_separately() {
+    assertPhysicalPlan(
+        PhysicalPlanDSL.project(
+            PhysicalPlanDSL.hashJoin(
+                PhysicalPlanDSL.filter(
+                    scan,
+                    dsl.equal(DSL.ref("response", INTEGER), DSL.literal(10))
+                ),
+                scan,
+                JoinType.LEFT,
+                ImmutableList.of(DSL.ref("response", INTEGER)),
+                ImmutableList.of(DSL.ref("code", INTEGER)),
+                "status"
+            ),
+            DSL.named("response", DSL.ref("response", INTEGER))
+        ),
+        LogicalPlanDSL.project(
+            LogicalPlanDSL.join(
+                LogicalPlanDSL.filter(
+                    LogicalPlanDSL.relation("schema"),
+                    dsl.equal(DSL.ref("response", INTEGER), DSL.literal(10))
+                ),
+                LogicalPlanDSL.relation("status"),
+                JoinType.LEFT,
+                ImmutableList.of(DSL.ref("response", INTEGER)),
+                ImmutableList.of(DSL.ref("code", INTEGER)),
+                "status"
+            ),
+            DSL.named("response", DSL.ref("response", INTEGER))
+        )
+    );
+  }
+
   protected void assertPhysicalPlan(PhysicalPlan expected, LogicalPlan logicalPlan) {
     assertEquals(expected, analyze(logicalPlan));
   }
@@ -0,0 +1,205 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.cache;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.values;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import com.amazon.opendistroforelasticsearch.sql.storage.Table;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LogicalPlanCacheTest {
+
+  @Mock
+  private StorageEngine storageEngine;
+
+  @Mock
+  private Table table;
+
+  private final LogicalPlanCache cache = new LogicalPlanCache();
+
+  private final AtomicInteger analyzeCount = new AtomicInteger();
+
+  @Test
+  public void should_analyze_only_once_for_same_query() {
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", INTEGER));
+
+    LogicalPlan plan = project(relation("test"), DSL.named("age", DSL.ref("age", INTEGER)));
+    LogicalPlan first = cache.getOrAnalyze("sql", "SELECT age FROM test",
+        storageEngine, analyze(plan));
+    LogicalPlan second = cache.getOrAnalyze("sql", "SELECT age FROM test",
+        storageEngine, analyze(plan));
+
+    assertSame(plan, first);
+    assertSame(plan, second);
+    assertEquals(1, analyzeCount.get());
+    assertEquals(1, cache.hitCount());
+    assertEquals(1, cache.missCount());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void should_not_fetch_field_types_again_if_metadata_version_unchanged() {
+    when(storageEngine.getMetadataVersion()).thenReturn(1L);
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", INTEGER));
+
+    LogicalPlan plan = relation("test");
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+
+    assertEquals(1, analyzeCount.get());
+    assertEquals(2, cache.hitCount());
+    verify(table, times(1)).getFieldTypes();
+  }
+
+  @Test
+  public void should_reuse_plan_if_field_types_unchanged_in_new_metadata_version() {
+    when(storageEngine.getMetadataVersion()).thenReturn(1L, 2L, 2L);
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", INTEGER));
+
+    LogicalPlan plan = relation("test");
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+
+    assertEquals(1, analyzeCount.get());
+    assertEquals(2, cache.hitCount());
+    verify(table, times(2)).getFieldTypes();
+  }
+
+  @Test
+  public void should_fetch_field_types_on_every_hit_if_metadata_version_unknown() {
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", INTEGER));
+    StorageEngine storageEngine = name -> table;
+
+    LogicalPlan plan = relation("test");
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+
+    assertEquals(1, analyzeCount.get());
+    verify(table, times(3)).getFieldTypes();
+  }
+
+  @Test
+  public void should_analyze_again_if_field_types_changed() {
+    when(storageEngine.getMetadataVersion()).thenReturn(1L, 2L);
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes())
+        .thenReturn(ImmutableMap.of("age", INTEGER))
+        .thenReturn(ImmutableMap.of("age", STRING));
+
+    LogicalPlan plan = relation("test");
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "source=test", storageEngine, analyze(plan));
+
+    assertEquals(2, analyzeCount.get());
+    assertEquals(0, cache.hitCount());
+    assertEquals(2, cache.missCount());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void should_separate_entries_by_language() {
+    LogicalPlan plan = values();
+    cache.getOrAnalyze("sql", "SELECT 1", storageEngine, analyze(plan));
+    cache.getOrAnalyze("ppl", "SELECT 1", storageEngine, analyze(plan));
+
+    assertEquals(2, analyzeCount.get());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void should_separate_entries_by_parameter_types() {
+    LogicalPlan plan = values();
+    cache.getOrAnalyze("sql", "SELECT ?", Collections.singletonList(INTEGER),
+        storageEngine, analyze(plan));
+    cache.getOrAnalyze("sql", "SELECT ?", Collections.singletonList(INTEGER),
+        storageEngine, analyze(plan));
+    cache.getOrAnalyze("sql", "SELECT ?", Arrays.asList(STRING),
+        storageEngine, analyze(plan));
+    cache.getOrAnalyze("sql", "SELECT ?", storageEngine, analyze(plan));
+
+    assertEquals(3, analyzeCount.get());
+    assertEquals(1, cache.hitCount());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void should_evict_least_recently_used_plan_if_full() {
+    LogicalPlanCache cache = new LogicalPlanCache(1);
+    LogicalPlan plan = values();
+    cache.getOrAnalyze("sql", "SELECT 1", storageEngine, analyze(plan));
+    cache.getOrAnalyze("sql", "SELECT 2", storageEngine, analyze(plan));
+    cache.getOrAnalyze("sql", "SELECT 1", storageEngine, analyze(plan));
+
+    assertEquals(3, analyzeCount.get());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void should_separate_entries_by_whitespaces() {
+    LogicalPlan plan = values();
+    cache.getOrAnalyze("sql", "SELECT 1  +  1", storageEngine, analyze(plan));
+    cache.getOrAnalyze("sql", "SELECT 1 + 1", storageEngine, analyze(plan));
+
+    assertEquals(2, analyzeCount.get());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void should_lookup_every_table_involved() {
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", INTEGER));
+
+    cache.getOrAnalyze("sql", "SELECT * FROM test", storageEngine,
+        analyze(project(relation("test"))));
+    verify(storageEngine).getTable("test");
+  }
+
+  private Supplier<LogicalPlan> analyze(LogicalPlan plan) {
+    return () -> {
+      analyzeCount.incrementAndGet();
+      return plan;
+    };
+  }
+
+}
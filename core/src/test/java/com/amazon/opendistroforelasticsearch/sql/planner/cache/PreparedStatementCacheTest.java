@@ -0,0 +1,91 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.cache;
+
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.relation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class PreparedStatementCacheTest {
+
+  private final PreparedStatementCache cache = new PreparedStatementCache();
+
+  private final AtomicInteger parseCount = new AtomicInteger();
+
+  @Test
+  public void should_parse_only_once_for_prepared_statement() {
+    UnresolvedPlan ast = relation("test");
+    String query = "SELECT * FROM test WHERE age = ?";
+    String statementId = cache.prepare(query, parse(ast));
+
+    assertSame(ast, cache.getOrPrepare(statementId, query, parse(ast)));
+    assertSame(ast, cache.getOrPrepare(statementId, query, parse(ast)));
+    assertEquals(1, parseCount.get());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void should_generate_same_statement_id_for_same_query() {
+    String statementId = cache.prepare("SELECT ?", parse(relation("test")));
+    assertEquals(statementId, cache.prepare("SELECT ?", parse(relation("test"))));
+    assertNotEquals(statementId, cache.prepare(" SELECT  ? ", parse(relation("test"))));
+    assertNotEquals(statementId, cache.prepare("SELECT ? + 1", parse(relation("test"))));
+  }
+
+  @Test
+  public void should_prepare_again_if_statement_not_found() {
+    UnresolvedPlan ast = relation("test");
+    String query = "SELECT * FROM test WHERE age = ?";
+
+    assertSame(ast, cache.getOrPrepare("unknown", query, parse(ast)));
+    assertSame(ast, cache.getOrPrepare(
+        PreparedStatementCache.statementIdOf(query), query, parse(ast)));
+    assertEquals(1, parseCount.get());
+  }
+
+  @Test
+  public void should_prepare_again_if_statement_id_not_match_query() {
+    String statementId = cache.prepare("SELECT ?", parse(relation("test")));
+    UnresolvedPlan ast = relation("test2");
+
+    assertSame(ast, cache.getOrPrepare(statementId, "SELECT ? + 1", parse(ast)));
+    assertEquals(2, parseCount.get());
+  }
+
+  @Test
+  public void should_evict_least_recently_used_statement_if_full() {
+    PreparedStatementCache cache = new PreparedStatementCache(1);
+    cache.prepare("SELECT ?", parse(relation("test")));
+    cache.prepare("SELECT ? + 1", parse(relation("test")));
+
+    assertEquals(1, cache.size());
+  }
+
+  private Supplier<UnresolvedPlan> parse(UnresolvedPlan ast) {
+    return () -> {
+      parseCount.incrementAndGet();
+      return ast;
+    };
+  }
+}
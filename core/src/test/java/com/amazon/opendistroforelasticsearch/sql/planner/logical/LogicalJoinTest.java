@@ -0,0 +1,40 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.logical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin.JoinType;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class LogicalJoinTest {
+
+  @Test
+  public void logicalJoinHasLeftAndRightInput() {
+    LogicalPlan left = LogicalPlanDSL.relation("employees");
+    LogicalPlan right = LogicalPlanDSL.relation("departments");
+    LogicalPlan join = LogicalPlanDSL.join(left, right, JoinType.INNER,
+        ImmutableList.of(DSL.ref("dept", INTEGER)),
+        ImmutableList.of(DSL.ref("dept_id", INTEGER)),
+        "d");
+    assertEquals(Arrays.asList(left, right), join.getChild());
+  }
+}
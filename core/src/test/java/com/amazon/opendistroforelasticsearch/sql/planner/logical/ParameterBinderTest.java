@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.logical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.parameter;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.aggregation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.sort;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.values;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.jupiter.api.Test;
+
+class ParameterBinderTest {
+
+  private final BuiltinFunctionRepository repository =
+      new ExpressionConfig().functionRepository();
+
+  private final DSL dsl = new ExpressionConfig().dsl(repository);
+
+  private final ParameterBinder binder = new ParameterBinder(repository);
+
+  private final List<ExprValue> parameters = Arrays.asList(integerValue(30), integerValue(40));
+
+  @Test
+  public void should_bind_parameters_in_filter_condition() {
+    LogicalPlan plan =
+        project(
+            filter(
+                relation("test"),
+                dsl.and(
+                    dsl.greater(ref("age", INTEGER), parameter(0, INTEGER)),
+                    dsl.less(ref("age", INTEGER), dsl.add(parameter(1, INTEGER), literal(1))))),
+            named("age", ref("age", INTEGER)));
+
+    assertEquals(
+        project(
+            filter(
+                relation("test"),
+                dsl.and(
+                    dsl.greater(ref("age", INTEGER), literal(30)),
+                    dsl.less(ref("age", INTEGER), dsl.add(literal(40), literal(1))))),
+            named("age", ref("age", INTEGER))),
+        binder.bind(plan, parameters));
+  }
+
+  @Test
+  public void should_reuse_expression_without_parameter() {
+    Expression condition = dsl.equal(ref("age", INTEGER), literal(30));
+    LogicalPlan bound = binder.bind(filter(relation("test"), condition), parameters);
+    assertSame(condition, ((LogicalFilter) bound).getCondition());
+  }
+
+  @Test
+  public void should_bind_parameters_below_aggregation() {
+    LogicalPlan plan =
+        aggregation(
+            filter(relation("test"), dsl.equal(ref("age", INTEGER), parameter(0, INTEGER))),
+            ImmutableList.of(dsl.avg(ref("age", INTEGER))),
+            ImmutableList.of(ref("name", INTEGER)));
+
+    assertEquals(
+        aggregation(
+            filter(relation("test"), dsl.equal(ref("age", INTEGER), literal(30))),
+            ImmutableList.of(dsl.avg(ref("age", INTEGER))),
+            ImmutableList.of(ref("name", INTEGER))),
+        binder.bind(plan, parameters));
+  }
+
+  @Test
+  public void should_return_values_as_is() {
+    LogicalPlan plan = values(Collections.emptyList());
+    assertSame(plan, binder.bind(plan, parameters));
+  }
+
+  @Test
+  public void should_fail_if_parameter_in_select_item() {
+    LogicalPlan plan =
+        project(values(Collections.emptyList()),
+            named("?", dsl.add(literal(1), parameter(0, INTEGER))));
+    assertThrows(SyntaxCheckException.class, () -> binder.bind(plan, parameters));
+  }
+
+  @Test
+  public void should_fail_if_parameter_in_aggregation() {
+    LogicalPlan aggregatorPlan =
+        aggregation(
+            relation("test"),
+            ImmutableList.of(dsl.avg(parameter(0, INTEGER))),
+            ImmutableList.of(ref("name", INTEGER)));
+    assertThrows(SyntaxCheckException.class, () -> binder.bind(aggregatorPlan, parameters));
+
+    LogicalPlan groupByPlan =
+        aggregation(
+            relation("test"),
+            ImmutableList.of(dsl.avg(ref("age", INTEGER))),
+            ImmutableList.of(parameter(0, INTEGER)));
+    assertThrows(SyntaxCheckException.class, () -> binder.bind(groupByPlan, parameters));
+  }
+
+  @Test
+  public void should_fail_if_plan_node_not_supported() {
+    LogicalPlan plan =
+        sort(relation("test"), 100, ImmutablePair.of(SortOption.PPL_ASC, ref("age", INTEGER)));
+    assertThrows(SyntaxCheckException.class, () -> binder.bind(plan, parameters));
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL.hashJoin;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin.JoinType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HashJoinOperatorTest extends PhysicalPlanTestBase {
+  @Mock
+  private PhysicalPlan left;
+
+  @Mock
+  private PhysicalPlan right;
+
+  @Mock
+  private ResourceMonitor monitor;
+
+  /**
+   * construct the map which contain null value, because {@link ImmutableMap} doesn't support null
+   * value.
+   */
+  private static final Map<String, Object> NULL_DEPT_MAP =
+      new HashMap<String, Object>() {
+        {
+          put("name", "Dale");
+          put("dept", null);
+        }
+      };
+
+  private void mockInputs() {
+    when(left.hasNext()).thenReturn(true, true, true, true, false);
+    when(left.next())
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Amber", "dept", 10)))
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Hattie", "dept", 20)))
+        .thenReturn(tupleValue(NULL_DEPT_MAP))
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Nanette")));
+
+    when(right.hasNext()).thenReturn(true, true, true, true, false);
+    when(right.next())
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", 10, "dept_name", "Sales")))
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", 10, "dept_name", "Marketing")))
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", 30, "dept_name", "Finance")))
+        .thenReturn(tupleValue(ImmutableMap.of("dept_name", "Unknown")));
+  }
+
+  @Test
+  public void inner_join() {
+    mockInputs();
+    assertThat(
+        execute(hashJoin(left, right, JoinType.INNER,
+            ImmutableList.of(DSL.ref("dept", INTEGER)),
+            ImmutableList.of(DSL.ref("dept_id", INTEGER)), "d")),
+        contains(
+            tupleValue(ImmutableMap.of(
+                "name", "Amber", "dept", 10, "dept_id", 10, "dept_name", "Sales")),
+            tupleValue(ImmutableMap.of(
+                "name", "Amber", "dept", 10, "dept_id", 10, "dept_name", "Marketing"))));
+  }
+
+  @Test
+  public void left_join() {
+    mockInputs();
+    assertThat(
+        execute(hashJoin(left, right, JoinType.LEFT,
+            ImmutableList.of(DSL.ref("dept", INTEGER)),
+            ImmutableList.of(DSL.ref("dept_id", INTEGER)), "d")),
+        contains(
+            tupleValue(ImmutableMap.of(
+                "name", "Amber", "dept", 10, "dept_id", 10, "dept_name", "Sales")),
+            tupleValue(ImmutableMap.of(
+                "name", "Amber", "dept", 10, "dept_id", 10, "dept_name", "Marketing")),
+            tupleValue(ImmutableMap.of("name", "Hattie", "dept", 20)),
+            tupleValue(NULL_DEPT_MAP),
+            tupleValue(ImmutableMap.of("name", "Nanette"))));
+  }
+
+  @Test
+  public void qualify_right_field_with_same_name_as_left_field() {
+    when(left.hasNext()).thenReturn(true, false);
+    when(left.next()).thenReturn(tupleValue(ImmutableMap.of("id", 1, "name", "Amber")));
+    when(right.hasNext()).thenReturn(true, false);
+    when(right.next()).thenReturn(tupleValue(ImmutableMap.of("id", 1, "name", "Sales")));
+
+    assertThat(
+        execute(hashJoin(left, right, JoinType.INNER,
+            ImmutableList.of(DSL.ref("id", INTEGER)),
+            ImmutableList.of(DSL.ref("id", INTEGER)), "d")),
+        contains(
+            tupleValue(ImmutableMap.of(
+                "id", 1, "name", "Amber", "d.id", 1, "d.name", "Sales"))));
+  }
+
+  @Test
+  public void join_on_same_number_of_different_types() {
+    when(left.hasNext()).thenReturn(true, true, true, true, true, false);
+    when(left.next())
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Amber", "dept", 10)))
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Hattie", "dept", 20L)))
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Dale", "dept", 1.0)))
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Nanette", "dept", 2.5F)))
+        .thenReturn(tupleValue(ImmutableMap.of("name", "Elinor", "dept", "HR")));
+    when(right.hasNext()).thenReturn(true, true, true, true, true, false);
+    when(right.next())
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", 10L, "dept_name", "Sales")))
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", 20, "dept_name", "Marketing")))
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", 1, "dept_name", "Finance")))
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", 2.5, "dept_name", "Legal")))
+        .thenReturn(tupleValue(ImmutableMap.of("dept_id", "HR", "dept_name", "Human")));
+
+    assertThat(
+        execute(hashJoin(left, right, JoinType.INNER,
+            ImmutableList.of(DSL.ref("dept", INTEGER)),
+            ImmutableList.of(DSL.ref("dept_id", INTEGER)), "d")),
+        contains(
+            tupleValue(ImmutableMap.of(
+                "name", "Amber", "dept", 10, "dept_id", 10L, "dept_name", "Sales")),
+            tupleValue(ImmutableMap.of(
+                "name", "Hattie", "dept", 20L, "dept_id", 20, "dept_name", "Marketing")),
+            tupleValue(ImmutableMap.of(
+                "name", "Dale", "dept", 1.0, "dept_id", 1, "dept_name", "Finance")),
+            tupleValue(ImmutableMap.of(
+                "name", "Nanette", "dept", 2.5F, "dept_id", 2.5, "dept_name", "Legal")),
+            tupleValue(ImmutableMap.of(
+                "name", "Elinor", "dept", "HR", "dept_id", "HR", "dept_name", "Human"))));
+  }
+
+  @Test
+  public void check_resource_monitor_while_building_hash_table() {
+    mockInputs();
+    when(monitor.isHealthy()).thenReturn(true);
+
+    execute(new HashJoinOperator(left, right, JoinType.INNER,
+        ImmutableList.of(DSL.ref("dept", INTEGER)),
+        ImmutableList.of(DSL.ref("dept_id", INTEGER)),
+        "d",
+        monitor));
+    verify(monitor, times(1)).isHealthy();
+  }
+
+  @Test
+  public void should_fail_if_resource_is_not_enough() {
+    when(right.hasNext()).thenReturn(true);
+    when(monitor.isHealthy()).thenReturn(false);
+
+    HashJoinOperator join = new HashJoinOperator(left, right, JoinType.INNER,
+        ImmutableList.of(DSL.ref("dept", INTEGER)),
+        ImmutableList.of(DSL.ref("dept_id", INTEGER)),
+        "d",
+        monitor);
+    IllegalStateException exception = assertThrows(IllegalStateException.class, join::open);
+    assertEquals("resource is not enough to build hash table for join, quit.",
+        exception.getMessage());
+  }
+
+  @Test
+  public void get_child() {
+    HashJoinOperator join = hashJoin(left, right, JoinType.INNER,
+        ImmutableList.of(DSL.ref("dept", INTEGER)),
+        ImmutableList.of(DSL.ref("dept_id", INTEGER)), "d");
+    assertEquals(Arrays.asList(left, right), join.getChild());
+  }
+}
@@ -35,6 +35,13 @@ public interface ElasticsearchClient {
    */
   Map<String, IndexMapping> getIndexMappings(String indexExpression);
 
+  /**
+   * Get version of cluster metadata which changes on any index mapping or index change.
+   *
+   * @return metadata version or -1 if unknown
+   */
+  long getMetadataVersion();
+
   /**
    * Perform search query in the search request.
    *
@@ -17,12 +17,16 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.client;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
 import com.carrotsearch.hppc.cursors.ObjectObjectCursor;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -33,6 +37,7 @@ import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.MappingMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.common.unit.TimeValue;
@@ -54,6 +59,9 @@ public class ElasticsearchNodeClient implements ElasticsearchClient {
   /** Node client provided by Elasticsearch container. */
   private final NodeClient client;
 
+  /** Node level index mapping cache shared across queries. */
+  private final IndexMappingCache mappingCache;
+
   /** Index name expression resolver to get concrete index name. */
   private final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver();
 
@@ -63,8 +71,9 @@ public class ElasticsearchNodeClient implements ElasticsearchClient {
    * Get field mappings of index by an index expression. Majority is copied from legacy
    * LocalClusterState.
    *
-   * <p>For simplicity, removed type (deprecated) and field filter in argument list. Also removed
-   * mapping cache, cluster state listener (mainly for performance and debugging).
+   * <p>For simplicity, removed type (deprecated) and field filter in argument list. Mapping is
+   * cached per concrete index and only loaded from cluster state for index not cached yet or
+   * whose mapping changed since cached.
    *
    * @param indexExpression index name expression
    * @return index mapping(s) in our class to isolate Elasticsearch API. IndexNotFoundException is
@@ -74,16 +83,39 @@ public class ElasticsearchNodeClient implements ElasticsearchClient {
   public Map<String, IndexMapping> getIndexMappings(String indexExpression) {
     try {
       ClusterState state = clusterService.state();
-      String[] concreteIndices = resolveIndexExpression(state, new String[] {indexExpression});
-
-      return populateIndexMappings(
-          state.metadata().findMappings(concreteIndices, ALL_TYPES, ALL_FIELDS));
+      String[] concreteIndices = mappingCache.resolveIndices(state, indexExpression,
+          curState -> resolveIndexExpression(curState, new String[] {indexExpression}));
+
+      Metadata metadata = state.metadata();
+      Map<String, IndexMapping> result = new LinkedHashMap<>();
+      List<String> uncachedIndices = new ArrayList<>();
+      for (String index : concreteIndices) {
+        IndexMapping mapping = mappingCache.get(metadata.index(index));
+        if (mapping == null) {
+          uncachedIndices.add(index);
+        } else {
+          result.put(index, mapping);
+        }
+      }
+
+      if (!uncachedIndices.isEmpty()) {
+        Map<String, IndexMapping> loaded = populateIndexMappings(metadata.findMappings(
+            uncachedIndices.toArray(new String[0]), ALL_TYPES, ALL_FIELDS));
+        loaded.forEach((index, mapping) -> mappingCache.put(metadata.index(index), mapping));
+        result.putAll(loaded);
+      }
+      return ImmutableMap.copyOf(result);
     } catch (IOException e) {
       throw new IllegalStateException(
           "Failed to read mapping in cluster state for index pattern [" + indexExpression + "]", e);
     }
   }
 
+  @Override
+  public long getMetadataVersion() {
+    return clusterService.state().metadata().version();
+  }
+
   /** TODO: Scroll doesn't work for aggregation. Support aggregation later. */
   @Override
   public ElasticsearchResponse search(ElasticsearchRequest request) {
@@ -52,6 +52,14 @@ public class ElasticsearchRestClient implements ElasticsearchClient {
     }
   }
 
+  /**
+   * Metadata version is unknown to remote client without fetching cluster state.
+   */
+  @Override
+  public long getMetadataVersion() {
+    return -1L;
+  }
+
   @Override
   public ElasticsearchResponse search(ElasticsearchRequest request) {
     return request.search(
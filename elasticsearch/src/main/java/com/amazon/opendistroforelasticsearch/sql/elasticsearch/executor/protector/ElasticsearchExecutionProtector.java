@@ -22,6 +22,7 @@ import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOpe
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.DedupeOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.EvalOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.FilterOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.HashJoinOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.ProjectOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.RareTopNOperator;
@@ -103,6 +104,16 @@ public class ElasticsearchExecutionProtector extends ExecutionProtector {
         node.getSortList());
   }
 
+  /**
+   * Check resource monitor while building hash table.
+   */
+  @Override
+  public PhysicalPlan visitHashJoin(HashJoinOperator node, Object context) {
+    return new HashJoinOperator(visitInput(node.getLeft(), context),
+        visitInput(node.getRight(), context), node.getJoinType(), node.getLeftKeys(),
+        node.getRightKeys(), node.getRightAlias(), resourceMonitor);
+  }
+
   PhysicalPlan visitInput(PhysicalPlan node, Object context) {
     if (null == node) {
       return node;
@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+
+/**
+ * Node level cache of index mappings and resolved index expressions shared by all queries.
+ *
+ * <p>Different from legacy LocalClusterState which invalidates all cached mappings on any
+ * metadata change, cached mapping here is invalidated per index only if the index is deleted
+ * or its mapping version changed. Resolved index expression is only valid in the cluster state
+ * version where it was resolved.
+ */
+public class IndexMappingCache implements ClusterStateListener {
+
+  /** Maximum number of index expressions to cache concrete index names for. */
+  private static final int MAX_INDEX_EXPRESSIONS = 100;
+
+  /** Index mapping cached by concrete index name. */
+  private final Map<String, CachedIndexMapping> indexMappings = new ConcurrentHashMap<>();
+
+  /** Concrete index names cached by index expression. */
+  private final Cache<String, ResolvedIndices> resolvedIndices =
+      CacheBuilder.newBuilder().maximumSize(MAX_INDEX_EXPRESSIONS).build();
+
+  /**
+   * Resolve index expression to concrete index names. Resolver is only called if the expression
+   * wasn't resolved in the same cluster state version before.
+   *
+   * @param state           current cluster state
+   * @param indexExpression index expression
+   * @param resolver        function that resolves index expression in cluster state
+   * @return                concrete index names
+   */
+  public String[] resolveIndices(ClusterState state, String indexExpression,
+                                 Function<ClusterState, String[]> resolver) {
+    ResolvedIndices resolved = resolvedIndices.getIfPresent(indexExpression);
+    if (resolved == null || resolved.stateVersion != state.version()) {
+      resolved = new ResolvedIndices(state.version(), resolver.apply(state));
+      resolvedIndices.put(indexExpression, resolved);
+    }
+    return resolved.indices;
+  }
+
+  /**
+   * Get cached mapping of the index.
+   *
+   * @param metadata  current index metadata
+   * @return          cached index mapping or null if not cached or stale
+   */
+  public IndexMapping get(IndexMetadata metadata) {
+    if (metadata == null) {
+      return null;
+    }
+
+    CachedIndexMapping cached = indexMappings.get(metadata.getIndex().getName());
+    return (cached != null && cached.isValidFor(metadata)) ? cached.mapping : null;
+  }
+
+  /**
+   * Cache mapping of the index populated from the index metadata given.
+   *
+   * @param metadata  index metadata that the mapping is populated from
+   * @param mapping   index mapping
+   */
+  public void put(IndexMetadata metadata, IndexMapping mapping) {
+    if (metadata != null) {
+      indexMappings.put(metadata.getIndex().getName(),
+          new CachedIndexMapping(metadata.getIndexUUID(), metadata.getMappingVersion(), mapping));
+    }
+  }
+
+  /**
+   * Evict mapping of index deleted or changed so stale mapping won't be held in memory.
+   */
+  @Override
+  public void clusterChanged(ClusterChangedEvent event) {
+    if (event.metadataChanged()) {
+      Metadata metadata = event.state().metadata();
+      indexMappings.entrySet().removeIf(
+          entry -> !entry.getValue().isValidFor(metadata.index(entry.getKey())));
+    }
+  }
+
+  /**
+   * Number of index mappings cached.
+   *
+   * @return  cache size
+   */
+  public int size() {
+    return indexMappings.size();
+  }
+
+  @RequiredArgsConstructor
+  private static class CachedIndexMapping {
+    /** UUID to differentiate an index re-created with same name. */
+    private final String indexUUID;
+    private final long mappingVersion;
+    private final IndexMapping mapping;
+
+    boolean isValidFor(IndexMetadata metadata) {
+      return (metadata != null)
+          && indexUUID.equals(metadata.getIndexUUID())
+          && (mappingVersion == metadata.getMappingVersion());
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class ResolvedIndices {
+    private final long stateVersion;
+    private final String[] indices;
+  }
+
+}
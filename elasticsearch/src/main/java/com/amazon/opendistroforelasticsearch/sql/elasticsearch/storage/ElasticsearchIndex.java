@@ -26,15 +26,20 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.Elasti
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.FilterQueryBuilder;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.DefaultExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.planner.DefaultImplementor;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
 import com.google.common.collect.ImmutableMap;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.elasticsearch.index.query.QueryBuilder;
 
@@ -72,6 +77,9 @@ public class ElasticsearchIndex implements Table {
   /** Current Elasticsearch index name. */
   private final String indexName;
 
+  /** Field types populated once and reused by analyzer and implementation in same query. */
+  private Map<String, ExprType> cachedFieldTypes = null;
+
   /*
    * TODO: Assume indexName doesn't have wildcard.
    *  Need to either handle field name conflicts
@@ -79,12 +87,15 @@ public class ElasticsearchIndex implements Table {
    */
   @Override
   public Map<String, ExprType> getFieldTypes() {
-    Map<String, ExprType> fieldTypes = new HashMap<>();
-    Map<String, IndexMapping> indexMappings = client.getIndexMappings(indexName);
-    for (IndexMapping indexMapping : indexMappings.values()) {
-      fieldTypes.putAll(indexMapping.getAllFieldTypes(this::transformESTypeToExprType));
+    if (cachedFieldTypes == null) {
+      Map<String, ExprType> fieldTypes = new HashMap<>();
+      Map<String, IndexMapping> indexMappings = client.getIndexMappings(indexName);
+      for (IndexMapping indexMapping : indexMappings.values()) {
+        fieldTypes.putAll(indexMapping.getAllFieldTypes(this::transformESTypeToExprType));
+      }
+      cachedFieldTypes = fieldTypes;
     }
-    return fieldTypes;
+    return cachedFieldTypes;
   }
 
   /** TODO: Push down operations to index scan operator as much as possible in future. */
@@ -112,9 +123,30 @@ public class ElasticsearchIndex implements Table {
             QueryBuilder query = queryBuilder.build(node.getCondition());
 
             context.pushDown(query);
+            context.addScriptFilters(queryBuilder.getScriptPredicates());
             return visitChild(node, context);
           }
 
+          @Override
+          public PhysicalPlan visitProject(LogicalProject node, ElasticsearchIndexScan context) {
+            // Only push down projection close to relation where no other field is required
+            LogicalPlan child = node.getChild().get(0);
+            if (child instanceof LogicalFilter) {
+              child = child.getChild().get(0);
+            }
+            if (child instanceof LogicalRelation) {
+              Set<String> fields = new LinkedHashSet<>();
+              for (NamedExpression expr : node.getProjectList()) {
+                if (!(expr.getDelegated() instanceof ReferenceExpression)) {
+                  return super.visitProject(node, context);
+                }
+                fields.add(((ReferenceExpression) expr.getDelegated()).getAttr());
+              }
+              context.pushDownProjects(fields);
+            }
+            return super.visitProject(node, context);
+          }
+
           @Override
           public PhysicalPlan visitRelation(LogicalRelation node, ElasticsearchIndexScan context) {
             return indexScan;
@@ -26,11 +26,13 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.Elasti
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
 import com.google.common.collect.Iterables;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.elasticsearch.index.query.BoolQueryBuilder;
@@ -56,6 +58,10 @@ public class ElasticsearchIndexScan extends TableScanOperator {
   @ToString.Include
   private final ElasticsearchRequest request;
 
+  /** Predicates in pushed down query that are evaluated by script per document. */
+  @ToString.Include
+  private final List<Expression> scriptFilters = new ArrayList<>();
+
   /** Search response for current batch. */
   private Iterator<SearchHit> hits;
 
@@ -119,6 +125,23 @@ public class ElasticsearchIndexScan extends TableScanOperator {
     }
   }
 
+  /**
+   * Push down projection to DSL request so that only the fields required are fetched from source.
+   * @param fields  field names
+   */
+  public void pushDownProjects(Set<String> fields) {
+    request.getSourceBuilder().fetchSource(fields.toArray(new String[0]), new String[0]);
+  }
+
+  /**
+   * Record predicates in pushed down query that cannot be translated to Lucene query
+   * so that explain shows which predicates remain scripts.
+   * @param predicates  script predicates
+   */
+  public void addScriptFilters(List<Expression> predicates) {
+    scriptFilters.addAll(predicates);
+  }
+
   @Override
   public void close() {
     super.close();
@@ -35,4 +35,9 @@ public class ElasticsearchStorageEngine implements StorageEngine {
   public Table getTable(String name) {
     return new ElasticsearchIndex(client, settings, name);
   }
+
+  @Override
+  public long getMetadataVersion() {
+    return client.getMetadataVersion();
+  }
 }
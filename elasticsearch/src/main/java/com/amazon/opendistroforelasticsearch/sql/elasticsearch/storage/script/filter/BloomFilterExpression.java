@@ -0,0 +1,185 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Expression that tests if field value may be one of the keys collected in a Bloom filter.
+ * It is pushed down as script query for semi-join reduction so that the probe side of a join
+ * is filtered on data nodes with request size bounded regardless of the number of keys.
+ * Because a Bloom filter has no false negative, no document that could be joined is filtered out.
+ *
+ * <p>In script query, the script source is the expression without Bloom filter which is the same
+ * for all queries on the same field, and the Bloom filter is passed in script params. This way the
+ * script is compiled only once on each node and reused instead of compiled for every filter.
+ */
+@EqualsAndHashCode(callSuper = true)
+public class BloomFilterExpression extends FunctionExpression {
+
+  public static final FunctionName FUNCTION_NAME = FunctionName.of("bloom_filter");
+
+  /**
+   * Name of script parameter that carries the Bloom filter serialized and Base64 encoded.
+   */
+  public static final String BLOOM_FILTER_PARAM = "bloom_filter";
+
+  /**
+   * Bloom filter or null if it's not bound from script params yet.
+   */
+  private final BloomFilter<CharSequence> bloomFilter;
+
+  /**
+   * Build Bloom filter with all keys given.
+   * @param field   field to test
+   * @param keys    key values collected from the other side of join
+   * @param fpp     expected false positive probability
+   */
+  public BloomFilterExpression(ReferenceExpression field, Collection<?> keys, double fpp) {
+    this(field, BloomFilter.create(
+        Funnels.stringFunnel(StandardCharsets.UTF_8), Math.max(keys.size(), 1), fpp));
+    keys.forEach(key -> bloomFilter.put(normalize(key)));
+  }
+
+  /**
+   * Create expression without Bloom filter which is bound from script params later.
+   * @param field   field to test
+   */
+  public BloomFilterExpression(ReferenceExpression field) {
+    this(field, null);
+  }
+
+  private BloomFilterExpression(ReferenceExpression field,
+                                BloomFilter<CharSequence> bloomFilter) {
+    super(FUNCTION_NAME, Collections.singletonList(field));
+    this.bloomFilter = bloomFilter;
+  }
+
+  /**
+   * Expression without Bloom filter as script source.
+   * @return  expression only referring to the same field
+   */
+  public BloomFilterExpression withoutBloomFilter() {
+    return new BloomFilterExpression((ReferenceExpression) getArguments().get(0));
+  }
+
+  /**
+   * Script params that carry the Bloom filter.
+   * @return  script params
+   */
+  public Map<String, Object> toParams() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writeTo(bloomFilter, output);
+    return Collections.singletonMap(
+        BLOOM_FILTER_PARAM, Base64.getEncoder().encodeToString(output.toByteArray()));
+  }
+
+  /**
+   * Bind the Bloom filter in script params if this expression doesn't have one.
+   * @param params  script params
+   * @return        expression with Bloom filter
+   */
+  public BloomFilterExpression bind(Map<String, Object> params) {
+    if (bloomFilter != null) {
+      return this;
+    }
+
+    Object param = params.get(BLOOM_FILTER_PARAM);
+    if (!(param instanceof String)) {
+      throw new IllegalArgumentException(
+          "Bloom filter is absent in script params: " + params.keySet());
+    }
+    try {
+      ByteArrayInputStream input =
+          new ByteArrayInputStream(Base64.getDecoder().decode((String) param));
+      return new BloomFilterExpression((ReferenceExpression) getArguments().get(0),
+          BloomFilter.readFrom(input, Funnels.stringFunnel(StandardCharsets.UTF_8)));
+    } catch (IOException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Failed to read Bloom filter in script params", e);
+    }
+  }
+
+  @Override
+  public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
+    if (bloomFilter == null) {
+      throw new IllegalStateException("Bloom filter is not bound from script params");
+    }
+
+    ExprValue value = getArguments().get(0).valueOf(valueEnv);
+    if (value.isNull() || value.isMissing()) {
+      return ExprBooleanValue.of(false);
+    }
+    return ExprBooleanValue.of(bloomFilter.mightContain(normalize(value.value())));
+  }
+
+  @Override
+  public ExprType type() {
+    return BOOLEAN;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s(%s)", FUNCTION_NAME, getArguments().get(0));
+  }
+
+  @VisibleForTesting
+  static void writeTo(BloomFilter<CharSequence> bloomFilter, OutputStream output) {
+    try {
+      bloomFilter.writeTo(output);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to write Bloom filter", e);
+    }
+  }
+
+  /**
+   * Normalize key to string so that the same value read from source on one side
+   * and from doc value on the other side is always the same key, ex. 1 (Integer) and 1L (Long).
+   */
+  private static String normalize(Object key) {
+    if (key instanceof Number) {
+      double value = ((Number) key).doubleValue();
+      if (value == Math.rint(value) && !Double.isInfinite(value)) {
+        return Long.toString(((Number) key).longValue());
+      }
+    }
+    return String.valueOf(key);
+  }
+
+}
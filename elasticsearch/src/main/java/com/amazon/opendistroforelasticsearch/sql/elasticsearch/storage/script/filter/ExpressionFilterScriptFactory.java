@@ -45,7 +45,17 @@ public class ExpressionFilterScriptFactory implements FilterScript.Factory {
 
   @Override
   public FilterScript.LeafFactory newFactory(Map<String, Object> params, SearchLookup lookup) {
-    return new ExpressionFilterScriptLeafFactory(expression, params, lookup);
+    return new ExpressionFilterScriptLeafFactory(bind(params), params, lookup);
+  }
+
+  /**
+   * Bind Bloom filter passed in script params because it's not in the script source compiled.
+   */
+  private Expression bind(Map<String, Object> params) {
+    if (expression instanceof BloomFilterExpression) {
+      return ((BloomFilterExpression) expression).bind(params);
+    }
+    return expression;
   }
 
 }
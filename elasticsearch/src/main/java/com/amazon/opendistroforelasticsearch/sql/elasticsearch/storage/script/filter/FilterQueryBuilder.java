@@ -20,10 +20,14 @@ import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.sc
 import static java.util.Collections.emptyMap;
 import static org.elasticsearch.script.Script.DEFAULT_SCRIPT_TYPE;
 
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.DateRangeQuery;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.ExistsQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.LuceneQuery;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.MustNotQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.RangeQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.RangeQuery.Comparison;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.TermQuery;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.TermsQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.WildcardQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.ExpressionSerializer;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
@@ -32,8 +36,13 @@ import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -60,8 +69,38 @@ public class FilterQueryBuilder extends ExpressionNodeVisitor<QueryBuilder, Obje
           .put(BuiltinFunctionName.LTE.getName(), new RangeQuery(Comparison.LTE))
           .put(BuiltinFunctionName.GTE.getName(), new RangeQuery(Comparison.GTE))
           .put(BuiltinFunctionName.LIKE.getName(), new WildcardQuery())
+          .put(BuiltinFunctionName.NOTEQUAL.getName(), new MustNotQuery(new TermQuery()))
+          .put(BuiltinFunctionName.NOT_LIKE.getName(), new MustNotQuery(new WildcardQuery()))
+          .put(BuiltinFunctionName.IS_NULL.getName(), new ExistsQuery(false))
+          .put(BuiltinFunctionName.IS_NOT_NULL.getName(), new ExistsQuery(true))
+          .put(BuiltinFunctionName.OR.getName(), new TermsQuery())
           .build();
 
+  /**
+   * Mapping from function name to lucene query builder for comparison on date part
+   * of timestamp field which takes precedence over the general mapping above.
+   */
+  private final Map<FunctionName, LuceneQuery> dateRangeQueries =
+      ImmutableMap.<FunctionName, LuceneQuery>builder()
+          .put(BuiltinFunctionName.EQUAL.getName(),
+              new DateRangeQuery(DateRangeQuery.Comparison.EQ))
+          .put(BuiltinFunctionName.LESS.getName(),
+              new DateRangeQuery(DateRangeQuery.Comparison.LT))
+          .put(BuiltinFunctionName.GREATER.getName(),
+              new DateRangeQuery(DateRangeQuery.Comparison.GT))
+          .put(BuiltinFunctionName.LTE.getName(),
+              new DateRangeQuery(DateRangeQuery.Comparison.LTE))
+          .put(BuiltinFunctionName.GTE.getName(),
+              new DateRangeQuery(DateRangeQuery.Comparison.GTE))
+          .build();
+
+  /**
+   * Predicates that cannot be translated to Lucene query and are evaluated by script
+   * per document instead. This is exposed for explaining the query.
+   */
+  @Getter
+  private final List<Expression> scriptPredicates = new ArrayList<>();
+
   /**
    * Build Elasticsearch filter query from expression.
    * @param expr  expression
@@ -73,6 +112,11 @@ public class FilterQueryBuilder extends ExpressionNodeVisitor<QueryBuilder, Obje
 
   @Override
   public QueryBuilder visitFunction(FunctionExpression func, Object context) {
+    Optional<LuceneQuery> query = findLuceneQuery(func);
+    if (query.isPresent()) {
+      return query.get().build(func);
+    }
+
     FunctionName name = func.getFunctionName();
     switch (name.getFunctionName()) {
       case "and":
@@ -81,16 +125,18 @@ public class FilterQueryBuilder extends ExpressionNodeVisitor<QueryBuilder, Obje
         return buildBoolQuery(func, context, BoolQueryBuilder::should);
       case "not":
         return buildBoolQuery(func, context, BoolQueryBuilder::mustNot);
-      default: {
-        LuceneQuery query = luceneQueries.get(name);
-        if (query != null && query.canSupport(func)) {
-          return query.build(func);
-        }
+      default:
         return buildScriptQuery(func);
-      }
     }
   }
 
+  private Optional<LuceneQuery> findLuceneQuery(FunctionExpression func) {
+    return Stream.of(dateRangeQueries, luceneQueries)
+        .map(queries -> queries.get(func.getFunctionName()))
+        .filter(query -> query != null && query.canSupport(func))
+        .findFirst();
+  }
+
   private BoolQueryBuilder buildBoolQuery(FunctionExpression node,
                                           Object context,
                                           BiFunction<BoolQueryBuilder, QueryBuilder,
@@ -103,6 +149,7 @@ public class FilterQueryBuilder extends ExpressionNodeVisitor<QueryBuilder, Obje
   }
 
   private ScriptQueryBuilder buildScriptQuery(FunctionExpression node) {
+    scriptPredicates.add(node);
     return new ScriptQueryBuilder(new Script(
         DEFAULT_SCRIPT_TYPE, EXPRESSION_LANG_NAME, serializer.serialize(node), emptyMap()));
   }
@@ -0,0 +1,94 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+
+/**
+ * Lucene query for comparison between date part of a timestamp field and a date constant,
+ * ex. DATE(birthday) &lt;= DATE('2020-01-01'). Date math rounding to day is used on the bound
+ * so that the range query has exactly the same semantics as the comparison:
+ *  1) gt and lte round up to the end of the day
+ *  2) lt and gte round down to the start of the day
+ */
+@RequiredArgsConstructor
+public class DateRangeQuery extends LuceneQuery {
+
+  public enum Comparison {
+    EQ, LT, GT, LTE, GTE
+  }
+
+  /**
+   * Date math suffix that rounds the date to day.
+   */
+  private static final String ROUND_TO_DAY = "||/d";
+
+  /**
+   * Comparison that range query build for.
+   */
+  private final Comparison comparison;
+
+  @Override
+  public boolean canSupport(FunctionExpression func) {
+    return (func.getArguments().size() == 2)
+        && isDateOfTimestampField(func.getArguments().get(0))
+        && isConstant(func.getArguments().get(1));
+  }
+
+  @Override
+  public QueryBuilder build(FunctionExpression func) {
+    FunctionExpression date = (FunctionExpression) func.getArguments().get(0);
+    ReferenceExpression ref = (ReferenceExpression) date.getArguments().get(0);
+    String value = valueOf(func.getArguments().get(1).valueOf(null)) + ROUND_TO_DAY;
+
+    RangeQueryBuilder query = QueryBuilders.rangeQuery(ref.getAttr()).format(DATE_FORMAT);
+    switch (comparison) {
+      case EQ:
+        return query.gte(value).lte(value);
+      case LT:
+        return query.lt(value);
+      case GT:
+        return query.gt(value);
+      case LTE:
+        return query.lte(value);
+      default: // GTE
+        return query.gte(value);
+    }
+  }
+
+  private boolean isDateOfTimestampField(Expression expr) {
+    if (!(expr instanceof FunctionExpression)) {
+      return false;
+    }
+
+    FunctionExpression func = (FunctionExpression) expr;
+    return func.getFunctionName().equals(BuiltinFunctionName.DATE.getName())
+        && (func.getArguments().size() == 1)
+        && (func.getArguments().get(0) instanceof ReferenceExpression)
+        && (func.getArguments().get(0).type() == TIMESTAMP);
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+
+/**
+ * Lucene query for IS NULL and IS NOT NULL predicate on a field.
+ */
+@RequiredArgsConstructor
+public class ExistsQuery extends LuceneQuery {
+
+  /**
+   * Match document with the field present (IS NOT NULL) or absent (IS NULL).
+   */
+  private final boolean exists;
+
+  @Override
+  public boolean canSupport(FunctionExpression func) {
+    return (func.getArguments().size() == 1)
+        && (func.getArguments().get(0) instanceof ReferenceExpression);
+  }
+
+  @Override
+  public QueryBuilder build(FunctionExpression func) {
+    ReferenceExpression ref = (ReferenceExpression) func.getArguments().get(0);
+    QueryBuilder query = QueryBuilders.existsQuery(ref.getAttr());
+    return exists ? query : QueryBuilders.boolQuery().mustNot(query);
+  }
+
+}
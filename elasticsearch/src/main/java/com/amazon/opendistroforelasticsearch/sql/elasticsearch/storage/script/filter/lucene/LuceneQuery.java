@@ -16,13 +16,20 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DATE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
 import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
 import org.elasticsearch.index.query.QueryBuilder;
 
 /**
@@ -30,11 +37,23 @@ import org.elasticsearch.index.query.QueryBuilder;
  */
 public abstract class LuceneQuery {
 
+  /**
+   * Date format of date and timestamp value in DSL which accepts ISO date with optional time.
+   */
+  protected static final String DATE_FORMAT = "strict_date_optional_time";
+
+  /**
+   * Functions that construct date or timestamp constant from literal.
+   */
+  private static final Set<FunctionName> TEMPORAL_CONSTRUCTORS = ImmutableSet.of(
+      BuiltinFunctionName.DATE.getName(),
+      BuiltinFunctionName.TIMESTAMP.getName());
+
   /**
    * Check if function expression supported by current Lucene query.
    * Default behavior is that report supported if:
    *  1. Left is a reference
-   *  2. Right side is a literal
+   *  2. Right side is a literal or a date/timestamp constructed from literal
    *
    * @param func    function
    * @return        return true if supported, otherwise false.
@@ -42,7 +61,7 @@ public abstract class LuceneQuery {
   public boolean canSupport(FunctionExpression func) {
     return (func.getArguments().size() == 2)
         && (func.getArguments().get(0) instanceof ReferenceExpression)
-        && (func.getArguments().get(1) instanceof LiteralExpression);
+        && isConstant(func.getArguments().get(1));
   }
 
   /**
@@ -53,7 +72,7 @@ public abstract class LuceneQuery {
    */
   public QueryBuilder build(FunctionExpression func) {
     ReferenceExpression ref = (ReferenceExpression) func.getArguments().get(0);
-    LiteralExpression literal = (LiteralExpression) func.getArguments().get(1);
+    Expression literal = func.getArguments().get(1);
     return doBuild(ref.getAttr(), ref.type(), literal.valueOf(null));
   }
 
@@ -86,4 +105,49 @@ public abstract class LuceneQuery {
     return fieldName;
   }
 
+  /**
+   * Check if the expression is a literal or a date/timestamp constructor applied on literal.
+   *
+   * @param expr    expression
+   * @return        true if the expression can be evaluated without any document
+   */
+  protected boolean isConstant(Expression expr) {
+    if (expr instanceof LiteralExpression) {
+      return true;
+    }
+    if (expr instanceof FunctionExpression) {
+      FunctionExpression func = (FunctionExpression) expr;
+      return TEMPORAL_CONSTRUCTORS.contains(func.getFunctionName())
+          && func.getArguments().stream().allMatch(arg -> arg instanceof LiteralExpression);
+    }
+    return false;
+  }
+
+  /**
+   * Check if the literal is a date or timestamp value which requires explicit date format in DSL.
+   *
+   * @param literal   literal value
+   * @return          true if date or timestamp
+   */
+  protected boolean isTemporal(ExprValue literal) {
+    return literal.type() == DATE || literal.type() == TIMESTAMP;
+  }
+
+  /**
+   * Convert literal to the value used in DSL. Date and timestamp are formatted in ISO format
+   * as {@link #DATE_FORMAT} because their string value is not parsable by Elasticsearch.
+   *
+   * @param literal   literal value
+   * @return          value in DSL
+   */
+  protected Object valueOf(ExprValue literal) {
+    if (literal.type() == TIMESTAMP) {
+      return literal.timestampValue().toString();
+    }
+    if (literal.type() == DATE) {
+      return literal.dateValue().toString();
+    }
+    return literal.value();
+  }
+
 }
@@ -0,0 +1,48 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+
+/**
+ * Lucene query for negated comparison, such as != and NOT LIKE, that negates the query
+ * built by its positive counterpart.
+ */
+@RequiredArgsConstructor
+public class MustNotQuery extends LuceneQuery {
+
+  /**
+   * Lucene query for the positive comparison.
+   */
+  private final LuceneQuery query;
+
+  /**
+   * Null or missing field evaluates to null rather than true for negated comparison,
+   * so exists query is required besides must not clause.
+   */
+  @Override
+  protected QueryBuilder doBuild(String fieldName, ExprType fieldType, ExprValue literal) {
+    return QueryBuilders.boolQuery()
+        .filter(QueryBuilders.existsQuery(fieldName))
+        .mustNot(query.doBuild(fieldName, fieldType, literal));
+  }
+
+}
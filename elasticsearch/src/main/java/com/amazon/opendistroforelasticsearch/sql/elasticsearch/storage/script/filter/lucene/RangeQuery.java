@@ -40,9 +40,12 @@ public class RangeQuery extends LuceneQuery {
 
   @Override
   protected QueryBuilder doBuild(String fieldName, ExprType fieldType, ExprValue literal) {
-    Object value = literal.value();
+    Object value = valueOf(literal);
 
     RangeQueryBuilder query = QueryBuilders.rangeQuery(fieldName);
+    if (isTemporal(literal)) {
+      query.format(DATE_FORMAT);
+    }
     switch (comparison) {
       case LT:
         return query.lt(value);
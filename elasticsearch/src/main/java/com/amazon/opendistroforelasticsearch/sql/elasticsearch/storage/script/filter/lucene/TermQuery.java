@@ -28,6 +28,11 @@ public class TermQuery extends LuceneQuery {
 
   @Override
   protected QueryBuilder doBuild(String fieldName, ExprType fieldType, ExprValue literal) {
+    if (isTemporal(literal)) {
+      // Term query has no format option so a date is matched by a single point range instead
+      Object value = valueOf(literal);
+      return QueryBuilders.rangeQuery(fieldName).gte(value).lte(value).format(DATE_FORMAT);
+    }
     fieldName = convertTextToKeyword(fieldName, fieldType);
     return QueryBuilders.termQuery(fieldName, literal.value());
   }
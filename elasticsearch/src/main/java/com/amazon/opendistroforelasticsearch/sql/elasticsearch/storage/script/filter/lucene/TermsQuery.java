@@ -0,0 +1,94 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+
+/**
+ * Lucene query for disjunction of equality on the same field, ex. a = 1 OR a = 2 OR a = 3,
+ * which is what IN list is made of.
+ */
+public class TermsQuery extends LuceneQuery {
+
+  /**
+   * Report supported if all operands of the (nested) OR are equality between
+   * the same field reference and a non-temporal literal.
+   */
+  @Override
+  public boolean canSupport(FunctionExpression func) {
+    ReferenceExpression field = null;
+    for (FunctionExpression equality : flatten(func)) {
+      if (equality == null || !isEqualityOnLiteral(equality)) {
+        return false;
+      }
+      ReferenceExpression ref = (ReferenceExpression) equality.getArguments().get(0);
+      if (field == null) {
+        field = ref;
+      } else if (!field.equals(ref)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public QueryBuilder build(FunctionExpression func) {
+    List<FunctionExpression> equalities = flatten(func);
+    ReferenceExpression ref = (ReferenceExpression) equalities.get(0).getArguments().get(0);
+    List<Object> values = equalities.stream()
+        .map(equality -> equality.getArguments().get(1).valueOf(null).value())
+        .collect(Collectors.toList());
+    return QueryBuilders.termsQuery(convertTextToKeyword(ref.getAttr(), ref.type()), values);
+  }
+
+  private boolean isEqualityOnLiteral(FunctionExpression func) {
+    return func.getFunctionName().equals(BuiltinFunctionName.EQUAL.getName())
+        && (func.getArguments().get(0) instanceof ReferenceExpression)
+        && (func.getArguments().get(1) instanceof LiteralExpression)
+        && !isTemporal(func.getArguments().get(1).valueOf(null));
+  }
+
+  /**
+   * Flatten nested OR into its operands. Null is returned in place of non-function operand.
+   */
+  private List<FunctionExpression> flatten(FunctionExpression func) {
+    List<FunctionExpression> operands = new ArrayList<>();
+    if (!func.getFunctionName().equals(BuiltinFunctionName.OR.getName())) {
+      operands.add(func);
+      return operands;
+    }
+
+    for (Expression arg : func.getArguments()) {
+      if (arg instanceof FunctionExpression) {
+        operands.addAll(flatten((FunctionExpression) arg));
+      } else {
+        operands.add(null);
+      }
+    }
+    return operands;
+  }
+
+}
@@ -25,10 +25,12 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchScrollRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
 import com.google.common.base.Charsets;
@@ -36,6 +38,7 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.io.Resources;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -54,6 +57,7 @@ import org.elasticsearch.common.xcontent.DeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
@@ -73,6 +77,8 @@ class ElasticsearchNodeClientTest {
   @Mock(answer = RETURNS_DEEP_STUBS)
   private NodeClient nodeClient;
 
+  private final IndexMappingCache mappingCache = new IndexMappingCache();
+
   @Test
   public void getIndexMappings() throws IOException {
     URL url = Resources.getResource(TEST_MAPPING_FILE);
@@ -118,11 +124,32 @@ class ElasticsearchNodeClientTest {
     assertEquals(0, indexMapping.size());
   }
 
+  @Test
+  public void getIndexMappingsFromCache() throws IOException {
+    URL url = Resources.getResource(TEST_MAPPING_FILE);
+    String mappings = Resources.toString(url, Charsets.UTF_8);
+    String indexName = "test";
+    ClusterService clusterService = mockClusterService(indexName, mappings);
+    Metadata metadata = clusterService.state().metadata();
+    IndexMetadata indexMetadata = mock(IndexMetadata.class);
+    when(indexMetadata.getIndex()).thenReturn(new Index(indexName, "uuid"));
+    when(indexMetadata.getIndexUUID()).thenReturn("uuid");
+    when(indexMetadata.getMappingVersion()).thenReturn(1L);
+    when(metadata.index(indexName)).thenReturn(indexMetadata);
+
+    ElasticsearchNodeClient client =
+        new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
+    Map<String, IndexMapping> indexMappings = client.getIndexMappings(indexName);
+    assertEquals(indexMappings, client.getIndexMappings(indexName));
+    verify(metadata, times(1)).findMappings(any(), any(), any());
+  }
+
   @Test
   public void getIndexMappingsWithIOException() {
     String indexName = "test";
     ClusterService clusterService = mockClusterService(indexName, new IOException());
-    ElasticsearchNodeClient client = new ElasticsearchNodeClient(clusterService, nodeClient);
+    ElasticsearchNodeClient client =
+        new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
 
     assertThrows(IllegalStateException.class, () -> client.getIndexMappings(indexName));
   }
@@ -130,11 +157,21 @@ class ElasticsearchNodeClientTest {
   @Test
   public void getIndexMappingsWithNonExistIndex() {
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mockClusterService("test"), nodeClient);
+        new ElasticsearchNodeClient(mockClusterService("test"), nodeClient, mappingCache);
 
     assertThrows(IndexNotFoundException.class, () -> client.getIndexMappings("non_exist_index"));
   }
 
+  @Test
+  public void getMetadataVersion() {
+    ClusterService clusterService = mock(ClusterService.class, RETURNS_DEEP_STUBS);
+    when(clusterService.state().metadata().version()).thenReturn(3L);
+    ElasticsearchNodeClient client =
+        new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
+
+    assertEquals(3L, client.getMetadataVersion());
+  }
+
   /** Jacoco enforce this constant lambda be tested. */
   @Test
   public void testAllFieldsPredicate() {
@@ -144,7 +181,7 @@ class ElasticsearchNodeClientTest {
   @Test
   public void search() {
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
 
     // Mock first scroll request
     SearchResponse searchResponse = mock(SearchResponse.class);
@@ -193,7 +230,7 @@ class ElasticsearchNodeClientTest {
         .schedule(any(), any(), any());
 
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
     AtomicBoolean isRun = new AtomicBoolean(false);
     client.schedule(() -> isRun.set(true));
     assertTrue(isRun.get());
@@ -207,7 +244,7 @@ class ElasticsearchNodeClientTest {
     when(requestBuilder.get()).thenReturn(null);
 
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
     ElasticsearchScrollRequest request = new ElasticsearchScrollRequest("test");
     request.setScrollId("scroll123");
     client.cleanup(request);
@@ -222,7 +259,7 @@ class ElasticsearchNodeClientTest {
   @Test
   void cleanupWithoutScrollId() {
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
 
     ElasticsearchScrollRequest request = new ElasticsearchScrollRequest("test");
     client.cleanup(request);
@@ -231,7 +268,7 @@ class ElasticsearchNodeClientTest {
 
   private ElasticsearchNodeClient mockClient(String indexName, String mappings) {
     ClusterService clusterService = mockClusterService(indexName, mappings);
-    return new ElasticsearchNodeClient(clusterService, nodeClient);
+    return new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
   }
 
   /** Mock getAliasAndIndexLookup() only for index name resolve test. */
@@ -268,8 +305,8 @@ class ElasticsearchNodeClientTest {
 
       // IndexNameExpressionResolver use this method to check if index exists. If not,
       // IndexNotFoundException is thrown.
-      when(mockMetaData.getIndicesLookup())
-              .thenReturn(ImmutableSortedMap.of(indexName, mock(IndexAbstraction.class)));
+      IndexAbstraction index = indexAbstraction(indexName);
+      when(mockMetaData.getIndicesLookup()).thenReturn(ImmutableSortedMap.of(indexName, index));
     } catch (IOException e) {
       throw new IllegalStateException("Failed to mock cluster service", e);
     }
@@ -285,14 +322,26 @@ class ElasticsearchNodeClientTest {
     when(mockState.metadata()).thenReturn(mockMetaData);
     try {
       when(mockMetaData.findMappings(any(), any(), any())).thenThrow(t);
-      when(mockMetaData.getIndicesLookup())
-              .thenReturn(ImmutableSortedMap.of(indexName, mock(IndexAbstraction.class)));
+      IndexAbstraction index = indexAbstraction(indexName);
+      when(mockMetaData.getIndicesLookup()).thenReturn(ImmutableSortedMap.of(indexName, index));
     } catch (IOException e) {
       throw new IllegalStateException("Failed to mock cluster service", e);
     }
     return mockService;
   }
 
+  /**
+   * Open index which IndexNameExpressionResolver resolves the index name to.
+   */
+  private IndexAbstraction indexAbstraction(String indexName) {
+    IndexMetadata indexMetadata = mock(IndexMetadata.class);
+    when(indexMetadata.getIndex()).thenReturn(new Index(indexName, "uuid"));
+    when(indexMetadata.getState()).thenReturn(IndexMetadata.State.OPEN);
+    IndexAbstraction index = mock(IndexAbstraction.class);
+    when(index.getIndices()).thenReturn(Collections.singletonList(indexMetadata));
+    return index;
+  }
+
   private XContentParser createParser(String mappings) throws IOException {
     return XContentType.JSON
         .xContent()
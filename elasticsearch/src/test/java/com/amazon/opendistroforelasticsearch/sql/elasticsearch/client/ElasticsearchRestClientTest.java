@@ -117,6 +117,11 @@ class ElasticsearchRestClientTest {
     assertThrows(IllegalStateException.class, () -> client.getIndexMappings("test"));
   }
 
+  @Test
+  void getMetadataVersion() {
+    assertEquals(-1L, client.getMetadataVersion());
+  }
+
   @Test
   void search() throws IOException {
     // Mock first scroll request
@@ -43,6 +43,8 @@ import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggregator;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalJoin.JoinType;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.HashJoinOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
 import com.google.common.collect.ImmutableMap;
@@ -152,6 +154,34 @@ class ElasticsearchExecutionProtectorTest {
                 include)));
   }
 
+  @Test
+  public void testProtectHashJoin() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    List<Expression> leftKeys = Arrays.asList(ref("dept", INTEGER));
+    List<Expression> rightKeys = Arrays.asList(ref("dept_id", INTEGER));
+
+    assertEquals(
+        new HashJoinOperator(
+            resourceMonitor(
+                new ElasticsearchIndexScan(client, settings, "employees", exprValueFactory)),
+            resourceMonitor(
+                new ElasticsearchIndexScan(client, settings, "departments", exprValueFactory)),
+            JoinType.INNER,
+            leftKeys,
+            rightKeys,
+            "d",
+            resourceMonitor),
+        executionProtector.protect(
+            PhysicalPlanDSL.hashJoin(
+                new ElasticsearchIndexScan(client, settings, "employees", exprValueFactory),
+                new ElasticsearchIndexScan(client, settings, "departments", exprValueFactory),
+                JoinType.INNER,
+                leftKeys,
+                rightKeys,
+                "d")));
+  }
+
   @Test
   public void testWithoutProtection() {
     Expression filterExpr = literal(ExprBooleanValue.of(true));
@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.index.Index;
+import org.junit.jupiter.api.Test;
+
+class IndexMappingCacheTest {
+
+  private final IndexMappingCache cache = new IndexMappingCache();
+
+  private final IndexMapping mapping = new IndexMapping(ImmutableMap.of("name", "text"));
+
+  @Test
+  public void resolveIndicesOncePerClusterStateVersion() {
+    AtomicInteger resolveCount = new AtomicInteger();
+    ClusterState state = mock(ClusterState.class);
+    when(state.version()).thenReturn(1L, 1L, 2L, 2L);
+
+    String[] indices = {"test1", "test2"};
+    for (int i = 0; i < 3; i++) {
+      assertArrayEquals(indices, cache.resolveIndices(state, "test*", curState -> {
+        resolveCount.incrementAndGet();
+        return indices;
+      }));
+    }
+    assertEquals(2, resolveCount.get());
+  }
+
+  @Test
+  public void getCachedMappingIfMappingVersionNotChanged() {
+    cache.put(indexMetadata("test", "uuid", 1L), mapping);
+    assertSame(mapping, cache.get(indexMetadata("test", "uuid", 1L)));
+    assertNull(cache.get(indexMetadata("test", "uuid", 2L)));
+    assertNull(cache.get(indexMetadata("test", "uuid2", 1L)));
+    assertNull(cache.get(indexMetadata("test2", "uuid", 1L)));
+  }
+
+  @Test
+  public void skipIndexWithoutMetadata() {
+    cache.put(null, mapping);
+    assertEquals(0, cache.size());
+    assertNull(cache.get(null));
+  }
+
+  @Test
+  public void evictChangedOrDeletedIndexOnly() {
+    cache.put(indexMetadata("unchanged", "uuid1", 1L), mapping);
+    cache.put(indexMetadata("changed", "uuid2", 1L), mapping);
+    cache.put(indexMetadata("deleted", "uuid3", 1L), mapping);
+
+    Metadata metadata = mock(Metadata.class);
+    IndexMetadata unchanged = indexMetadata("unchanged", "uuid1", 1L);
+    IndexMetadata changed = indexMetadata("changed", "uuid2", 2L);
+    when(metadata.index("unchanged")).thenReturn(unchanged);
+    when(metadata.index("changed")).thenReturn(changed);
+    cache.clusterChanged(clusterChangedEvent(true, metadata));
+
+    assertEquals(1, cache.size());
+    assertSame(mapping, cache.get(unchanged));
+  }
+
+  @Test
+  public void ignoreClusterChangeWithoutMetadataChange() {
+    cache.put(indexMetadata("test", "uuid", 1L), mapping);
+    cache.clusterChanged(clusterChangedEvent(false, null));
+    assertEquals(1, cache.size());
+  }
+
+  private IndexMetadata indexMetadata(String indexName, String uuid, long mappingVersion) {
+    IndexMetadata metadata = mock(IndexMetadata.class);
+    when(metadata.getIndex()).thenReturn(new Index(indexName, uuid));
+    when(metadata.getIndexUUID()).thenReturn(uuid);
+    when(metadata.getMappingVersion()).thenReturn(mappingVersion);
+    return metadata;
+  }
+
+  private ClusterChangedEvent clusterChangedEvent(boolean metadataChanged, Metadata metadata) {
+    ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+    when(event.metadataChanged()).thenReturn(metadataChanged);
+    if (metadataChanged) {
+      ClusterState state = mock(ClusterState.class);
+      when(state.metadata()).thenReturn(metadata);
+      when(event.state()).thenReturn(state);
+    }
+    return event;
+  }
+
+}
@@ -35,6 +35,7 @@ import static org.hamcrest.Matchers.aMapWithSize;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -63,6 +64,7 @@ import com.amazon.opendistroforelasticsearch.sql.planner.physical.ProjectOperato
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -122,6 +124,9 @@ class ElasticsearchIndexTest {
             hasEntry("family", (ExprType) ExprCoreType.ARRAY),
             hasEntry("employer", (ExprType) ExprCoreType.STRUCT),
             hasEntry("birthday", (ExprType) ExprCoreType.TIMESTAMP)));
+
+    // Field types are populated only once for the same table
+    assertSame(fieldTypes, index.getFieldTypes());
   }
 
   @Test
@@ -242,4 +247,43 @@ class ElasticsearchIndexTest {
     assertTrue(plan instanceof FilterOperator);
   }
 
+  @Test
+  void shouldPushDownProjectsCloseToRelation() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    String indexName = "test";
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        project(
+            relation(indexName),
+            named("name", ref("name", STRING)),
+            named("age", ref("age", INTEGER))));
+
+    ElasticsearchIndexScan indexScan =
+        new ElasticsearchIndexScan(client, settings, indexName, exprValueFactory);
+    indexScan.pushDownProjects(new LinkedHashSet<>(Arrays.asList("name", "age")));
+    assertEquals(
+        PhysicalPlanDSL.project(
+            indexScan,
+            named("name", ref("name", STRING)),
+            named("age", ref("age", INTEGER))),
+        plan);
+  }
+
+  @Test
+  void shouldNotPushDownProjectsOfNonReference() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    String indexName = "test";
+    NamedExpression abs = named("abs(age)", dsl.abs(ref("age", INTEGER)));
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(project(relation(indexName), abs));
+
+    assertEquals(
+        PhysicalPlanDSL.project(
+            new ElasticsearchIndexScan(client, settings, indexName, exprValueFactory),
+            abs),
+        plan);
+  }
+
 }
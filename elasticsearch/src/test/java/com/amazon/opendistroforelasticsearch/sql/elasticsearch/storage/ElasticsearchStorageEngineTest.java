@@ -16,7 +16,9 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
@@ -40,4 +42,11 @@ class ElasticsearchStorageEngineTest {
     Table table = engine.getTable("test");
     assertNotNull(table);
   }
+
+  @Test
+  public void getMetadataVersion() {
+    when(client.getMetadataVersion()).thenReturn(3L);
+    ElasticsearchStorageEngine engine = new ElasticsearchStorageEngine(client, settings);
+    assertEquals(3L, engine.getMetadataVersion());
+  }
 }
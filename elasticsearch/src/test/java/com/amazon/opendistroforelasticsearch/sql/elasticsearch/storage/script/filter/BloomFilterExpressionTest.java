@@ -0,0 +1,165 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.DefaultExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class BloomFilterExpressionTest {
+
+  /**
+   * Tiny false positive probability to make sure mismatch assertion is stable.
+   */
+  private static final double FPP = 0.000001;
+
+  private final ReferenceExpression id = ref("id", LONG);
+
+  private final ReferenceExpression name = ref("name", STRING);
+
+  @Test
+  void should_match_keys_in_bloom_filter() {
+    BloomFilterExpression expr =
+        new BloomFilterExpression(name, Arrays.asList("Dell", "Hank"), FPP);
+    assertTrue(test(expr, name, stringValue("Dell")));
+    assertTrue(test(expr, name, stringValue("Hank")));
+    assertFalse(test(expr, name, stringValue("dell")));
+  }
+
+  @Test
+  void should_match_number_regardless_of_its_type() {
+    BloomFilterExpression expr = new BloomFilterExpression(id, Arrays.asList(1, 2L, 3.0, 4.5), FPP);
+    assertTrue(test(expr, id, longValue(1L)));
+    assertTrue(test(expr, id, integerValue(2)));
+    assertTrue(test(expr, id, longValue(3L)));
+    assertTrue(test(expr, id, doubleValue(4.5)));
+    assertFalse(test(expr, id, doubleValue(Double.POSITIVE_INFINITY)));
+  }
+
+  @Test
+  void should_not_match_null_or_missing() {
+    BloomFilterExpression expr = new BloomFilterExpression(id, Collections.emptyList(), FPP);
+    assertFalse(test(expr, id, LITERAL_NULL));
+    assertFalse(test(expr, id, LITERAL_MISSING));
+  }
+
+  @Test
+  void should_be_serializable() {
+    DefaultExpressionSerializer serializer = new DefaultExpressionSerializer();
+    BloomFilterExpression expr =
+        new BloomFilterExpression(name, Arrays.asList("Dell", "Hank"), FPP);
+    Expression actual = serializer.deserialize(serializer.serialize(expr));
+
+    assertEquals(expr, actual);
+    assertTrue(test(actual, name, stringValue("Hank")));
+  }
+
+  @Test
+  void should_bind_bloom_filter_from_script_params() {
+    BloomFilterExpression expr =
+        new BloomFilterExpression(name, Arrays.asList("Dell", "Hank"), FPP);
+    BloomFilterExpression actual = expr.withoutBloomFilter().bind(expr.toParams());
+
+    assertEquals(expr, actual);
+    assertTrue(test(actual, name, stringValue("Hank")));
+    assertSame(actual, actual.bind(Collections.emptyMap()));
+  }
+
+  @Test
+  void should_serialize_same_script_source_without_bloom_filter() {
+    DefaultExpressionSerializer serializer = new DefaultExpressionSerializer();
+    BloomFilterExpression expr1 = new BloomFilterExpression(name, Arrays.asList("Dell"), FPP);
+    BloomFilterExpression expr2 = new BloomFilterExpression(name, Arrays.asList("Hank"), FPP);
+
+    assertEquals(serializer.serialize(expr1.withoutBloomFilter()),
+        serializer.serialize(expr2.withoutBloomFilter()));
+    assertNotEquals(expr1.toParams(), expr2.toParams());
+  }
+
+  @Test
+  void should_fail_if_bloom_filter_absent_or_invalid_in_script_params() {
+    BloomFilterExpression expr = new BloomFilterExpression(name);
+    assertThrows(IllegalArgumentException.class, () -> expr.bind(Collections.emptyMap()));
+    assertThrows(IllegalArgumentException.class,
+        () -> expr.bind(ImmutableMap.of(BloomFilterExpression.BLOOM_FILTER_PARAM, "hello world")));
+    assertThrows(IllegalArgumentException.class,
+        () -> expr.bind(ImmutableMap.of(BloomFilterExpression.BLOOM_FILTER_PARAM, "aGVsbG8=")));
+  }
+
+  @Test
+  void should_fail_to_evaluate_if_bloom_filter_not_bound() {
+    BloomFilterExpression expr = new BloomFilterExpression(name);
+    assertThrows(IllegalStateException.class, () -> test(expr, name, stringValue("Hank")));
+  }
+
+  @Test
+  void should_fail_if_bloom_filter_cannot_be_written() {
+    BloomFilter<CharSequence> bloomFilter =
+        BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), 1);
+    OutputStream output = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("closed");
+      }
+    };
+    assertThrows(IllegalStateException.class,
+        () -> BloomFilterExpression.writeTo(bloomFilter, output));
+  }
+
+  @Test
+  void should_return_boolean_type_and_description() {
+    BloomFilterExpression expr = new BloomFilterExpression(name, Arrays.asList("Dell"), FPP);
+    assertEquals(BOOLEAN, expr.type());
+    assertEquals("bloom_filter(name)", expr.toString());
+  }
+
+  private boolean test(Expression expr, ReferenceExpression field, ExprValue value) {
+    return expr.valueOf(ImmutableMap.<Expression, ExprValue>of(field, value)::get).booleanValue();
+  }
+
+}
@@ -16,6 +16,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
@@ -23,6 +24,7 @@ import static org.mockito.Mockito.when;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import org.apache.lucene.index.LeafReaderContext;
@@ -73,4 +75,22 @@ class ExpressionFilterScriptFactoryTest {
     );
   }
 
+  @Test
+  void should_bind_bloom_filter_in_script_params() throws IOException {
+    when(searchLookup.getLeafSearchLookup(leafReaderContext)).thenReturn(leafSearchLookup);
+    BloomFilterExpression bloomFilter =
+        new BloomFilterExpression(DSL.ref("name", STRING), Arrays.asList("Hank"), 0.01);
+    Map<String, Object> params = bloomFilter.toParams();
+    FilterScript.Factory factory =
+        new ExpressionFilterScriptFactory(bloomFilter.withoutBloomFilter());
+
+    FilterScript actualFilterScript =
+        factory.newFactory(params, searchLookup).newInstance(leafReaderContext);
+
+    assertEquals(
+        new ExpressionFilterScript(bloomFilter, searchLookup, leafReaderContext, params),
+        actualFilterScript
+    );
+  }
+
 }
\ No newline at end of file
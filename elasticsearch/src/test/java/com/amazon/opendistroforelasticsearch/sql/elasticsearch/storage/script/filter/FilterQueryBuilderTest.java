@@ -18,11 +18,13 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.f
 
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
 import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
@@ -33,6 +35,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
@@ -256,6 +259,267 @@ class FilterQueryBuilderTest {
                 ref("name", ES_TEXT_KEYWORD), literal("John%"))));
   }
 
+  @Test
+  void should_build_exists_query_for_is_not_null_expression() {
+    assertEquals(
+        "{\n"
+            + "  \"exists\" : {\n"
+            + "    \"field\" : \"age\",\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.isnotnull(ref("age", INTEGER))));
+  }
+
+  @Test
+  void should_build_must_not_exists_query_for_is_null_expression() {
+    assertEquals(
+        "{\n"
+            + "  \"bool\" : {\n"
+            + "    \"must_not\" : [\n"
+            + "      {\n"
+            + "        \"exists\" : {\n"
+            + "          \"field\" : \"age\",\n"
+            + "          \"boost\" : 1.0\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"adjust_pure_negative\" : true,\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.isnull(ref("age", INTEGER))));
+  }
+
+  @Test
+  void should_build_script_query_for_is_null_on_function_expression() {
+    doAnswer(invocation -> {
+      Expression expr = invocation.getArgument(0);
+      return expr.toString();
+    }).when(serializer).serialize(any());
+
+    assertTrue(
+        buildQuery(
+            dsl.isnull(dsl.abs(ref("age", INTEGER)))).contains("\"script\""));
+  }
+
+  @Test
+  void should_build_must_not_query_for_not_equal_expression() {
+    assertEquals(
+        "{\n"
+            + "  \"bool\" : {\n"
+            + "    \"filter\" : [\n"
+            + "      {\n"
+            + "        \"exists\" : {\n"
+            + "          \"field\" : \"age\",\n"
+            + "          \"boost\" : 1.0\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"must_not\" : [\n"
+            + "      {\n"
+            + "        \"term\" : {\n"
+            + "          \"age\" : {\n"
+            + "            \"value\" : 30,\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"adjust_pure_negative\" : true,\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.notequal(
+                ref("age", INTEGER), literal(30))));
+  }
+
+  @Test
+  void should_build_must_not_query_for_not_like_expression() {
+    assertEquals(
+        "{\n"
+            + "  \"bool\" : {\n"
+            + "    \"filter\" : [\n"
+            + "      {\n"
+            + "        \"exists\" : {\n"
+            + "          \"field\" : \"name\",\n"
+            + "          \"boost\" : 1.0\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"must_not\" : [\n"
+            + "      {\n"
+            + "        \"wildcard\" : {\n"
+            + "          \"name\" : {\n"
+            + "            \"wildcard\" : \"John*\",\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"adjust_pure_negative\" : true,\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.notLike(
+                ref("name", STRING), literal("John%"))));
+  }
+
+  @Test
+  void should_build_terms_query_for_disjunction_of_equality_on_same_field() {
+    assertEquals(
+        "{\n"
+            + "  \"terms\" : {\n"
+            + "    \"age\" : [\n"
+            + "      30,\n"
+            + "      40,\n"
+            + "      50\n"
+            + "    ],\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.or(
+                dsl.or(
+                    dsl.equal(ref("age", INTEGER), literal(30)),
+                    dsl.equal(ref("age", INTEGER), literal(40))),
+                dsl.equal(ref("age", INTEGER), literal(50)))));
+  }
+
+  @Test
+  void should_use_keyword_for_multi_field_in_terms_query() {
+    assertEquals(
+        "{\n"
+            + "  \"terms\" : {\n"
+            + "    \"name.keyword\" : [\n"
+            + "      \"John\",\n"
+            + "      \"Jane\"\n"
+            + "    ],\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.or(
+                dsl.equal(ref("name", ES_TEXT_KEYWORD), literal("John")),
+                dsl.equal(ref("name", ES_TEXT_KEYWORD), literal("Jane")))));
+  }
+
+  @Test
+  void should_build_bool_query_for_disjunction_not_all_equality_on_literal() {
+    doAnswer(invocation -> {
+      Expression expr = invocation.getArgument(0);
+      return expr.toString();
+    }).when(serializer).serialize(any());
+
+    Expression[] exprs = {
+        dsl.or(
+            dsl.equal(ref("age", INTEGER), literal(30)),
+            dsl.greater(ref("age", INTEGER), literal(40))),
+        dsl.or(
+            dsl.equal(ref("age", INTEGER), literal(30)),
+            dsl.equal(ref("age", INTEGER), ref("age2", INTEGER))),
+        dsl.or(
+            dsl.equal(ref("birthday", TIMESTAMP),
+                dsl.timestamp(literal("2020-01-01 00:00:00"))),
+            dsl.equal(ref("birthday", TIMESTAMP),
+                dsl.timestamp(literal("2020-01-02 00:00:00"))))
+    };
+
+    for (Expression expr : exprs) {
+      assertTrue(buildQuery(expr).startsWith("{\n  \"bool\" : {\n    \"should\""));
+    }
+  }
+
+  @Test
+  void should_build_range_query_for_comparison_on_date_of_timestamp_field() {
+    Expression[] params = {
+        dsl.date(ref("birthday", TIMESTAMP)), dsl.date(literal("2020-01-01"))};
+    String date = "\"2020-01-01||/d\"";
+    Map<Expression, Object[]> ranges = ImmutableMap.<Expression, Object[]>builder()
+        .put(dsl.equal(params), new Object[]{date, date, true, true})
+        .put(dsl.less(params), new Object[]{null, date, true, false})
+        .put(dsl.greater(params), new Object[]{date, null, false, true})
+        .put(dsl.lte(params), new Object[]{null, date, true, true})
+        .put(dsl.gte(params), new Object[]{date, null, true, true})
+        .build();
+
+    ranges.forEach((expr, range) ->
+        assertEquals(
+            "{\n"
+                + "  \"range\" : {\n"
+                + "    \"birthday\" : {\n"
+                + "      \"from\" : " + range[0] + ",\n"
+                + "      \"to\" : " + range[1] + ",\n"
+                + "      \"include_lower\" : " + range[2] + ",\n"
+                + "      \"include_upper\" : " + range[3] + ",\n"
+                + "      \"format\" : \"strict_date_optional_time\",\n"
+                + "      \"boost\" : 1.0\n"
+                + "    }\n"
+                + "  }\n"
+                + "}",
+            buildQuery(expr)));
+  }
+
+  @Test
+  void should_build_range_query_with_date_format_for_timestamp_literal() {
+    String timestamp = "\"2020-01-01T10:20:30Z\"";
+    Expression[] params = {
+        ref("birthday", TIMESTAMP), dsl.timestamp(literal("2020-01-01 10:20:30"))};
+    Map<Expression, Object[]> ranges = ImmutableMap.of(
+        dsl.equal(params), new Object[]{timestamp, timestamp, true, true},
+        dsl.greater(params), new Object[]{timestamp, null, false, true});
+
+    ranges.forEach((expr, range) ->
+        assertEquals(
+            "{\n"
+                + "  \"range\" : {\n"
+                + "    \"birthday\" : {\n"
+                + "      \"from\" : " + range[0] + ",\n"
+                + "      \"to\" : " + range[1] + ",\n"
+                + "      \"include_lower\" : " + range[2] + ",\n"
+                + "      \"include_upper\" : " + range[3] + ",\n"
+                + "      \"format\" : \"strict_date_optional_time\",\n"
+                + "      \"boost\" : 1.0\n"
+                + "    }\n"
+                + "  }\n"
+                + "}",
+            buildQuery(expr)));
+  }
+
+  @Test
+  void should_build_script_query_for_comparison_with_non_constant_timestamp() {
+    doAnswer(invocation -> {
+      Expression expr = invocation.getArgument(0);
+      return expr.toString();
+    }).when(serializer).serialize(any());
+
+    assertTrue(
+        buildQuery(
+            dsl.equal(
+                ref("birthday", TIMESTAMP),
+                dsl.timestamp(ref("updated", TIMESTAMP)))).contains("\"script\""));
+  }
+
+  @Test
+  void should_collect_predicates_evaluated_by_script() {
+    doAnswer(invocation -> {
+      Expression expr = invocation.getArgument(0);
+      return expr.toString();
+    }).when(serializer).serialize(any());
+
+    Expression scriptPredicate = dsl.equal(dsl.abs(ref("age", INTEGER)), literal(30));
+    buildQuery(
+        dsl.and(
+            dsl.equal(ref("name", STRING), literal("John")),
+            scriptPredicate));
+    assertEquals(Collections.singletonList(scriptPredicate),
+        filterQueryBuilder.getScriptPredicates());
+  }
+
   private String buildQuery(Expression expr) {
     return filterQueryBuilder.build(expr).toString();
   }
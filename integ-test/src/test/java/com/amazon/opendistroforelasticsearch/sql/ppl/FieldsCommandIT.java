@@ -67,39 +67,11 @@ public class FieldsCommandIT extends PPLIntegTestCase {
             executeQueryToString(
                     String.format("source=%s | fields birthdate", TEST_INDEX_BANK));
     assertEquals(
-        "{\n"
-            + "  \"schema\": [\n"
-            + "    {\n"
-            + "      \"name\": \"birthdate\",\n"
-            + "      \"type\": \"timestamp\"\n"
-            + "    }\n"
-            + "  ],\n"
-            + "  \"datarows\": [\n"
-            + "    [\n"
-            + "      \"2017-10-23 00:00:00\"\n"
-            + "    ],\n"
-            + "    [\n"
-            + "      \"2017-11-20 00:00:00\"\n"
-            + "    ],\n"
-            + "    [\n"
-            + "      \"2018-06-23 00:00:00\"\n"
-            + "    ],\n"
-            + "    [\n"
-            + "      \"2018-11-13 23:33:20\"\n"
-            + "    ],\n"
-            + "    [\n"
-            + "      \"2018-06-27 00:00:00\"\n"
-            + "    ],\n"
-            + "    [\n"
-            + "      \"2018-08-19 00:00:00\"\n"
-            + "    ],\n"
-            + "    [\n"
-            + "      \"2018-08-11 00:00:00\"\n"
-            + "    ]\n"
-            + "  ],\n"
-            + "  \"total\": 7,\n"
-            + "  \"size\": 7\n"
-            + "}\n",
+        "{\"schema\":[{\"name\":\"birthdate\",\"type\":\"timestamp\"}],"
+            + "\"datarows\":[[\"2017-10-23 00:00:00\"],[\"2017-11-20 00:00:00\"],"
+            + "[\"2018-06-23 00:00:00\"],[\"2018-11-13 23:33:20\"],[\"2018-06-27 00:00:00\"],"
+            + "[\"2018-08-19 00:00:00\"],[\"2018-08-11 00:00:00\"]],"
+            + "\"total\":7,\"size\":7}\n",
         result);
   }
 }
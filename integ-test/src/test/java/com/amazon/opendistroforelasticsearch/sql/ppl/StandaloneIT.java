@@ -28,6 +28,7 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.Elasticse
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
 import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.ppl.domain.PPLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
@@ -67,6 +68,7 @@ public class StandaloneIT extends PPLIntegTestCase {
         () -> new ElasticsearchStorageEngine(client, defaultSettings()));
     context.registerBean(ExecutionEngine.class, () -> new ElasticsearchExecutionEngine(client,
         new ElasticsearchExecutionProtector(new AlwaysHealthyMonitor())));
+    context.registerBean(LogicalPlanCache.class, LogicalPlanCache::new);
     context.register(PPLServiceConfig.class);
     context.refresh();
 
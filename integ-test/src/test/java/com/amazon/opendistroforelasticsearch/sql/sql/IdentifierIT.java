@@ -56,26 +56,9 @@ public class IdentifierIT extends SQLIntegTestCase {
         .addDoc("{\"@timestamp\": 10, \"dimensions:major_version\": 30}");
 
     assertEquals(
-        "{\n"
-            + "  \"schema\": [\n"
-            + "    {\n"
-            + "      \"name\": \"@timestamp\",\n"
-            + "      \"type\": \"long\"\n"
-            + "    },\n"
-            + "    {\n"
-            + "      \"name\": \"dimensions:major_version\",\n"
-            + "      \"type\": \"long\"\n"
-            + "    }\n"
-            + "  ],\n"
-            + "  \"datarows\": [\n"
-            + "    [\n"
-            + "      10,\n"
-            + "      30\n"
-            + "    ]\n"
-            + "  ],\n"
-            + "  \"total\": 1,\n"
-            + "  \"size\": 1\n"
-            + "}\n",
+        "{\"schema\":[{\"name\":\"@timestamp\",\"type\":\"long\"},"
+            + "{\"name\":\"dimensions:major_version\",\"type\":\"long\"}],"
+            + "\"datarows\":[[10,30]],\"total\":1,\"size\":1}\n",
         executeQuery("SELECT @timestamp, `dimensions:major_version` FROM test", "jdbc")
     );
   }
@@ -88,21 +71,8 @@ public class IdentifierIT extends SQLIntegTestCase {
 
   private void queryAndAssertTheDoc(String sql) {
     assertEquals(
-        "{\n"
-            + "  \"schema\": [\n"
-            + "    {\n"
-            + "      \"name\": \"age\",\n"
-            + "      \"type\": \"long\"\n"
-            + "    }\n"
-            + "  ],\n"
-            + "  \"datarows\": [\n"
-            + "    [\n"
-            + "      30\n"
-            + "    ]\n"
-            + "  ],\n"
-            + "  \"total\": 1,\n"
-            + "  \"size\": 1\n"
-            + "}\n",
+        "{\"schema\":[{\"name\":\"age\",\"type\":\"long\"}],"
+            + "\"datarows\":[[30]],\"total\":1,\"size\":1}\n",
         executeQuery(sql.replace("\"", "\\\""), "jdbc")
     );
   }
@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.antlr;
 
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.TwoStageParser;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.parser.OpenDistroSqlLexer;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.parser.OpenDistroSqlParser;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.semantic.scope.SemanticContext;
@@ -69,14 +70,14 @@ public class OpenDistroSqlAnalyzer {
 
     /**
      * Build lexer and parser to perform syntax analysis only.
+     * SLL prediction is tried first and full LL is only used if it fails.
      * Runtime exception with clear message is thrown for any verification error.
      *
      * @return      parse tree
      */
     public ParseTree analyzeSyntax(String sql) {
         OpenDistroSqlParser parser = createParser(createLexer(sql));
-        parser.addErrorListener(new SyntaxAnalysisErrorListener());
-        return parser.root();
+        return TwoStageParser.parse(parser, OpenDistroSqlParser::root, new SyntaxAnalysisErrorListener());
     }
 
     /**
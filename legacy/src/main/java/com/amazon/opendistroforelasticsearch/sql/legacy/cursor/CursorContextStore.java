@@ -0,0 +1,249 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.cursor;
+
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.format.Schema;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Node local store of cursor state referenced by a short opaque cursor id. Instead of round-tripping
+ * the full schema, field alias map and scroll id encoded in cursor on every page, client only sends
+ * back the context id and the state is looked up here without decoding and parsing again.
+ *
+ * Each context expires if not accessed within cursor keep alive time which is the same as the scroll
+ * context behind it. Contexts are also evicted by estimated memory usage once the limit is reached.
+ *
+ * A cursor keeps the same context id for all its pages. A snapshot of the cursor is taken when it is put
+ * or updated and a fresh copy is returned on each access, so serving a page cannot alter the state behind
+ * the id until the state of next page replaces it.
+ */
+public class CursorContextStore {
+
+    /**
+     * Default limit of estimated memory in bytes used by all cursor contexts.
+     */
+    public static final long DEFAULT_MEMORY_LIMIT_IN_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Estimated memory overhead of cursor context and Java objects in it.
+     */
+    private static final int CONTEXT_OVERHEAD_IN_BYTES = 128;
+    private static final int OBJECT_OVERHEAD_IN_BYTES = 32;
+
+    private static final CursorContextStore INSTANCE =
+            new CursorContextStore(DEFAULT_MEMORY_LIMIT_IN_BYTES, System::currentTimeMillis);
+
+    private final Cache<String, CursorContext> contexts;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong memoryInBytes = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    @VisibleForTesting
+    CursorContextStore(long memoryLimitInBytes, LongSupplier clock) {
+        this.clock = clock;
+        this.contexts = CacheBuilder.newBuilder()
+                .maximumWeight(memoryLimitInBytes)
+                .weigher((String id, CursorContext context) -> context.sizeInBytes)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    public static CursorContextStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Keep a snapshot of the cursor state in store.
+     * @param cursor    cursor state
+     * @param keepAlive time to keep the state if not accessed
+     * @return          context id referencing the cursor
+     */
+    public String put(DefaultCursor cursor, TimeValue keepAlive) {
+        removeExpired();
+
+        String contextId = UUIDs.randomBase64UUID();
+        CursorContext context = new CursorContext(copy(cursor), expiryTime(keepAlive), estimateSize(cursor));
+        memoryInBytes.addAndGet(context.sizeInBytes);
+        contexts.put(contextId, context);
+        return contextId;
+    }
+
+    /**
+     * Replace the cursor state kept under the context id by a snapshot of the state of next page, so a cursor
+     * only holds one context however many pages are fetched. Nothing is kept if the context is already gone.
+     * @param contextId context id
+     * @param cursor    cursor state of next page
+     * @param keepAlive time to keep the state if not accessed
+     */
+    public void update(String contextId, DefaultCursor cursor, TimeValue keepAlive) {
+        removeExpired();
+
+        CursorContext context = new CursorContext(copy(cursor), expiryTime(keepAlive), estimateSize(cursor));
+        if (contexts.asMap().replace(contextId, context) != null) {
+            memoryInBytes.addAndGet(context.sizeInBytes);
+        }
+    }
+
+    /**
+     * Get a copy of the cursor state and extend its expiry time.
+     * @param contextId context id
+     * @param keepAlive time to keep the state if not accessed again
+     * @return          cursor state referring to the context id or null if not found or expired
+     */
+    public DefaultCursor get(String contextId, TimeValue keepAlive) {
+        CursorContext context = contexts.getIfPresent(contextId);
+        if (context == null) {
+            return null;
+        }
+        if (context.isExpired(clock.getAsLong())) {
+            expire(contextId);
+            return null;
+        }
+        context.expiryTime = expiryTime(keepAlive);
+        DefaultCursor cursor = copy(context.cursor);
+        cursor.setContextId(contextId);
+        return cursor;
+    }
+
+    /**
+     * Remove the cursor state explicitly once it's closed or exhausted.
+     * @param contextId context id
+     * @return          copy of cursor state removed or null if not found or expired
+     */
+    public DefaultCursor remove(String contextId) {
+        CursorContext context = contexts.asMap().remove(contextId);
+        if (context == null) {
+            return null;
+        }
+        if (context.isExpired(clock.getAsLong())) {
+            expiredCount.incrementAndGet();
+            return null;
+        }
+        return copy(context.cursor);
+    }
+
+    public long size() {
+        return contexts.size();
+    }
+
+    public long memoryInBytes() {
+        return memoryInBytes.get();
+    }
+
+    public long expiredCount() {
+        return expiredCount.get();
+    }
+
+    public long evictedCount() {
+        return evictedCount.get();
+    }
+
+    /**
+     * Expired contexts are cleaned up lazily when new one is added. The scroll behind expired context
+     * is not cleared here because it expires by itself after the same keep alive time.
+     */
+    private void removeExpired() {
+        long now = clock.getAsLong();
+        for (Map.Entry<String, CursorContext> entry : contexts.asMap().entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                expire(entry.getKey());
+            }
+        }
+    }
+
+    private void expire(String contextId) {
+        if (contexts.asMap().remove(contextId) != null) {
+            expiredCount.incrementAndGet();
+        }
+    }
+
+    private void onRemoval(RemovalNotification<String, CursorContext> notification) {
+        memoryInBytes.addAndGet(-notification.getValue().sizeInBytes);
+        if (notification.getCause() == RemovalCause.SIZE) {
+            evictedCount.incrementAndGet();
+        }
+    }
+
+    private long expiryTime(TimeValue keepAlive) {
+        return clock.getAsLong() + keepAlive.millis();
+    }
+
+    /**
+     * Schema columns and field alias map are shared because they are never modified once cursor created.
+     */
+    private static DefaultCursor copy(DefaultCursor cursor) {
+        DefaultCursor copy = new DefaultCursor();
+        copy.setIndexPattern(cursor.getIndexPattern());
+        copy.setColumns(cursor.getColumns());
+        copy.setRowsLeft(cursor.getRowsLeft());
+        copy.setFieldAliasMap(cursor.getFieldAliasMap());
+        copy.setScrollId(cursor.getScrollId());
+        copy.setFetchSize(cursor.getFetchSize());
+        copy.setLimit(cursor.getLimit());
+        copy.setContextId(cursor.getContextId());
+        return copy;
+    }
+
+    @VisibleForTesting
+    static int estimateSize(DefaultCursor cursor) {
+        long size = CONTEXT_OVERHEAD_IN_BYTES
+                + estimateSize(cursor.getIndexPattern())
+                + estimateSize(cursor.getScrollId());
+        for (Schema.Column column : cursor.getColumns()) {
+            size += OBJECT_OVERHEAD_IN_BYTES
+                    + estimateSize(column.getName())
+                    + estimateSize(column.getAlias())
+                    + estimateSize(column.getType());
+        }
+        for (Map.Entry<String, String> alias : cursor.getFieldAliasMap().entrySet()) {
+            size += OBJECT_OVERHEAD_IN_BYTES + estimateSize(alias.getKey()) + estimateSize(alias.getValue());
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static long estimateSize(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD_IN_BYTES + 2L * value.length();
+    }
+
+    private static class CursorContext {
+        private final DefaultCursor cursor;
+        private final int sizeInBytes;
+        private volatile long expiryTime;
+
+        CursorContext(DefaultCursor cursor, long expiryTime, int sizeInBytes) {
+            this.cursor = cursor;
+            this.expiryTime = expiryTime;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        boolean isExpired(long now) {
+            return now > expiryTime;
+        }
+    }
+}
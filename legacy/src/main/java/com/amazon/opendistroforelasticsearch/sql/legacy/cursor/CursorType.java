@@ -27,7 +27,12 @@ public enum CursorType {
     NULL(null),
     DEFAULT("d"),
     AGGREGATION("a"),
-    JOIN("j");
+    JOIN("j"),
+
+    /**
+     * Not a query type but a reference to cursor state kept in {@link CursorContextStore}.
+     */
+    CONTEXT("c");
 
     public String id;
 
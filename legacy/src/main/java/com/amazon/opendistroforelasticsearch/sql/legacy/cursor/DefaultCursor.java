@@ -82,6 +82,9 @@ public class DefaultCursor implements Cursor {
 
     private Integer limit;
 
+    /** Id of the context in @see CursorContextStore if this cursor is kept there */
+    private String contextId;
+
     @Override
     public CursorType getType() {
         return type;
@@ -89,9 +92,12 @@ public class DefaultCursor implements Cursor {
 
     @Override
     public String generateCursorId() {
-        if (rowsLeft <=0 || Strings.isNullOrEmpty(scrollId)) {
+        if (!hasNextPage()) {
             return null;
         }
+        if (contextId != null) {
+            return String.format("%s:%s", CursorType.CONTEXT.getId(), contextId);
+        }
         JSONObject json = new JSONObject();
         json.put(FETCH_SIZE, fetchSize);
         json.put(ROWS_LEFT, rowsLeft);
@@ -102,6 +108,10 @@ public class DefaultCursor implements Cursor {
         return String.format("%s:%s", type.getId(), encodeCursor(json));
     }
 
+    public boolean hasNextPage() {
+        return rowsLeft > 0 && !Strings.isNullOrEmpty(scrollId);
+    }
+
     public static DefaultCursor from(String cursorId) {
         /**
          * It is assumed that cursorId here is the second part of the original cursor passed
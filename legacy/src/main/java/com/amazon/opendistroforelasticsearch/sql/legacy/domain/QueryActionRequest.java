@@ -15,9 +15,11 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.domain;
 
+import com.alibaba.druid.sql.ast.expr.SQLQueryExpr;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.Format;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 
 /**
  * The definition of QueryActionRequest.
@@ -28,4 +30,11 @@ public class QueryActionRequest {
     private final String sql;
     private final ColumnTypeProvider typeProvider;
     private final Format format;
+
+    /**
+     * Druid AST of the SQL query if already parsed by caller, such as for anonymized logging.
+     * Query is parsed again only if this is absent.
+     */
+    @Setter
+    private SQLQueryExpr sqlExpr;
 }
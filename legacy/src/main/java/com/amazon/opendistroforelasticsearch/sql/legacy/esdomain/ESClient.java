@@ -18,6 +18,7 @@ package com.amazon.opendistroforelasticsearch.sql.legacy.esdomain;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.BackOffRetryStrategy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionFuture;
 import org.elasticsearch.action.search.MultiSearchRequest;
 import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.client.Client;
@@ -38,9 +39,26 @@ public class ESClient {
     }
 
     public MultiSearchResponse.Item[] multiSearch(MultiSearchRequest multiSearchRequest) {
+        return awaitMultiSearch(multiSearchRequest, submitMultiSearch(multiSearchRequest));
+    }
+
+    /**
+     * Send multi-search request without waiting for the response, so that several requests
+     * can be in flight at the same time.
+     */
+    public ActionFuture<MultiSearchResponse> submitMultiSearch(MultiSearchRequest multiSearchRequest) {
+        return client.multiSearch(multiSearchRequest);
+    }
+
+    /**
+     * Wait for the response of a multi-search request submitted earlier and retry the failed items.
+     */
+    public MultiSearchResponse.Item[] awaitMultiSearch(MultiSearchRequest multiSearchRequest,
+                                                       ActionFuture<MultiSearchResponse> pendingResponse) {
         MultiSearchResponse.Item[] responses = new MultiSearchResponse.Item[multiSearchRequest.requests().size()];
-        multiSearchRetry(responses, multiSearchRequest,
-                IntStream.range(0, multiSearchRequest.requests().size()).boxed().collect(Collectors.toList()), 0);
+        handleResponses(responses, multiSearchRequest,
+                IntStream.range(0, multiSearchRequest.requests().size()).boxed().collect(Collectors.toList()),
+                pendingResponse.actionGet().getResponses(), 0);
 
         return responses;
     }
@@ -52,6 +70,11 @@ public class ESClient {
             multiSearchRequestRetry.add(multiSearchRequest.requests().get(i));
         }
         MultiSearchResponse.Item[] res = client.multiSearch(multiSearchRequestRetry).actionGet().getResponses();
+        handleResponses(responses, multiSearchRequest, indices, res, retry);
+    }
+
+    private void handleResponses(MultiSearchResponse.Item[] responses, MultiSearchRequest multiSearchRequest,
+                                 List<Integer> indices, MultiSearchResponse.Item[] res, int retry) {
         List<Integer> indicesFailure = new ArrayList<>();
         //Could get EsRejectedExecutionException and ElasticsearchException as getCause
         for (int i = 0; i < res.length; i++) {
@@ -42,6 +42,10 @@ public class ActionRequestRestExecutorFactory {
                         new ElasticDefaultRestExecutor(queryAction),
                         action -> isJoin(action) || isUnionMinus(action)
                 );
+            case COLUMNAR:
+                // columnar format is only supported by new engine, the same query falling back
+                // to legacy engine is responded in JDBC format which client can decode as well
+                return new AsyncRestExecutor(new PrettyFormatRestExecutor(Format.JDBC.getFormatName()));
             case JDBC:
             case RAW:
             case TABLE:
@@ -0,0 +1,114 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.elasticsearch.rest.AbstractRestChannel;
+import org.elasticsearch.rest.BytesRestResponse;
+import org.elasticsearch.rest.RestChannel;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.RestResponse;
+import org.elasticsearch.rest.RestStatus;
+import org.json.JSONObject;
+
+/**
+ * Collects the responses to the queries of a batch request, each query responding on its
+ * own channel, and sends them together in one response once every query has responded.
+ * Response to a query is embedded as is if it's JSON, otherwise it's wrapped in an error.
+ * Only the batch response is compressed if the client accepts it, never the response to each query.
+ */
+public class BatchResponseCollector {
+
+    private static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+
+    private final RestChannel channel;
+
+    private final AtomicReferenceArray<String> responses;
+
+    private final AtomicInteger pending;
+
+    public BatchResponseCollector(RestChannel channel, int size) {
+        this.channel = channel;
+        this.responses = new AtomicReferenceArray<>(size);
+        this.pending = new AtomicInteger(size);
+    }
+
+    /**
+     * Channel for the query at the given position in the batch.
+     */
+    public RestChannel queryChannel(int index) {
+        return new QueryChannel(channel.request(), channel.detailedErrorsEnabled(), index);
+    }
+
+    /**
+     * Check if the channel is for a query in batch whose response must not be compressed.
+     */
+    public static boolean isQueryChannel(RestChannel channel) {
+        return channel instanceof QueryChannel;
+    }
+
+    private void complete(int index, RestResponse response) {
+        // Only first response counts if a query responds more than once
+        if (responses.compareAndSet(index, null, toJson(response)) && pending.decrementAndGet() == 0) {
+            channel.sendResponse(ResponseCompression.compressIfAccepted(channel,
+                    new BytesRestResponse(RestStatus.OK, CONTENT_TYPE, batchContent())));
+        }
+    }
+
+    private String toJson(RestResponse response) {
+        String content = response.content().utf8ToString().trim();
+        if (content.startsWith("{")) {
+            return content;
+        }
+
+        JSONObject error = new JSONObject();
+        error.put("type", response.status().name());
+        error.put("reason", content);
+        error.put("details", "");
+
+        JSONObject output = new JSONObject();
+        output.put("status", response.status().getStatus());
+        output.put("error", error);
+        return output.toString();
+    }
+
+    private String batchContent() {
+        StringBuilder content = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < responses.length(); i++) {
+            if (i > 0) {
+                content.append(',');
+            }
+            content.append(responses.get(i));
+        }
+        return content.append("]}").toString();
+    }
+
+    private class QueryChannel extends AbstractRestChannel {
+
+        private final int index;
+
+        QueryChannel(RestRequest request, boolean detailedErrorsEnabled, int index) {
+            super(request, detailedErrorsEnabled);
+            this.index = index;
+        }
+
+        @Override
+        public void sendResponse(RestResponse response) {
+            complete(index, response);
+        }
+    }
+}
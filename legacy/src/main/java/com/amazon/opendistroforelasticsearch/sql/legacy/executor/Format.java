@@ -28,7 +28,8 @@ public enum Format {
     JSON("json"),
     CSV("csv"),
     RAW("raw"),
-    TABLE("table");
+    TABLE("table"),
+    COLUMNAR("columnar");
 
     @Getter
     private final String formatName;
@@ -0,0 +1,132 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.rest.BytesRestResponse;
+import org.elasticsearch.rest.RestChannel;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negotiates gzip compression of a REST response body with the Accept-Encoding request header.
+ * Response body below the size threshold is sent as is because the gzip header and trailer
+ * outweigh any saving. Otherwise the body is streamed through the compressor chunk by chunk
+ * without being copied into an intermediate array first.
+ */
+public class ResponseCompression {
+
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+    public static final String GZIP = "gzip";
+
+    /**
+     * Minimal size in bytes of response body to compress.
+     */
+    public static final int MIN_COMPRESS_SIZE = 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Compress the response body if the client accepts gzip encoding and the body is large enough.
+     * @param channel   channel of REST request with Accept-Encoding header
+     * @param response  response with uncompressed body
+     * @return          response with gzip encoded body or the original response
+     */
+    public static BytesRestResponse compressIfAccepted(RestChannel channel, BytesRestResponse response) {
+        return compressIfAccepted(acceptEncoding(channel), response);
+    }
+
+    /**
+     * Accept-Encoding of the request on the channel. Response to a query in batch request is embedded
+     * into the batch response, so it's never compressed on its own whatever the batch request accepts.
+     * @param channel   channel of REST request
+     * @return          value of Accept-Encoding request header or null if compression is not allowed
+     */
+    public static String acceptEncoding(RestChannel channel) {
+        if (BatchResponseCollector.isQueryChannel(channel)) {
+            return null;
+        }
+        return channel.request().header(ACCEPT_ENCODING);
+    }
+
+    /**
+     * Compress the response body if gzip is acceptable and the body is large enough.
+     * @param acceptEncoding    value of Accept-Encoding request header
+     * @param response          response with uncompressed body
+     * @return                  response with gzip encoded body or the original response
+     */
+    public static BytesRestResponse compressIfAccepted(String acceptEncoding, BytesRestResponse response) {
+        if (response.content().length() < MIN_COMPRESS_SIZE || !acceptsGzip(acceptEncoding)) {
+            return response;
+        }
+
+        BytesStreamOutput compressed = new BytesStreamOutput();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            response.content().writeTo(gzip);
+        } catch (IOException e) {
+            return response;
+        }
+
+        BytesRestResponse compressedResponse =
+                new BytesRestResponse(response.status(), response.contentType(), compressed.bytes());
+        for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+            header.getValue().forEach(value -> compressedResponse.addHeader(header.getKey(), value));
+        }
+        compressedResponse.addHeader(CONTENT_ENCODING, GZIP);
+        return compressedResponse;
+    }
+
+    /**
+     * Check if gzip (or any encoding by wildcard) is acceptable and not excluded by zero quality value,
+     * ex. "gzip, deflate" or "deflate;q=1.0, gzip;q=0.5".
+     * @param acceptEncoding    value of Accept-Encoding request header
+     * @return                  true if gzip encoded response is acceptable
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (Strings.isNullOrEmpty(acceptEncoding)) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] nameAndParams = coding.split(";");
+            String name = nameAndParams[0].trim().toLowerCase(Locale.ROOT);
+            if ((GZIP.equals(name) || "*".equals(name)) && !isZeroQuality(nameAndParams)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String[] nameAndParams) {
+        for (int i = 1; i < nameAndParams.length; i++) {
+            String param = nameAndParams[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) == 0.0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -68,9 +68,9 @@ public class CSVResult {
         return lines;
     }
 
-    private List<String> sanitizeHeaders(String separator, List<String> headers) {
+    static List<String> sanitizeHeaders(String separator, List<String> headers) {
         return headers.stream().
-                       map(this::sanitizeCell).
+                       map(CSVResult::sanitizeCell).
                        map(cell -> quoteIfRequired(separator, cell)).
                        collect(Collectors.toList());
     }
@@ -78,28 +78,32 @@ public class CSVResult {
     private List<String> sanitizeLines(String separator, List<List<String>> lines) {
         List<String> result = new ArrayList<>();
         for (List<String> line : lines) {
-            result.add(line.stream().
-                            map(this::sanitizeCell).
-                            map(cell -> quoteIfRequired(separator, cell)).
-                            collect(Collectors.joining(separator)));
+            result.add(sanitizeLine(separator, line));
         }
         return result;
     }
 
-    private String sanitizeCell(String cell) {
+    static String sanitizeLine(String separator, List<String> line) {
+        return line.stream().
+                    map(CSVResult::sanitizeCell).
+                    map(cell -> quoteIfRequired(separator, cell)).
+                    collect(Collectors.joining(separator));
+    }
+
+    private static String sanitizeCell(String cell) {
         if (isStartWithSensitiveChar(cell)) {
             return "'" + cell;
         }
         return cell;
     }
 
-    private String quoteIfRequired(String separator, String cell) {
+    private static String quoteIfRequired(String separator, String cell) {
         final String quote = "\"";
         return cell.contains(separator)
             ? quote + cell.replaceAll("\"", "\"\"") + quote : cell;
     }
 
-    private boolean isStartWithSensitiveChar(String cell) {
+    private static boolean isStartWithSensitiveChar(String cell) {
         return SENSITIVE_CHAR.stream().
                               anyMatch(cell::startsWith);
     }
@@ -15,28 +15,56 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.executor.csv;
 
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.QueryActionElasticExecutor;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.RestExecutor;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.DefaultQueryAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.QueryAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.BackOffRetryStrategy;
 import com.google.common.base.Joiner;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.rest.BytesRestResponse;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestStatus;
 
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.CSV_EXPORT_MAX_SIZE;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.CURSOR_FETCH_SIZE;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.CURSOR_KEEPALIVE;
 
 /**
  * Created by Eliran on 26/12/2015.
  */
 public class CSVResultRestExecutor implements RestExecutor {
 
+    /**
+     * Request param to export all rows by scroll rather than the first page of search result.
+     */
+    public static final String STREAM = "stream";
+
+    private static final int BUFFER_SIZE = 8192;
+
     @Override
     public void execute(final Client client, final Map<String, String> params, final QueryAction queryAction,
                         final RestChannel channel) throws Exception {
 
+        if (getBooleanOrDefault(params, STREAM, false) && CSVStreamingExporter.isSupported(queryAction)) {
+            exportByScroll(client, params, (DefaultQueryAction) queryAction, channel);
+            return;
+        }
+
         final String csvString = execute(client, params, queryAction);
         final BytesRestResponse bytesRestResponse = new BytesRestResponse(RestStatus.OK, csvString);
 
@@ -45,7 +73,7 @@ public class CSVResultRestExecutor implements RestExecutor {
                     "[CSVResultRestExecutor] Memory could be insufficient when sendResponse().");
         }
 
-        channel.sendResponse(bytesRestResponse);
+        channel.sendResponse(ResponseCompression.compressIfAccepted(channel, bytesRestResponse));
     }
 
     @Override
@@ -69,6 +97,45 @@ public class CSVResultRestExecutor implements RestExecutor {
         return buildString(separator, result, newLine);
     }
 
+    /**
+     * Scroll through all hits and write CSV lines to the response content one page at a time.
+     * The content is gzip compressed on the fly if accepted by client.
+     * <p>
+     * Note that the whole (compressed) content is still buffered in memory before sending out because
+     * REST channel only accepts complete response. So it fails immediately once the content exceeds
+     * the max size configured rather than waiting for memory circuit breaker checked per page.
+     */
+    private void exportByScroll(final Client client, final Map<String, String> params,
+                                final DefaultQueryAction queryAction, final RestChannel channel) throws Exception {
+        final LocalClusterState clusterState = LocalClusterState.state();
+        final Integer pageSize = clusterState.getSettingValue(CURSOR_FETCH_SIZE);
+        final TimeValue keepAlive = clusterState.getSettingValue(CURSOR_KEEPALIVE);
+        final ByteSizeValue maxSize = clusterState.getSettingValue(CSV_EXPORT_MAX_SIZE);
+        final CSVStreamingExporter exporter = new CSVStreamingExporter(client, createExtractor(params),
+                getBooleanOrDefault(params, "flat", false), params.getOrDefault("separator", ","),
+                params.getOrDefault("newLine", "\n"), pageSize, keepAlive);
+
+        final boolean gzip = ResponseCompression.acceptsGzip(ResponseCompression.acceptEncoding(channel));
+        final BytesStreamOutput content = new BytesStreamOutput();
+        final OutputStream limited = new SizeLimitedOutputStream(content, maxSize.getBytes());
+        try (OutputStream out = gzip ? new GZIPOutputStream(limited, BUFFER_SIZE) : limited;
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            exporter.export(queryAction, writer);
+        }
+
+        final BytesRestResponse bytesRestResponse =
+                new BytesRestResponse(RestStatus.OK, BytesRestResponse.TEXT_CONTENT_TYPE, content.bytes());
+        if (gzip) {
+            bytesRestResponse.addHeader(ResponseCompression.CONTENT_ENCODING, ResponseCompression.GZIP);
+        }
+        channel.sendResponse(bytesRestResponse);
+    }
+
+    private CSVResultsExtractor createExtractor(Map<String, String> params) {
+        return new CSVResultsExtractor(getBooleanOrDefault(params, "_score", false),
+                getBooleanOrDefault(params, "_type", false), getBooleanOrDefault(params, "_id", false));
+    }
+
     private boolean getBooleanOrDefault(Map<String, String> params, String param, boolean defaultValue) {
         boolean flat = defaultValue;
         if (params.containsKey(param)) {
@@ -294,25 +294,11 @@ public class CSVResultsExtractor {
         }
 
         for (final SearchHit hit : hits) {
-            final Map<String, Object> doc = hit.getSourceAsMap();
-            final Map<String, DocumentField> fields = hit.getFields();
-            for (final DocumentField searchHitField : fields.values()) {
-                doc.put(searchHitField.getName(), searchHitField.getValue());
-            }
-
-            if (this.includeId) {
-                doc.put("_id", hit.getId());
-            }
-            if (this.includeScore) {
-                doc.put("_score", hit.getScore());
-            }
-            if (this.includeType) {
-                doc.put("_type", hit.getType());
-            }
+            final Map<String, Object> doc = createDocMap(hit);
 
             // select function as field is a special case where each hit has non-null field (function)
             // and sourceAsMap is all columns in index (the same as 'SELECT *')
-            if (fields.isEmpty()) {
+            if (hit.getFields().isEmpty()) {
                 mergeHeaders(csvHeaders, doc, flat);
             }
             docsAsMap.add(doc);
@@ -321,7 +307,45 @@ public class CSVResultsExtractor {
         return new ArrayList<>(csvHeaders);
     }
 
-    private String findFieldValue(String header, Map<String, Object> doc, boolean flat, String separator) {
+    /**
+     * Create document map from source and fields of the hit along with metadata fields if required.
+     */
+    Map<String, Object> createDocMap(final SearchHit hit) {
+        final Map<String, Object> doc = hit.getSourceAsMap();
+        for (final DocumentField searchHitField : hit.getFields().values()) {
+            doc.put(searchHitField.getName(), searchHitField.getValue());
+        }
+
+        if (this.includeId) {
+            doc.put("_id", hit.getId());
+        }
+        if (this.includeScore) {
+            doc.put("_score", hit.getScore());
+        }
+        if (this.includeType) {
+            doc.put("_type", hit.getType());
+        }
+        return doc;
+    }
+
+    /**
+     * Names of metadata fields added to document map, which are listed after other headers if not found.
+     */
+    List<String> metadataFieldNames() {
+        List<String> names = new ArrayList<>();
+        if (this.includeId) {
+            names.add("_id");
+        }
+        if (this.includeScore) {
+            names.add("_score");
+        }
+        if (this.includeType) {
+            names.add("_type");
+        }
+        return names;
+    }
+
+    String findFieldValue(String header, Map<String, Object> doc, boolean flat, String separator) {
         if (flat && header.contains(".")) {
             String[] split = header.split("\\.");
             Object innerDoc = doc;
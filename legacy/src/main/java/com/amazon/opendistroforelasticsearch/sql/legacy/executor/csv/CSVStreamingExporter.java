@@ -0,0 +1,170 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.csv;
+
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.mapping.FieldMappings;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.mapping.IndexMappings;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.mapping.TypeMappings;
+import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.DefaultQueryAction;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.BackOffRetryStrategy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.search.ClearScrollResponse;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Export all hits of a plain search query as CSV by scrolling through the result page by page.
+ * Different from {@link CSVResultsExtractor} which requires all hits loaded for building headers
+ * and all lines in memory, headers here are derived from field names selected or index mapping
+ * up front, so each page is written to the output right away and dropped afterwards.
+ */
+public class CSVStreamingExporter {
+
+    private static final Logger LOG = LogManager.getLogger(CSVStreamingExporter.class);
+
+    private final Client client;
+    private final CSVResultsExtractor extractor;
+    private final boolean flat;
+    private final String separator;
+    private final String newLine;
+    private final int pageSize;
+    private final TimeValue keepAlive;
+
+    public CSVStreamingExporter(Client client, CSVResultsExtractor extractor, boolean flat, String separator,
+                                String newLine, int pageSize, TimeValue keepAlive) {
+        this.client = client;
+        this.extractor = extractor;
+        this.flat = flat;
+        this.separator = separator;
+        this.newLine = newLine;
+        this.pageSize = pageSize;
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Streaming export is only possible for search query without offset which cannot be used along with scroll.
+     * @param queryAction   query action
+     * @return              true if the query can be exported by scroll
+     */
+    public static boolean isSupported(Object queryAction) {
+        return queryAction instanceof DefaultQueryAction
+                && ((DefaultQueryAction) queryAction).getSelect().getOffset() == 0;
+    }
+
+    /**
+     * Scroll through all hits (up to LIMIT if present) and write them as CSV lines.
+     * @param queryAction   search query action
+     * @param writer        output writer
+     */
+    public void export(DefaultQueryAction queryAction, Writer writer) throws SqlParseException, IOException {
+        Select select = queryAction.getSelect();
+        SearchRequestBuilder request = (SearchRequestBuilder) queryAction.explain().getBuilder();
+        request.setSize(pageSize).setScroll(keepAlive);
+
+        List<String> headers = createHeaders(queryAction);
+        writer.write(String.join(separator, CSVResult.sanitizeHeaders(separator, headers)));
+
+        long rowsLeft = select.getRowCount() != null ? select.getRowCount() : Long.MAX_VALUE;
+        SearchResponse response = request.get();
+        String scrollId = response.getScrollId();
+        try {
+            SearchHit[] hits = response.getHits().getHits();
+            while (hits.length > 0 && rowsLeft > 0) {
+                for (int i = 0; i < hits.length && rowsLeft > 0; i++, rowsLeft--) {
+                    writer.write(newLine);
+                    writer.write(CSVResult.sanitizeLine(separator, createLine(hits[i], headers)));
+                }
+                if (!BackOffRetryStrategy.isHealthy()) {
+                    throw new IllegalStateException(
+                            "[CSVStreamingExporter] Memory could be insufficient to export more.");
+                }
+                if (rowsLeft > 0) {
+                    response = client.prepareSearchScroll(scrollId).setScroll(keepAlive).get();
+                    scrollId = response.getScrollId();
+                    hits = response.getHits().getHits();
+                }
+            }
+        } finally {
+            clearScroll(scrollId);
+        }
+    }
+
+    private List<String> createLine(SearchHit hit, List<String> headers) {
+        Map<String, Object> doc = extractor.createDocMap(hit);
+        List<String> line = new ArrayList<>(headers.size());
+        for (String header : headers) {
+            line.add(extractor.findFieldValue(header, doc, flat, separator));
+        }
+        return line;
+    }
+
+    /**
+     * Headers are field names selected, or all fields in index mapping for SELECT *.
+     */
+    private List<String> createHeaders(DefaultQueryAction queryAction) {
+        Set<String> headers = new LinkedHashSet<>(queryAction.getFieldNames().orElse(new ArrayList<>()));
+        if (headers.isEmpty()) {
+            IndexMappings indexMappings =
+                    LocalClusterState.state().getFieldMappings(queryAction.getSelect().getIndexArr());
+            for (TypeMappings typeMappings : indexMappings.allMappings()) {
+                for (FieldMappings fieldMappings : typeMappings.allMappings()) {
+                    mergeFieldNames(headers, fieldMappings.data(), "");
+                }
+            }
+        }
+        headers.addAll(extractor.metadataFieldNames());
+        return new ArrayList<>(headers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mergeFieldNames(Set<String> headers, Map<String, Map<String, Object>> properties, String prefix) {
+        for (Map.Entry<String, Map<String, Object>> field : properties.entrySet()) {
+            Map<String, Object> mapping = field.getValue();
+            if (flat && mapping.containsKey("properties")) {
+                mergeFieldNames(headers, (Map<String, Map<String, Object>>) mapping.get("properties"),
+                        prefix + field.getKey() + ".");
+            } else {
+                headers.add(prefix + field.getKey());
+            }
+        }
+    }
+
+    private void clearScroll(String scrollId) {
+        if (Strings.isNullOrEmpty(scrollId)) {
+            return;
+        }
+        ClearScrollResponse clearScrollResponse = client.prepareClearScroll().addScrollId(scrollId).get();
+        if (!clearScrollResponse.isSucceeded()) {
+            LOG.error("Error clearing the scroll context {} of CSV export", scrollId);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.csv;
+
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.CSV_EXPORT_MAX_SIZE;
+
+/**
+ * Output stream that fails as soon as the bytes written exceed the limit given, rather than
+ * letting the in-memory response content of CSV export grow until memory is exhausted.
+ */
+class SizeLimitedOutputStream extends FilterOutputStream {
+
+    private final long limitInBytes;
+    private long bytesWritten;
+
+    SizeLimitedOutputStream(OutputStream out, long limitInBytes) {
+        super(out);
+        this.limitInBytes = limitInBytes;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureCapacity(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureCapacity(len);
+        out.write(b, off, len);
+    }
+
+    private void ensureCapacity(int len) throws IOException {
+        if (bytesWritten + len > limitInBytes) {
+            throw new IOException(String.format(
+                    "CSV export exceeds the limit of %s set by [%s]. Please add LIMIT or filter to the query, "
+                            + "or use cursor to fetch the result page by page.",
+                    new ByteSizeValue(limitInBytes), CSV_EXPORT_MAX_SIZE));
+        }
+        bytesWritten += len;
+    }
+}
@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.executor.cursor;
 
+import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.CursorContextStore;
 import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.CursorType;
 import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.DefaultCursor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.MetricName;
@@ -80,6 +81,13 @@ public class CursorCloseExecutor implements CursorRestExecutor {
             case DEFAULT:
                 DefaultCursor defaultCursor = DefaultCursor.from(splittedCursor[1]);
                 return handleDefaultCursorCloseRequest(client, defaultCursor);
+            case CONTEXT:
+                DefaultCursor contextCursor = CursorContextStore.getInstance().remove(splittedCursor[1]);
+                if (contextCursor == null) {
+                    throw new VerificationException("Cursor context [" + splittedCursor[1]
+                            + "] is not found on this node. It may have expired or been closed");
+                }
+                return handleDefaultCursorCloseRequest(client, contextCursor);
             case AGGREGATION:
             case JOIN:
             default: throw new VerificationException("Unsupported cursor type [" + type + "]");
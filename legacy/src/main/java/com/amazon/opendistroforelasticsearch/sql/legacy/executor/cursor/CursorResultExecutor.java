@@ -15,13 +15,16 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.executor.cursor;
 
+import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.CursorContextStore;
 import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.CursorType;
 import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.DefaultCursor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.Format;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.format.Protocol;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.MetricName;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metrics;
+import com.amazon.opendistroforelasticsearch.sql.legacy.request.SqlRequestParam;
 import com.amazon.opendistroforelasticsearch.sql.legacy.rewriter.matchtoterm.VerificationException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -57,7 +60,8 @@ public class CursorResultExecutor implements CursorRestExecutor {
     public void execute(Client client, Map<String, String> params, RestChannel channel) throws Exception {
         try {
             String formattedResponse = execute(client, params);
-            channel.sendResponse(new BytesRestResponse(OK, "application/json; charset=UTF-8", formattedResponse));
+            channel.sendResponse(ResponseCompression.compressIfAccepted(channel,
+                    new BytesRestResponse(OK, "application/json; charset=UTF-8", formattedResponse)));
         } catch (IllegalArgumentException | JSONException e) {
             Metrics.getInstance().getNumericalMetric(MetricName.FAILED_REQ_COUNT_CUS).increment();
             LOG.error("Error parsing the cursor", e);
@@ -91,14 +95,22 @@ public class CursorResultExecutor implements CursorRestExecutor {
         switch(cursorType) {
             case DEFAULT:
                 DefaultCursor defaultCursor = DefaultCursor.from(splittedCursor[1]);
-                return handleDefaultCursorRequest(client, defaultCursor);
+                return handleDefaultCursorRequest(client, defaultCursor, SqlRequestParam.isPrettyFormat(params));
+            case CONTEXT:
+                TimeValue keepAlive = LocalClusterState.state().getSettingValue(CURSOR_KEEPALIVE);
+                DefaultCursor contextCursor = CursorContextStore.getInstance().get(splittedCursor[1], keepAlive);
+                if (contextCursor == null) {
+                    throw new VerificationException("Cursor context [" + splittedCursor[1]
+                            + "] is not found on this node. It may have expired or been closed");
+                }
+                return handleDefaultCursorRequest(client, contextCursor, SqlRequestParam.isPrettyFormat(params));
             case AGGREGATION:
             case JOIN:
             default: throw new VerificationException("Unsupported cursor type [" + type + "]");
         }
     }
 
-    private String handleDefaultCursorRequest(Client client, DefaultCursor cursor) {
+    private String handleDefaultCursorRequest(Client client, DefaultCursor cursor, boolean pretty) {
         String previousScrollId = cursor.getScrollId();
         LocalClusterState clusterState = LocalClusterState.state();
         TimeValue scrollTimeout = clusterState.getSettingValue(CURSOR_KEEPALIVE);
@@ -126,6 +138,10 @@ public class CursorResultExecutor implements CursorRestExecutor {
         rowsLeft = rowsLeft - fetch;
 
         if (rowsLeft <=0) {
+            if (cursor.getContextId() != null) {
+                CursorContextStore.getInstance().remove(cursor.getContextId());
+            }
+
             /** Clear the scroll context on last page */
             ClearScrollResponse clearScrollResponse = client.prepareClearScroll().addScrollId(newScrollId).get();
             if (!clearScrollResponse.isSucceeded()) {
@@ -136,7 +152,12 @@ public class CursorResultExecutor implements CursorRestExecutor {
 
         cursor.setRowsLeft(rowsLeft);
         cursor.setScrollId(newScrollId);
+        if (cursor.getContextId() != null && cursor.hasNextPage()) {
+            /** Scroll has moved on anyway, so state of next page replaces current one under the same context id */
+            CursorContextStore.getInstance().update(cursor.getContextId(), cursor, scrollTimeout);
+        }
         Protocol protocol = new Protocol(client, searchHits, format.name().toLowerCase(), cursor);
+        protocol.setPrettyFormat(pretty);
         return protocol.cursorFormat();
     }
 }
\ No newline at end of file
@@ -16,25 +16,33 @@
 package com.amazon.opendistroforelasticsearch.sql.legacy.executor.format;
 
 import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.Cursor;
+import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.CursorContextStore;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.QueryActionElasticExecutor;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.RestExecutor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.DefaultCursor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.DefaultQueryAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.QueryAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.BackOffRetryStrategy;
+import com.amazon.opendistroforelasticsearch.sql.legacy.request.SqlRequestParam;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.rest.BytesRestResponse;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestStatus;
 
 import java.util.Map;
 
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.CURSOR_CONTEXT_ENABLED;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.CURSOR_KEEPALIVE;
+
 public class PrettyFormatRestExecutor implements RestExecutor {
 
     private static final Logger LOG = LogManager.getLogger();
@@ -65,7 +73,7 @@ public class PrettyFormatRestExecutor implements RestExecutor {
                     "[PrettyFormatRestExecutor] Memory could be insufficient when sendResponse().");
         }
 
-        channel.sendResponse(bytesRestResponse);
+        channel.sendResponse(ResponseCompression.compressIfAccepted(channel, bytesRestResponse));
     }
 
     @Override
@@ -89,6 +97,7 @@ public class PrettyFormatRestExecutor implements RestExecutor {
             protocol = new Protocol(e);
         }
 
+        protocol.setPrettyFormat(SqlRequestParam.isPrettyFormat(params));
         return protocol.format();
     }
 
@@ -109,10 +118,23 @@ public class PrettyFormatRestExecutor implements RestExecutor {
             defaultCursor.setLimit(queryAction.getSelect().getRowCount());
             defaultCursor.setFetchSize(queryAction.getSqlRequest().fetchSize());
             protocol = new Protocol(client, queryAction, response.getHits(), format, defaultCursor);
+            keepCursorContext(defaultCursor);
         } else {
             protocol = new Protocol(client, queryAction, response.getHits(), format, Cursor.NULL_CURSOR);
         }
 
         return protocol;
     }
+
+    /**
+     * Keep cursor state in node local store if enabled so that only a short context id is sent to client.
+     */
+    private void keepCursorContext(DefaultCursor cursor) {
+        LocalClusterState clusterState = LocalClusterState.state();
+        Boolean contextEnabled = clusterState.getSettingValue(CURSOR_CONTEXT_ENABLED);
+        if (contextEnabled && cursor.hasNextPage()) {
+            TimeValue keepAlive = clusterState.getSettingValue(CURSOR_KEEPALIVE);
+            cursor.setContextId(CursorContextStore.getInstance().put(cursor, keepAlive));
+        }
+    }
 }
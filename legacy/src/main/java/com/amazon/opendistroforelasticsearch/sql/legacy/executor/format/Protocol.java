@@ -48,6 +48,8 @@ public class Protocol {
     static final int OK_STATUS = 200;
     static final int ERROR_STATUS = 500;
 
+    private static final int PRETTY_INDENT_FACTOR = 2;
+
     private final String formatType;
     private int status;
     private long size;
@@ -57,6 +59,7 @@ public class Protocol {
     private List<ColumnNode> columnNodeList;
     private Cursor cursor = new NullCursor();
     private ColumnTypeProvider scriptColumnType = new ColumnTypeProvider();
+    private int indentFactor = 0;
 
     public Protocol(Client client, QueryAction queryAction, Object queryResult, String formatType, Cursor cursor) {
         this.cursor = cursor;
@@ -128,6 +131,15 @@ public class Protocol {
         return resultSet;
     }
 
+    /**
+     * JSON output is compact by default to reduce the response size. Pretty format with indentation
+     * is only for human reader who asks for it explicitly.
+     * @param pretty    true if JSON output should be pretty formatted
+     */
+    public void setPrettyFormat(boolean pretty) {
+        this.indentFactor = pretty ? PRETTY_INDENT_FACTOR : 0;
+    }
+
     public String format() {
         if (status == OK_STATUS) {
             switch (formatType) {
@@ -163,7 +175,7 @@ public class Protocol {
             formattedOutput.put("cursor", cursorId);
         }
 
-        return formattedOutput.toString(2);
+        return formattedOutput.toString(indentFactor);
     }
 
     private String outputInRawFormat() {
@@ -203,7 +215,7 @@ public class Protocol {
         if (!Strings.isNullOrEmpty(cursorId)) {
             formattedOutput.put("cursor", cursorId);
         }
-        return formattedOutput.toString(2);
+        return formattedOutput.toString(indentFactor);
     }
 
     private String rawEntry(Row row, Schema schema) {
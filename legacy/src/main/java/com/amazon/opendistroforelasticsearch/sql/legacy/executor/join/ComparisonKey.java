@@ -0,0 +1,70 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.join;
+
+import java.util.Arrays;
+
+/**
+ * Composite key made up of values of join fields in one comparison (conditions connected by AND in ON).
+ * Each value is compared by its string form as hash join always did, so the same value parsed into different
+ * Java types from source of the two tables still matches, ex. keyword "1", integer 1 and long 1. Unlike values
+ * concatenated into one string, the values are kept apart so that separator in a value cannot make keys equal.
+ */
+public class ComparisonKey {
+
+    private final Object[] values;
+
+    private final int hashCode;
+
+    public ComparisonKey(Object[] values) {
+        this.values = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            this.values[i] = normalize(values[i]);
+        }
+        this.hashCode = Arrays.hashCode(this.values);
+    }
+
+    public Object[] values() {
+        return values;
+    }
+
+    private static Object normalize(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        ComparisonKey that = (ComparisonKey) other;
+        return hashCode == that.hashCode && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
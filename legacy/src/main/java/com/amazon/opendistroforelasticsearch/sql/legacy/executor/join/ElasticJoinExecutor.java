@@ -19,6 +19,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Field;
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ElasticHitsExecutor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.SqlElasticRequestBuilder;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.ESJoinQueryActionFactory;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.HashJoinElasticRequestBuilder;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.JoinRequestBuilder;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.NestedLoopsElasticRequestBuilder;
@@ -111,6 +112,7 @@ public abstract class ElasticJoinExecutor implements ElasticHitsExecutor {
     }
 
     public static ElasticJoinExecutor createJoinExecutor(Client client, SqlElasticRequestBuilder requestBuilder) {
+        requestBuilder = ESJoinQueryActionFactory.chooseJoinAlgorithm(client, requestBuilder);
         if (requestBuilder instanceof HashJoinQueryPlanRequestBuilder) {
             return new QueryPlanElasticExecutor((HashJoinQueryPlanRequestBuilder) requestBuilder);
         } else if (requestBuilder instanceof HashJoinElasticRequestBuilder) {
@@ -258,7 +260,7 @@ public abstract class ElasticJoinExecutor implements ElasticHitsExecutor {
         if (!ordered) {
             scrollRequest.addSort(FieldSortBuilder.DOC_FIELD_NAME, SortOrder.ASC);
         }
-        SearchResponse responseWithHits = scrollRequest.get();
+        SearchResponse responseWithHits = client.search(scrollRequest.request()).actionGet();
         //on ordered select - not using SCAN , elastic returns hits on first scroll
         //es5.0 elastic always return docs on scan
         //  if(!ordered)
@@ -18,7 +18,10 @@ package com.amazon.opendistroforelasticsearch.sql.legacy.executor.join;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.BackOffRetryStrategy;
 import com.google.common.collect.ImmutableMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.lucene.search.TotalHits.Relation;
+import org.elasticsearch.action.ActionFuture;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
@@ -46,15 +49,12 @@ import static org.elasticsearch.common.xcontent.ToXContent.EMPTY_PARAMS;
  */
 public class ElasticUtils {
 
+    private static final Logger LOG = LogManager.getLogger();
+
     public static SearchResponse scrollOneTimeWithHits(Client client, SearchRequestBuilder requestBuilder,
                                                        Select originalSelect, int resultSize) {
-        SearchRequestBuilder scrollRequest = requestBuilder
-                .setScroll(new TimeValue(60000)).setSize(resultSize);
-        boolean ordered = originalSelect.isOrderdSelect();
-        if (!ordered) {
-            scrollRequest.addSort(FieldSortBuilder.DOC_FIELD_NAME, SortOrder.ASC);
-        }
-        SearchResponse responseWithHits = scrollRequest.get();
+        SearchResponse responseWithHits = client.search(
+                scrollRequestWithHits(requestBuilder, originalSelect, resultSize).request()).actionGet();
         //on ordered select - not using SCAN , elastic returns hits on first scroll
         //es5.0 elastic always return docs on scan
 //        if(!ordered) {
@@ -64,6 +64,49 @@ public class ElasticUtils {
         return responseWithHits;
     }
 
+    /**
+     * Prepare the first scroll request which can be executed asynchronously by caller.
+     */
+    public static SearchRequestBuilder scrollRequestWithHits(SearchRequestBuilder requestBuilder,
+                                                             Select originalSelect, int resultSize) {
+        SearchRequestBuilder scrollRequest = requestBuilder
+                .setScroll(new TimeValue(60000)).setSize(resultSize);
+        boolean ordered = originalSelect.isOrderdSelect();
+        if (!ordered) {
+            scrollRequest.addSort(FieldSortBuilder.DOC_FIELD_NAME, SortOrder.ASC);
+        }
+        return scrollRequest;
+    }
+
+    /**
+     * Wait for the page fetched ahead but no longer needed and clear its scroll context right away
+     * rather than leave it open until scroll timeout. Failure is only logged because caller is done anyway.
+     */
+    public static void clearScroll(Client client, ActionFuture<SearchResponse> page) {
+        SearchResponse response;
+        try {
+            response = page.actionGet();
+        } catch (Exception e) {
+            LOG.warn("Failed to fetch page ahead whose scroll is to be cleared", e);
+            return;
+        }
+        clearScroll(client, response.getScrollId());
+    }
+
+    /**
+     * Clear scroll context no longer needed. Failure is only logged because caller is done anyway.
+     */
+    public static void clearScroll(Client client, String scrollId) {
+        if (scrollId == null) {
+            return;
+        }
+        try {
+            client.prepareClearScroll().addScrollId(scrollId).get();
+        } catch (Exception e) {
+            LOG.warn("Failed to clear scroll " + scrollId, e);
+        }
+    }
+
 
     //use our deserializer instead of results toXcontent because the source field is different from sourceAsMap.
     public static String hitsAsStringResult(SearchHits results, MetaSearchResult metaResults) throws IOException {
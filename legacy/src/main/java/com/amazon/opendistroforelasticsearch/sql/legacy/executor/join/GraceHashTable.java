@@ -0,0 +1,336 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.join;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.search.SearchHit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash table of one comparison for grace hash join. Hits of both tables are partitioned by hash of comparison key.
+ * All partitions of first table are kept in memory until memory limit is exceeded. At that point the largest
+ * resident partition is spilled to local disk, so are the hits of both tables falling into it afterwards.
+ * Spilled partitions are joined one at a time once the second table is scanned through.
+ */
+public class GraceHashTable implements Closeable {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    public static final int DEFAULT_NUM_OF_PARTITIONS = 16;
+
+    /**
+     * Rough estimate of hit size in memory as both source bytes and parsed source map are kept
+     */
+    private static final int SOURCE_SIZE_MULTIPLIER = 4;
+    private static final long HIT_OVERHEAD_IN_BYTES = 256;
+
+    private final Partition[] partitions;
+
+    private final long memoryLimitInBytes;
+
+    /**
+     * Directory for spill files which is created lazily on first spill
+     */
+    private final CheckedSupplier<Path, IOException> spillDirectory;
+
+    private long memoryInBytes;
+
+    public GraceHashTable(long memoryLimitInBytes, CheckedSupplier<Path, IOException> spillDirectory) {
+        this(DEFAULT_NUM_OF_PARTITIONS, memoryLimitInBytes, spillDirectory);
+    }
+
+    @VisibleForTesting
+    GraceHashTable(int numOfPartitions, long memoryLimitInBytes,
+                   CheckedSupplier<Path, IOException> spillDirectory) {
+        this.partitions = new Partition[numOfPartitions];
+        for (int i = 0; i < numOfPartitions; i++) {
+            partitions[i] = new Partition();
+        }
+        this.memoryLimitInBytes = memoryLimitInBytes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Add hit of first table to the hash table. Spill the largest partition(s) if out of memory limit.
+     */
+    public void put(ComparisonKey key, KeyedSearchHit row) throws IOException {
+        Partition partition = partitionOf(key);
+        if (partition.isSpilled()) {
+            partition.writeBuildRow(row, spillDirectory);
+            return;
+        }
+
+        long size = estimateSize(row.getHit());
+        partition.add(key, row, size);
+        memoryInBytes += size;
+        while (memoryInBytes > memoryLimitInBytes) {
+            Partition largest = largestResidentPartition();
+            if (largest == null) {
+                break;
+            }
+            LOG.debug("Spill hash join partition of {} bytes as memory used {} exceeds limit {}",
+                    largest.memoryInBytes, memoryInBytes, memoryLimitInBytes);
+            memoryInBytes -= largest.memoryInBytes;
+            largest.spill(spillDirectory);
+        }
+    }
+
+    /**
+     * Is the partition the key belongs to still in memory?
+     */
+    public boolean isResident(ComparisonKey key) {
+        return !partitionOf(key).isSpilled();
+    }
+
+    /**
+     * Find all hits with the same key in resident partition.
+     */
+    public List<KeyedSearchHit> get(ComparisonKey key) {
+        return partitionOf(key).rows.getOrDefault(key, Collections.emptyList());
+    }
+
+    /**
+     * Save hit of second table whose key belongs to a spilled partition for joining later.
+     */
+    public void spillProbeRow(ComparisonKey key, KeyedSearchHit row) throws IOException {
+        partitionOf(key).writeProbeRow(row, spillDirectory);
+    }
+
+    public List<Partition> spilledPartitions() {
+        List<Partition> spilled = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partition.isSpilled()) {
+                spilled.add(partition);
+            }
+        }
+        return spilled;
+    }
+
+    /**
+     * Iterate all hits of first table in both resident and spilled partitions.
+     */
+    public void forEachBuildRow(CheckedConsumer<KeyedSearchHit, IOException> action) throws IOException {
+        for (Partition partition : partitions) {
+            if (partition.isSpilled()) {
+                try (SpillFileReader reader = partition.buildRowsReader()) {
+                    for (KeyedSearchHit row = reader.next(); row != null; row = reader.next()) {
+                        action.accept(row);
+                    }
+                }
+            } else {
+                for (List<KeyedSearchHit> rows : partition.rows.values()) {
+                    for (KeyedSearchHit row : rows) {
+                        action.accept(row);
+                    }
+                }
+            }
+        }
+    }
+
+    public long memoryInBytes() {
+        return memoryInBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(partitions);
+    }
+
+    private Partition partitionOf(ComparisonKey key) {
+        // Rehash to avoid correlation with bucket index in HashMap of each partition
+        int hash = key.hashCode() * 0x9E3779B9;
+        return partitions[Math.floorMod(hash ^ (hash >>> 16), partitions.length)];
+    }
+
+    private Partition largestResidentPartition() {
+        Partition largest = null;
+        for (Partition partition : partitions) {
+            if (!partition.isSpilled() && !partition.rows.isEmpty()
+                    && (largest == null || partition.memoryInBytes > largest.memoryInBytes)) {
+                largest = partition;
+            }
+        }
+        return largest;
+    }
+
+    private static long estimateSize(SearchHit hit) {
+        long sourceSize = hit.getSourceRef() == null ? 0 : hit.getSourceRef().length();
+        return sourceSize * SOURCE_SIZE_MULTIPLIER + HIT_OVERHEAD_IN_BYTES;
+    }
+
+    /**
+     * Partition of hash table which is either resident in memory or spilled to files.
+     */
+    public static class Partition implements Closeable {
+
+        private final Map<ComparisonKey, List<KeyedSearchHit>> rows = new HashMap<>();
+
+        private long memoryInBytes;
+
+        private final SpillFile buildFile = new SpillFile();
+
+        private final SpillFile probeFile = new SpillFile();
+
+        private boolean spilled;
+
+        public boolean isSpilled() {
+            return spilled;
+        }
+
+        /**
+         * Load all hits of first table in this spilled partition into memory.
+         */
+        public Map<ComparisonKey, List<KeyedSearchHit>> loadBuildRows(int comparisonIndex) throws IOException {
+            Map<ComparisonKey, List<KeyedSearchHit>> loaded = new HashMap<>();
+            try (SpillFileReader reader = buildRowsReader()) {
+                for (KeyedSearchHit row = reader.next(); row != null; row = reader.next()) {
+                    loaded.computeIfAbsent(row.getKeys()[comparisonIndex], k -> new ArrayList<>()).add(row);
+                }
+            }
+            return loaded;
+        }
+
+        public SpillFileReader probeRowsReader() throws IOException {
+            return probeFile.reader();
+        }
+
+        private SpillFileReader buildRowsReader() throws IOException {
+            return buildFile.reader();
+        }
+
+        private void add(ComparisonKey key, KeyedSearchHit row, long size) {
+            rows.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+            memoryInBytes += size;
+        }
+
+        private void spill(CheckedSupplier<Path, IOException> directory) throws IOException {
+            spilled = true;
+            for (List<KeyedSearchHit> sameKeyRows : rows.values()) {
+                for (KeyedSearchHit row : sameKeyRows) {
+                    buildFile.write(row, directory);
+                }
+            }
+            rows.clear();
+            memoryInBytes = 0;
+        }
+
+        private void writeBuildRow(KeyedSearchHit row, CheckedSupplier<Path, IOException> directory)
+                throws IOException {
+            buildFile.write(row, directory);
+        }
+
+        private void writeProbeRow(KeyedSearchHit row, CheckedSupplier<Path, IOException> directory)
+                throws IOException {
+            probeFile.write(row, directory);
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.clear();
+            IOUtils.close(buildFile, probeFile);
+        }
+    }
+
+    /**
+     * Append-only file of hits created on first write.
+     */
+    private static class SpillFile implements Closeable {
+
+        private Path path;
+
+        private StreamOutput out;
+
+        private int numOfRows;
+
+        void write(KeyedSearchHit row, CheckedSupplier<Path, IOException> directory) throws IOException {
+            if (out == null) {
+                path = Files.createTempFile(directory.get(), "partition-", ".bin");
+                out = new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(path)));
+            }
+            row.writeTo(out);
+            numOfRows++;
+        }
+
+        SpillFileReader reader() throws IOException {
+            if (out == null) {
+                return new SpillFileReader(null, 0);
+            }
+            out.flush();
+            return new SpillFileReader(
+                    new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(path))), numOfRows);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                IOUtils.close(out);
+            } finally {
+                if (path != null) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reader of hits in spill file which returns null once all hits read.
+     */
+    public static class SpillFileReader implements Closeable {
+
+        private final StreamInput in;
+
+        private int numOfRowsLeft;
+
+        private SpillFileReader(StreamInput in, int numOfRows) {
+            this.in = in;
+            this.numOfRowsLeft = numOfRows;
+        }
+
+        public KeyedSearchHit next() throws IOException {
+            if (numOfRowsLeft == 0) {
+                return null;
+            }
+            numOfRowsLeft--;
+            return KeyedSearchHit.readFrom(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOUtils.close(in);
+        }
+    }
+}
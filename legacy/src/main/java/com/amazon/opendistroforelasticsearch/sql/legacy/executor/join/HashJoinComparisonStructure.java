@@ -16,10 +16,15 @@
 package com.amazon.opendistroforelasticsearch.sql.legacy.executor.join;
 
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Field;
-import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.core.internal.io.IOUtils;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -27,23 +32,40 @@ import java.util.UUID;
 /**
  * Created by Eliran on 2/11/2015.
  */
-public class HashJoinComparisonStructure {
+public class HashJoinComparisonStructure implements Closeable {
+    private static final String SPILL_DIRECTORY_PREFIX = "opendistro-sql-join-";
+
     private HashMap<String, List<Map.Entry<Field, Field>>> comparisonIDtoComparisonFields;
-    private HashMap<String, HashMap<String, SearchHitsResult>> comparisonIDtoComparisonHash;
+    private HashMap<String, GraceHashTable> comparisonIDtoComparisonHash;
+    private Path spillDirectory;
 
     public HashJoinComparisonStructure(List<List<Map.Entry<Field, Field>>> t1ToT2FieldsComparisons) {
-        comparisonIDtoComparisonFields = new HashMap<>();
+        this(t1ToT2FieldsComparisons, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param t1ToT2FieldsComparisons   comparisons connected by OR
+     * @param memoryLimitInBytes        memory limit shared by hash tables of all comparisons
+     */
+    public HashJoinComparisonStructure(List<List<Map.Entry<Field, Field>>> t1ToT2FieldsComparisons,
+                                       long memoryLimitInBytes) {
+        // Keep comparisons in order because hits carry their comparison keys in the same order
+        comparisonIDtoComparisonFields = new LinkedHashMap<>();
         comparisonIDtoComparisonHash = new HashMap<>();
+        List<List<Map.Entry<Field, Field>>> comparisons = new ArrayList<>();
         if (t1ToT2FieldsComparisons == null || t1ToT2FieldsComparisons.size() == 0) {
-            String comparisonId = UUID.randomUUID().toString();
-            this.comparisonIDtoComparisonFields.put(comparisonId, new ArrayList<Map.Entry<Field, Field>>());
-            this.comparisonIDtoComparisonHash.put(comparisonId, new HashMap<String, SearchHitsResult>());
+            comparisons.add(new ArrayList<>());
+        } else {
+            comparisons.addAll(t1ToT2FieldsComparisons);
         }
-        for (List<Map.Entry<Field, Field>> comparisonFields : t1ToT2FieldsComparisons) {
+
+        long memoryLimitPerComparison = memoryLimitInBytes / comparisons.size();
+        for (List<Map.Entry<Field, Field>> comparisonFields : comparisons) {
             String comparisonId = UUID.randomUUID().toString();
             //maby from field to List<IDS> ?
             this.comparisonIDtoComparisonFields.put(comparisonId, comparisonFields);
-            this.comparisonIDtoComparisonHash.put(comparisonId, new HashMap<String, SearchHitsResult>());
+            this.comparisonIDtoComparisonHash.put(comparisonId,
+                    new GraceHashTable(memoryLimitPerComparison, this::spillDirectory));
         }
     }
 
@@ -51,28 +73,44 @@ public class HashJoinComparisonStructure {
         return comparisonIDtoComparisonFields;
     }
 
-    public void insertIntoComparisonHash(String comparisonID, String comparisonKey, SearchHit hit) {
-        HashMap<String, SearchHitsResult> comparisonHash = this.comparisonIDtoComparisonHash.get(comparisonID);
-        SearchHitsResult currentSearchHitsResult = comparisonHash.get(comparisonKey);
-        if (currentSearchHitsResult == null) {
-            currentSearchHitsResult = new SearchHitsResult(new ArrayList<SearchHit>(), false);
-            comparisonHash.put(comparisonKey, currentSearchHitsResult);
-        }
-        currentSearchHitsResult.getSearchHits().add(hit);
+    public void insertIntoComparisonHash(String comparisonID, ComparisonKey comparisonKey, KeyedSearchHit hit)
+            throws IOException {
+        this.comparisonIDtoComparisonHash.get(comparisonID).put(comparisonKey, hit);
+    }
+
+    public boolean isResident(String comparisonID, ComparisonKey comparisonKey) {
+        return this.comparisonIDtoComparisonHash.get(comparisonID).isResident(comparisonKey);
+    }
+
+    public List<KeyedSearchHit> searchForMatchingSearchHits(String comparisonID, ComparisonKey comparisonKey) {
+        return this.comparisonIDtoComparisonHash.get(comparisonID).get(comparisonKey);
     }
 
-    public SearchHitsResult searchForMatchingSearchHits(String comparisonID, String comparisonKey) {
-        HashMap<String, SearchHitsResult> comparisonHash = this.comparisonIDtoComparisonHash.get(comparisonID);
-        return comparisonHash.get(comparisonKey);
+    public void spillProbeRow(String comparisonID, ComparisonKey comparisonKey, KeyedSearchHit hit)
+            throws IOException {
+        this.comparisonIDtoComparisonHash.get(comparisonID).spillProbeRow(comparisonKey, hit);
     }
 
-    public List<SearchHitsResult> getAllSearchHits() {
-        List<SearchHitsResult> allSearchHits = new ArrayList<>();
+    public GraceHashTable getComparisonHash(String comparisonID) {
+        return this.comparisonIDtoComparisonHash.get(comparisonID);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            IOUtils.close(comparisonIDtoComparisonHash.values());
+        } finally {
+            if (spillDirectory != null) {
+                IOUtils.rm(spillDirectory);
+            }
+        }
+    }
 
-        for (HashMap<String, SearchHitsResult> comparisonHash : this.comparisonIDtoComparisonHash.values()) {
-            allSearchHits.addAll(comparisonHash.values());
+    private Path spillDirectory() throws IOException {
+        if (spillDirectory == null) {
+            spillDirectory = Files.createTempDirectory(SPILL_DIRECTORY_PREFIX);
         }
-        return allSearchHits;
+        return spillDirectory;
     }
 
 }
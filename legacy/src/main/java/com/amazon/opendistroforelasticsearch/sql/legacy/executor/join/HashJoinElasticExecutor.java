@@ -19,8 +19,12 @@ import com.alibaba.druid.sql.ast.statement.SQLJoinTableSource;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Field;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Where;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll.ScrollTrackingClient;
+import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.HashJoinElasticRequestBuilder;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.SemiJoinFilter;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.TableInJoinRequestBuilder;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.maker.QueryMaker;
 import org.elasticsearch.action.search.SearchRequestBuilder;
@@ -28,46 +32,61 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.query.BoolQueryBuilder;
-import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Created by Eliran on 22/8/2015.
+ *
+ * Hits of first table are put into a grace hash table which spills partitions to local disk beyond memory limit.
+ * So first table is no longer limited by a hard cap on number of hits fetched.
  */
 public class HashJoinElasticExecutor extends ElasticJoinExecutor {
     private HashJoinElasticRequestBuilder requestBuilder;
 
 
-    private Client client;
+    private ScrollTrackingClient client;
     private boolean useQueryTermsFilterOptimization = false;
-    private final int MAX_RESULTS_FOR_FIRST_TABLE = 100000;
     HashJoinComparisonStructure hashJoinComparisonStructure;
-    private Set<String> alreadyMatched;
+
+    /**
+     * Doc ids of first table hits matched with any hit of second table
+     */
+    private final BitSet matchedFirstTableHits = new BitSet();
+    private int firstTableResultIds = 1;
 
     public HashJoinElasticExecutor(Client client, HashJoinElasticRequestBuilder requestBuilder) {
         super(requestBuilder);
-        this.client = client;
+        this.client = new ScrollTrackingClient(client);
         this.requestBuilder = requestBuilder;
         this.useQueryTermsFilterOptimization = requestBuilder.isUseTermFiltersOptimization();
-        this.hashJoinComparisonStructure = new HashJoinComparisonStructure(requestBuilder.getT1ToT2FieldsComparison());
-        this.alreadyMatched = new HashSet<>();
+        ByteSizeValue memoryLimit = LocalClusterState.state().getSettingValue(SqlSettings.JOIN_MEMORY_LIMIT);
+        this.hashJoinComparisonStructure = new HashJoinComparisonStructure(requestBuilder.getT1ToT2FieldsComparison(),
+                memoryLimit.getBytes());
     }
 
     public List<SearchHit> innerRun() throws IOException, SqlParseException {
+        try {
+            return hashJoin();
+        } finally {
+            hashJoinComparisonStructure.close();
+            client.close();
+        }
+    }
+
+    private List<SearchHit> hashJoin() throws IOException, SqlParseException {
 
         Map<String, Map<String, List<Object>>> optimizationTermsFilterStructure = initOptimizationStructure();
 
@@ -89,7 +108,7 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
             String t1Alias = requestBuilder.getFirstTable().getAlias();
             String t2Alias = requestBuilder.getSecondTable().getAlias();
             //todo: for each till Limit
-            addUnmatchedResults(combinedResult, this.hashJoinComparisonStructure.getAllSearchHits(),
+            addUnmatchedResults(combinedResult, Collections.singletonList(findUnmatchedFirstTableHits()),
                     requestBuilder.getSecondTable().getReturnedFields(),
                     currentNumOfResults, totalLimit,
                     t1Alias,
@@ -125,9 +144,8 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
         }
     }
 
-    private List<SearchHit> createCombinedResults(TableInJoinRequestBuilder secondTableRequest) {
+    private List<SearchHit> createCombinedResults(TableInJoinRequestBuilder secondTableRequest) throws IOException {
         List<SearchHit> combinedResult = new ArrayList<>();
-        int resultIds = 0;
         int totalLimit = this.requestBuilder.getTotalLimit();
         Integer hintLimit = secondTableRequest.getHintLimit();
         SearchResponse searchResponse;
@@ -136,9 +154,9 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
             searchResponse = secondTableRequest.getRequestBuilder().setSize(hintLimit).get();
             finishedScrolling = true;
         } else {
-            searchResponse = secondTableRequest.getRequestBuilder()
+            searchResponse = client.search(secondTableRequest.getRequestBuilder()
                     .setScroll(new TimeValue(60000))
-                    .setSize(MAX_RESULTS_ON_ONE_FETCH).get();
+                    .setSize(MAX_RESULTS_ON_ONE_FETCH).request()).actionGet();
             //es5.0 no need to scroll again!
 //            searchResponse = client.prepareSearchScroll(searchResponse.getScrollId())
 //            .setScroll(new TimeValue(600000)).get();
@@ -155,57 +173,25 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
                 if (limitReached) {
                     break;
                 }
-                //todo: need to run on comparisons. for each comparison check if exists and add.
-                HashMap<String, List<Map.Entry<Field, Field>>> comparisons =
-                        this.hashJoinComparisonStructure.getComparisons();
-
-                for (Map.Entry<String, List<Map.Entry<Field, Field>>> comparison : comparisons.entrySet()) {
-                    String comparisonID = comparison.getKey();
-                    List<Map.Entry<Field, Field>> t1ToT2FieldsComparison = comparison.getValue();
-                    String key = getComparisonKey(t1ToT2FieldsComparison, secondTableHit, false, null);
-
-                    SearchHitsResult searchHitsResult =
-                            this.hashJoinComparisonStructure.searchForMatchingSearchHits(comparisonID, key);
-
-                    if (searchHitsResult != null && searchHitsResult.getSearchHits().size() > 0) {
-                        searchHitsResult.setMatchedWithOtherTable(true);
-                        List<SearchHit> searchHits = searchHitsResult.getSearchHits();
-                        for (SearchHit matchingHit : searchHits) {
-                            String combinedId = matchingHit.getId() + "|" + secondTableHit.getId();
-                            //in order to prevent same matching when using OR on hashJoins.
-                            if (this.alreadyMatched.contains(combinedId)) {
-                                continue;
-                            } else {
-                                this.alreadyMatched.add(combinedId);
-                            }
-
-                            Map<String, Object> copiedSource = new HashMap<String, Object>();
-                            copyMaps(copiedSource, secondTableHit.getSourceAsMap());
-                            onlyReturnedFields(copiedSource, secondTableRequest.getReturnedFields(),
-                                    secondTableRequest.getOriginalSelect().isSelectAll());
-
-                            Map<String, DocumentField> documentFields = new HashMap<>();
-                            Map<String, DocumentField> metaFields = new HashMap<>();
-                            matchingHit.getFields().forEach((fieldName, docField) ->
-                                (MapperService.META_FIELDS_BEFORE_7DOT8.contains(fieldName) ? metaFields : documentFields).put(fieldName, docField));
-                            SearchHit searchHit = new SearchHit(matchingHit.docId(), combinedId,
-                                    new Text(matchingHit.getType() + "|" + secondTableHit.getType()),
-                                    documentFields, metaFields);
-                            searchHit.sourceRef(matchingHit.getSourceRef());
-                            searchHit.getSourceAsMap().clear();
-                            searchHit.getSourceAsMap().putAll(matchingHit.getSourceAsMap());
-                            String t1Alias = requestBuilder.getFirstTable().getAlias();
-                            String t2Alias = requestBuilder.getSecondTable().getAlias();
-                            mergeSourceAndAddAliases(copiedSource, searchHit, t1Alias, t2Alias);
-
-                            combinedResult.add(searchHit);
-                            resultIds++;
-                            if (resultIds >= totalLimit) {
-                                limitReached = true;
-                                break;
-                            }
+                KeyedSearchHit secondTableRow =
+                        new KeyedSearchHit(secondTableHit, getComparisonKeys(secondTableHit, false, null));
+
+                int comparisonIndex = 0;
+                for (String comparisonID : this.hashJoinComparisonStructure.getComparisons().keySet()) {
+                    ComparisonKey key = secondTableRow.getKeys()[comparisonIndex];
+                    if (this.hashJoinComparisonStructure.isResident(comparisonID, key)) {
+                        List<KeyedSearchHit> matchingRows =
+                                this.hashJoinComparisonStructure.searchForMatchingSearchHits(comparisonID, key);
+                        limitReached = combineMatchingHits(combinedResult, matchingRows, secondTableRow,
+                                comparisonIndex, secondTableRequest, totalLimit);
+                        if (limitReached) {
+                            break;
                         }
+                    } else {
+                        // Join with first table hits later when the spilled partition is loaded
+                        this.hashJoinComparisonStructure.spillProbeRow(comparisonID, key, secondTableRow);
                     }
+                    comparisonIndex++;
                 }
             }
             if (!finishedScrolling) {
@@ -219,85 +205,164 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
                 break;
             }
         }
+
+        if (!limitReached) {
+            combineSpilledPartitions(combinedResult, secondTableRequest, totalLimit);
+        }
         return combinedResult;
     }
 
-    private void copyMaps(Map<String, Object> into, Map<String, Object> from) {
-        for (Map.Entry<String, Object> keyAndValue : from.entrySet()) {
-            into.put(keyAndValue.getKey(), keyAndValue.getValue());
+    /**
+     * Join spilled partitions one at a time by loading hits of first table in it into memory
+     * and probing with hits of second table spilled to the same partition.
+     */
+    private void combineSpilledPartitions(List<SearchHit> combinedResult,
+                                          TableInJoinRequestBuilder secondTableRequest,
+                                          int totalLimit) throws IOException {
+        int comparisonIndex = 0;
+        for (String comparisonID : this.hashJoinComparisonStructure.getComparisons().keySet()) {
+            GraceHashTable comparisonHash = this.hashJoinComparisonStructure.getComparisonHash(comparisonID);
+            for (GraceHashTable.Partition partition : comparisonHash.spilledPartitions()) {
+                Map<ComparisonKey, List<KeyedSearchHit>> firstTableRows = partition.loadBuildRows(comparisonIndex);
+                try (GraceHashTable.SpillFileReader reader = partition.probeRowsReader()) {
+                    for (KeyedSearchHit secondTableRow = reader.next(); secondTableRow != null;
+                         secondTableRow = reader.next()) {
+                        List<KeyedSearchHit> matchingRows =
+                                firstTableRows.get(secondTableRow.getKeys()[comparisonIndex]);
+                        if (matchingRows != null && combineMatchingHits(combinedResult, matchingRows,
+                                secondTableRow, comparisonIndex, secondTableRequest, totalLimit)) {
+                            return;
+                        }
+                    }
+                }
+            }
+            comparisonIndex++;
         }
     }
 
-    private void createKeyToResultsAndFillOptimizationStructure(
-            Map<String, Map<String, List<Object>>> optimizationTermsFilterStructure,
-            TableInJoinRequestBuilder firstTableRequest) {
-        List<SearchHit> firstTableHits = fetchAllHits(firstTableRequest);
+    /**
+     * Combine hit of second table with all matching hits of first table.
+     *
+     * @return true if total limit reached
+     */
+    private boolean combineMatchingHits(List<SearchHit> combinedResult, List<KeyedSearchHit> matchingRows,
+                                        KeyedSearchHit secondTableRow, int comparisonIndex,
+                                        TableInJoinRequestBuilder secondTableRequest, int totalLimit) {
+        SearchHit secondTableHit = secondTableRow.getHit();
+        for (KeyedSearchHit matchingRow : matchingRows) {
+            //in order to prevent same matching when using OR on hashJoins.
+            if (matchingRow.matchesBefore(secondTableRow, comparisonIndex)) {
+                continue;
+            }
 
-        int resultIds = 1;
-        for (SearchHit hit : firstTableHits) {
-            HashMap<String, List<Map.Entry<Field, Field>>> comparisons =
-                    this.hashJoinComparisonStructure.getComparisons();
-            for (Map.Entry<String, List<Map.Entry<Field, Field>>> comparison : comparisons.entrySet()) {
-                String comparisonID = comparison.getKey();
-                List<Map.Entry<Field, Field>> t1ToT2FieldsComparison = comparison.getValue();
-
-                String key = getComparisonKey(t1ToT2FieldsComparison, hit, true,
-                        optimizationTermsFilterStructure.get(comparisonID));
-
-                //int docid , id
-                Map<String, DocumentField> documentFields = new HashMap<>();
-                Map<String, DocumentField> metaFields = new HashMap<>();
-                hit.getFields().forEach((fieldName, docField) ->
-                    (MapperService.META_FIELDS_BEFORE_7DOT8.contains(fieldName) ? metaFields : documentFields).put(fieldName, docField));
-                SearchHit searchHit = new SearchHit(resultIds, hit.getId(), new Text(hit.getType()), documentFields
-                        , metaFields);
-                searchHit.sourceRef(hit.getSourceRef());
-
-                onlyReturnedFields(searchHit.getSourceAsMap(), firstTableRequest.getReturnedFields(),
-                        firstTableRequest.getOriginalSelect().isSelectAll());
-                resultIds++;
-                this.hashJoinComparisonStructure.insertIntoComparisonHash(comparisonID, key, searchHit);
+            SearchHit matchingHit = matchingRow.getHit();
+            this.matchedFirstTableHits.set(matchingHit.docId());
+            String combinedId = matchingHit.getId() + "|" + secondTableHit.getId();
+
+            Map<String, Object> copiedSource = new HashMap<String, Object>();
+            copyMaps(copiedSource, secondTableHit.getSourceAsMap());
+            onlyReturnedFields(copiedSource, secondTableRequest.getReturnedFields(),
+                    secondTableRequest.getOriginalSelect().isSelectAll());
+
+            Map<String, DocumentField> documentFields = new HashMap<>();
+            Map<String, DocumentField> metaFields = new HashMap<>();
+            matchingHit.getFields().forEach((fieldName, docField) ->
+                (MapperService.META_FIELDS_BEFORE_7DOT8.contains(fieldName) ? metaFields : documentFields).put(fieldName, docField));
+            SearchHit searchHit = new SearchHit(matchingHit.docId(), combinedId,
+                    new Text(matchingHit.getType() + "|" + secondTableHit.getType()),
+                    documentFields, metaFields);
+            searchHit.sourceRef(matchingHit.getSourceRef());
+            searchHit.getSourceAsMap().clear();
+            searchHit.getSourceAsMap().putAll(matchingHit.getSourceAsMap());
+            String t1Alias = requestBuilder.getFirstTable().getAlias();
+            String t2Alias = requestBuilder.getSecondTable().getAlias();
+            mergeSourceAndAddAliases(copiedSource, searchHit, t1Alias, t2Alias);
+
+            combinedResult.add(searchHit);
+            if (combinedResult.size() >= totalLimit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SearchHitsResult findUnmatchedFirstTableHits() throws IOException {
+        List<SearchHit> unmatchedHits = new ArrayList<>();
+        String firstComparisonID = this.hashJoinComparisonStructure.getComparisons().keySet().iterator().next();
+        this.hashJoinComparisonStructure.getComparisonHash(firstComparisonID).forEachBuildRow(row -> {
+            if (!this.matchedFirstTableHits.get(row.getHit().docId())) {
+                unmatchedHits.add(row.getHit());
             }
+        });
+        return new SearchHitsResult(unmatchedHits, false);
+    }
+
+    private void copyMaps(Map<String, Object> into, Map<String, Object> from) {
+        for (Map.Entry<String, Object> keyAndValue : from.entrySet()) {
+            into.put(keyAndValue.getKey(), keyAndValue.getValue());
         }
     }
 
-    private List<SearchHit> fetchAllHits(TableInJoinRequestBuilder tableInJoinRequest) {
-        Integer hintLimit = tableInJoinRequest.getHintLimit();
-        SearchRequestBuilder requestBuilder = tableInJoinRequest.getRequestBuilder();
+    private void createKeyToResultsAndFillOptimizationStructure(
+            Map<String, Map<String, List<Object>>> optimizationTermsFilterStructure,
+            TableInJoinRequestBuilder firstTableRequest) throws IOException {
+        Integer hintLimit = firstTableRequest.getHintLimit();
+        SearchRequestBuilder requestBuilder = firstTableRequest.getRequestBuilder();
         if (hintLimit != null && hintLimit < MAX_RESULTS_ON_ONE_FETCH) {
             requestBuilder.setSize(hintLimit);
             SearchResponse searchResponse = requestBuilder.get();
             updateMetaSearchResults(searchResponse);
-            return Arrays.asList(searchResponse.getHits().getHits());
+            insertIntoComparisonHash(optimizationTermsFilterStructure, firstTableRequest,
+                    searchResponse.getHits().getHits());
+            return;
         }
-        return scrollTillLimit(tableInJoinRequest, hintLimit);
+        scrollTillLimit(optimizationTermsFilterStructure, firstTableRequest, hintLimit);
     }
 
-    private List<SearchHit> scrollTillLimit(TableInJoinRequestBuilder tableInJoinRequest, Integer hintLimit) {
+    private void scrollTillLimit(Map<String, Map<String, List<Object>>> optimizationTermsFilterStructure,
+                                 TableInJoinRequestBuilder tableInJoinRequest, Integer hintLimit) throws IOException {
         SearchResponse scrollResp = scrollOneTimeWithMax(client, tableInJoinRequest);
 
         updateMetaSearchResults(scrollResp);
-        List<SearchHit> hitsWithScan = new ArrayList<>();
         int curentNumOfResults = 0;
         SearchHit[] hits = scrollResp.getHits().getHits();
 
-        if (hintLimit == null) {
-            hintLimit = MAX_RESULTS_FOR_FIRST_TABLE;
-        }
-
-        while (hits.length != 0 && curentNumOfResults < hintLimit) {
+        while (hits.length != 0 && (hintLimit == null || curentNumOfResults < hintLimit)) {
             curentNumOfResults += hits.length;
-            Collections.addAll(hitsWithScan, hits);
-            if (curentNumOfResults >= MAX_RESULTS_FOR_FIRST_TABLE) {
-                //todo: log or exception?
-                System.out.println("too many results for first table, stoping at:" + curentNumOfResults);
-                break;
-            }
+            insertIntoComparisonHash(optimizationTermsFilterStructure, tableInJoinRequest, hits);
             scrollResp = client.prepareSearchScroll(scrollResp.getScrollId()).setScroll(new TimeValue(600000))
                     .execute().actionGet();
             hits = scrollResp.getHits().getHits();
         }
-        return hitsWithScan;
+    }
+
+    private void insertIntoComparisonHash(Map<String, Map<String, List<Object>>> optimizationTermsFilterStructure,
+                                          TableInJoinRequestBuilder firstTableRequest,
+                                          SearchHit[] firstTableHits) throws IOException {
+        for (SearchHit hit : firstTableHits) {
+            ComparisonKey[] keys = getComparisonKeys(hit, true, optimizationTermsFilterStructure);
+
+            //int docid , id
+            Map<String, DocumentField> documentFields = new HashMap<>();
+            Map<String, DocumentField> metaFields = new HashMap<>();
+            hit.getFields().forEach((fieldName, docField) ->
+                (MapperService.META_FIELDS_BEFORE_7DOT8.contains(fieldName) ? metaFields : documentFields).put(fieldName, docField));
+            SearchHit searchHit = new SearchHit(firstTableResultIds, hit.getId(), new Text(hit.getType()),
+                    documentFields, metaFields);
+            searchHit.sourceRef(hit.getSourceRef());
+
+            onlyReturnedFields(searchHit.getSourceAsMap(), firstTableRequest.getReturnedFields(),
+                    firstTableRequest.getOriginalSelect().isSelectAll());
+            firstTableResultIds++;
+
+            // The same hit is shared by hash tables of all comparisons
+            KeyedSearchHit row = new KeyedSearchHit(searchHit, keys);
+            int comparisonIndex = 0;
+            for (String comparisonID : this.hashJoinComparisonStructure.getComparisons().keySet()) {
+                this.hashJoinComparisonStructure.insertIntoComparisonHash(comparisonID, keys[comparisonIndex], row);
+                comparisonIndex++;
+            }
+        }
     }
 
     private boolean needToOptimize(Map<String, Map<String, List<Object>>> optimizationTermsFilterStructure) {
@@ -319,16 +384,8 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
                                               TableInJoinRequestBuilder secondTableRequest) throws SqlParseException {
         Select select = secondTableRequest.getOriginalSelect();
 
-        BoolQueryBuilder orQuery = QueryBuilders.boolQuery();
-        for (Map<String, List<Object>> optimization : optimizationTermsFilterStructure.values()) {
-            BoolQueryBuilder andQuery = QueryBuilders.boolQuery();
-            for (Map.Entry<String, List<Object>> keyToValues : optimization.entrySet()) {
-                String fieldName = keyToValues.getKey();
-                List<Object> values = keyToValues.getValue();
-                andQuery.must(QueryBuilders.termsQuery(fieldName, values));
-            }
-            orQuery.should(andQuery);
-        }
+        BoolQueryBuilder orQuery = new SemiJoinFilter(optimizationTermsFilterStructure.values()).
+                toQuery(secondTableRequest.getRequestBuilder().request().indices());
 
         Where where = select.getWhere();
 
@@ -342,9 +399,24 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
         secondTableRequest.getRequestBuilder().setQuery(boolQuery);
     }
 
-    private String getComparisonKey(List<Map.Entry<Field, Field>> t1ToT2FieldsComparison, SearchHit hit,
-                                    boolean firstTable, Map<String, List<Object>> optimizationTermsFilterStructure) {
-        String key = "";
+    private ComparisonKey[] getComparisonKeys(SearchHit hit, boolean firstTable,
+                                              Map<String, Map<String, List<Object>>> optimizationTermsFilterStructure) {
+        HashMap<String, List<Map.Entry<Field, Field>>> comparisons =
+                this.hashJoinComparisonStructure.getComparisons();
+        ComparisonKey[] keys = new ComparisonKey[comparisons.size()];
+        int comparisonIndex = 0;
+        for (Map.Entry<String, List<Map.Entry<Field, Field>>> comparison : comparisons.entrySet()) {
+            keys[comparisonIndex++] = getComparisonKey(comparison.getValue(), hit, firstTable,
+                    firstTable ? optimizationTermsFilterStructure.get(comparison.getKey()) : null);
+        }
+        return keys;
+    }
+
+    private ComparisonKey getComparisonKey(List<Map.Entry<Field, Field>> t1ToT2FieldsComparison, SearchHit hit,
+                                           boolean firstTable,
+                                           Map<String, List<Object>> optimizationTermsFilterStructure) {
+        Object[] values = new Object[t1ToT2FieldsComparison.size()];
+        int i = 0;
         Map<String, Object> sourceAsMap = hit.getSourceAsMap();
         for (Map.Entry<Field, Field> t1ToT2 : t1ToT2FieldsComparison) {
             //todo: change to our function find if key contains '.'
@@ -359,13 +431,9 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
             if (firstTable && useQueryTermsFilterOptimization) {
                 updateOptimizationData(optimizationTermsFilterStructure, data, t1ToT2.getValue().getName());
             }
-            if (data == null) {
-                key += "|null|";
-            } else {
-                key += "|" + data.toString() + "|";
-            }
+            values[i++] = data;
         }
-        return key;
+        return new ComparisonKey(values);
     }
 
     private void updateOptimizationData(Map<String, List<Object>> optimizationTermsFilterStructure,
@@ -375,10 +443,6 @@ public class HashJoinElasticExecutor extends ElasticJoinExecutor {
             values = new ArrayList<>();
             optimizationTermsFilterStructure.put(queryOptimizationKey, values);
         }
-        if (data instanceof String) {
-            //todo: analyzed or not analyzed check..
-            data = ((String) data).toLowerCase();
-        }
         if (data != null) {
             values.add(data);
         }
@@ -0,0 +1,103 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.join;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.search.SearchHit;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Search hit along with its comparison keys, one for each comparison in the order of comparisons in join.
+ */
+public class KeyedSearchHit {
+
+    private final SearchHit hit;
+
+    private final ComparisonKey[] keys;
+
+    public KeyedSearchHit(SearchHit hit, ComparisonKey[] keys) {
+        this.hit = hit;
+        this.keys = keys;
+    }
+
+    public SearchHit getHit() {
+        return hit;
+    }
+
+    public ComparisonKey[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * Check if the other hit matches this one on any comparison before the given one. This is used to
+     * prevent the same matching when using OR on hash joins without remembering all pairs matched so far.
+     *
+     * @param other             hit of the other table
+     * @param comparisonIndex   index of comparison the two hits matched on
+     * @return                  true if already matched on previous comparison
+     */
+    public boolean matchesBefore(KeyedSearchHit other, int comparisonIndex) {
+        for (int i = 0; i < comparisonIndex; i++) {
+            if (keys[i].equals(other.keys[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write keys, doc id and hit to spill file. Source is written from source map which may have been modified.
+     */
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(keys.length);
+        for (ComparisonKey key : keys) {
+            out.writeGenericValue(key.values());
+        }
+        out.writeInt(hit.docId());
+        hit.sourceRef(BytesReference.bytes(XContentFactory.jsonBuilder().map(hit.getSourceAsMap())));
+        hit.writeTo(out);
+    }
+
+    public static KeyedSearchHit readFrom(StreamInput in) throws IOException {
+        ComparisonKey[] keys = new ComparisonKey[in.readVInt()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new ComparisonKey((Object[]) in.readGenericValue());
+        }
+        int docId = in.readInt();
+        SearchHit hit = new SearchHit(in);
+
+        // Doc id is not serialized along with search hit
+        Map<String, DocumentField> documentFields = new HashMap<>();
+        Map<String, DocumentField> metaFields = new HashMap<>();
+        hit.getFields().forEach((fieldName, docField) ->
+            (MapperService.META_FIELDS_BEFORE_7DOT8.contains(fieldName) ? metaFields : documentFields)
+                .put(fieldName, docField));
+        SearchHit hitWithDocId = new SearchHit(docId, hit.getId(), new Text(hit.getType()), documentFields,
+                metaFields);
+        hitWithDocId.sourceRef(hit.getSourceRef());
+        return new KeyedSearchHit(hitWithDocId, keys);
+    }
+}
@@ -20,7 +20,10 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Condition;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Where;
 import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.ESClient;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll.ScrollTrackingClient;
+import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.DefaultQueryAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.BackOffRetryStrategy;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.NestedLoopsElasticRequestBuilder;
@@ -28,6 +31,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.TableInJoinRe
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.maker.Maker;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionFuture;
 import org.elasticsearch.action.search.MultiSearchRequest;
 import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
@@ -40,7 +44,9 @@ import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,16 +59,31 @@ public class NestedLoopsElasticExecutor extends ElasticJoinExecutor {
     private static final Logger LOG = LogManager.getLogger();
 
     private final NestedLoopsElasticRequestBuilder nestedLoopsRequest;
-    private final Client client;
+    private final ScrollTrackingClient client;
+
+    /**
+     * Max number of multi-search requests in flight at the same time
+     */
+    private final int maxConcurrentSearches;
 
     public NestedLoopsElasticExecutor(Client client, NestedLoopsElasticRequestBuilder nestedLoops) {
         super(nestedLoops);
-        this.client = client;
+        this.client = new ScrollTrackingClient(client);
         this.nestedLoopsRequest = nestedLoops;
+        this.maxConcurrentSearches = LocalClusterState.state().getSettingValue(
+                SqlSettings.JOIN_NESTED_LOOPS_MAX_CONCURRENT_SEARCHES);
     }
 
     @Override
     protected List<SearchHit> innerRun() throws SqlParseException {
+        try {
+            return nestedLoops();
+        } finally {
+            client.close();
+        }
+    }
+
+    private List<SearchHit> nestedLoops() throws SqlParseException {
         List<SearchHit> combinedResults = new ArrayList<>();
         int totalLimit = nestedLoopsRequest.getTotalLimit();
         int multiSearchMaxSize = nestedLoopsRequest.getMultiSearchMaxSize();
@@ -84,47 +105,78 @@ public class NestedLoopsElasticExecutor extends ElasticJoinExecutor {
         while (totalLimit > currentCombinedResults && !finishedWithFirstTable) {
 
             SearchHit[] hits = firstTableResponse.getHits().getHits();
-            boolean finishedMultiSearches = hits.length == 0;
-            int currentHitsIndex = 0;
 
-            while (!finishedMultiSearches) {
-                MultiSearchRequest multiSearchRequest = createMultiSearchRequest(multiSearchMaxSize,
-                        nestedLoopsRequest.getConnectedWhere(), hits, secondTableSelect,
-                        originalSecondTableWhere, currentHitsIndex);
-                int multiSearchSize = multiSearchRequest.requests().size();
+            if (hits.length < MAX_RESULTS_ON_ONE_FETCH) {
+                needScrollForFirstTable = false;
+            }
+
+            // Prefetch next page of first table while probing second table with hits of current page
+            ActionFuture<SearchResponse> nextFirstTablePage = null;
+            if (needScrollForFirstTable) {
                 if (!BackOffRetryStrategy.isHealthy()) {
                     throw new IllegalStateException("Memory circuit is broken");
                 }
-                currentCombinedResults = combineResultsFromMultiResponses(combinedResults, totalLimit,
-                        currentCombinedResults, hits, currentHitsIndex, multiSearchRequest);
-                currentHitsIndex += multiSearchSize;
-                finishedMultiSearches = currentHitsIndex >= hits.length - 1 || currentCombinedResults >= totalLimit;
+                nextFirstTablePage = client.prepareSearchScroll(firstTableResponse.getScrollId())
+                        .setScroll(new TimeValue(600000)).execute();
             }
 
-            if (hits.length < MAX_RESULTS_ON_ONE_FETCH) {
-                needScrollForFirstTable = false;
-            }
+            try {
+                currentCombinedResults = probeSecondTable(combinedResults, totalLimit, currentCombinedResults,
+                        multiSearchMaxSize, hits, secondTableSelect, originalSecondTableWhere);
 
-            if (!finishedWithFirstTable) {
-                if (needScrollForFirstTable) {
-                    if (!BackOffRetryStrategy.isHealthy()) {
-                        throw new IllegalStateException("Memory circuit is broken");
-                    }
-                    firstTableResponse = client.prepareSearchScroll(firstTableResponse.getScrollId())
-                            .setScroll(new TimeValue(600000)).get();
+                if (nextFirstTablePage != null && currentCombinedResults < totalLimit) {
+                    firstTableResponse = nextFirstTablePage.actionGet();
+                    nextFirstTablePage = null;
                 } else {
                     finishedWithFirstTable = true;
                 }
+            } finally {
+                // Next page is not needed if total limit reached or probing failed
+                if (nextFirstTablePage != null) {
+                    ElasticUtils.clearScroll(client, nextFirstTablePage);
+                }
             }
-
         }
         return combinedResults;
     }
 
+    /**
+     * Probe second table with multi-search requests built from slices of first table hits.
+     * Up to max concurrent searches requests are kept in flight while responses are combined
+     * in the order of first table hits.
+     */
+    private int probeSecondTable(List<SearchHit> combinedResults, int totalLimit, int currentCombinedResults,
+                                 int multiSearchMaxSize, SearchHit[] hits, Select secondTableSelect,
+                                 Where originalSecondTableWhere) throws SqlParseException {
+        ESClient esClient = new ESClient(client);
+        Deque<PendingMultiSearch> pendingSearches = new ArrayDeque<>();
+        int nextHitsIndex = 0;
+
+        while (currentCombinedResults < totalLimit && (nextHitsIndex < hits.length || !pendingSearches.isEmpty())) {
+            while (pendingSearches.size() < maxConcurrentSearches && nextHitsIndex < hits.length) {
+                MultiSearchRequest multiSearchRequest = createMultiSearchRequest(multiSearchMaxSize,
+                        nestedLoopsRequest.getConnectedWhere(), hits, secondTableSelect,
+                        originalSecondTableWhere, nextHitsIndex);
+                if (!BackOffRetryStrategy.isHealthy()) {
+                    throw new IllegalStateException("Memory circuit is broken");
+                }
+                pendingSearches.add(new PendingMultiSearch(nextHitsIndex, multiSearchRequest,
+                        esClient.submitMultiSearch(multiSearchRequest)));
+                nextHitsIndex += multiSearchRequest.requests().size();
+            }
+
+            PendingMultiSearch pendingSearch = pendingSearches.poll();
+            MultiSearchResponse.Item[] responses =
+                    esClient.awaitMultiSearch(pendingSearch.request, pendingSearch.response);
+            currentCombinedResults = combineResultsFromMultiResponses(combinedResults, totalLimit,
+                    currentCombinedResults, hits, pendingSearch.hitsIndex, responses);
+        }
+        return currentCombinedResults;
+    }
+
     private int combineResultsFromMultiResponses(List<SearchHit> combinedResults, int totalLimit,
                                                  int currentCombinedResults, SearchHit[] hits, int currentIndex,
-                                                 MultiSearchRequest multiSearchRequest) {
-        MultiSearchResponse.Item[] responses = new ESClient(client).multiSearch(multiSearchRequest);
+                                                 MultiSearchResponse.Item[] responses) {
         String t1Alias = nestedLoopsRequest.getFirstTable().getAlias();
         String t2Alias = nestedLoopsRequest.getSecondTable().getAlias();
 
@@ -325,6 +377,19 @@ public class NestedLoopsElasticExecutor extends ElasticJoinExecutor {
     }
 
 
+    private static class PendingMultiSearch {
+        private final int hitsIndex;
+        private final MultiSearchRequest request;
+        private final ActionFuture<MultiSearchResponse> response;
+
+        private PendingMultiSearch(int hitsIndex, MultiSearchRequest request,
+                                   ActionFuture<MultiSearchResponse> response) {
+            this.hitsIndex = hitsIndex;
+            this.request = request;
+            this.response = response;
+        }
+    }
+
     private class FetchWithScrollResponse {
         private SearchResponse response;
         private boolean needScrollForFirstTable;
@@ -15,26 +15,31 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.executor.multi;
 
-import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Condition;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Field;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
-import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Where;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.hints.Hint;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.hints.HintType;
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ElasticHitsExecutor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.join.ElasticUtils;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll.ScrollTrackingClient;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.DefaultQueryAction;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.SemiJoinFilter;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.multi.MultiQueryRequestBuilder;
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.Util;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.TotalHits.Relation;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.text.Text;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 
@@ -52,7 +57,7 @@ import java.util.UUID;
  * Created by Eliran on 26/8/2016.
  */
 public class MinusExecutor implements ElasticHitsExecutor {
-    private Client client;
+    private ScrollTrackingClient client;
     private MultiQueryRequestBuilder builder;
     private SearchHits minusHits;
     private boolean useTermsOptimization;
@@ -66,7 +71,7 @@ public class MinusExecutor implements ElasticHitsExecutor {
     private String seperator;
 
     public MinusExecutor(Client client, MultiQueryRequestBuilder builder) {
-        this.client = client;
+        this.client = new ScrollTrackingClient(client);
         this.builder = builder;
         this.useTermsOptimization = false;
         this.termsOptimizationWithToLower = false;
@@ -78,6 +83,14 @@ public class MinusExecutor implements ElasticHitsExecutor {
 
     @Override
     public void run() throws SqlParseException {
+        try {
+            minus();
+        } finally {
+            client.close();
+        }
+    }
+
+    private void minus() throws SqlParseException {
         if (this.useTermsOptimization && this.fieldsOrderFirstTable.length != 1) {
             throw new SqlParseException(
                     "Terms optimization failed: terms optimization for minus execution is supported with one field");
@@ -188,61 +201,69 @@ public class MinusExecutor implements ElasticHitsExecutor {
     }
 
     private Set<ComperableHitResult> runWithScrollings() {
+        // Scroll both tables concurrently and consume pages alternately as they arrive
+        ScrollingTable firstTable = new ScrollingTable(client.search(ElasticUtils.scrollRequestWithHits(
+                this.builder.getFirstSearchRequest(), builder.getOriginalSelect(true),
+                this.maxDocsToFetchOnEachScrollShard).request()), this.maxDocsToFetchOnFirstTable);
+        ScrollingTable secondTable = new ScrollingTable(client.search(ElasticUtils.scrollRequestWithHits(
+                this.builder.getSecondSearchRequest(), builder.getOriginalSelect(false),
+                this.maxDocsToFetchOnEachScrollShard).request()), this.maxDocsToFetchOnSecondTable);
 
-        SearchResponse scrollResp = ElasticUtils.scrollOneTimeWithHits(this.client,
-                this.builder.getFirstSearchRequest(),
-                builder.getOriginalSelect(true), this.maxDocsToFetchOnEachScrollShard);
         Set<ComperableHitResult> results = new HashSet<>();
-
-        SearchHit[] hits = scrollResp.getHits().getHits();
-        if (hits == null || hits.length == 0) {
-            return new HashSet<>();
-        }
-        int totalDocsFetchedFromFirstTable = 0;
-
-        //fetch from first table . fill set.
-        while (hits != null && hits.length != 0) {
-            totalDocsFetchedFromFirstTable += hits.length;
-            fillComperableSetFromHits(this.fieldsOrderFirstTable, hits, results);
-            if (totalDocsFetchedFromFirstTable > this.maxDocsToFetchOnFirstTable) {
-                break;
-            }
-            scrollResp = client.prepareSearchScroll(scrollResp.getScrollId())
-                    .setScroll(new TimeValue(600000)).execute().actionGet();
-            hits = scrollResp.getHits().getHits();
-        }
-        scrollResp = ElasticUtils.scrollOneTimeWithHits(this.client, this.builder.getSecondSearchRequest(),
-                builder.getOriginalSelect(false), this.maxDocsToFetchOnEachScrollShard);
-
-
-        hits = scrollResp.getHits().getHits();
-        if (hits == null || hits.length == 0) {
-            return results;
-        }
-        int totalDocsFetchedFromSecondTable = 0;
-        while (hits != null && hits.length != 0) {
-            totalDocsFetchedFromSecondTable += hits.length;
-            removeValuesFromSetAccordingToHits(this.fieldsOrderSecondTable, results, hits);
-            if (totalDocsFetchedFromSecondTable > this.maxDocsToFetchOnSecondTable) {
-                break;
+        // Values (not hits) of second table arrived before first table is finished. This is bounded by
+        // max docs to fetch on second table because second table stops scrolling once beyond that.
+        Set<String> secondTableValues = new HashSet<>();
+        try {
+            while (!firstTable.isFinished() || !secondTable.isFinished()) {
+                if (firstTable.isFinished() && results.isEmpty()) {
+                    break;
+                }
+                if (!firstTable.isFinished()) {
+                    for (SearchHit hit : firstTable.nextPage()) {
+                        ComperableHitResult result = new ComperableHitResult(hit, this.fieldsOrderFirstTable,
+                                this.seperator);
+                        if (!result.isAllNull() && !secondTableValues.contains(result.getComperator())) {
+                            results.add(result);
+                        }
+                    }
+                    if (firstTable.isFinished()) {
+                        secondTableValues.clear();
+                    }
+                }
+                if (!secondTable.isFinished()) {
+                    for (SearchHit hit : secondTable.nextPage()) {
+                        ComperableHitResult result = new ComperableHitResult(hit, this.fieldsOrderSecondTable,
+                                this.seperator);
+                        if (!result.isAllNull()) {
+                            results.remove(result);
+                            if (!firstTable.isFinished()) {
+                                secondTableValues.add(result.getComperator());
+                            }
+                        }
+                    }
+                }
             }
-            scrollResp = client.prepareSearchScroll(scrollResp.getScrollId())
-                    .setScroll(new TimeValue(600000)).execute().actionGet();
-            hits = scrollResp.getHits().getHits();
+        } finally {
+            // Clear scroll of both tables explicitly whether finished, stopped by max docs or exited early
+            firstTable.clearScroll();
+            secondTable.clearScroll();
         }
-
         return results;
     }
 
     private Set<ComperableHitResult> simpleOneTimeQueryEach() {
-        SearchHit[] firstTableHits = this.builder.getFirstSearchRequest().get().getHits().getHits();
+        // Send both requests before waiting for any response so that they run concurrently
+        ActionFuture<SearchResponse> firstTableResponse = this.builder.getFirstSearchRequest().execute();
+        ActionFuture<SearchResponse> secondTableResponse = this.builder.getSecondSearchRequest().execute();
+
+        SearchHit[] firstTableHits = firstTableResponse.actionGet().getHits().getHits();
         if (firstTableHits == null || firstTableHits.length == 0) {
             return new HashSet<>();
         }
 
         Set<ComperableHitResult> result = new HashSet<>();
         fillComperableSetFromHits(this.fieldsOrderFirstTable, firstTableHits, result);
-        SearchHit[] secondTableHits = this.builder.getSecondSearchRequest().get().getHits().getHits();
+        SearchHit[] secondTableHits = secondTableResponse.actionGet().getHits().getHits();
         if (secondTableHits == null || secondTableHits.length == 0) {
             return result;
         }
@@ -294,7 +315,6 @@ public class MinusExecutor implements ElasticHitsExecutor {
                 this.builder.getFirstSearchRequest(),
                 builder.getOriginalSelect(true), this.maxDocsToFetchOnEachScrollShard);
         Set<Object> results = new HashSet<>();
-        int currentNumOfResults = 0;
         SearchHit[] hits = scrollResp.getHits().getHits();
         SearchHit someHit = null;
         if (hits.length != 0) {
@@ -303,51 +323,86 @@ public class MinusExecutor implements ElasticHitsExecutor {
         }
         int totalDocsFetchedFromFirstTable = 0;
         int totalDocsFetchedFromSecondTable = 0;
-        Where originalWhereSecondTable = this.builder.getOriginalSelect(false).getWhere();
-        while (hits.length != 0) {
-            totalDocsFetchedFromFirstTable += hits.length;
-            Set<Object> currentSetFromResults = new HashSet<>();
-            fillSetFromHits(firstFieldName, hits, currentSetFromResults);
-            //fetch from second
-            Select secondQuerySelect = this.builder.getOriginalSelect(false);
-            Where where = createWhereWithOrigianlAndTermsFilter(secondFieldName, originalWhereSecondTable,
-                    currentSetFromResults);
-            secondQuerySelect.setWhere(where);
-            DefaultQueryAction queryAction = new DefaultQueryAction(this.client, secondQuerySelect);
-            queryAction.explain();
-            if (totalDocsFetchedFromSecondTable > this.maxDocsToFetchOnSecondTable) {
-                break;
-            }
-            SearchResponse responseForSecondTable = ElasticUtils.scrollOneTimeWithHits(this.client,
-                    queryAction.getRequestBuilder(), secondQuerySelect, this.maxDocsToFetchOnEachScrollShard);
-            SearchHits secondQuerySearchHits = responseForSecondTable.getHits();
-
-            SearchHit[] secondQueryHits = secondQuerySearchHits.getHits();
-            while (secondQueryHits.length > 0) {
-                totalDocsFetchedFromSecondTable += secondQueryHits.length;
-                removeValuesFromSetAccordingToHits(secondFieldName, currentSetFromResults, secondQueryHits);
+        Select secondQuerySelect = this.builder.getOriginalSelect(false);
+        ActionFuture<SearchResponse> nextFirstTablePage = null;
+        try {
+            while (hits.length != 0) {
+                totalDocsFetchedFromFirstTable += hits.length;
+                Set<Object> currentSetFromResults = new HashSet<>();
+                fillSetFromHits(firstFieldName, hits, currentSetFromResults);
                 if (totalDocsFetchedFromSecondTable > this.maxDocsToFetchOnSecondTable) {
                     break;
                 }
-                responseForSecondTable = client.prepareSearchScroll(responseForSecondTable.getScrollId())
-                        .setScroll(new TimeValue(600000)).execute().actionGet();
-                secondQueryHits = responseForSecondTable.getHits().getHits();
+
+                // Prefetch next page of first table while second table is queried by values of current page
+                if (totalDocsFetchedFromFirstTable <= this.maxDocsToFetchOnFirstTable) {
+                    nextFirstTablePage = scrollNext(scrollResp);
+                }
+
+                //fetch from second
+                SearchRequestBuilder secondTableRequest =
+                        createRequestWithSemiJoinFilter(secondQuerySelect, secondFieldName, currentSetFromResults);
+                SearchResponse responseForSecondTable = ElasticUtils.scrollOneTimeWithHits(this.client,
+                        secondTableRequest, secondQuerySelect, this.maxDocsToFetchOnEachScrollShard);
+                SearchHit[] secondQueryHits = responseForSecondTable.getHits().getHits();
+                while (secondQueryHits.length > 0) {
+                    totalDocsFetchedFromSecondTable += secondQueryHits.length;
+                    removeValuesFromSetAccordingToHits(secondFieldName, currentSetFromResults, secondQueryHits);
+                    if (totalDocsFetchedFromSecondTable > this.maxDocsToFetchOnSecondTable) {
+                        break;
+                    }
+                    responseForSecondTable = scrollNext(responseForSecondTable).actionGet();
+                    secondQueryHits = responseForSecondTable.getHits().getHits();
+                }
+                ElasticUtils.clearScroll(this.client, responseForSecondTable.getScrollId());
+                results.addAll(currentSetFromResults);
+                if (nextFirstTablePage == null) {
+                    System.out.println("too many results for first table, stoping at:"
+                            + totalDocsFetchedFromFirstTable);
+                    break;
+                }
+
+                scrollResp = nextFirstTablePage.actionGet();
+                nextFirstTablePage = null;
+                hits = scrollResp.getHits().getHits();
             }
-            results.addAll(currentSetFromResults);
-            if (totalDocsFetchedFromFirstTable > this.maxDocsToFetchOnFirstTable) {
-                System.out.println("too many results for first table, stoping at:" + totalDocsFetchedFromFirstTable);
-                break;
+        } finally {
+            if (nextFirstTablePage != null) {
+                ElasticUtils.clearScroll(this.client, nextFirstTablePage);
+            } else {
+                ElasticUtils.clearScroll(this.client, scrollResp.getScrollId());
             }
-
-            scrollResp = client.prepareSearchScroll(scrollResp.getScrollId())
-                    .setScroll(new TimeValue(600000)).execute().actionGet();
-            hits = scrollResp.getHits().getHits();
         }
         return new MinusOneFieldAndOptimizationResult(results, someHit);
 
 
     }
 
+    /**
+     * Build request with original where of the select and a terms query or Bloom filter on field values.
+     */
+    private SearchRequestBuilder createRequestWithSemiJoinFilter(Select select, String fieldName,
+                                                                 Set<Object> values) throws SqlParseException {
+        DefaultQueryAction queryAction = new DefaultQueryAction(this.client, select);
+        queryAction.explain();
+        SearchRequestBuilder request = queryAction.getRequestBuilder();
+
+        BoolQueryBuilder filter = new SemiJoinFilter(
+                Collections.singletonList(Collections.singletonMap(fieldName, values)),
+                this.termsOptimizationWithToLower).toQuery(request.request().indices());
+        QueryBuilder originalQuery = request.request().source().query();
+        if (originalQuery == null) {
+            request.setQuery(filter);
+        } else {
+            request.setQuery(QueryBuilders.boolQuery().must(originalQuery).filter(filter));
+        }
+        return request;
+    }
+
+    private ActionFuture<SearchResponse> scrollNext(SearchResponse response) {
+        return client.prepareSearchScroll(response.getScrollId()).setScroll(new TimeValue(600000)).execute();
+    }
+
     private void removeValuesFromSetAccordingToHits(String fieldName, Set<Object> setToRemoveFrom, SearchHit[] hits) {
         for (SearchHit hit : hits) {
             Object fieldValue = getFieldValue(hit, fieldName);
@@ -368,19 +423,6 @@ public class MinusExecutor implements ElasticHitsExecutor {
         }
     }
 
-    private Where createWhereWithOrigianlAndTermsFilter(String secondFieldName, Where originalWhereSecondTable,
-                                                        Set<Object> currentSetFromResults) throws SqlParseException {
-        Where where = Where.newInstance();
-        where.setConn(Where.CONN.AND);
-        where.addWhere(originalWhereSecondTable);
-        where.addWhere(buildTermsFilterFromResults(currentSetFromResults, secondFieldName));
-        return where;
-    }
-
-    private Where buildTermsFilterFromResults(Set<Object> results, String fieldName) throws SqlParseException {
-        return new Condition(Where.CONN.AND, fieldName, null, Condition.OPERATOR.IN_TERMS, results.toArray(), null);
-    }
-
     private Object getFieldValue(SearchHit hit, String fieldName) {
         Map<String, Object> sourceAsMap = hit.getSourceAsMap();
         if (fieldName.contains(".")) {
@@ -452,4 +494,55 @@ public class MinusExecutor implements ElasticHitsExecutor {
         }
     }
 
+    /**
+     * Table scrolled with one page request in flight while the current page is consumed.
+     */
+    private class ScrollingTable {
+        private ActionFuture<SearchResponse> pendingPage;
+        private String scrollId;
+        private final int maxDocsToFetch;
+        private int totalDocsFetched;
+        private boolean finished;
+
+        private ScrollingTable(ActionFuture<SearchResponse> firstPage, int maxDocsToFetch) {
+            this.pendingPage = firstPage;
+            this.maxDocsToFetch = maxDocsToFetch;
+        }
+
+        private SearchHit[] nextPage() {
+            SearchResponse response = pendingPage.actionGet();
+            pendingPage = null;
+            scrollId = response.getScrollId();
+            SearchHit[] hits = response.getHits().getHits();
+            if (hits == null || hits.length == 0) {
+                finished = true;
+                return new SearchHit[0];
+            }
+
+            totalDocsFetched += hits.length;
+            if (totalDocsFetched > maxDocsToFetch) {
+                finished = true;
+            } else {
+                pendingPage = scrollNext(response);
+            }
+            return hits;
+        }
+
+        private boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * Clear scroll of the page in flight if any, otherwise of the last page consumed.
+         */
+        private void clearScroll() {
+            if (pendingPage != null) {
+                ElasticUtils.clearScroll(client, pendingPage);
+                pendingPage = null;
+            } else {
+                ElasticUtils.clearScroll(client, scrollId);
+            }
+            scrollId = null;
+        }
+    }
 }
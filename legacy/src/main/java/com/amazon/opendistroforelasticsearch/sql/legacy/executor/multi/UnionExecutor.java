@@ -20,6 +20,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.multi.MultiQueryRe
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.Util;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.TotalHits.Relation;
+import org.elasticsearch.action.ActionFuture;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.document.DocumentField;
@@ -52,11 +53,15 @@ public class UnionExecutor implements ElasticHitsExecutor {
 
     @Override
     public void run() {
-        SearchResponse firstResponse = this.multiQueryBuilder.getFirstSearchRequest().get();
+        // Send both requests before waiting for any response so that they run concurrently
+        ActionFuture<SearchResponse> firstFuture = this.multiQueryBuilder.getFirstSearchRequest().execute();
+        ActionFuture<SearchResponse> secondFuture = this.multiQueryBuilder.getSecondSearchRequest().execute();
+
+        SearchResponse firstResponse = firstFuture.actionGet();
         SearchHit[] hits = firstResponse.getHits().getHits();
         List<SearchHit> unionHits = new ArrayList<>(hits.length);
         fillInternalSearchHits(unionHits, hits, this.multiQueryBuilder.getFirstTableFieldToAlias());
-        SearchResponse secondResponse = this.multiQueryBuilder.getSecondSearchRequest().get();
+        SearchResponse secondResponse = secondFuture.actionGet();
         fillInternalSearchHits(unionHits, secondResponse.getHits().getHits(),
                 this.multiQueryBuilder.getSecondTableFieldToAlias());
         int totalSize = unionHits.size();
@@ -0,0 +1,137 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Node local registry of scroll contexts opened by legacy engine internally. Scroll contexts hold segment
+ * files and heap on data nodes until cleared or expired, so every one opened is registered here with its
+ * open time and removed once cleared. This makes open context count and age observable on stats endpoint.
+ *
+ * Scroll contexts still open when the request completes are counted as leaked and cleared by the owner
+ * of the request in bulk, see {@link ScrollTrackingClient}.
+ */
+public class ScrollContextRegistry {
+
+    private static final ScrollContextRegistry INSTANCE = new ScrollContextRegistry(System::currentTimeMillis);
+
+    /**
+     * Open time of each scroll context by scroll id
+     */
+    private final Map<String, Long> openTimes = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+
+    private final AtomicLong openedCount = new AtomicLong();
+    private final AtomicLong leakedCount = new AtomicLong();
+
+    @VisibleForTesting
+    ScrollContextRegistry(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static ScrollContextRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register scroll context opened by search request or continued by scroll request.
+     * @param scrollId  scroll id
+     */
+    public void opened(String scrollId) {
+        if (scrollId != null && openTimes.putIfAbsent(scrollId, clock.getAsLong()) == null) {
+            openedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Scroll id returned by scroll request may be different from the one in request.
+     * Keep the original open time for the new scroll id.
+     * @param oldScrollId   scroll id in scroll request
+     * @param newScrollId   scroll id in response
+     */
+    public void renewed(String oldScrollId, String newScrollId) {
+        if (oldScrollId == null || oldScrollId.equals(newScrollId)) {
+            opened(newScrollId);
+            return;
+        }
+        if (newScrollId == null) {
+            closed(oldScrollId);
+            return;
+        }
+
+        Long openTime = openTimes.remove(oldScrollId);
+        if (openTime == null) {
+            opened(newScrollId);
+        } else {
+            openTimes.put(newScrollId, openTime);
+        }
+    }
+
+    /**
+     * Unregister scroll context cleared explicitly.
+     * @param scrollId  scroll id
+     */
+    public void closed(String scrollId) {
+        if (scrollId != null) {
+            openTimes.remove(scrollId);
+        }
+    }
+
+    /**
+     * Unregister scroll contexts left open by request and going to be cleared in bulk.
+     * @param scrollIds scroll ids
+     */
+    public void leaked(Collection<String> scrollIds) {
+        for (String scrollId : scrollIds) {
+            if (openTimes.remove(scrollId) != null) {
+                leakedCount.incrementAndGet();
+            }
+        }
+    }
+
+    public long size() {
+        return openTimes.size();
+    }
+
+    /**
+     * @return  age of the oldest scroll context open or 0 if none
+     */
+    public long oldestAgeInMillis() {
+        long now = clock.getAsLong();
+        long oldest = 0;
+        for (long openTime : openTimes.values()) {
+            oldest = Math.max(oldest, now - openTime);
+        }
+        return oldest;
+    }
+
+    public long openedCount() {
+        return openedCount.get();
+    }
+
+    public long leakedCount() {
+        return leakedCount.get();
+    }
+}
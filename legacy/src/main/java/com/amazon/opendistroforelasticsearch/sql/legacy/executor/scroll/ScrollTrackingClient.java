@@ -0,0 +1,163 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll;
+
+import com.amazon.opendistroforelasticsearch.sql.legacy.utils.LogUtils;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.ActionType;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client wrapper that tracks all scroll contexts opened through it during a single request.
+ * Executors opening scroll contexts internally use this client and close it when request completes,
+ * fails or is cancelled, which clears all scroll contexts not cleared by executor in one request
+ * instead of leaving them on data nodes until keep alive timeout.
+ *
+ * Note that closing this client never closes the client wrapped.
+ */
+public class ScrollTrackingClient extends FilterClient {
+
+    private static final Logger LOG = LogManager.getLogger(ScrollTrackingClient.class);
+
+    private final ScrollContextRegistry registry;
+
+    /**
+     * Scroll ids opened by this request and not cleared yet
+     */
+    private final Set<String> scrollIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether request completed. Scroll context opened by response arriving after that,
+     * ex. page prefetched asynchronously, is cleared at once
+     */
+    private volatile boolean closed;
+
+    public ScrollTrackingClient(Client in) {
+        this(in, ScrollContextRegistry.getInstance());
+    }
+
+    @VisibleForTesting
+    ScrollTrackingClient(Client in, ScrollContextRegistry registry) {
+        super(in);
+        this.registry = registry;
+    }
+
+    @Override
+    protected <Request extends ActionRequest, Response extends ActionResponse> void doExecute(
+            ActionType<Response> action, Request request, ActionListener<Response> listener) {
+        if (request instanceof ClearScrollRequest) {
+            untrack(((ClearScrollRequest) request).getScrollIds());
+        }
+
+        super.doExecute(action, request, new ActionListener<Response>() {
+            @Override
+            public void onResponse(Response response) {
+                track(request, response);
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Clear all scroll contexts still open in bulk without waiting for the response.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        clearAll();
+    }
+
+    @VisibleForTesting
+    int trackedScrollCount() {
+        return scrollIds.size();
+    }
+
+    private void clearAll() {
+        if (scrollIds.isEmpty()) {
+            return;
+        }
+
+        List<String> leakedScrollIds = new ArrayList<>(scrollIds);
+        scrollIds.removeAll(leakedScrollIds);
+        registry.leaked(leakedScrollIds);
+        LOG.debug("[{}] Clearing {} scroll contexts left open", LogUtils.getRequestId(), leakedScrollIds.size());
+
+        ClearScrollRequest clearRequest = new ClearScrollRequest();
+        clearRequest.setScrollIds(leakedScrollIds);
+        in().clearScroll(clearRequest, ActionListener.wrap(
+                response -> {
+                    if (!response.isSucceeded()) {
+                        LOG.warn("Failed to clear scroll contexts left open: {}", response.status());
+                    }
+                },
+                e -> LOG.warn("Failed to clear scroll contexts left open", e)
+        ));
+    }
+
+    private void track(ActionRequest request, ActionResponse response) {
+        if (!(response instanceof SearchResponse)) {
+            return;
+        }
+
+        String scrollId = ((SearchResponse) response).getScrollId();
+        if (scrollId == null) {
+            return;
+        }
+
+        if (request instanceof SearchScrollRequest) {
+            String oldScrollId = ((SearchScrollRequest) request).scrollId();
+            scrollIds.remove(oldScrollId);
+            registry.renewed(oldScrollId, scrollId);
+        } else {
+            registry.opened(scrollId);
+        }
+        scrollIds.add(scrollId);
+
+        if (closed) {
+            clearAll();
+        }
+    }
+
+    private void untrack(List<String> clearedScrollIds) {
+        if (clearedScrollIds == null) {
+            return;
+        }
+        for (String scrollId : clearedScrollIds) {
+            scrollIds.remove(scrollId);
+            registry.closed(scrollId);
+        }
+    }
+}
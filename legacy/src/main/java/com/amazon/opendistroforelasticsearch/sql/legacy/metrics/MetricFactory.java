@@ -16,6 +16,7 @@
 package com.amazon.opendistroforelasticsearch.sql.legacy.metrics;
 
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.BackOffRetryStrategy;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 
 public class MetricFactory {
 
@@ -42,4 +43,18 @@ public class MetricFactory {
                 return new NumericMetric<>(name.getName(), new BasicCounter());
         }
     }
+
+    public static Metric createPlanCacheMetric(MetricName name, LogicalPlanCache planCache) {
+
+        switch (name) {
+            case PLAN_CACHE_HIT_COUNT:
+                return new GaugeMetric<>(name.getName(), planCache::hitCount);
+            case PLAN_CACHE_MISS_COUNT:
+                return new GaugeMetric<>(name.getName(), planCache::missCount);
+            case PLAN_CACHE_SIZE:
+                return new GaugeMetric<>(name.getName(), planCache::size);
+            default:
+                throw new IllegalArgumentException("Not a plan cache metric: " + name.getName());
+        }
+    }
 }
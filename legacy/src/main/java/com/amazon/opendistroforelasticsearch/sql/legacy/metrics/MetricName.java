@@ -36,7 +36,21 @@ public enum MetricName {
     PPL_REQ_TOTAL("ppl_request_total"),
     PPL_REQ_COUNT_TOTAL("ppl_request_count"),
     PPL_FAILED_REQ_COUNT_SYS("ppl_failed_request_count_syserr"),
-    PPL_FAILED_REQ_COUNT_CUS("ppl_failed_request_count_cuserr");
+    PPL_FAILED_REQ_COUNT_CUS("ppl_failed_request_count_cuserr"),
+
+    PLAN_CACHE_HIT_COUNT("plan_cache_hit_count"),
+    PLAN_CACHE_MISS_COUNT("plan_cache_miss_count"),
+    PLAN_CACHE_SIZE("plan_cache_size"),
+
+    CURSOR_CONTEXT_COUNT("cursor_context_count"),
+    CURSOR_CONTEXT_MEMORY_IN_BYTES("cursor_context_memory_in_bytes"),
+    CURSOR_CONTEXT_EXPIRED_COUNT("cursor_context_expired_count"),
+    CURSOR_CONTEXT_EVICTED_COUNT("cursor_context_evicted_count"),
+
+    SCROLL_CONTEXT_COUNT("scroll_context_count"),
+    SCROLL_CONTEXT_OLDEST_AGE_IN_MILLIS("scroll_context_oldest_age_in_millis"),
+    SCROLL_CONTEXT_OPENED_COUNT("scroll_context_opened_count"),
+    SCROLL_CONTEXT_LEAKED_COUNT("scroll_context_leaked_count");
 
     private String name;
 
@@ -60,6 +74,12 @@ public enum MetricName {
         .add(PPL_FAILED_REQ_COUNT_CUS)
         .build();
 
+    /**
+     * Gauges of the logical plan cache owned by plugin, which are registered once the cache is created
+     */
+    public static final Set<MetricName> PLAN_CACHE_METRICS = ImmutableSet.of(
+        PLAN_CACHE_HIT_COUNT, PLAN_CACHE_MISS_COUNT, PLAN_CACHE_SIZE);
+
     public boolean isNumerical() {
         return this == REQ_TOTAL || this == REQ_COUNT_TOTAL || this == FAILED_REQ_COUNT_SYS
             || this == FAILED_REQ_COUNT_CUS || this == FAILED_REQ_COUNT_CB || this == DEFAULT
@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.metrics;
 
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
@@ -39,6 +40,12 @@ public class Metrics {
         }
     }
 
+    public void registerPlanCacheMetrics(LogicalPlanCache planCache) {
+        for (MetricName metricName : MetricName.PLAN_CACHE_METRICS) {
+            registerMetric(MetricFactory.createPlanCacheMetric(metricName, planCache));
+        }
+    }
+
     public void registerMetric(Metric metric) {
         registeredMetricsByName.put(metric.getName(), metric);
     }
@@ -23,6 +23,7 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.Elasticsea
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.ElasticsearchExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ExecutionProtector;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.NoopExecutionProtector;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.ElasticsearchStorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
@@ -44,9 +45,12 @@ public class ElasticsearchSQLPluginConfig {
   @Autowired
   private Settings settings;
 
+  @Autowired
+  private IndexMappingCache mappingCache;
+
   @Bean
   public ElasticsearchClient client() {
-    return new ElasticsearchNodeClient(clusterService, nodeClient);
+    return new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
   }
 
   @Bean
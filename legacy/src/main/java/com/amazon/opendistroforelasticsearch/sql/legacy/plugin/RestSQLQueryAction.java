@@ -17,17 +17,21 @@
 package com.amazon.opendistroforelasticsearch.sql.legacy.plugin;
 
 import static com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
-import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
 import static org.elasticsearch.rest.RestStatus.INTERNAL_SERVER_ERROR;
 import static org.elasticsearch.rest.RestStatus.OK;
 
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.security.SecurityAccess;
-import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.PreparedStatementCache;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.ColumnarBinaryResponseFormatter;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.SimpleJsonResponseFormatter;
 import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
 import com.amazon.opendistroforelasticsearch.sql.sql.config.SQLServiceConfig;
@@ -39,11 +43,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.BytesRestResponse;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.rest.RestStatus;
+import org.json.JSONObject;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 /**
@@ -64,10 +70,33 @@ public class RestSQLQueryAction extends BaseRestHandler {
    */
   private final Settings pluginSettings;
 
-  public RestSQLQueryAction(ClusterService clusterService, Settings pluginSettings) {
+  /**
+   * Node level index mapping cache shared by all requests.
+   */
+  private final IndexMappingCache mappingCache;
+
+  /**
+   * Node level logical plan cache shared by all requests.
+   */
+  private final LogicalPlanCache planCache;
+
+  /**
+   * Node level prepared statement cache shared by all requests.
+   */
+  private final PreparedStatementCache statementCache;
+
+  /**
+   * Constructor of RestSQLQueryAction.
+   */
+  public RestSQLQueryAction(ClusterService clusterService, Settings pluginSettings,
+                            IndexMappingCache mappingCache, LogicalPlanCache planCache,
+                            PreparedStatementCache statementCache) {
     super();
     this.clusterService = clusterService;
     this.pluginSettings = pluginSettings;
+    this.mappingCache = mappingCache;
+    this.planCache = planCache;
+    this.statementCache = statementCache;
   }
 
   @Override
@@ -89,9 +118,11 @@ public class RestSQLQueryAction extends BaseRestHandler {
    * Prepare REST channel consumer for a SQL query request.
    * @param request     SQL request
    * @param nodeClient  node client
+   * @param style       JSON response style, compact unless pretty URL param is specified
    * @return            channel consumer
    */
-  public RestChannelConsumer prepareRequest(SQLQueryRequest request, NodeClient nodeClient) {
+  public RestChannelConsumer prepareRequest(SQLQueryRequest request, NodeClient nodeClient,
+                                            Style style) {
     if (!request.isSupported()) {
       return NOT_SUPPORTED_YET;
     }
@@ -102,12 +133,34 @@ public class RestSQLQueryAction extends BaseRestHandler {
       // For now analyzing and planning stage may throw syntax exception as well
       // which hints the fallback to legacy code is necessary here.
       plan = sqlService.plan(
-                sqlService.analyze(
-                    sqlService.parse(request.getQuery())));
+                sqlService.analyze(request));
+    } catch (SyntaxCheckException e) {
+      return NOT_SUPPORTED_YET;
+    }
+    return channel -> sqlService.execute(plan, createListener(channel, request.isColumnarFormat(), style));
+  }
+
+  /**
+   * Prepare REST channel consumer for a prepare statement request which responds with
+   * the statement id to be sent along with parameter values in later query requests.
+   * @param request     SQL request with query containing parameter markers
+   * @param nodeClient  node client
+   * @return            channel consumer
+   */
+  public RestChannelConsumer prepareStatement(SQLQueryRequest request, NodeClient nodeClient) {
+    if (!request.isSupported()) {
+      return NOT_SUPPORTED_YET;
+    }
+
+    String statementId;
+    try {
+      statementId = createSQLService(nodeClient).prepare(request.getQuery());
     } catch (SyntaxCheckException e) {
       return NOT_SUPPORTED_YET;
     }
-    return channel -> sqlService.execute(plan, createListener(channel));
+    String content = new JSONObject().put("statement_id", statementId).toString();
+    return channel -> channel.sendResponse(new BytesRestResponse(
+        OK, "application/json; charset=UTF-8", content));
   }
 
   private SQLService createSQLService(NodeClient client) {
@@ -116,6 +169,9 @@ public class RestSQLQueryAction extends BaseRestHandler {
       context.registerBean(ClusterService.class, () -> clusterService);
       context.registerBean(NodeClient.class, () -> client);
       context.registerBean(Settings.class, () -> pluginSettings);
+      context.registerBean(IndexMappingCache.class, () -> mappingCache);
+      context.registerBean(LogicalPlanCache.class, () -> planCache);
+      context.registerBean(PreparedStatementCache.class, () -> statementCache);
       context.register(ElasticsearchSQLPluginConfig.class);
       context.register(SQLServiceConfig.class);
       context.refresh();
@@ -124,13 +180,24 @@ public class RestSQLQueryAction extends BaseRestHandler {
   }
 
   // TODO: duplicate code here as in RestPPLQueryAction
-  private ResponseListener<QueryResponse> createListener(RestChannel channel) {
-    SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(PRETTY);
+  private ResponseListener<QueryResponse> createListener(RestChannel channel, boolean columnar,
+                                                         Style style) {
+    SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(style);
     return new ResponseListener<QueryResponse>() {
       @Override
       public void onResponse(QueryResponse response) {
-        sendResponse(OK, formatter.format(new QueryResult(response.getSchema(),
-            response.getResults())));
+        QueryResult result = new QueryResult(response.getSchema(), response.getResults());
+        if (columnar) {
+          BytesStreamOutput content = new BytesStreamOutput();
+          new ColumnarBinaryResponseFormatter().format(result, content);
+          channel.sendResponse(ResponseCompression.compressIfAccepted(channel,
+              new BytesRestResponse(
+                  OK, ColumnarBinaryResponseFormatter.CONTENT_TYPE, content.bytes())));
+        } else {
+          channel.sendResponse(ResponseCompression.compressIfAccepted(channel,
+              new BytesRestResponse(
+                  OK, "application/json; charset=UTF-8", formatter.format(result))));
+        }
       }
 
       @Override
@@ -15,18 +15,23 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.plugin;
 
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.AsyncRestExecutor.SQL_WORKER_THREAD_POOL_NAME;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.CURSOR_ENABLED;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.QUERY_ANALYSIS_ENABLED;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.QUERY_ANALYSIS_SEMANTIC_SUGGESTION;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.QUERY_ANALYSIS_SEMANTIC_THRESHOLD;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.SQL_ENABLED;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.SQL_NEW_ENGINE_ENABLED;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
 import static org.elasticsearch.rest.RestStatus.BAD_REQUEST;
 import static org.elasticsearch.rest.RestStatus.OK;
 import static org.elasticsearch.rest.RestStatus.SERVICE_UNAVAILABLE;
 
+import com.alibaba.druid.sql.ast.expr.SQLQueryExpr;
 import com.alibaba.druid.sql.parser.ParserException;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.exception.SemanticCheckException;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.OpenDistroSqlAnalyzer;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.SqlAnalysisConfig;
@@ -38,6 +43,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterSta
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SQLFeatureDisabledException;
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ActionRequestRestExecutorFactory;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.BatchResponseCollector;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.Format;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.RestExecutor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.cursor.CursorActionRequestRestExecutorFactory;
@@ -45,7 +51,9 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.executor.cursor.CursorAs
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.format.ErrorMessageFactory;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.MetricName;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metrics;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.ESActionFactory;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.QueryAction;
+import com.amazon.opendistroforelasticsearch.sql.legacy.request.PreparedStatementRequest;
 import com.amazon.opendistroforelasticsearch.sql.legacy.request.SqlRequest;
 import com.amazon.opendistroforelasticsearch.sql.legacy.request.SqlRequestFactory;
 import com.amazon.opendistroforelasticsearch.sql.legacy.request.SqlRequestParam;
@@ -53,6 +61,8 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.rewriter.matchtoterm.Ver
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.JsonPrettyFormatter;
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.LogUtils;
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.QueryDataAnonymizer;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.PreparedStatementCache;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import com.google.common.collect.ImmutableList;
 import java.sql.SQLFeatureNotSupportedException;
@@ -71,6 +81,7 @@ import org.elasticsearch.client.Client;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.BytesRestResponse;
@@ -92,6 +103,8 @@ public class RestSqlAction extends BaseRestHandler {
     public static final String QUERY_API_ENDPOINT = "/_opendistro/_sql";
     public static final String EXPLAIN_API_ENDPOINT = QUERY_API_ENDPOINT + "/_explain";
     public static final String CURSOR_CLOSE_ENDPOINT = QUERY_API_ENDPOINT + "/close";
+    public static final String BATCH_API_ENDPOINT = QUERY_API_ENDPOINT + "/_batch";
+    public static final String PREPARE_API_ENDPOINT = QUERY_API_ENDPOINT + "/_prepare";
 
     /**
      * New SQL query request handler.
@@ -99,10 +112,13 @@ public class RestSqlAction extends BaseRestHandler {
     private final RestSQLQueryAction newSqlQueryHandler;
 
     public RestSqlAction(Settings settings, ClusterService clusterService,
-                         com.amazon.opendistroforelasticsearch.sql.common.setting.Settings pluginSettings) {
+                         com.amazon.opendistroforelasticsearch.sql.common.setting.Settings pluginSettings,
+                         IndexMappingCache mappingCache, LogicalPlanCache planCache,
+                         PreparedStatementCache statementCache) {
         super();
         this.allowExplicitIndex = MULTI_ALLOW_EXPLICIT_INDEX.get(settings);
-        this.newSqlQueryHandler = new RestSQLQueryAction(clusterService, pluginSettings);
+        this.newSqlQueryHandler = new RestSQLQueryAction(clusterService, pluginSettings, mappingCache, planCache,
+                statementCache);
     }
 
     @Override
@@ -110,7 +126,9 @@ public class RestSqlAction extends BaseRestHandler {
         return ImmutableList.of(
             new Route(RestRequest.Method.POST, QUERY_API_ENDPOINT),
             new Route(RestRequest.Method.POST, EXPLAIN_API_ENDPOINT),
-            new Route(RestRequest.Method.POST, CURSOR_CLOSE_ENDPOINT)
+            new Route(RestRequest.Method.POST, CURSOR_CLOSE_ENDPOINT),
+            new Route(RestRequest.Method.POST, BATCH_API_ENDPOINT),
+            new Route(RestRequest.Method.POST, PREPARE_API_ENDPOINT)
         );
     }
 
@@ -133,6 +151,20 @@ public class RestSqlAction extends BaseRestHandler {
                 );
             }
 
+            if (isBatchRequest(request)) {
+                final List<SqlRequest> sqlRequests = SqlRequestFactory.getBatchSqlRequests(request);
+                if (SqlRequestParam.getFormat(request.params()) != Format.JDBC) {
+                    throw new IllegalArgumentException("Invalid request. Batch request only supports jdbc format");
+                }
+                LOG.info("[{}] Batch request {} with {} queries", LogUtils.getRequestId(), request.uri(),
+                        sqlRequests.size());
+                return channel -> executeBatchRequest(request, sqlRequests, client, channel);
+            }
+
+            if (isPrepareRequest(request)) {
+                return prepareStatement(request, SqlRequestFactory.getSqlRequest(request), client);
+            }
+
             final SqlRequest sqlRequest = SqlRequestFactory.getSqlRequest(request);
             if (sqlRequest.cursor() != null) {
                 if (isExplainRequest(request)) {
@@ -143,49 +175,106 @@ public class RestSqlAction extends BaseRestHandler {
                 }
             }
 
+            return prepareSqlRequest(request, sqlRequest, client);
+        } catch (Exception e) {
+            logAndPublishMetrics(e);
+            return channel -> reportError(channel, e, isClientError(e) ? BAD_REQUEST : SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Prepare query request to run in new query engine if supported, otherwise in legacy engine.
+     */
+    private RestChannelConsumer prepareSqlRequest(RestRequest request, SqlRequest sqlRequest,
+                                                  NodeClient client) throws Exception {
+        // Druid AST is parsed at most once and shared by anonymized logging and legacy engine
+        SQLQueryExpr sqlExpr = null;
+        if (LOG.isInfoEnabled()) {
+            sqlExpr = tryParseSelect(sqlRequest.getSql());
             LOG.info("[{}] Incoming request {}: {}", LogUtils.getRequestId(), request.uri(),
-                    QueryDataAnonymizer.anonymizeData(sqlRequest.getSql()));
-
-            Format format = SqlRequestParam.getFormat(request.params());
-
-            if (isNewEngineEnabled() && isCursorDisabled()) {
-                // Route request to new query engine if it's supported already
-                SQLQueryRequest newSqlRequest = new SQLQueryRequest(sqlRequest.getJsonContent(),
-                                                                    sqlRequest.getSql(),
-                                                                    request.path(),
-                                                                    format.getFormatName());
-                RestChannelConsumer result = newSqlQueryHandler.prepareRequest(newSqlRequest, client);
-                if (result != RestSQLQueryAction.NOT_SUPPORTED_YET) {
-                    LOG.info("[{}] Request {} is handled by new SQL query engine",
-                        LogUtils.getRequestId(), newSqlRequest);
-                    return result;
-                }
-                LOG.debug("[{}] Request {} is not supported and falling back to old SQL engine",
+                    sqlExpr != null ? QueryDataAnonymizer.anonymizeData(sqlExpr)
+                            : QueryDataAnonymizer.anonymizeData(sqlRequest.getSql()));
+        }
+
+        Format format = SqlRequestParam.getFormat(request.params());
+
+        if (isNewEngineEnabled() && isCursorDisabled()) {
+            // Route request to new query engine if it's supported already
+            SQLQueryRequest newSqlRequest = new SQLQueryRequest(sqlRequest.getJsonContent(),
+                                                                sqlTemplateOf(sqlRequest),
+                                                                request.path(),
+                                                                format.getFormatName());
+            RestChannelConsumer result = newSqlQueryHandler.prepareRequest(newSqlRequest, client,
+                    SqlRequestParam.isPrettyFormat(request.params()) ? PRETTY : COMPACT);
+            if (result != RestSQLQueryAction.NOT_SUPPORTED_YET) {
+                LOG.info("[{}] Request {} is handled by new SQL query engine",
                     LogUtils.getRequestId(), newSqlRequest);
+                return result;
             }
+            LOG.debug("[{}] Request {} is not supported and falling back to old SQL engine",
+                LogUtils.getRequestId(), newSqlRequest);
+        }
 
-            final QueryAction queryAction = explainRequest(client, sqlRequest, format);
-            return channel -> executeSqlRequest(request, queryAction, client, channel);
-        } catch (Exception e) {
-            logAndPublishMetrics(e);
-            return channel -> reportError(channel, e, isClientError(e) ? BAD_REQUEST : SERVICE_UNAVAILABLE);
+        // Columnar format is only produced by new query engine. JDBC driver recognizes the
+        // response content type and decodes the JDBC format response from old engine instead.
+        format = legacyFormat(format);
+
+        final QueryAction queryAction = explainRequest(client, sqlRequest, format, sqlExpr);
+        return channel -> executeSqlRequest(request, queryAction, client, channel);
+    }
+
+    /**
+     * Prepare statement with parameter markers in new query engine. Statement handle is not
+     * available if it's not supported, in which case client should fall back to send query
+     * text along with parameters to be substituted by old engine in each request.
+     */
+    private RestChannelConsumer prepareStatement(RestRequest request, SqlRequest sqlRequest,
+                                                 NodeClient client) throws SQLFeatureNotSupportedException {
+        if (isNewEngineEnabled() && isCursorDisabled()) {
+            SQLQueryRequest newSqlRequest = new SQLQueryRequest(sqlRequest.getJsonContent(),
+                                                                sqlRequest.getSql(),
+                                                                request.path(),
+                                                                SqlRequestParam.getFormat(request.params())
+                                                                               .getFormatName());
+            RestChannelConsumer result = newSqlQueryHandler.prepareStatement(newSqlRequest, client);
+            if (result != RestSQLQueryAction.NOT_SUPPORTED_YET) {
+                LOG.info("[{}] Statement prepared by new SQL query engine", LogUtils.getRequestId());
+                return result;
+            }
         }
+        throw new SQLFeatureNotSupportedException("Prepared statement is not supported for the query");
+    }
+
+    /**
+     * Query text with parameter markers is passed to new query engine which binds parameter values
+     * to the prepared statement instead of substituting them into query text as old engine does.
+     */
+    private static String sqlTemplateOf(SqlRequest sqlRequest) {
+        if (sqlRequest instanceof PreparedStatementRequest) {
+            return ((PreparedStatementRequest) sqlRequest).getPreparedStatement();
+        }
+        return sqlRequest.getSql();
     }
 
     @Override
     protected Set<String> responseParams() {
         Set<String> responseParams = new HashSet<>(super.responseParams());
-        responseParams.addAll(Arrays.asList("sql", "flat", "separator", "_score", "_type", "_id", "newLine", "format"));
+        responseParams.addAll(Arrays.asList("sql", "flat", "separator", "_score", "_type", "_id", "newLine", "format",
+                SqlRequestParam.QUERY_PARAMS_PRETTY, "stream"));
         return responseParams;
     }
 
     private void handleCursorRequest(final RestRequest request, final String cursor, final Client client,
                                      final RestChannel channel) throws Exception {
         CursorAsyncRestExecutor cursorRestExecutor = CursorActionRequestRestExecutorFactory.createExecutor(
-                request, cursor, SqlRequestParam.getFormat(request.params()));
+                request, cursor, legacyFormat(SqlRequestParam.getFormat(request.params())));
         cursorRestExecutor.execute(client, request.params(), channel);
     }
 
+    private static Format legacyFormat(Format format) {
+        return format == Format.COLUMNAR ? Format.JDBC : format;
+    }
+
     private static void logAndPublishMetrics(final Exception e) {
         if (isClientError(e)) {
             LOG.error(LogUtils.getRequestId() + " Client side error during query execution", e);
@@ -196,13 +285,15 @@ public class RestSqlAction extends BaseRestHandler {
         }
     }
 
-    private static QueryAction explainRequest(final NodeClient client, final SqlRequest sqlRequest, Format format)
+    private static QueryAction explainRequest(final NodeClient client, final SqlRequest sqlRequest, Format format,
+                                              SQLQueryExpr sqlExpr)
             throws SQLFeatureNotSupportedException, SqlParseException {
 
         ColumnTypeProvider typeProvider = performAnalysis(sqlRequest.getSql());
 
-        final QueryAction queryAction = new SearchDao(client)
-                .explain(new QueryActionRequest(sqlRequest.getSql(), typeProvider, format));
+        QueryActionRequest queryActionRequest = new QueryActionRequest(sqlRequest.getSql(), typeProvider, format);
+        queryActionRequest.setSqlExpr(sqlExpr);
+        final QueryAction queryAction = new SearchDao(client).explain(queryActionRequest);
         queryAction.setSqlRequest(sqlRequest);
         queryAction.setFormat(format);
         queryAction.setColumnTypeProvider(typeProvider);
@@ -236,10 +327,62 @@ public class RestSqlAction extends BaseRestHandler {
         }
     }
 
+    /**
+     * Run queries in batch concurrently in SQL worker thread pool, each responding on its own channel,
+     * and respond with results of all queries in request order once all queries complete.
+     */
+    private void executeBatchRequest(final RestRequest request, final List<SqlRequest> sqlRequests,
+                                     final NodeClient client, final RestChannel channel) {
+        BatchResponseCollector collector = new BatchResponseCollector(channel, sqlRequests.size());
+        for (int i = 0; i < sqlRequests.size(); i++) {
+            final SqlRequest sqlRequest = sqlRequests.get(i);
+            final RestChannel queryChannel = collector.queryChannel(i);
+            Runnable query = () -> {
+                try {
+                    prepareSqlRequest(request, sqlRequest, client).accept(queryChannel);
+                } catch (Exception e) {
+                    logAndPublishMetrics(e);
+                    reportError(queryChannel, e, isClientError(e) ? BAD_REQUEST : SERVICE_UNAVAILABLE);
+                }
+            };
+
+            try {
+                client.threadPool().schedule(
+                        LogUtils.withCurrentContext(query),
+                        new TimeValue(0L),
+                        SQL_WORKER_THREAD_POOL_NAME
+                );
+            } catch (Exception e) {
+                logAndPublishMetrics(e);
+                reportError(queryChannel, e, SERVICE_UNAVAILABLE);
+            }
+        }
+    }
+
+    /**
+     * Parse SELECT query by Druid for logging. Null is returned for other statement or parsing error
+     * which is left to legacy engine to report.
+     */
+    private static SQLQueryExpr tryParseSelect(String sql) {
+        try {
+            return ESActionFactory.parseSelect(sql);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private static boolean isExplainRequest(final RestRequest request) {
         return request.path().endsWith("/_explain");
     }
 
+    private static boolean isBatchRequest(final RestRequest request) {
+        return request.path().endsWith("/_batch");
+    }
+
+    private static boolean isPrepareRequest(final RestRequest request) {
+        return request.path().endsWith("/_prepare");
+    }
+
     private static boolean isClientError(Exception e) {
         return e instanceof NullPointerException // NPE is hard to differentiate but more likely caused by bad query
             || e instanceof SqlParseException
@@ -51,6 +51,13 @@ public class SqlSettings {
     public static final String CURSOR_ENABLED= "opendistro.sql.cursor.enabled";
     public static final String CURSOR_FETCH_SIZE = "opendistro.sql.cursor.fetch_size";
     public static final String CURSOR_KEEPALIVE= "opendistro.sql.cursor.keep_alive";
+    public static final String CURSOR_CONTEXT_ENABLED = "opendistro.sql.cursor.context.enabled";
+
+    public static final String JOIN_MEMORY_LIMIT = "opendistro.sql.join.memory_limit";
+    public static final String JOIN_NESTED_LOOPS_MAX_CONCURRENT_SEARCHES =
+            "opendistro.sql.join.nested_loops.max_concurrent_searches";
+
+    public static final String CSV_EXPORT_MAX_SIZE = "opendistro.sql.csv.export.max_size";
 
     private final Map<String, Setting<?>> settings;
 
@@ -81,6 +88,16 @@ public class SqlSettings {
                 1, NodeScope, Dynamic));
         settings.put(CURSOR_KEEPALIVE, Setting.positiveTimeSetting(CURSOR_KEEPALIVE, timeValueMinutes(1),
                 NodeScope, Dynamic));
+        settings.put(CURSOR_CONTEXT_ENABLED, Setting.boolSetting(CURSOR_CONTEXT_ENABLED, false,
+                NodeScope, Dynamic));
+
+        // Settings for join
+        settings.put(JOIN_MEMORY_LIMIT, Setting.memorySizeSetting(JOIN_MEMORY_LIMIT, "5%", NodeScope, Dynamic));
+        settings.put(JOIN_NESTED_LOOPS_MAX_CONCURRENT_SEARCHES, Setting.intSetting(
+                JOIN_NESTED_LOOPS_MAX_CONCURRENT_SEARCHES, 4, 1, NodeScope, Dynamic));
+
+        // Settings for CSV export
+        settings.put(CSV_EXPORT_MAX_SIZE, Setting.memorySizeSetting(CSV_EXPORT_MAX_SIZE, "5%", NodeScope, Dynamic));
 
         this.settings = unmodifiableMap(settings);
     }
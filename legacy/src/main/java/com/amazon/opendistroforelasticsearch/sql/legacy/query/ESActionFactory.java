@@ -86,16 +86,12 @@ public class ESActionFactory {
      */
     public static QueryAction create(Client client, QueryActionRequest request)
             throws SqlParseException, SQLFeatureNotSupportedException {
-        String sql = request.getSql();
-        // Remove line breaker anywhere and semicolon at the end
-        sql = sql.replaceAll("\\R", " ").trim();
-        if (sql.endsWith(";")) {
-            sql = sql.substring(0, sql.length() - 1);
-        }
+        String sql = normalize(request.getSql());
 
         switch (getFirstWord(sql)) {
             case "SELECT":
-                SQLQueryExpr sqlExpr = (SQLQueryExpr) toSqlExpr(sql);
+                SQLQueryExpr sqlExpr = request.getSqlExpr() != null
+                        ? request.getSqlExpr() : (SQLQueryExpr) toSqlExpr(sql);
 
                 RewriteRuleExecutor<SQLQueryExpr> ruleExecutor = RewriteRuleExecutor.builder()
                         .withRule(new SQLExprParentSetterRule())
@@ -144,6 +140,35 @@ public class ESActionFactory {
         }
     }
 
+    /**
+     * Remove line breaker anywhere and semicolon at the end.
+     *
+     * @param sql SQL query
+     * @return normalized SQL query to parse
+     */
+    public static String normalize(String sql) {
+        sql = sql.replaceAll("\\R", " ").trim();
+        if (sql.endsWith(";")) {
+            sql = sql.substring(0, sql.length() - 1);
+        }
+        return sql;
+    }
+
+    /**
+     * Parse SELECT query by Druid for sharing the AST between anonymized logging and query
+     * action creation.
+     *
+     * @param sql SQL query
+     * @return Druid AST or null if it is not a SELECT query
+     */
+    public static SQLQueryExpr parseSelect(String sql) {
+        String normalized = normalize(sql);
+        if (!"SELECT".equals(getFirstWord(normalized))) {
+            return null;
+        }
+        return (SQLQueryExpr) toSqlExpr(normalized);
+    }
+
     private static String getFirstWord(String sql) {
         int endOfFirstWord = sql.indexOf(' ');
         return sql.substring(0, endOfFirstWord > 0 ? endOfFirstWord : sql.length()).toUpperCase();
@@ -47,7 +47,13 @@ public class ESHashJoinQueryAction extends ESJoinQueryAction {
         List<List<Map.Entry<Field, Field>>> comparisonFields = getComparisonFields(t1Alias, t2Alias,
                 joinSelect.getConnectedWhere());
 
-        ((HashJoinElasticRequestBuilder) requestBuilder).setT1ToT2FieldsComparison(comparisonFields);
+        HashJoinElasticRequestBuilder hashJoinRequestBuilder = (HashJoinElasticRequestBuilder) requestBuilder;
+        hashJoinRequestBuilder.setT1ToT2FieldsComparison(comparisonFields);
+
+        // Without any hint, nested loops may still be chosen at execution by index statistics
+        if (joinSelect.getHints().isEmpty()) {
+            hashJoinRequestBuilder.setNestedLoopsCandidate(joinSelect);
+        }
     }
 
     @Override
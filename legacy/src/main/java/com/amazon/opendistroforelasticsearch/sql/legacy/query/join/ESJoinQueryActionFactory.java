@@ -17,17 +17,38 @@ package com.amazon.opendistroforelasticsearch.sql.legacy.query.join;
 
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Condition;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.JoinSelect;
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.TableOnJoinSelect;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.hints.Hint;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.hints.HintType;
+import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.QueryAction;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.SqlElasticRequestBuilder;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.maker.QueryMaker;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats.IndexStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.index.query.QueryBuilder;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Created by Eliran on 15/9/2015.
  */
 public class ESJoinQueryActionFactory {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Nested loops is only chosen automatically if first table is small enough to be
+     * the outer side and second table is so large that scanning it for hash join costs more.
+     */
+    private static final long NESTED_LOOPS_MAX_FIRST_TABLE_SIZE = 1000;
+    private static final long NESTED_LOOPS_MIN_SECOND_TABLE_SIZE = 100000;
+    private static final long NESTED_LOOPS_MIN_TABLE_SIZE_RATIO = 1000;
+
     public static QueryAction createJoinAction(Client client, JoinSelect joinSelect) {
         List<Condition> connectedConditions = joinSelect.getConnectedConditions();
         boolean allEqual = true;
@@ -56,4 +77,58 @@ public class ESJoinQueryActionFactory {
         return new ESHashJoinQueryAction(client, joinSelect);
 
     }
+
+    /**
+     * Choose join algorithm by index statistics for hash join without any hint. This probes the indices
+     * by search and thus is only called right before execution rather than in explain.
+     *
+     * @param client            client connection to ES cluster
+     * @param requestBuilder    request builder explained from join query action
+     * @return                  nested loops request builder if cheaper, otherwise the original one
+     */
+    public static SqlElasticRequestBuilder chooseJoinAlgorithm(Client client, SqlElasticRequestBuilder requestBuilder) {
+        if (!(requestBuilder instanceof HashJoinElasticRequestBuilder)) {
+            return requestBuilder;
+        }
+
+        JoinSelect joinSelect = ((HashJoinElasticRequestBuilder) requestBuilder).getNestedLoopsCandidate();
+        if (joinSelect == null || !isNestedLoopsCheaper(client, joinSelect)) {
+            return requestBuilder;
+        }
+
+        try {
+            return new ESNestedLoopsQueryAction(client, joinSelect).explain();
+        } catch (SqlParseException e) {
+            LOG.debug("Failed to explain join by nested loops and fall back to hash join", e);
+            return requestBuilder;
+        }
+    }
+
+    /**
+     * Estimate size of both tables (with filter applied) to check if nested loops is cheaper than hash join.
+     * Nested loops issues one query per row in first table, but hash join has to scan the entire second table.
+     * Fall back to hash join if any statistics unavailable.
+     */
+    private static boolean isNestedLoopsCheaper(Client client, JoinSelect joinSelect) {
+        try {
+            Stats stats = new Stats(client);
+            IndexStats first = collectTableStats(stats, joinSelect.getFirstTable());
+            if (first == null || first.getDocNum() > NESTED_LOOPS_MAX_FIRST_TABLE_SIZE) {
+                return false;
+            }
+
+            IndexStats second = collectTableStats(stats, joinSelect.getSecondTable());
+            return second != null
+                    && second.getDocNum() >= NESTED_LOOPS_MIN_SECOND_TABLE_SIZE
+                    && second.getDocNum() >= first.getDocNum() * NESTED_LOOPS_MIN_TABLE_SIZE_RATIO;
+        } catch (Exception e) {
+            LOG.debug("Failed to estimate table size for join algorithm selection", e);
+            return false;
+        }
+    }
+
+    private static IndexStats collectTableStats(Stats stats, TableOnJoinSelect table) throws Exception {
+        QueryBuilder query = (table.getWhere() == null) ? null : QueryMaker.explain(table.getWhere(), false);
+        return stats.collectIndexStats(table.getIndexArr(), query, Collections.emptyList());
+    }
 }
@@ -16,6 +16,7 @@
 package com.amazon.opendistroforelasticsearch.sql.legacy.query.join;
 
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Field;
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.JoinSelect;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,12 @@ public class HashJoinElasticRequestBuilder extends JoinRequestBuilder {
     private List<List<Map.Entry<Field, Field>>> t1ToT2FieldsComparison;
     private boolean useTermFiltersOptimization;
 
+    /**
+     * Join to run by nested loops instead if it turns out cheaper at execution,
+     * or null if join algorithm is decided by hint already.
+     */
+    private JoinSelect nestedLoopsCandidate;
+
     public HashJoinElasticRequestBuilder() {
     }
 
@@ -51,4 +58,12 @@ public class HashJoinElasticRequestBuilder extends JoinRequestBuilder {
     public void setUseTermFiltersOptimization(boolean useTermFiltersOptimization) {
         this.useTermFiltersOptimization = useTermFiltersOptimization;
     }
+
+    public JoinSelect getNestedLoopsCandidate() {
+        return nestedLoopsCandidate;
+    }
+
+    public void setNestedLoopsCandidate(JoinSelect nestedLoopsCandidate) {
+        this.nestedLoopsCandidate = nestedLoopsCandidate;
+    }
 }
@@ -0,0 +1,219 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.query.join;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.BloomFilterExpression;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.DefaultExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.ExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.mapping.FieldMappings;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.mapping.IndexMappings;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.mapping.TypeMappings;
+import com.google.common.collect.ImmutableMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.ScriptQueryBuilder;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ExpressionScriptEngine.EXPRESSION_LANG_NAME;
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termsQuery;
+
+/**
+ * Semi-join reduction filter pushed down to the probe side of hash join by key values from build side,
+ * or to the second query of MINUS by values from a page of the first query.
+ * Key groups are OR-ed and field values in each group are AND-ed, ex. for "ON (a.id = b.id AND a.name = b.name)
+ * OR a.age = b.age": (b.id IN (...) AND b.name IN (...)) OR b.age IN (...).
+ * <p>
+ * Terms query is used for a small number of values. Otherwise a Bloom filter of the values is tested on data
+ * nodes by expression script engine, which keeps request size bounded instead of hitting index.max_terms_count.
+ * The script source only refers to the field and the Bloom filter is passed in script params, so the script
+ * is compiled once per field on each node rather than for every block, and is not limited by max script size.
+ * Bloom filter is only used for field whose doc value is exactly the same as value in source (integral number
+ * and keyword without normalizer) because false negative must be avoided.
+ */
+public class SemiJoinFilter {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Minimal number of values to use Bloom filter rather than terms query
+     */
+    public static final int BLOOM_FILTER_MIN_VALUES = 1024;
+
+    /**
+     * False positive probability of Bloom filter. Rows passed by false positive are dropped when probing anyway.
+     */
+    private static final double BLOOM_FILTER_FPP = 0.01;
+
+    private static final Map<String, ExprType> INTEGRAL_TYPES = ImmutableMap.of(
+            "long", LONG, "integer", INTEGER, "short", INTEGER, "byte", INTEGER);
+
+    private static final ExpressionSerializer SERIALIZER = new DefaultExpressionSerializer();
+
+    /**
+     * Mapping from field name to values in each key group
+     */
+    private final Collection<? extends Map<String, ? extends Collection<Object>>> keyGroups;
+
+    /**
+     * Lower case string values in terms query to match terms of text field
+     */
+    private final boolean isLowercaseTerms;
+
+    /**
+     * Field mappings of probe side index which is only loaded when any Bloom filter is to be built
+     */
+    private IndexMappings mappings;
+
+    public SemiJoinFilter(Collection<? extends Map<String, ? extends Collection<Object>>> keyGroups) {
+        this(keyGroups, false);
+    }
+
+    public SemiJoinFilter(Collection<? extends Map<String, ? extends Collection<Object>>> keyGroups,
+                          boolean isLowercaseTerms) {
+        this.keyGroups = keyGroups;
+        this.isLowercaseTerms = isLowercaseTerms;
+    }
+
+    /**
+     * Build filter query against the index(es) of probe side.
+     *
+     * @param indices index names of probe side
+     * @return filter query
+     */
+    public BoolQueryBuilder toQuery(String[] indices) {
+        BoolQueryBuilder orQuery = boolQuery();
+        for (Map<String, ? extends Collection<Object>> fieldToValues : keyGroups) {
+            BoolQueryBuilder andQuery = boolQuery();
+            fieldToValues.forEach((field, values) -> andQuery.must(filter(indices, field, values)));
+            orQuery.should(andQuery);
+        }
+        return orQuery;
+    }
+
+    private QueryBuilder filter(String[] indices, String field, Collection<Object> values) {
+        if (values.size() >= BLOOM_FILTER_MIN_VALUES) {
+            ExprType type = resolveBloomFilterType(indices, field, values);
+            if (type != null) {
+                return bloomFilter(new BloomFilterExpression(
+                        new ReferenceExpression(field, type), values, BLOOM_FILTER_FPP));
+            }
+        }
+
+        if (!isLowercaseTerms) {
+            return termsQuery(field, values);
+        }
+        // Terms stored in lower case in ES for text field
+        return termsQuery(field, values.stream().map(this::lowercaseIfStr).collect(Collectors.toList()));
+    }
+
+    private QueryBuilder bloomFilter(BloomFilterExpression expr) {
+        String source = SERIALIZER.serialize(expr.withoutBloomFilter());
+        return new ScriptQueryBuilder(new Script(ScriptType.INLINE, EXPRESSION_LANG_NAME, source, expr.toParams()));
+    }
+
+    /**
+     * Resolve type for field reference in Bloom filter expression.
+     *
+     * @return type or null if Bloom filter is not applicable to the field in any index
+     */
+    private ExprType resolveBloomFilterType(String[] indices, String field, Collection<Object> values) {
+        try {
+            if (mappings == null) {
+                mappings = LocalClusterState.state().getFieldMappings(indices);
+            }
+
+            ExprType resolved = null;
+            for (TypeMappings typeMappings : mappings.allMappings()) {
+                for (FieldMappings fieldMappings : typeMappings.allMappings()) {
+                    ExprType type = bloomFilterType(fieldMappings.mapping(field), values);
+                    if (type == null || (resolved != null && resolved != type)) {
+                        return null;
+                    }
+                    resolved = type;
+                }
+            }
+            return resolved;
+        } catch (Exception e) {
+            LOG.debug("Failed to resolve field type of {} in index {}", field, Arrays.toString(indices), e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ExprType bloomFilterType(Map<String, Object> mapping, Collection<Object> values) {
+        if (mapping == null || "false".equals(String.valueOf(mapping.get("doc_values")))) {
+            return null;
+        }
+
+        String type = (String) mapping.get("type");
+        if (INTEGRAL_TYPES.containsKey(type)) {
+            // Value in source like 1.5 or "01" is coerced into different doc value
+            boolean isAllIntegral = values.stream().allMatch(
+                    value -> value instanceof Integer || value instanceof Long
+                            || value instanceof Short || value instanceof Byte);
+            return isAllIntegral ? INTEGRAL_TYPES.get(type) : null;
+        }
+        if ("keyword".equals(type)) {
+            return isKeywordDocValueSameAsSource(mapping, values) ? STRING : null;
+        }
+        if ("text".equals(type) && mapping.get("fields") instanceof Map) {
+            Object keyword = ((Map<String, Object>) mapping.get("fields")).get("keyword");
+            if (keyword instanceof Map && "keyword".equals(((Map<String, Object>) keyword).get("type"))
+                    && isKeywordDocValueSameAsSource((Map<String, Object>) keyword, values)) {
+                return ES_TEXT_KEYWORD;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Doc value is different if normalized or absent if value is longer than ignore_above
+     */
+    private boolean isKeywordDocValueSameAsSource(Map<String, Object> mapping, Collection<Object> values) {
+        if (mapping.containsKey("normalizer")) {
+            return false;
+        }
+
+        Object ignoreAbove = mapping.get("ignore_above");
+        if (ignoreAbove == null) {
+            return true;
+        }
+        int limit = Integer.parseInt(String.valueOf(ignoreAbove));
+        return values.stream().allMatch(value -> String.valueOf(value).length() <= limit);
+    }
+
+    private Object lowercaseIfStr(Object value) {
+        return value instanceof String ? ((String) value).toLowerCase() : value;
+    }
+
+}
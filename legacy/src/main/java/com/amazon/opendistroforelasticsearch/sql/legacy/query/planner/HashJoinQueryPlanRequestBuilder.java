@@ -19,6 +19,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.HashJoinElast
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.Config;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.QueryParams;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.QueryPlanner;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats;
 import com.amazon.opendistroforelasticsearch.sql.legacy.request.SqlRequest;
 import org.elasticsearch.client.Client;
 
@@ -52,15 +53,22 @@ public class HashJoinQueryPlanRequestBuilder extends HashJoinElasticRequestBuild
 
     @Override
     public String explain() {
-        return plan().explain();
+        return plan(false).explain();
     }
 
     /**
-     * Planning for the query and create planner for explain/execute later.
+     * Planning for the query and create planner for execute later.
      *
      * @return query planner
      */
     public QueryPlanner plan() {
+        return plan(true);
+    }
+
+    /**
+     * Planning for the query. Explain plans by cached index statistics only to avoid any search issued.
+     */
+    private QueryPlanner plan(boolean probeStats) {
         config.configureLimit(
                 getTotalLimit(),
                 getFirstTable().getHintLimit(),
@@ -76,7 +84,8 @@ public class HashJoinQueryPlanRequestBuilder extends HashJoinElasticRequestBuild
                         getSecondTable(),
                         getJoinType(),
                         getT1ToT2FieldsComparison()
-                )
+                ),
+                new Stats(client, probeStats)
         );
     }
 
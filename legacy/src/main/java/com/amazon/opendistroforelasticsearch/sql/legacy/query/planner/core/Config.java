@@ -33,7 +33,7 @@ public class Config {
     /**
      * Block size for join algorithm
      */
-    private BlockSize blockSize = new FixedBlockSize(DEFAULT_BLOCK_SIZE);
+    private BlockSize blockSize = new AdaptiveBlockSize(0);
 
     /**
      * Page size for scroll on each index
@@ -68,12 +68,16 @@ public class QueryPlanner {
 
 
     public QueryPlanner(Client client, Config config, QueryParams params) {
+        this(client, config, params, new Stats(client));
+    }
+
+    public QueryPlanner(Client client, Config config, QueryParams params, Stats stats) {
         this.client = client;
         this.config = config;
-        this.stats = new Stats(client);
+        this.stats = stats;
         this.resourceMgr = new ResourceManager(stats, config);
 
-        logicalPlan = new LogicalPlan(config, params);
+        logicalPlan = new LogicalPlan(config, params, stats);
         logicalPlan.optimize();
 
         physicalPlan = new PhysicalPlan(logicalPlan);
@@ -31,6 +31,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.no
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.node.Top;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.rule.ProjectionPushDown;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.rule.SelectionPushDown;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -57,6 +58,11 @@ public class LogicalPlan implements Plan {
      */
     private final QueryParams params;
 
+    /**
+     * Statistics collector for cost estimation
+     */
+    private final Stats stats;
+
     /**
      * Root node of logical query plan tree
      */
@@ -70,9 +76,10 @@ public class LogicalPlan implements Plan {
             new ProjectionPushDown()
     );
 
-    public LogicalPlan(Config config, QueryParams params) {
+    public LogicalPlan(Config config, QueryParams params, Stats stats) {
         this.config = config;
         this.params = params;
+        this.stats = stats;
         this.root = buildPlanTree();
     }
 
@@ -106,7 +113,7 @@ public class LogicalPlan implements Plan {
                                                         config.tableLimit2()
                                                 )
                                         )
-                                )
+                                ), config.totalLimit()
                         ), config.totalLimit()
                 )
         );
@@ -134,7 +141,10 @@ public class LogicalPlan implements Plan {
         return next;
     }
 
-    private LogicalOperator sort(LogicalOperator next) {
+    /**
+     * Create sort operator with LIMIT to keep only top N rows rather than sorting all
+     */
+    private LogicalOperator sort(LogicalOperator next, int limit) {
         List<String> orderByColNames = new ArrayList<>();
         String orderByType = "";
         for (TableInJoinRequestBuilder request : getRequests()) {
@@ -151,7 +161,7 @@ public class LogicalPlan implements Plan {
         if (orderByColNames.isEmpty()) {
             return next;
         }
-        return new Sort(next, orderByColNames, orderByType);
+        return new Sort(next, orderByColNames, orderByType, limit);
     }
 
     private LogicalOperator filter(LogicalOperator next) {
@@ -203,7 +213,7 @@ public class LogicalPlan implements Plan {
     }
 
     private LogicalOperator group(TableInJoinRequestBuilder request, int pageSize) {
-        return new Group(new TableScan(request, pageSize));
+        return new Group(new TableScan(request, pageSize, stats));
     }
 
     private List<TableInJoinRequestBuilder> getRequests() {
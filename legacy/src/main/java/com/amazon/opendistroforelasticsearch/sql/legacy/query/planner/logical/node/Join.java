@@ -77,14 +77,33 @@ public class Join implements LogicalOperator {
     public <T> PhysicalOperator[] toPhysical(Map<LogicalOperator, PhysicalOperator<T>> optimalOps) {
         PhysicalOperator<T> optimalLeft = optimalOps.get(left);
         PhysicalOperator<T> optimalRight = optimalOps.get(right);
+        BlockHashJoin<T> join = new BlockHashJoin<>(
+                optimalLeft, optimalRight, type, condition,
+                blockSize, isUseTermsFilterOptimization
+        );
+        if (!isSwappable()) {
+            return new PhysicalOperator[]{join};
+        }
+
+        // Candidate with hash table built on right side. The original one wins if cost is unknown or equal.
         return new PhysicalOperator[]{
+                join,
                 new BlockHashJoin<>(
-                        optimalLeft, optimalRight, type, condition,
-                        blockSize, isUseTermsFilterOptimization
+                        optimalRight, optimalLeft, type, condition.swap(),
+                        blockSize, isUseTermsFilterOptimization, true
                 )
         };
     }
 
+    /**
+     * Only inner join is symmetric. Besides, left with table limit is not swapped because
+     * Top cannot be re-opened for each block when on the right side.
+     */
+    private boolean isSwappable() {
+        return (type == JoinType.JOIN || type == JoinType.INNER_JOIN || type == JoinType.COMMA)
+                && !(left instanceof Top);
+    }
+
     public JoinCondition conditions() {
         return condition;
     }
@@ -133,6 +152,18 @@ public class Join implements LogicalOperator {
             rightColumnNames[groupNum] = colNames;
         }
 
+        /**
+         * @return new join condition with left and right table swapped
+         */
+        public JoinCondition swap() {
+            JoinCondition swapped = new JoinCondition(rightTableAlias, leftTableAlias, groupSize());
+            for (int i = 0; i < groupSize(); i++) {
+                swapped.addLeftColumnNames(i, rightColumnNames[i]);
+                swapped.addRightColumnNames(i, leftColumnNames[i]);
+            }
+            return swapped;
+        }
+
         public int groupSize() {
             return leftColumnNames.length;
         }
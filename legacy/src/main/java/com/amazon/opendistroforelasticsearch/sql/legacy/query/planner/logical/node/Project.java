@@ -87,7 +87,7 @@ public class Project<T> implements LogicalOperator, PhysicalOperator<T> {
 
     @Override
     public Cost estimate() {
-        return new Cost();
+        return ((PhysicalOperator) next).estimate();
     }
 
     @Override
@@ -40,11 +40,17 @@ public class Sort implements LogicalOperator {
      */
     private final String orderByType;
 
+    /**
+     * Number of rows to return in total specified by LIMIT or 0 if absent
+     */
+    private final int limit;
+
 
-    public Sort(LogicalOperator next, List<String> orderByColNames, String orderByType) {
+    public Sort(LogicalOperator next, List<String> orderByColNames, String orderByType, int limit) {
         this.next = next;
         this.orderByColNames = orderByColNames;
         this.orderByType = orderByType.toUpperCase();
+        this.limit = limit;
     }
 
     @Override
@@ -55,13 +61,14 @@ public class Sort implements LogicalOperator {
     @Override
     public <T> PhysicalOperator[] toPhysical(Map<LogicalOperator, PhysicalOperator<T>> optimalOps) {
         return new PhysicalOperator[]{
-                new QuickSort<>(optimalOps.get(next), orderByColNames, orderByType)
+                new QuickSort<>(optimalOps.get(next), orderByColNames, orderByType, limit)
         };
     }
 
     @Override
     public String toString() {
-        return "Sort [ columns=" + orderByColNames + " order=" + orderByType + " ]";
+        return "Sort [ columns=" + orderByColNames + " order=" + orderByType
+                + (limit > 0 ? " limit=" + limit : "") + " ]";
     }
 
 }
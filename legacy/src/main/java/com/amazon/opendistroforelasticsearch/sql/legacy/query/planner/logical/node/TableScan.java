@@ -20,6 +20,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.PlanN
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.LogicalOperator;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.PhysicalOperator;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.node.scroll.Scroll;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats;
 
 import java.util.Map;
 
@@ -38,9 +39,15 @@ public class TableScan implements LogicalOperator {
      */
     private final int pageSize;
 
-    public TableScan(TableInJoinRequestBuilder request, int pageSize) {
+    /**
+     * Statistics collector for cost estimation of physical operator
+     */
+    private final Stats stats;
+
+    public TableScan(TableInJoinRequestBuilder request, int pageSize, Stats stats) {
         this.request = request;
         this.pageSize = pageSize;
+        this.stats = stats;
     }
 
     @Override
@@ -51,7 +58,7 @@ public class TableScan implements LogicalOperator {
     @Override
     public <T> PhysicalOperator[] toPhysical(Map<LogicalOperator, PhysicalOperator<T>> optimalOps) {
         return new PhysicalOperator[]{
-                new Scroll(request, pageSize)
+                new Scroll(request, pageSize, stats)
         };
     }
 
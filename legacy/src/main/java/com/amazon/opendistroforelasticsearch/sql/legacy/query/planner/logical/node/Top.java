@@ -71,7 +71,14 @@ public class Top<T> implements LogicalOperator, PhysicalOperator<T> {
 
     @Override
     public Cost estimate() {
-        return new Cost();
+        Cost cost = ((PhysicalOperator) next).estimate();
+        if (cost.isUnknown() || cost.inputSize() <= count) {
+            return cost;
+        }
+
+        // Iteration stops after N rows, so only part of the rows from child is pulled
+        double ratio = (double) count / cost.inputSize();
+        return new Cost(count, (long) (cost.time() * ratio), cost.distinctKeys());
     }
 
     @Override
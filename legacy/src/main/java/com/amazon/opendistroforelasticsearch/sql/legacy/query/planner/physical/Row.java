@@ -60,6 +60,14 @@ public interface Row<T> {
     T data();
 
 
+    /**
+     * @return estimated size of raw data in bytes or 0 if unknown
+     */
+    default long sizeInBytes() {
+        return 0;
+    }
+
+
     /**
      * Key that help Row be sorted or hashed.
      */
@@ -15,19 +15,73 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.estimation;
 
+/**
+ * Estimated cost of physical operator based on statistics collected from ES.
+ * Cost is unknown if statistics is unavailable, in which case it is considered as good as any other cost
+ * so that the first candidate operator (as written in SQL) is chosen.
+ */
 public class Cost implements Comparable<Cost> {
 
-    public static final Cost INFINITY = new Cost();
+    public static final Cost INFINITY = new Cost(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private static final long UNKNOWN = -1;
+
+    /**
+     * Estimated number of rows output, which is input size of parent operator
+     */
+    private long inputSize = UNKNOWN;
 
-    private long inputSize;
+    /**
+     * Estimated time in terms of total number of rows processed, including all child operators
+     */
+    private long time = UNKNOWN;
 
-    private long time;
+    /**
+     * Estimated number of distinct join keys in rows output
+     */
+    private long distinctKeys = UNKNOWN;
 
     public Cost() {
     }
 
+    public Cost(long inputSize, long time) {
+        this(inputSize, time, inputSize);
+    }
+
+    public Cost(long inputSize, long time, long distinctKeys) {
+        this.inputSize = inputSize;
+        this.time = time;
+        this.distinctKeys = Math.min(distinctKeys, inputSize);
+    }
+
+    public boolean isUnknown() {
+        return inputSize == UNKNOWN || time == UNKNOWN;
+    }
+
+    public long inputSize() {
+        return inputSize;
+    }
+
+    public long time() {
+        return time;
+    }
+
+    public long distinctKeys() {
+        return distinctKeys;
+    }
+
     @Override
     public int compareTo(Cost o) {
-        return 0;
+        if (isUnknown() || o.isUnknown()) {
+            return 0;
+        }
+        int result = Long.compare(time, o.time);
+        return result != 0 ? result : Long.compare(inputSize, o.inputSize);
+    }
+
+    @Override
+    public String toString() {
+        return isUnknown() ? "Cost [ unknown ]"
+                : "Cost [ inputSize=" + inputSize + ", time=" + time + ", distinctKeys=" + distinctKeys + " ]";
     }
 }
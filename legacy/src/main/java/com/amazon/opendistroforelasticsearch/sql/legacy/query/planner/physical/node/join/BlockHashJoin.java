@@ -15,15 +15,17 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.node.join;
 
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.SemiJoinFilter;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.ExecuteParams;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.PhysicalOperator;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.Row;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.estimation.Cost;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.blocksize.BlockSize;
-import org.elasticsearch.common.Strings;
-import org.elasticsearch.index.query.BoolQueryBuilder;
+import com.google.common.math.LongMath;
 
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -31,8 +33,6 @@ import java.util.Objects;
 
 import static com.alibaba.druid.sql.ast.statement.SQLJoinTableSource.JoinType;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.node.Join.JoinCondition;
-import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
-import static org.elasticsearch.index.query.QueryBuilders.termsQuery;
 
 /**
  * Block-based Hash Join implementation
@@ -44,20 +44,59 @@ public class BlockHashJoin<T> extends JoinAlgorithm<T> {
      */
     private final boolean isUseTermsFilterOptimization;
 
+    /**
+     * Left and right table in original query are swapped to build hash table on the smaller side
+     */
+    private final boolean isSwapped;
+
     public BlockHashJoin(PhysicalOperator<T> left,
                          PhysicalOperator<T> right,
                          JoinType type,
                          JoinCondition condition,
                          BlockSize blockSize,
                          boolean isUseTermsFilterOptimization) {
+        this(left, right, type, condition, blockSize, isUseTermsFilterOptimization, false);
+    }
+
+    public BlockHashJoin(PhysicalOperator<T> left,
+                         PhysicalOperator<T> right,
+                         JoinType type,
+                         JoinCondition condition,
+                         BlockSize blockSize,
+                         boolean isUseTermsFilterOptimization,
+                         boolean isSwapped) {
         super(left, right, type, condition, blockSize);
 
         this.isUseTermsFilterOptimization = isUseTermsFilterOptimization;
+        this.isSwapped = isSwapped;
     }
 
+    /**
+     * Estimate cost by cardinality of both sides:
+     * 1) Time: left is scanned once to build hash table block by block and right is re-scanned for each block.
+     * 2) Output: |L| * |R| / max(V(L,key), V(R,key)) assuming uniform distribution of join keys,
+     * and at least |L| for left join.
+     */
     @Override
     public Cost estimate() {
-        return new Cost();
+        Cost leftCost = left().estimate();
+        Cost rightCost = right.estimate();
+        if (leftCost.isUnknown() || rightCost.isUnknown()) {
+            return new Cost();
+        }
+
+        long leftSize = leftCost.inputSize();
+        long rightSize = rightCost.inputSize();
+        int size = blockSize().size();
+        long blockNum = (size <= 0) ? 1 : Math.max(1, LongMath.divide(leftSize, size, RoundingMode.CEILING));
+        long time = LongMath.saturatedAdd(leftCost.time(), LongMath.saturatedMultiply(blockNum, rightCost.time()));
+
+        long maxDistinctKeys = Math.max(1, Math.max(leftCost.distinctKeys(), rightCost.distinctKeys()));
+        long outputSize = LongMath.saturatedMultiply(leftSize, rightSize) / maxDistinctKeys;
+        if (type() == JoinType.LEFT_OUTER_JOIN) {
+            outputSize = Math.max(outputSize, leftSize);
+        }
+        return new Cost(outputSize, time, Math.min(leftCost.distinctKeys(), rightCost.distinctKeys()));
     }
 
     @Override
@@ -65,7 +104,7 @@ public class BlockHashJoin<T> extends JoinAlgorithm<T> {
         Objects.requireNonNull(params, "Execute params is not set so unable to add extra filter");
 
         if (isUseTermsFilterOptimization) {
-            params.add(ExecuteParams.ExecuteParamType.EXTRA_QUERY_FILTER, queryForPushedDownOnConds());
+            params.add(ExecuteParams.ExecuteParamType.EXTRA_QUERY_FILTER, filterForPushedDownOnConds());
         }
         right.open(params);
     }
@@ -81,7 +120,7 @@ public class BlockHashJoin<T> extends JoinAlgorithm<T> {
             Collection<Row<T>> matchedLeftRows = hashTable.match(rightRow);
 
             if (!matchedLeftRows.isEmpty()) {
-                combinedRows.add(new CombinedRow<>(rightRow, matchedLeftRows));
+                combinedRows.add(new CombinedRow<>(rightRow, matchedLeftRows, isSwapped));
                 totalSize += matchedLeftRows.size();
             }
         }
@@ -89,29 +128,18 @@ public class BlockHashJoin<T> extends JoinAlgorithm<T> {
     }
 
     /**
-     * Build query for pushed down conditions in ON
+     * Build semi-join filter for pushed down conditions in ON
      */
-    private BoolQueryBuilder queryForPushedDownOnConds() {
-        BoolQueryBuilder orQuery = boolQuery();
+    private SemiJoinFilter filterForPushedDownOnConds() {
         Map<String, Collection<Object>>[] rightNameToLeftValuesGroup = hashTable.rightFieldWithLeftValues();
-
-        for (Map<String, Collection<Object>> rightNameToLeftValues : rightNameToLeftValuesGroup) {
-            if (LOG.isTraceEnabled()) {
+        if (LOG.isTraceEnabled()) {
+            for (Map<String, Collection<Object>> rightNameToLeftValues : rightNameToLeftValuesGroup) {
                 rightNameToLeftValues.forEach((rightName, leftValues) ->
                         LOG.trace("Right name to left values mapping: {} => {}", rightName, leftValues));
             }
-
-            BoolQueryBuilder andQuery = boolQuery();
-            rightNameToLeftValues.forEach(
-                    (rightName, leftValues) -> andQuery.must(termsQuery(rightName, leftValues))
-            );
-
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("Terms filter optimization: {}", Strings.toString(andQuery));
-            }
-            orQuery.should(andQuery);
         }
-        return orQuery;
+        // String keys in terms query are lower cased for block hash join to match terms of text field
+        return new SemiJoinFilter(Arrays.asList(rightNameToLeftValuesGroup), true);
     }
 
     /*********************************************
@@ -121,4 +149,8 @@ public class BlockHashJoin<T> extends JoinAlgorithm<T> {
     public boolean isUseTermsFilterOptimization() {
         return isUseTermsFilterOptimization;
     }
+
+    public boolean isSwapped() {
+        return isSwapped;
+    }
 }
@@ -32,15 +32,25 @@ public class CombinedRow<T> {
     private Row<T> rightRow;
     private Collection<Row<T>> leftRows;
 
+    /**
+     * Left and right are swapped in plan, so right row should be put first to keep the order in original query
+     */
+    private boolean isRightRowFirst;
+
     public CombinedRow(Row<T> rightRow, Collection<Row<T>> leftRows) {
+        this(rightRow, leftRows, false);
+    }
+
+    public CombinedRow(Row<T> rightRow, Collection<Row<T>> leftRows, boolean isRightRowFirst) {
         this.rightRow = rightRow;
         this.leftRows = leftRows;
+        this.isRightRowFirst = isRightRowFirst;
     }
 
     public List<Row<T>> combine() {
         List<Row<T>> combinedRows = new ArrayList<>();
         for (Row<T> leftRow : leftRows) {
-            combinedRows.add(leftRow.combine(rightRow));
+            combinedRows.add(isRightRowFirst ? rightRow.combine(leftRow) : leftRow.combine(rightRow));
         }
         return combinedRows;
     }
@@ -22,6 +22,7 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.no
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.PhysicalOperator;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.Row;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.node.BatchPhysicalOperator;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.ResourceManager;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.blocksize.BlockSize;
 import com.google.common.collect.Sets;
 import org.apache.logging.log4j.LogManager;
@@ -83,6 +84,13 @@ public abstract class JoinAlgorithm<T> extends BatchPhysicalOperator<T> {
      */
     protected ExecuteParams params;
 
+    /**
+     * Feedback of current block for block size calculation
+     */
+    private int blockRows;
+    private long blockBytes;
+    private long matchedRows;
+
     JoinAlgorithm(PhysicalOperator<T> left,
                   PhysicalOperator<T> right,
                   JoinType type,
@@ -102,6 +110,18 @@ public abstract class JoinAlgorithm<T> extends BatchPhysicalOperator<T> {
         return new PlanNode[]{left, right};
     }
 
+    protected PhysicalOperator<T> left() {
+        return left;
+    }
+
+    protected JoinType type() {
+        return type;
+    }
+
+    protected BlockSize blockSize() {
+        return blockSize;
+    }
+
     @Override
     public void open(ExecuteParams params) throws Exception {
         super.open(params);
@@ -177,6 +197,7 @@ public abstract class JoinAlgorithm<T> extends BatchPhysicalOperator<T> {
             for (CombinedRow<T> row : combinedRows) {
                 matchRows.addAll(row.combine());
             }
+            matchedRows += matchRows.size();
 
             if (LOG.isTraceEnabled()) {
                 matchRows.forEach(row -> LOG.trace("Matched row after combined: {}", row));
@@ -238,8 +259,12 @@ public abstract class JoinAlgorithm<T> extends BatchPhysicalOperator<T> {
             LOG.trace("Build hash table on conditions with block: {}, {}", condition, block);
         }
 
+        blockRows = block.size();
+        blockBytes = 0;
+        matchedRows = 0;
         for (Row<T> data : block) {
             hashTable.add(data);
+            blockBytes += data.sizeInBytes();
         }
 
         if (type == JoinType.LEFT_OUTER_JOIN) {
@@ -249,11 +274,22 @@ public abstract class JoinAlgorithm<T> extends BatchPhysicalOperator<T> {
 
     private void cleanUpAndCloseRight() {
         LOG.debug("No more data from right. Clean up and close right.");
+        feedbackBlockSize();
         hashTable.clear();
         leftMismatch.clear();
         right.close();
     }
 
+    /**
+     * Feedback before hash table cleared so that memory headroom reflects the block in use
+     */
+    private void feedbackBlockSize() {
+        ResourceManager resourceMgr = params.get(ExecuteParams.ExecuteParamType.RESOURCE_MANAGER);
+        if (resourceMgr != null) {
+            blockSize.feedback(blockRows, blockBytes, matchedRows, resourceMgr.memoryHeadroom());
+        }
+    }
+
     private List<Row<T>> loadNextBlockFromLeft(int blockSize) {
         List<Row<T>> block = new ArrayList<>();
         for (int i = 0; i < blockSize && left.hasNext(); i++) {
@@ -36,7 +36,7 @@ public class PhysicalProject implements PhysicalOperator<BindingTuple> {
 
     @Override
     public Cost estimate() {
-        return null;
+        return next.estimate();
     }
 
     @Override
@@ -15,8 +15,13 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.node.scroll;
 
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Field;
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.TableOnJoinSelect;
 import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Where;
 import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll.ScrollContextRegistry;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.SemiJoinFilter;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.TableInJoinRequestBuilder;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.maker.QueryMaker;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.ExecuteParams;
@@ -25,7 +30,11 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.R
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.estimation.Cost;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.node.BatchPhysicalOperator;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.ResourceManager;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats.IndexStats;
+import com.google.common.math.LongMath;
 import org.elasticsearch.action.search.ClearScrollResponse;
+import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.Strings;
@@ -38,7 +47,10 @@ import org.elasticsearch.search.sort.SortOrder;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * ES Scroll API as physical implementation of TableScan
@@ -75,10 +87,21 @@ public class Scroll extends BatchPhysicalOperator<SearchHit> {
      */
     private ResourceManager resourceMgr;
 
+    /**
+     * Statistics collector for cost estimation
+     */
+    private final Stats stats;
+
+    /**
+     * Cost estimated, cached because it requires a probe request to ES
+     */
+    private Cost cost;
 
-    public Scroll(TableInJoinRequestBuilder request, int pageSize) {
+
+    public Scroll(TableInJoinRequestBuilder request, int pageSize, Stats stats) {
         this.request = request;
         this.pageSize = pageSize;
+        this.stats = stats;
     }
 
     @Override
@@ -88,7 +111,54 @@ public class Scroll extends BatchPhysicalOperator<SearchHit> {
 
     @Override
     public Cost estimate() {
-        return new Cost();
+        if (cost == null) {
+            cost = estimateByIndexStats();
+        }
+        return cost;
+    }
+
+    /**
+     * Estimate number of rows by matched document count and number of distinct join keys by product of
+     * cardinality of each join field (assume independent and capped by row count).
+     */
+    private Cost estimateByIndexStats() {
+        if (stats == null) {
+            return new Cost();
+        }
+
+        SearchRequest searchRequest = request.getRequestBuilder().request();
+        QueryBuilder query = (searchRequest.source() == null) ? null : searchRequest.source().query();
+        List<String> joinFields = getJoinFields();
+        IndexStats indexStats = stats.collectIndexStats(searchRequest.indices(), query, joinFields);
+        if (indexStats == null) {
+            return new Cost();
+        }
+
+        long rows = indexStats.getDocNum();
+        long distinctKeys = rows;
+        if (!joinFields.isEmpty()) {
+            distinctKeys = 1;
+            for (String field : joinFields) {
+                Long distinctValues = indexStats.getDistinctValues(field);
+                if (distinctValues == null) {
+                    distinctKeys = rows;
+                    break;
+                }
+                distinctKeys = Math.min(rows, LongMath.saturatedMultiply(distinctKeys, Math.max(distinctValues, 1)));
+            }
+        }
+        return new Cost(rows, rows, distinctKeys);
+    }
+
+    private List<String> getJoinFields() {
+        Select select = request.getOriginalSelect();
+        if (!(select instanceof TableOnJoinSelect) || ((TableOnJoinSelect) select).getConnectedFields() == null) {
+            return Collections.emptyList();
+        }
+        return ((TableOnJoinSelect) select).getConnectedFields().stream().
+                                            map(Field::getName).
+                                            distinct().
+                                            collect(Collectors.toList());
     }
 
     @Override
@@ -99,9 +169,10 @@ public class Scroll extends BatchPhysicalOperator<SearchHit> {
         resourceMgr = params.get(ExecuteParams.ExecuteParamType.RESOURCE_MANAGER);
 
         Object filter = params.get(ExecuteParams.ExecuteParamType.EXTRA_QUERY_FILTER);
-        if (filter instanceof BoolQueryBuilder) {
+        if (filter instanceof SemiJoinFilter) {
+            String[] indices = request.getRequestBuilder().request().indices();
             request.getRequestBuilder().setQuery(
-                    generateNewQueryWithExtraFilter((BoolQueryBuilder) filter));
+                    generateNewQueryWithExtraFilter(((SemiJoinFilter) filter).toQuery(indices)));
 
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Received extra query filter, re-build query: {}", Strings.toString(
@@ -115,6 +186,7 @@ public class Scroll extends BatchPhysicalOperator<SearchHit> {
     public void close() {
         if (scrollResponse != null) {
             LOG.debug("Closing all scroll resources");
+            ScrollContextRegistry.getInstance().closed(scrollResponse.getScrollId());
             ClearScrollResponse clearScrollResponse = client.prepareClearScroll().
                     addScrollId(scrollResponse.getScrollId()).
                     get();
@@ -164,6 +236,7 @@ public class Scroll extends BatchPhysicalOperator<SearchHit> {
                 setSize(pageSize).
                 setScroll(TimeValue.timeValueSeconds(timeout)).
                 get();
+        ScrollContextRegistry.getInstance().opened(scrollResponse.getScrollId());
     }
 
     private void updateMetaResult() {
@@ -174,9 +247,11 @@ public class Scroll extends BatchPhysicalOperator<SearchHit> {
     }
 
     private void loadNextBatchByScrollId() {
-        scrollResponse = client.prepareSearchScroll(scrollResponse.getScrollId()).
+        String scrollId = scrollResponse.getScrollId();
+        scrollResponse = client.prepareSearchScroll(scrollId).
                 setScroll(TimeValue.timeValueSeconds(timeout)).
                 get();
+        ScrollContextRegistry.getInstance().renewed(scrollId, scrollResponse.getScrollId());
     }
 
     @SuppressWarnings("unchecked")
@@ -119,6 +119,11 @@ class SearchHitRow implements Row<SearchHit> {
         return hit;
     }
 
+    @Override
+    public long sizeInBytes() {
+        return (hit.getSourceRef() == null) ? 0 : hit.getSourceRef().length();
+    }
+
     @Override
     public String toString() {
         return "SearchHitRow{" + "hit=" + source + '}';
@@ -19,8 +19,10 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.Execu
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.core.PlanNode;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.PhysicalOperator;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.Row;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.Row.RowKey;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.estimation.Cost;
 import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.node.BatchPhysicalOperator;
+import com.google.common.math.LongMath;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -29,12 +31,14 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import static java.util.Collections.emptyList;
 
 /**
  * Physical operator to sort by quick sort implementation in JDK.
  * Note that this is all in-memory operator which may be a problem for large index.
+ * If LIMIT is present, only top N rows are kept in a bounded heap instead of sorting all rows from child.
  *
  * @param <T> actual data type, ex.SearchHit
  */
@@ -54,12 +58,18 @@ public class QuickSort<T> extends BatchPhysicalOperator<T> {
      */
     private final String orderByType;
 
+    /**
+     * Number of rows to return in total specified by LIMIT or 0 if absent
+     */
+    private final int limit;
+
     private boolean isDone = false;
 
-    public QuickSort(PhysicalOperator<T> next, List<String> orderByColNames, String orderByType) {
+    public QuickSort(PhysicalOperator<T> next, List<String> orderByColNames, String orderByType, int limit) {
         this.next = next;
         this.orderByColNames = orderByColNames.toArray(new String[0]);
         this.orderByType = orderByType;
+        this.limit = limit;
     }
 
     @Override
@@ -69,7 +79,15 @@ public class QuickSort<T> extends BatchPhysicalOperator<T> {
 
     @Override
     public Cost estimate() {
-        return new Cost();
+        Cost cost = next.estimate();
+        if (cost.isUnknown()) {
+            return cost;
+        }
+
+        long n = cost.inputSize();
+        long k = isTopN() ? Math.min(n, limit) : n;
+        long sortTime = (k <= 1) ? 0 : (long) (n * (Math.log(k) / Math.log(2)));
+        return new Cost(k, LongMath.saturatedAdd(cost.time(), sortTime), cost.distinctKeys());
     }
 
     @Override
@@ -87,9 +105,11 @@ public class QuickSort<T> extends BatchPhysicalOperator<T> {
             return emptyList();
         }
 
-        List<Row<T>> allRowsSorted = new ArrayList<>();
-        next.forEachRemaining(allRowsSorted::add);
-        allRowsSorted.sort(createRowComparator());
+        List<KeyedRow<T>> keyedRows = isTopN() ? topN() : sortAll();
+        List<Row<T>> allRowsSorted = new ArrayList<>(keyedRows.size());
+        for (KeyedRow<T> keyedRow : keyedRows) {
+            allRowsSorted.add(keyedRow.row);
+        }
 
         if (LOG.isTraceEnabled()) {
             LOG.trace("All rows being sorted in RB-Tree: {}", allRowsSorted);
@@ -99,17 +119,77 @@ public class QuickSort<T> extends BatchPhysicalOperator<T> {
         return allRowsSorted;
     }
 
-    private Comparator<Row<T>> createRowComparator() {
-        Comparator<Row<T>> comparator = Comparator.comparing(o -> o.key(orderByColNames));
+    private boolean isTopN() {
+        return limit > 0;
+    }
+
+    private List<KeyedRow<T>> sortAll() {
+        List<KeyedRow<T>> keyedRows = new ArrayList<>();
+        long seq = 0;
+        while (next.hasNext()) {
+            Row<T> row = next.next();
+            keyedRows.add(new KeyedRow<>(row.key(orderByColNames), seq++, row));
+        }
+        keyedRows.sort(createRowComparator());
+        return keyedRows;
+    }
+
+    /**
+     * Keep top N rows in a heap whose root is the last one among them. Row from child is discarded
+     * right away if it comes after the root, so at most N rows are held in memory.
+     */
+    private List<KeyedRow<T>> topN() {
+        Comparator<KeyedRow<T>> comparator = createRowComparator();
+        PriorityQueue<KeyedRow<T>> heap = new PriorityQueue<>(Math.min(limit, 1024), comparator.reversed());
+        long seq = 0;
+        while (next.hasNext()) {
+            Row<T> row = next.next();
+            KeyedRow<T> keyedRow = new KeyedRow<>(row.key(orderByColNames), seq++, row);
+            if (heap.size() < limit) {
+                heap.add(keyedRow);
+            } else if (comparator.compare(keyedRow, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(keyedRow);
+            }
+        }
+
+        List<KeyedRow<T>> keyedRows = new ArrayList<>(heap);
+        keyedRows.sort(comparator);
+        return keyedRows;
+    }
+
+    /**
+     * Compare by row key extracted in advance and then by arrival order to keep the sort stable.
+     * NULL key comes last in ASC and first in DESC as RowKey compares NULL column value.
+     */
+    private Comparator<KeyedRow<T>> createRowComparator() {
+        Comparator<KeyedRow<T>> comparator =
+                Comparator.comparing(o -> o.key, Comparator.nullsLast(Comparator.<RowKey>naturalOrder()));
         if ("DESC".equals(orderByType)) {
             comparator = comparator.reversed();
         }
-        return comparator;
+        return comparator.thenComparingLong(o -> o.seq);
     }
 
     @Override
     public String toString() {
-        return "QuickSort [ columns=" + Arrays.toString(orderByColNames) + ", order=" + orderByType + " ]";
+        return "QuickSort [ columns=" + Arrays.toString(orderByColNames) + ", order=" + orderByType
+                + (isTopN() ? ", limit=" + limit : "") + " ]";
+    }
+
+    /**
+     * Row with its key extracted only once instead of on each comparison
+     */
+    private static class KeyedRow<T> {
+        private final RowKey key;
+        private final long seq;
+        private final Row<T> row;
+
+        KeyedRow(RowKey key, long seq, Row<T> row) {
+            this.key = key;
+            this.seq = seq;
+            this.row = row;
+        }
     }
 
 }
@@ -40,6 +40,11 @@ public class ResourceManager {
      */
     private final List<Monitor> monitors = new ArrayList<>();
 
+    /**
+     * Memory monitor which is also used to calculate memory headroom
+     */
+    private final TotalMemoryMonitor memoryMonitor;
+
     /**
      * Time out for the execution
      */
@@ -52,7 +57,8 @@ public class ResourceManager {
     private final MetaSearchResult metaResult;
 
     public ResourceManager(Stats stats, Config config) {
-        this.monitors.add(new TotalMemoryMonitor(stats, config));
+        this.memoryMonitor = new TotalMemoryMonitor(stats, config);
+        this.monitors.add(memoryMonitor);
         this.timeout = config.timeout();
         this.startTime = Instant.now();
         this.metaResult = new MetaSearchResult();
@@ -76,6 +82,15 @@ public class ResourceManager {
         return Duration.between(startTime, Instant.now()).getSeconds() >= timeout;
     }
 
+    /**
+     * Memory available before circuit breaker trips.
+     *
+     * @return memory headroom in bytes, negative if limit exceeded already
+     */
+    public long memoryHeadroom() {
+        return memoryMonitor.headroom();
+    }
+
     public MetaSearchResult getMetaResult() {
         return metaResult;
     }
@@ -15,7 +15,25 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.metrics.Cardinality;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Statistics collector collects from ES stats, JVM etc for other components:
@@ -26,13 +44,37 @@ import org.elasticsearch.client.Client;
  */
 public class Stats {
 
+    private static final Logger LOG = LogManager.getLogger();
+
+    private static final String CARDINALITY_AGG_PREFIX = "cardinality_";
+
+    private static final TimeValue PROBE_TIMEOUT = TimeValue.timeValueSeconds(5);
+
+    /**
+     * Index statistics cached by index, filter and fields probed to avoid probing on every query
+     */
+    private static final Cache<String, IndexStats> INDEX_STATS_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
     /**
-     * Client connection to ES cluster (unused now)
+     * Client connection to ES cluster
      */
     private Client client;
 
+    /**
+     * Probe index statistics by search if not cached. Disabled for explain which must not issue any search.
+     */
+    private final boolean probeEnabled;
+
     public Stats(Client client) {
+        this(client, true);
+    }
+
+    public Stats(Client client, boolean probeEnabled) {
         this.client = client;
+        this.probeEnabled = probeEnabled;
     }
 
     public MemStats collectMemStats() {
@@ -42,6 +84,58 @@ public class Stats {
         );
     }
 
+    /**
+     * Collect number of documents matched and number of distinct values of each field by a cheap search
+     * with count and cardinality aggregation only. Probe without cardinality again if it fails, for example
+     * on text field without fielddata. Only cached statistics is returned if probe disabled.
+     *
+     * @param indices   index names
+     * @param query     filter in WHERE or null if absent
+     * @param fields    fields to estimate cardinality, usually the ones in join conditions
+     * @return          index statistics or null if unavailable
+     */
+    public IndexStats collectIndexStats(String[] indices, QueryBuilder query, List<String> fields) {
+        String key = Arrays.toString(indices) + "|" + (query == null ? "" : Strings.toString(query)) + "|" + fields;
+        IndexStats indexStats = INDEX_STATS_CACHE.getIfPresent(key);
+        if (indexStats == null && probeEnabled) {
+            indexStats = probe(indices, query, fields);
+            if (indexStats == null && !fields.isEmpty()) {
+                indexStats = probe(indices, query, Collections.emptyList());
+            }
+            if (indexStats != null) {
+                INDEX_STATS_CACHE.put(key, indexStats);
+            }
+        }
+        return indexStats;
+    }
+
+    private IndexStats probe(String[] indices, QueryBuilder query, List<String> fields) {
+        try {
+            SearchRequestBuilder request = client.prepareSearch(indices)
+                    .setSize(0)
+                    .setTrackTotalHits(true)
+                    .setTimeout(PROBE_TIMEOUT);
+            if (query != null) {
+                request.setQuery(query);
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                request.addAggregation(AggregationBuilders.cardinality(CARDINALITY_AGG_PREFIX + i)
+                                                          .field(fields.get(i)));
+            }
+
+            SearchResponse response = request.get(PROBE_TIMEOUT);
+            Map<String, Long> distinctValues = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                Cardinality cardinality = response.getAggregations().get(CARDINALITY_AGG_PREFIX + i);
+                distinctValues.put(fields.get(i), cardinality.getValue());
+            }
+            return new IndexStats(response.getHits().getTotalHits().value, distinctValues);
+        } catch (Exception e) {
+            LOG.debug("Failed to probe statistics of index {} on fields {}", Arrays.toString(indices), fields, e);
+            return null;
+        }
+    }
+
     /**
      * Statistics data class for memory usage
      */
@@ -63,16 +157,28 @@ public class Stats {
         }
     }
 
-    /*
-    public class IndexStats {
-        private long size;
+    /**
+     * Statistics data class for index (with filter applied)
+     */
+    public static class IndexStats {
         private long docNum;
+        private Map<String, Long> distinctValues;
 
-        public IndexStats(long size, long docNum) {
-            this.size = size;
+        public IndexStats(long docNum, Map<String, Long> distinctValues) {
             this.docNum = docNum;
+            this.distinctValues = distinctValues;
+        }
+
+        public long getDocNum() {
+            return docNum;
+        }
+
+        /**
+         * @return number of distinct values of the field or null if not probed
+         */
+        public Long getDistinctValues(String field) {
+            return distinctValues.get(field);
         }
     }
-    */
 
 }
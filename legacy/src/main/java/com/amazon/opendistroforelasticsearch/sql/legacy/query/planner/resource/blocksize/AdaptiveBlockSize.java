@@ -15,25 +15,88 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.blocksize;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 /**
  * Adaptive block size calculator based on resource usage dynamically.
+ * <p>
+ * Block size starts from default and is re-calculated by the feedback of each block:
+ * 1) Bytes per row observed in previous block.
+ * 2) Memory headroom before circuit breaker trips.
+ * 3) Hit rate of probing which decides how many combined rows are buffered per block.
+ * <p>
+ * Block size grows at most by {@link #MAX_GROWTH_FACTOR} each time when memory is plentiful,
+ * and shrinks by half immediately once no headroom left.
  */
 public class AdaptiveBlockSize implements BlockSize {
 
-    private int upperLimit;
+    private static final Logger LOG = LogManager.getLogger();
+
+    public static final int DEFAULT_INITIAL_SIZE = 10000;
+    public static final int DEFAULT_UPPER_LIMIT = 1000000;
+    public static final int LOWER_LIMIT = 100;
+
+    /**
+     * Row parsed into map and kept in hash table takes several times more memory than its raw bytes
+     */
+    private static final int HASH_TABLE_OVERHEAD = 3;
+
+    /**
+     * Only part of headroom is used for next block since other queries share the same heap
+     */
+    private static final double HEADROOM_RATIO = 0.5;
+
+    private static final int MAX_GROWTH_FACTOR = 2;
+
+    private final int upperLimit;
+
+    /**
+     * Block size for next block
+     */
+    private int size;
 
+    /**
+     * @param upperLimit max block size, default upper limit is used if not positive
+     */
     public AdaptiveBlockSize(int upperLimit) {
-        this.upperLimit = upperLimit;
+        this.upperLimit = (upperLimit > 0) ? upperLimit : DEFAULT_UPPER_LIMIT;
+        this.size = Math.min(DEFAULT_INITIAL_SIZE, this.upperLimit);
     }
 
     @Override
     public int size() {
-        //TODO: calculate dynamically on each call
-        return upperLimit;
+        return size;
+    }
+
+    @Override
+    public void feedback(int blockRows, long blockBytes, long matchedRows, long memoryHeadroom) {
+        if (blockRows <= 0) {
+            return;
+        }
+
+        long newSize;
+        if (memoryHeadroom <= 0) {
+            newSize = blockRows / 2;
+        } else {
+            long bytesPerRow = Math.max(1, blockBytes / blockRows);
+            double hitRate = Math.min(1.0, (double) matchedRows / blockRows);
+            double bytesPerBlockRow = bytesPerRow * (HASH_TABLE_OVERHEAD + 2 * hitRate);
+            newSize = blockRows + (long) (memoryHeadroom * HEADROOM_RATIO / bytesPerBlockRow);
+            newSize = Math.min(newSize, (long) size * MAX_GROWTH_FACTOR);
+        }
+
+        int oldSize = size;
+        size = (int) Math.min(upperLimit, Math.max(LOWER_LIMIT, newSize));
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Adjusted block size from {} to {} by feedback: rows={}, bytes={}, matched={}, headroom={}",
+                    oldSize, size, blockRows, blockBytes, matchedRows, memoryHeadroom);
+        }
     }
 
     @Override
     public String toString() {
-        return "AdaptiveBlockSize with " + "upperLimit=" + upperLimit;
+        return "AdaptiveBlockSize with " + "size=" + size + ", upperLimit=" + upperLimit;
     }
 }
@@ -28,6 +28,19 @@ public interface BlockSize {
     int size();
 
 
+    /**
+     * Feedback after a block from left is built and all right rows probed against it,
+     * which gives dynamic block size a chance to adjust for next block.
+     *
+     * @param blockRows      number of rows in the block
+     * @param blockBytes     estimated size of the rows in the block
+     * @param matchedRows    number of rows matched by probing the block
+     * @param memoryHeadroom memory in bytes available before circuit breaker trips (negative if exceeded)
+     */
+    default void feedback(int blockRows, long blockBytes, long matchedRows, long memoryHeadroom) {
+    }
+
+
     /**
      * Default implementation with fixed block size
      */
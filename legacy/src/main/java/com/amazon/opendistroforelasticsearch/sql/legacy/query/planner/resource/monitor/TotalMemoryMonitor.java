@@ -55,6 +55,15 @@ public class TotalMemoryMonitor implements Monitor {
         return usage < limit;
     }
 
+    /**
+     * @return memory in bytes that can still be used before usage reaches the limit, negative if exceeded already
+     */
+    public long headroom() {
+        MemStats memStats = stats.collectMemStats();
+        long used = memStats.getTotal() - memStats.getFree();
+        return (long) (memStats.getTotal() * (limit / 100.0)) - used;
+    }
+
     private int percentage(double usage) {
         return (int) Math.round(usage * 100);
     }
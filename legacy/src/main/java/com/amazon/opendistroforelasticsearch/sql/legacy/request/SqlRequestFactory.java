@@ -37,6 +37,12 @@ public class SqlRequestFactory {
 
     public static final String SQL_CURSOR_FIELD_NAME = "cursor";
     public static final String SQL_FETCH_FIELD_NAME = "fetch_size";
+    public static final String SQL_BATCH_FIELD_NAME = "batch";
+
+    /**
+     * Maximum number of queries in a batch request, which are run concurrently in SQL worker thread pool
+     */
+    public static final int MAX_BATCH_SIZE = 100;
 
     public static SqlRequest getSqlRequest(RestRequest request) {
         switch (request.method()) {
@@ -47,6 +53,47 @@ public class SqlRequestFactory {
         }
     }
 
+    /**
+     * Parse the queries of a batch request whose payload holds a request for each query
+     * in the batch field, ex. {"batch": [{"query": "..."}, {"query": "...", "parameters": [...]}]}.
+     * Results of queries in a batch are not paged, so neither cursor nor fetch size above 0 is accepted.
+     */
+    public static List<SqlRequest> getBatchSqlRequests(RestRequest request) {
+        if (request.method() != RestRequest.Method.POST) {
+            throw new IllegalArgumentException("ES SQL doesn't supported HTTP " + request.method().name());
+        }
+
+        JSONArray batch;
+        try {
+            batch = new JSONObject(request.content().utf8ToString()).getJSONArray(SQL_BATCH_FIELD_NAME);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Failed to parse batch request payload", e);
+        }
+        if (batch.length() == 0) {
+            throw new IllegalArgumentException("Batch request must contain at least one query");
+        }
+        if (batch.length() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Batch request can contain at most " + MAX_BATCH_SIZE + " queries but got " + batch.length());
+        }
+
+        List<SqlRequest> sqlRequests = new ArrayList<>(batch.length());
+        for (int i = 0; i < batch.length(); i++) {
+            JSONObject jsonContent;
+            try {
+                jsonContent = batch.getJSONObject(i);
+            } catch (JSONException e) {
+                throw new IllegalArgumentException("Failed to parse query " + i + " in batch request", e);
+            }
+            if (jsonContent.has(SQL_CURSOR_FIELD_NAME)
+                    || (jsonContent.has(SQL_FETCH_FIELD_NAME) && validateAndGetFetchSize(jsonContent) > 0)) {
+                throw new IllegalArgumentException("Cursor is not supported for queries in batch request");
+            }
+            sqlRequests.add(parseSqlRequest(jsonContent, 0));
+        }
+        return sqlRequests;
+    }
+
     private static SqlRequest parseSqlRequestFromUrl(RestRequest restRequest) {
         String sql;
 
@@ -69,14 +116,25 @@ public class SqlRequestFactory {
         } catch (JSONException e) {
             throw new IllegalArgumentException("Failed to parse request payload", e);
         }
+        return parseSqlRequest(jsonContent, null);
+    }
+
+    /**
+     * Parse query request with the fetch size given or in the request if null.
+     */
+    private static SqlRequest parseSqlRequest(JSONObject jsonContent, Integer fetchSize) {
         String sql = jsonContent.getString(SQL_FIELD_NAME);
 
         if (jsonContent.has(PARAM_FIELD_NAME)) { // is a PreparedStatement
             JSONArray paramArray = jsonContent.getJSONArray(PARAM_FIELD_NAME);
             List<PreparedStatementRequest.PreparedStatementParameter> parameters = parseParameters(paramArray);
-            return new PreparedStatementRequest(sql, validateAndGetFetchSize(jsonContent), jsonContent, parameters);
+            return new PreparedStatementRequest(sql, fetchSizeOf(jsonContent, fetchSize), jsonContent, parameters);
         }
-        return new SqlRequest(sql, validateAndGetFetchSize(jsonContent), jsonContent);
+        return new SqlRequest(sql, fetchSizeOf(jsonContent, fetchSize), jsonContent);
+    }
+
+    private static Integer fetchSizeOf(JSONObject jsonContent, Integer fetchSize) {
+        return fetchSize != null ? fetchSize : validateAndGetFetchSize(jsonContent);
     }
 
 
@@ -15,9 +15,14 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.utils;
 
-import com.alibaba.druid.sql.SQLUtils;
+import com.alibaba.druid.sql.ast.expr.SQLBooleanExpr;
+import com.alibaba.druid.sql.ast.expr.SQLCharExpr;
+import com.alibaba.druid.sql.ast.expr.SQLIdentifierExpr;
+import com.alibaba.druid.sql.ast.expr.SQLIntegerExpr;
+import com.alibaba.druid.sql.ast.expr.SQLNumberExpr;
 import com.alibaba.druid.sql.ast.expr.SQLQueryExpr;
-import com.amazon.opendistroforelasticsearch.sql.legacy.rewriter.identifier.AnonymizeSensitiveDataRule;
+import com.alibaba.druid.sql.ast.statement.SQLExprTableSource;
+import com.alibaba.druid.sql.dialect.mysql.visitor.MySqlOutputVisitor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -40,16 +45,64 @@ public class QueryDataAnonymizer {
     public static String anonymizeData(String query) {
         String resultQuery;
         try {
-            AnonymizeSensitiveDataRule rule = new AnonymizeSensitiveDataRule();
-            SQLQueryExpr sqlExpr = (SQLQueryExpr) toSqlExpr(query);
-            rule.rewrite(sqlExpr);
-            resultQuery = SQLUtils.toMySqlString(sqlExpr).replaceAll("0", "number")
-                    .replaceAll("false", "boolean_literal")
-                    .replaceAll("[\\n][\\t]+", " ");
+            resultQuery = anonymizeData((SQLQueryExpr) toSqlExpr(query));
         } catch (Exception e) {
             LOG.error("Caught an exception when removing sensitive data", e);
             resultQuery = query;
         }
         return resultQuery;
     }
+
+    /**
+     * Anonymize sensitive data in SQL query already parsed by Druid.
+     * The AST is only read but not modified, so it can be reused for query execution.
+     * @param sqlExpr Druid AST of sql query
+     * @return sql query string with all identifiers replaced with "***"
+     */
+    public static String anonymizeData(SQLQueryExpr sqlExpr) {
+        StringBuilder out = new StringBuilder();
+        sqlExpr.accept(new AnonymizeSensitiveDataOutputVisitor(out));
+        return out.toString().replaceAll("0", "number")
+                .replaceAll("false", "boolean_literal")
+                .replaceAll("[\\n][\\t]+", " ");
+    }
+
+    /**
+     * Output visitor that prints anonymous content instead of the content of specific nodes
+     * (that might involve index data) in AST.
+     */
+    private static class AnonymizeSensitiveDataOutputVisitor extends MySqlOutputVisitor {
+
+        AnonymizeSensitiveDataOutputVisitor(Appendable appender) {
+            super(appender);
+        }
+
+        @Override
+        public boolean visit(SQLIdentifierExpr identifierExpr) {
+            if (identifierExpr.getParent() instanceof SQLExprTableSource) {
+                return super.visit(new SQLIdentifierExpr("table"));
+            }
+            return super.visit(new SQLIdentifierExpr("identifier"));
+        }
+
+        @Override
+        public boolean visit(SQLIntegerExpr integerExpr) {
+            return super.visit(new SQLIntegerExpr(0));
+        }
+
+        @Override
+        public boolean visit(SQLNumberExpr numberExpr) {
+            return super.visit(new SQLNumberExpr(0));
+        }
+
+        @Override
+        public boolean visit(SQLCharExpr charExpr) {
+            return super.visit(new SQLCharExpr("string_literal"));
+        }
+
+        @Override
+        public boolean visit(SQLBooleanExpr booleanExpr) {
+            return super.visit(new SQLBooleanExpr(false));
+        }
+    }
 }
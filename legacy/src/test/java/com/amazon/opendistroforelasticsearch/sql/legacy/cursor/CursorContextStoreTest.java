@@ -0,0 +1,208 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.cursor;
+
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.format.Schema;
+import com.google.common.collect.ImmutableMap;
+import org.elasticsearch.common.unit.TimeValue;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class CursorContextStoreTest {
+
+    private static final TimeValue KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final CursorContextStore store =
+            new CursorContextStore(CursorContextStore.DEFAULT_MEMORY_LIMIT_IN_BYTES, now::get);
+
+    @Test
+    public void cursorShouldBeFoundByContextId() {
+        String contextId = store.put(cursor("scroll1"), KEEP_ALIVE);
+
+        assertNotEquals(contextId, store.put(cursor("scroll2"), KEEP_ALIVE));
+        assertCursor("scroll1", 50, store.get(contextId, KEEP_ALIVE));
+        assertEquals(contextId, store.get(contextId, KEEP_ALIVE).getContextId());
+        assertEquals(2, store.size());
+        assertThat(store.memoryInBytes(), greaterThan(0L));
+    }
+
+    @Test
+    public void unknownContextIdShouldReturnNull() {
+        assertNull(store.get("unknown", KEEP_ALIVE));
+        assertNull(store.remove("unknown"));
+    }
+
+    @Test
+    public void contextShouldExpireIfNotAccessedWithinKeepAlive() {
+        String contextId = store.put(cursor("scroll"), KEEP_ALIVE);
+
+        now.addAndGet(KEEP_ALIVE.millis() + 1);
+        assertNull(store.get(contextId, KEEP_ALIVE));
+        assertEquals(0, store.size());
+        assertEquals(0, store.memoryInBytes());
+        assertEquals(1, store.expiredCount());
+    }
+
+    @Test
+    public void accessShouldExtendExpiryTime() {
+        String contextId = store.put(cursor("scroll"), KEEP_ALIVE);
+
+        now.addAndGet(KEEP_ALIVE.millis());
+        assertCursor("scroll", 50, store.get(contextId, KEEP_ALIVE));
+        now.addAndGet(KEEP_ALIVE.millis());
+        assertCursor("scroll", 50, store.get(contextId, KEEP_ALIVE));
+        assertEquals(0, store.expiredCount());
+    }
+
+    @Test
+    public void storedStateShouldNotChangeWhenCursorModified() {
+        DefaultCursor cursor = cursor("scroll1");
+        String contextId = store.put(cursor, KEEP_ALIVE);
+        cursor.setScrollId("scroll2");
+
+        DefaultCursor page = store.get(contextId, KEEP_ALIVE);
+        page.setRowsLeft(40);
+        page.setScrollId("scroll3");
+
+        assertNotSame(page, store.get(contextId, KEEP_ALIVE));
+        assertCursor("scroll1", 50, store.get(contextId, KEEP_ALIVE));
+    }
+
+    @Test
+    public void updateShouldReplaceStateUnderSameContextId() {
+        String contextId = store.put(cursor("scroll1"), KEEP_ALIVE);
+        long memoryInBytes = store.memoryInBytes();
+
+        DefaultCursor page = store.get(contextId, KEEP_ALIVE);
+        page.setRowsLeft(page.getRowsLeft() - page.getFetchSize());
+        page.setScrollId("scroll2");
+        store.update(contextId, page, KEEP_ALIVE);
+
+        assertCursor("scroll2", 40, store.get(contextId, KEEP_ALIVE));
+        assertEquals(contextId, store.get(contextId, KEEP_ALIVE).getContextId());
+        assertEquals(1, store.size());
+        assertEquals(memoryInBytes, store.memoryInBytes());
+    }
+
+    @Test
+    public void storeSizeShouldStayTheSameAcrossPages() {
+        String contextId = store.put(cursor("scroll0"), KEEP_ALIVE);
+        for (int i = 1; i <= 5; i++) {
+            DefaultCursor page = store.get(contextId, KEEP_ALIVE);
+            page.setRowsLeft(page.getRowsLeft() - page.getFetchSize());
+            page.setScrollId("scroll" + i);
+            store.update(contextId, page, KEEP_ALIVE);
+            assertEquals(1, store.size());
+        }
+        assertCursor("scroll5", 0, store.get(contextId, KEEP_ALIVE));
+
+        store.remove(contextId);
+        assertEquals(0, store.size());
+        assertEquals(0, store.memoryInBytes());
+    }
+
+    @Test
+    public void updateShouldNotKeepStateOfRemovedContext() {
+        String contextId = store.put(cursor("scroll1"), KEEP_ALIVE);
+        store.remove(contextId);
+
+        store.update(contextId, cursor("scroll2"), KEEP_ALIVE);
+        assertNull(store.get(contextId, KEEP_ALIVE));
+        assertEquals(0, store.size());
+        assertEquals(0, store.memoryInBytes());
+    }
+
+    @Test
+    public void expiredContextsShouldBeRemovedWhenNewContextAdded() {
+        store.put(cursor("scroll1"), KEEP_ALIVE);
+        store.put(cursor("scroll2"), KEEP_ALIVE);
+
+        now.addAndGet(KEEP_ALIVE.millis() + 1);
+        store.put(cursor("scroll3"), KEEP_ALIVE);
+        assertEquals(1, store.size());
+        assertEquals(2, store.expiredCount());
+    }
+
+    @Test
+    public void removeShouldReturnCursorAndReleaseMemory() {
+        String contextId = store.put(cursor("scroll"), KEEP_ALIVE);
+
+        assertCursor("scroll", 50, store.remove(contextId));
+        assertNull(store.get(contextId, KEEP_ALIVE));
+        assertEquals(0, store.memoryInBytes());
+        assertEquals(0, store.expiredCount());
+    }
+
+    @Test
+    public void removeExpiredContextShouldReturnNull() {
+        String contextId = store.put(cursor("scroll"), KEEP_ALIVE);
+
+        now.addAndGet(KEEP_ALIVE.millis() + 1);
+        assertNull(store.remove(contextId));
+        assertEquals(1, store.expiredCount());
+    }
+
+    @Test
+    public void contextsShouldBeEvictedWhenMemoryLimitReached() {
+        int contextSize = CursorContextStore.estimateSize(cursor("scroll0"));
+        CursorContextStore smallStore = new CursorContextStore(contextSize, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            smallStore.put(cursor("scroll" + i), KEEP_ALIVE);
+        }
+        assertThat(smallStore.evictedCount(), greaterThan(0L));
+        assertEquals(smallStore.size() * contextSize, smallStore.memoryInBytes());
+    }
+
+    @Test
+    public void sizeEstimateShouldGrowWithSchema() {
+        DefaultCursor narrow = cursor("scroll");
+        DefaultCursor wide = cursor("scroll");
+        wide.setColumns(Collections.nCopies(100, new Schema.Column("name", "alias", Schema.Type.TEXT)));
+        wide.setFieldAliasMap(ImmutableMap.of("name", "alias"));
+
+        assertThat(CursorContextStore.estimateSize(wide), greaterThan(CursorContextStore.estimateSize(narrow)));
+    }
+
+    private void assertCursor(String scrollId, long rowsLeft, DefaultCursor cursor) {
+        assertEquals(scrollId, cursor.getScrollId());
+        assertEquals(rowsLeft, cursor.getRowsLeft());
+        assertEquals("myIndex", cursor.getIndexPattern());
+        assertEquals(Integer.valueOf(10), cursor.getFetchSize());
+    }
+
+    private DefaultCursor cursor(String scrollId) {
+        DefaultCursor cursor = new DefaultCursor();
+        cursor.setRowsLeft(50);
+        cursor.setScrollId(scrollId);
+        cursor.setIndexPattern("myIndex");
+        cursor.setFetchSize(10);
+        cursor.setFieldAliasMap(Collections.emptyMap());
+        cursor.setColumns(Collections.emptyList());
+        return cursor;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor;
+
+import com.google.common.base.Strings;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.http.HttpChannel;
+import org.elasticsearch.http.HttpRequest;
+import org.elasticsearch.rest.BytesRestResponse;
+import org.elasticsearch.rest.RestChannel;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.RestResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression.ACCEPT_ENCODING;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression.CONTENT_ENCODING;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression.GZIP;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression.MIN_COMPRESS_SIZE;
+import static org.elasticsearch.rest.RestStatus.OK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchResponseCollectorTest {
+
+    private static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+
+    private static final String LARGE_CONTENT =
+            "{\"datarows\":[\"" + Strings.repeat("hello", MIN_COMPRESS_SIZE) + "\"]}";
+
+    private final RestChannel channel = mock(RestChannel.class);
+
+    @Before
+    public void setUp() {
+        // RestRequest.header() is final and cannot be mocked
+        HttpRequest httpRequest = mock(HttpRequest.class);
+        when(httpRequest.uri()).thenReturn("/_opendistro/_sql");
+        when(httpRequest.getHeaders())
+                .thenReturn(Collections.singletonMap(ACCEPT_ENCODING, Collections.singletonList("gzip")));
+        RestRequest request =
+                RestRequest.request(NamedXContentRegistry.EMPTY, httpRequest, mock(HttpChannel.class));
+        when(channel.request()).thenReturn(request);
+    }
+
+    @Test
+    public void largeQueryResponseShouldBeEmbeddedUncompressed() throws IOException {
+        BatchResponseCollector collector = new BatchResponseCollector(channel, 2);
+
+        RestChannel queryChannel = collector.queryChannel(0);
+        assertTrue(BatchResponseCollector.isQueryChannel(queryChannel));
+        assertNull(ResponseCompression.acceptEncoding(queryChannel));
+        queryChannel.sendResponse(ResponseCompression.compressIfAccepted(queryChannel,
+                new BytesRestResponse(OK, CONTENT_TYPE, LARGE_CONTENT)));
+        collector.queryChannel(1).sendResponse(new BytesRestResponse(OK, CONTENT_TYPE, "{\"size\":1}"));
+
+        ArgumentCaptor<RestResponse> captor = ArgumentCaptor.forClass(RestResponse.class);
+        verify(channel).sendResponse(captor.capture());
+        RestResponse response = captor.getValue();
+        assertEquals(Collections.singletonList(GZIP), response.getHeaders().get(CONTENT_ENCODING));
+        assertEquals("{\"results\":[" + LARGE_CONTENT + ",{\"size\":1}]}", decompress(response));
+    }
+
+    @Test
+    public void batchChannelShouldNotBeQueryChannel() {
+        assertFalse(BatchResponseCollector.isQueryChannel(channel));
+        assertEquals("gzip", ResponseCompression.acceptEncoding(channel));
+    }
+
+    private String decompress(RestResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(response.content().streamInput())) {
+            Streams.copy(in, out);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
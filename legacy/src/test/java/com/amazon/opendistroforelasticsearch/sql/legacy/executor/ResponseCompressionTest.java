@@ -0,0 +1,94 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor;
+
+import com.google.common.base.Strings;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.rest.BytesRestResponse;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression.CONTENT_ENCODING;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression.GZIP;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression.MIN_COMPRESS_SIZE;
+import static org.elasticsearch.rest.RestStatus.OK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCompressionTest {
+
+    private static final String LARGE_CONTENT = Strings.repeat("{\"name\":\"hello\"}", MIN_COMPRESS_SIZE);
+
+    @Test
+    public void acceptsGzipShouldParseAcceptEncodingHeader() {
+        assertTrue(ResponseCompression.acceptsGzip("gzip"));
+        assertTrue(ResponseCompression.acceptsGzip("gzip,deflate"));
+        assertTrue(ResponseCompression.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+        assertTrue(ResponseCompression.acceptsGzip("*"));
+        assertFalse(ResponseCompression.acceptsGzip(null));
+        assertFalse(ResponseCompression.acceptsGzip(""));
+        assertFalse(ResponseCompression.acceptsGzip("deflate, br"));
+        assertFalse(ResponseCompression.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseCompression.acceptsGzip("gzip;q=invalid"));
+    }
+
+    @Test
+    public void largeResponseShouldBeCompressedIfAccepted() throws IOException {
+        BytesRestResponse response = new BytesRestResponse(OK, "application/json; charset=UTF-8", LARGE_CONTENT);
+        response.addHeader("Cursor", "abc");
+
+        BytesRestResponse compressed = ResponseCompression.compressIfAccepted("gzip, deflate", response);
+
+        assertEquals(OK, compressed.status());
+        assertEquals(response.contentType(), compressed.contentType());
+        assertEquals(Collections.singletonList(GZIP), compressed.getHeaders().get(CONTENT_ENCODING));
+        assertEquals(Collections.singletonList("abc"), compressed.getHeaders().get("Cursor"));
+        assertTrue(compressed.content().length() < response.content().length());
+        assertEquals(LARGE_CONTENT, decompress(compressed));
+    }
+
+    @Test
+    public void largeResponseShouldNotBeCompressedIfNotAccepted() {
+        BytesRestResponse response = new BytesRestResponse(OK, LARGE_CONTENT);
+        assertSame(response, ResponseCompression.compressIfAccepted((String) null, response));
+        assertSame(response, ResponseCompression.compressIfAccepted("identity", response));
+    }
+
+    @Test
+    public void smallResponseShouldNotBeCompressed() {
+        BytesRestResponse response = new BytesRestResponse(OK, "{\"size\":1}");
+        BytesRestResponse result = ResponseCompression.compressIfAccepted("gzip", response);
+
+        assertSame(response, result);
+        assertNull(result.getHeaders().get(CONTENT_ENCODING));
+    }
+
+    private String decompress(BytesRestResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(response.content().streamInput())) {
+            Streams.copy(in, out);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
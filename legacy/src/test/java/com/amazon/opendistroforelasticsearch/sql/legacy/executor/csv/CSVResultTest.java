@@ -120,6 +120,14 @@ public class CSVResultTest {
         );
     }
 
+    @Test
+    public void sanitizeLineShouldReturnSingleLineBothSanitizedAndQuotedIfRequired() {
+        assertEquals(
+            "John,'=Seattle,\"'+Sea,ttle\"",
+            CSVResult.sanitizeLine(SEPARATOR, line("John", "=Seattle", "+Sea,ttle"))
+        );
+    }
+
     private CSVResult csv(List<String> headers, List<List<String>> lines) {
         return new CSVResult(SEPARATOR, headers, lines);
     }
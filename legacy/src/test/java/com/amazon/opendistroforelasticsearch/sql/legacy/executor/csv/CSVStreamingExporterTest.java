@@ -0,0 +1,213 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.csv;
+
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.From;
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
+import com.amazon.opendistroforelasticsearch.sql.legacy.exception.SqlParseException;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.DefaultQueryAction;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.SqlElasticSearchRequestBuilder;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.TotalHits.Relation;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.search.ClearScrollRequestBuilder;
+import org.elasticsearch.action.search.ClearScrollResponse;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequestBuilder;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static com.amazon.opendistroforelasticsearch.sql.legacy.util.CheckScriptContents.mockLocalClusterState;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.util.TestsConstants.TEST_INDEX_BANK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CSVStreamingExporter}
+ */
+public class CSVStreamingExporterTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    private static final TimeValue KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    private final Client client = mock(Client.class);
+
+    private final SearchRequestBuilder request = mock(SearchRequestBuilder.class);
+
+    private final ClearScrollRequestBuilder clearScrollRequest = mock(ClearScrollRequestBuilder.class);
+
+    private final DefaultQueryAction queryAction = mock(DefaultQueryAction.class);
+
+    private final Select select = new Select();
+
+    @Before
+    public void setUp() throws SqlParseException {
+        when(queryAction.getSelect()).thenReturn(select);
+        when(queryAction.explain()).thenReturn(new SqlElasticSearchRequestBuilder(request));
+        when(queryAction.getFieldNames()).thenReturn(Optional.of(Arrays.asList("name", "age")));
+        when(request.setSize(PAGE_SIZE)).thenReturn(request);
+        when(request.setScroll(KEEP_ALIVE)).thenReturn(request);
+
+        when(client.prepareClearScroll()).thenReturn(clearScrollRequest);
+        when(clearScrollRequest.addScrollId(any())).thenReturn(clearScrollRequest);
+        when(clearScrollRequest.get()).thenReturn(new ClearScrollResponse(true, 1));
+    }
+
+    @After
+    public void cleanUp() {
+        LocalClusterState.state(null);
+    }
+
+    @Test
+    public void exportShouldScrollThroughAllPages() throws Exception {
+        when(request.get()).thenReturn(page("scroll-1", hit("John", 30), hit("Mary", 25)));
+        mockScroll("scroll-1", page("scroll-2", hit("Tom", 40)));
+        mockScroll("scroll-2", page("scroll-3"));
+
+        assertEquals(
+            "name,age\nJohn,30\nMary,25\nTom,40",
+            export(new CSVResultsExtractor(false, false, false), false)
+        );
+        verify(request).setSize(PAGE_SIZE);
+        verify(request).setScroll(KEEP_ALIVE);
+        verify(clearScrollRequest).addScrollId("scroll-3");
+    }
+
+    @Test
+    public void exportShouldWriteHeadersFromMappingForSelectAll() throws Exception {
+        mockLocalClusterState(
+            "{\"" + TEST_INDEX_BANK + "\":{\"mappings\":{\"_doc\":{\"properties\":{"
+                + "\"name\":{\"type\":\"text\"},"
+                + "\"address\":{\"properties\":{\"city\":{\"type\":\"keyword\"}}}"
+                + "}}},"
+                + "\"settings\":{\"index\":{\"number_of_shards\":1,\"number_of_replicas\":0,"
+                + "\"version\":{\"created\":\"6050399\"}}},"
+                + "\"mapping_version\":\"1\",\"settings_version\":\"1\"}}");
+        select.getFrom().add(new From(TEST_INDEX_BANK));
+        when(queryAction.getFieldNames()).thenReturn(Optional.empty());
+
+        SearchHit hit = new SearchHit(1, "1", new Text("_doc"), Collections.emptyMap(), Collections.emptyMap());
+        hit.sourceRef(new BytesArray("{\"name\":\"John\",\"address\":{\"city\":\"Seattle\"}}"));
+        when(request.get()).thenReturn(page("scroll-1", hit));
+        mockScroll("scroll-1", page("scroll-1"));
+
+        assertEquals(
+            "name,address.city,_id\nJohn,Seattle,1",
+            export(new CSVResultsExtractor(false, false, true), true)
+        );
+    }
+
+    @Test
+    public void exportShouldStopScrollingOnceLimitReached() throws Exception {
+        select.setRowCount(3);
+        when(request.get()).thenReturn(page("scroll-1", hit("John", 30), hit("Mary", 25)));
+        mockScroll("scroll-1", page("scroll-2", hit("Tom", 40), hit("Ann", 35)));
+
+        assertEquals(
+            "name,age\nJohn,30\nMary,25\nTom,40",
+            export(new CSVResultsExtractor(false, false, false), false)
+        );
+        verify(client, never()).prepareSearchScroll("scroll-2");
+        verify(clearScrollRequest).addScrollId("scroll-2");
+    }
+
+    @Test
+    public void exportShouldNotScrollIfLimitReachedInFirstPage() throws Exception {
+        select.setRowCount(2);
+        when(request.get()).thenReturn(page("scroll-1", hit("John", 30), hit("Mary", 25)));
+
+        assertEquals(
+            "name,age\nJohn,30\nMary,25",
+            export(new CSVResultsExtractor(false, false, false), false)
+        );
+        verify(client, never()).prepareSearchScroll(any());
+        verify(clearScrollRequest).addScrollId("scroll-1");
+    }
+
+    @Test
+    public void exportShouldClearScrollIfScrollFailed() throws Exception {
+        when(request.get()).thenReturn(page("scroll-1", hit("John", 30), hit("Mary", 25)));
+        SearchScrollRequestBuilder scrollRequest = mockScroll("scroll-1", null);
+        when(scrollRequest.get()).thenThrow(new ElasticsearchException("Scroll failed"));
+
+        try {
+            export(new CSVResultsExtractor(false, false, false), false);
+            fail("Expect export to fail");
+        } catch (ElasticsearchException e) {
+            assertEquals("Scroll failed", e.getMessage());
+        }
+        verify(clearScrollRequest).addScrollId("scroll-1");
+    }
+
+    @Test
+    public void exportShouldNotFailIfClearScrollFailed() throws Exception {
+        when(clearScrollRequest.get()).thenReturn(new ClearScrollResponse(false, 0));
+        when(request.get()).thenReturn(page("scroll-1"));
+
+        assertEquals("name,age", export(new CSVResultsExtractor(false, false, false), false));
+        verify(clearScrollRequest).addScrollId("scroll-1");
+    }
+
+    private String export(CSVResultsExtractor extractor, boolean flat) throws SqlParseException, IOException {
+        StringWriter writer = new StringWriter();
+        new CSVStreamingExporter(client, extractor, flat, ",", "\n", PAGE_SIZE, KEEP_ALIVE)
+            .export(queryAction, writer);
+        return writer.toString();
+    }
+
+    private SearchScrollRequestBuilder mockScroll(String scrollId, SearchResponse response) {
+        SearchScrollRequestBuilder scrollRequest = mock(SearchScrollRequestBuilder.class);
+        when(client.prepareSearchScroll(scrollId)).thenReturn(scrollRequest);
+        when(scrollRequest.setScroll(KEEP_ALIVE)).thenReturn(scrollRequest);
+        when(scrollRequest.get()).thenReturn(response);
+        return scrollRequest;
+    }
+
+    private SearchResponse page(String scrollId, SearchHit... hits) {
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getScrollId()).thenReturn(scrollId);
+        when(response.getHits()).thenReturn(
+            new SearchHits(hits, new TotalHits(hits.length, Relation.EQUAL_TO), 0));
+        return response;
+    }
+
+    private SearchHit hit(String name, int age) {
+        SearchHit hit = new SearchHit(0);
+        hit.sourceRef(new BytesArray("{\"name\":\"" + name + "\",\"age\":" + age + "}"));
+        return hit;
+    }
+}
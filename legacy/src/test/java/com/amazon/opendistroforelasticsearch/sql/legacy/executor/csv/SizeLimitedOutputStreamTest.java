@@ -0,0 +1,67 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.csv;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link SizeLimitedOutputStream}
+ */
+public class SizeLimitedOutputStreamTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+    private final OutputStream out = new SizeLimitedOutputStream(content, 5);
+
+    @Test
+    public void writeWithinLimitShouldPassThrough() throws IOException {
+        out.write("abc".getBytes(StandardCharsets.UTF_8));
+        out.write('d');
+        out.write('e');
+        assertEquals("abcde", content.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void writeBytesBeyondLimitShouldFail() throws IOException {
+        out.write("abc".getBytes(StandardCharsets.UTF_8));
+
+        exception.expect(IOException.class);
+        exception.expectMessage(containsString("CSV export exceeds the limit of 5b"));
+        out.write("def".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writeByteBeyondLimitShouldFail() throws IOException {
+        out.write("abcde".getBytes(StandardCharsets.UTF_8));
+
+        exception.expect(IOException.class);
+        exception.expectMessage(containsString("opendistro.sql.csv.export.max_size"));
+        out.write('f');
+    }
+}
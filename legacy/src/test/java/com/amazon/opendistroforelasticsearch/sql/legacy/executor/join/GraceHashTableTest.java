@@ -0,0 +1,150 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.join;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.search.SearchHit;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GraceHashTableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private GraceHashTable table;
+
+    @After
+    public void cleanUp() throws IOException {
+        if (table != null) {
+            table.close();
+        }
+    }
+
+    @Test
+    public void hitsShouldBeKeptInMemoryWithinLimit() throws IOException {
+        table = new GraceHashTable(4, Long.MAX_VALUE, () -> folder.getRoot().toPath());
+        KeyedSearchHit row1 = row(1, "John");
+        KeyedSearchHit row2 = row(2, "John");
+        table.put(row1.getKeys()[0], row1);
+        table.put(row2.getKeys()[0], row2);
+
+        assertTrue(table.isResident(key("John")));
+        assertEquals(2, table.get(key("John")).size());
+        assertTrue(table.get(key("Allen")).isEmpty());
+        assertTrue(table.spilledPartitions().isEmpty());
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void partitionShouldBeSpilledBeyondLimitAndLoadedBack() throws IOException {
+        table = new GraceHashTable(1, 0, () -> folder.getRoot().toPath());
+        KeyedSearchHit row1 = row(1, "John");
+        table.put(row1.getKeys()[0], row1);
+        KeyedSearchHit row2 = row(2, "Allen");
+        table.put(row2.getKeys()[0], row2);
+        table.spillProbeRow(key("John"), row(3, "John"));
+
+        assertFalse(table.isResident(key("John")));
+        assertEquals(0, table.memoryInBytes());
+        assertEquals(1, table.spilledPartitions().size());
+
+        GraceHashTable.Partition partition = table.spilledPartitions().get(0);
+        Map<ComparisonKey, List<KeyedSearchHit>> loaded = partition.loadBuildRows(0);
+        assertEquals(2, loaded.size());
+        SearchHit loadedHit = loaded.get(key("John")).get(0).getHit();
+        assertEquals(1, loadedHit.docId());
+        assertEquals("1", loadedHit.getId());
+        assertEquals("John", loadedHit.getSourceAsMap().get("name"));
+
+        try (GraceHashTable.SpillFileReader reader = partition.probeRowsReader()) {
+            KeyedSearchHit probeRow = reader.next();
+            assertEquals(key("John"), probeRow.getKeys()[0]);
+            assertEquals(3, probeRow.getHit().docId());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void allHitsShouldBeIteratedInBothResidentAndSpilledPartitions() throws IOException {
+        table = new GraceHashTable(2, 1000, () -> folder.getRoot().toPath());
+        for (int i = 1; i <= 10; i++) {
+            KeyedSearchHit row = row(i, "name" + i);
+            table.put(row.getKeys()[0], row);
+        }
+
+        List<String> ids = new ArrayList<>();
+        table.forEachBuildRow(row -> ids.add(row.getHit().getId()));
+        assertThat(ids, containsInAnyOrder(
+                Stream.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10).map(String::valueOf).toArray(String[]::new)));
+    }
+
+    @Test
+    public void spillFilesShouldBeDeletedOnClose() throws IOException {
+        table = new GraceHashTable(1, 0, () -> folder.getRoot().toPath());
+        KeyedSearchHit row = row(1, "John");
+        table.put(row.getKeys()[0], row);
+        assertEquals(1, folder.getRoot().list().length);
+
+        table.close();
+        table = null;
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertTrue(files.collect(Collectors.toList()).isEmpty());
+        }
+    }
+
+    @Test
+    public void sameValuesOfDifferentTypesShouldBeEqualKeys() {
+        assertEquals(new ComparisonKey(new Object[]{1, 2.5f}), new ComparisonKey(new Object[]{1L, 2.5d}));
+        assertEquals(new ComparisonKey(new Object[]{"1", true}), new ComparisonKey(new Object[]{1, "true"}));
+        assertEquals(new ComparisonKey(new Object[]{null}), new ComparisonKey(new Object[]{null}));
+        assertFalse(new ComparisonKey(new Object[]{"null"}).equals(new ComparisonKey(new Object[]{null})));
+        assertFalse(new ComparisonKey(new Object[]{1}).equals(new ComparisonKey(new Object[]{1.0})));
+        assertFalse(new ComparisonKey(new Object[]{"a|", "b"}).equals(new ComparisonKey(new Object[]{"a", "|b"})));
+    }
+
+    private KeyedSearchHit row(int docId, String name) {
+        SearchHit hit = new SearchHit(docId, String.valueOf(docId), new Text("_doc"),
+                Collections.emptyMap(), Collections.emptyMap());
+        hit.sourceRef(new BytesArray("{\"name\":\"" + name + "\"}"));
+        return new KeyedSearchHit(hit, new ComparisonKey[]{key(name)});
+    }
+
+    private ComparisonKey key(String name) {
+        return new ComparisonKey(new Object[]{name});
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.join;
+
+import com.alibaba.druid.sql.ast.statement.SQLJoinTableSource;
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Field;
+import com.amazon.opendistroforelasticsearch.sql.legacy.domain.Select;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.HashJoinElasticRequestBuilder;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.TableInJoinRequestBuilder;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.TotalHits.Relation;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.TermsQueryBuilder;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings.JOIN_MEMORY_LIMIT;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link HashJoinElasticExecutor}
+ */
+public class HashJoinElasticExecutorTest {
+
+    private static final int HINT_LIMIT = 10;
+
+    private final SearchRequestBuilder firstTableRequest = mock(SearchRequestBuilder.class);
+
+    private final SearchRequestBuilder secondTableRequest = mock(SearchRequestBuilder.class);
+
+    private final HashJoinElasticRequestBuilder requestBuilder = new HashJoinElasticRequestBuilder();
+
+    @Before
+    public void setUp() {
+        LocalClusterState mockLocalClusterState = mock(LocalClusterState.class);
+        LocalClusterState.state(mockLocalClusterState);
+        doReturn(new ByteSizeValue(Long.MAX_VALUE)).when(mockLocalClusterState).getSettingValue(JOIN_MEMORY_LIMIT);
+
+        requestBuilder.setJoinType(SQLJoinTableSource.JoinType.JOIN);
+        requestBuilder.setTotalLimit(200);
+        requestBuilder.setUseTermFiltersOptimization(true);
+        requestBuilder.setT1ToT2FieldsComparison(Collections.singletonList(Collections.singletonList(
+            new SimpleEntry<>(new Field("name", null), new Field("name", null)))));
+        table(requestBuilder.getFirstTable(), "a", firstTableRequest);
+        table(requestBuilder.getSecondTable(), "b", secondTableRequest);
+        when(secondTableRequest.request()).thenReturn(new SearchRequest("employee"));
+    }
+
+    @After
+    public void cleanUp() {
+        LocalClusterState.state(null);
+    }
+
+    @Test
+    public void mixedCaseKeyShouldBePushedDownAsIsAndJoined() throws Exception {
+        when(firstTableRequest.get()).thenReturn(response(hit(1, "\"John Smith\"")));
+        when(secondTableRequest.get()).thenReturn(response(hit(2, "\"John Smith\"")));
+
+        HashJoinElasticExecutor executor = new HashJoinElasticExecutor(mock(Client.class), requestBuilder);
+        executor.run();
+
+        ArgumentCaptor<QueryBuilder> query = ArgumentCaptor.forClass(QueryBuilder.class);
+        verify(secondTableRequest).setQuery(query.capture());
+        BoolQueryBuilder andQuery = (BoolQueryBuilder) ((BoolQueryBuilder) query.getValue()).should().get(0);
+        QueryBuilder termsQuery = andQuery.must().get(0);
+        assertThat(termsQuery, instanceOf(TermsQueryBuilder.class));
+        assertEquals(Collections.singletonList("John Smith"), ((TermsQueryBuilder) termsQuery).values());
+
+        SearchHit[] hits = executor.getHits().getHits();
+        assertEquals(1, hits.length);
+        Map<String, Object> source = hits[0].getSourceAsMap();
+        assertEquals("John Smith", source.get("a.name"));
+        assertEquals("John Smith", source.get("b.name"));
+    }
+
+    @Test
+    public void keywordAndLongKeysOfSameValueShouldBeJoined() throws Exception {
+        when(firstTableRequest.get()).thenReturn(response(hit(1, "\"1\"")));
+        when(secondTableRequest.get()).thenReturn(response(hit(2, "1"), hit(3, "2")));
+
+        HashJoinElasticExecutor executor = new HashJoinElasticExecutor(mock(Client.class), requestBuilder);
+        executor.run();
+
+        SearchHit[] hits = executor.getHits().getHits();
+        assertEquals(1, hits.length);
+        assertEquals("1|2", hits[0].getId());
+    }
+
+    private void table(TableInJoinRequestBuilder table, String alias, SearchRequestBuilder request) {
+        table.setAlias(alias);
+        table.setRequestBuilder(request);
+        table.setOriginalSelect(new Select());
+        table.setReturnedFields(Collections.emptyList());
+        table.setHintLimit(HINT_LIMIT);
+        when(request.setSize(HINT_LIMIT)).thenReturn(request);
+    }
+
+    private SearchResponse response(SearchHit... hits) {
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getHits()).thenReturn(
+            new SearchHits(hits, new TotalHits(hits.length, Relation.EQUAL_TO), 1.0F));
+        return response;
+    }
+
+    private SearchHit hit(int docId, String nameInJson) {
+        SearchHit hit = new SearchHit(docId, String.valueOf(docId), new Text("_doc"),
+            Collections.emptyMap(), Collections.emptyMap());
+        hit.sourceRef(new BytesArray("{\"name\":" + nameInJson + "}"));
+        return hit;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScrollContextRegistryTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final ScrollContextRegistry registry = new ScrollContextRegistry(now::get);
+
+    @Test
+    public void openedScrollShouldBeRegisteredOnce() {
+        registry.opened("scroll1");
+        registry.opened("scroll1");
+        registry.opened("scroll2");
+
+        assertEquals(2, registry.size());
+        assertEquals(2, registry.openedCount());
+    }
+
+    @Test
+    public void closedScrollShouldBeUnregistered() {
+        registry.opened("scroll1");
+        registry.closed("scroll1");
+        registry.closed("unknown");
+
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.leakedCount());
+    }
+
+    @Test
+    public void oldestAgeShouldBeAgeOfEarliestOpenedScroll() {
+        assertEquals(0, registry.oldestAgeInMillis());
+
+        registry.opened("scroll1");
+        now.addAndGet(100);
+        registry.opened("scroll2");
+        now.addAndGet(50);
+
+        assertEquals(150, registry.oldestAgeInMillis());
+    }
+
+    @Test
+    public void renewedScrollShouldKeepOriginalOpenTime() {
+        registry.opened("scroll1");
+        now.addAndGet(100);
+        registry.renewed("scroll1", "scroll2");
+        registry.closed("scroll1");
+
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.openedCount());
+        assertEquals(100, registry.oldestAgeInMillis());
+    }
+
+    @Test
+    public void renewedScrollNotRegisteredShouldBeRegisteredAsOpened() {
+        registry.renewed("unknown", "scroll1");
+        registry.renewed("scroll2", "scroll2");
+
+        assertEquals(2, registry.size());
+        assertEquals(2, registry.openedCount());
+    }
+
+    @Test
+    public void leakedScrollShouldBeCountedOnlyIfRegistered() {
+        registry.opened("scroll1");
+        registry.opened("scroll2");
+        registry.leaked(Arrays.asList("scroll1", "unknown"));
+
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.leakedCount());
+    }
+
+    @Test
+    public void nullScrollIdShouldBeIgnored() {
+        registry.opened(null);
+        registry.closed(null);
+        registry.opened("scroll1");
+        registry.renewed("scroll1", null);
+
+        assertEquals(0, registry.size());
+        assertEquals(1, registry.openedCount());
+    }
+}
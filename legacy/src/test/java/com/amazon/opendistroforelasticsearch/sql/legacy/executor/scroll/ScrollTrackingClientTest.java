@@ -0,0 +1,138 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.ClearScrollResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.Client;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScrollTrackingClientTest {
+
+    private final Client client = mock(Client.class);
+
+    private final ScrollContextRegistry registry = new ScrollContextRegistry(System::currentTimeMillis);
+
+    private final ScrollTrackingClient trackingClient = new ScrollTrackingClient(client, registry);
+
+    /**
+     * Scroll id in response of search or scroll request with the given scroll id
+     */
+    private final Map<String, String> scrollIds = new HashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        doAnswer(invocation -> {
+            Object request = invocation.getArgument(1);
+            ActionListener<Object> listener = invocation.getArgument(2);
+            if (request instanceof ClearScrollRequest) {
+                listener.onResponse(new ClearScrollResponse(true, 1));
+            } else {
+                String scrollId = request instanceof SearchScrollRequest
+                        ? scrollIds.get(((SearchScrollRequest) request).scrollId()) : scrollIds.get(null);
+                SearchResponse response = mock(SearchResponse.class);
+                when(response.getScrollId()).thenReturn(scrollId);
+                listener.onResponse(response);
+            }
+            return null;
+        }).when(client).execute(any(), any(), any());
+    }
+
+    @Test
+    public void scrollLeftOpenShouldBeClearedOnClose() {
+        scrollIds.put(null, "scroll1");
+        trackingClient.search(new SearchRequest()).actionGet();
+        assertEquals(1, trackingClient.trackedScrollCount());
+        assertEquals(1, registry.size());
+
+        trackingClient.close();
+        assertEquals(Collections.singletonList("scroll1"), verifyCleared().getScrollIds());
+        assertEquals(0, trackingClient.trackedScrollCount());
+        assertEquals(0, registry.size());
+        assertEquals(1, registry.leakedCount());
+    }
+
+    @Test
+    public void scrollClearedExplicitlyShouldNotBeClearedAgain() {
+        scrollIds.put(null, "scroll1");
+        trackingClient.search(new SearchRequest()).actionGet();
+        trackingClient.prepareClearScroll().addScrollId("scroll1").get();
+
+        trackingClient.close();
+        verify(client, never()).clearScroll(any(ClearScrollRequest.class), any());
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.leakedCount());
+    }
+
+    @Test
+    public void renewedScrollIdShouldReplaceOldOne() {
+        scrollIds.put(null, "scroll1");
+        scrollIds.put("scroll1", "scroll2");
+        trackingClient.search(new SearchRequest()).actionGet();
+        trackingClient.searchScroll(new SearchScrollRequest("scroll1")).actionGet();
+        assertEquals(1, trackingClient.trackedScrollCount());
+        assertEquals(1, registry.size());
+
+        trackingClient.close();
+        assertEquals(Collections.singletonList("scroll2"), verifyCleared().getScrollIds());
+    }
+
+    @Test
+    public void scrollOpenedAfterCloseShouldBeClearedAtOnce() {
+        trackingClient.close();
+
+        scrollIds.put(null, "scroll1");
+        trackingClient.search(new SearchRequest()).actionGet();
+        assertEquals(Collections.singletonList("scroll1"), verifyCleared().getScrollIds());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void searchWithoutScrollShouldNotBeTracked() {
+        trackingClient.search(new SearchRequest()).actionGet();
+        assertEquals(0, trackingClient.trackedScrollCount());
+
+        trackingClient.close();
+        verify(client, never()).clearScroll(any(ClearScrollRequest.class), any());
+        verify(client, never()).close();
+    }
+
+    private ClearScrollRequest verifyCleared() {
+        ArgumentCaptor<ClearScrollRequest> captor = ArgumentCaptor.forClass(ClearScrollRequest.class);
+        verify(client).clearScroll(captor.capture(), any());
+        return captor.getValue();
+    }
+}
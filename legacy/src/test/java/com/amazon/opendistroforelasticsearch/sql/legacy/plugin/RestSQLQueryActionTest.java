@@ -18,11 +18,16 @@ package com.amazon.opendistroforelasticsearch.sql.legacy.plugin;
 
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSQLQueryAction.NOT_SUPPORTED_YET;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlAction.EXPLAIN_API_ENDPOINT;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlAction.PREPARE_API_ENDPOINT;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlAction.QUERY_API_ENDPOINT;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.PreparedStatementCache;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -52,8 +57,8 @@ public class RestSQLQueryActionTest {
         QUERY_API_ENDPOINT,
         "");
 
-    RestSQLQueryAction queryAction = new RestSQLQueryAction(clusterService, settings);
-    assertNotSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient));
+    RestSQLQueryAction queryAction = newQueryAction();
+    assertNotSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient, COMPACT));
   }
 
   @Test
@@ -64,8 +69,8 @@ public class RestSQLQueryActionTest {
         EXPLAIN_API_ENDPOINT,
         "");
 
-    RestSQLQueryAction queryAction = new RestSQLQueryAction(clusterService, settings);
-    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient));
+    RestSQLQueryAction queryAction = newQueryAction();
+    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient, COMPACT));
   }
 
   @Test
@@ -76,8 +81,49 @@ public class RestSQLQueryActionTest {
         QUERY_API_ENDPOINT,
         "");
 
-    RestSQLQueryAction queryAction = new RestSQLQueryAction(clusterService, settings);
-    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient));
+    RestSQLQueryAction queryAction = newQueryAction();
+    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient, COMPACT));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void handlePrepareStatementThatCanSupport() {
+    SQLQueryRequest request = new SQLQueryRequest(
+        new JSONObject("{\"query\": \"SELECT * FROM test WHERE age = ?\"}"),
+        "SELECT * FROM test WHERE age = ?",
+        PREPARE_API_ENDPOINT,
+        "");
+
+    RestSQLQueryAction queryAction = newQueryAction();
+    assertNotSame(NOT_SUPPORTED_YET, queryAction.prepareStatement(request, nodeClient));
+  }
+
+  @Test
+  public void skipPrepareStatementThatNotSupport() {
+    SQLQueryRequest request = new SQLQueryRequest(
+        new JSONObject("{\"query\": \"SELECT * FROM test WHERE age = ? LIMIT 10\"}"),
+        "SELECT * FROM test WHERE age = ? LIMIT 10",
+        PREPARE_API_ENDPOINT,
+        "");
+
+    RestSQLQueryAction queryAction = newQueryAction();
+    assertSame(NOT_SUPPORTED_YET, queryAction.prepareStatement(request, nodeClient));
+  }
+
+  @Test
+  public void skipPrepareStatementWithUnsupportedFormat() {
+    SQLQueryRequest request = new SQLQueryRequest(
+        new JSONObject("{\"query\": \"SELECT * FROM test WHERE age = ?\"}"),
+        "SELECT * FROM test WHERE age = ?",
+        PREPARE_API_ENDPOINT,
+        "csv");
+
+    RestSQLQueryAction queryAction = newQueryAction();
+    assertSame(NOT_SUPPORTED_YET, queryAction.prepareStatement(request, nodeClient));
+  }
+
+  private RestSQLQueryAction newQueryAction() {
+    return new RestSQLQueryAction(clusterService, settings, new IndexMappingCache(),
+        new LogicalPlanCache(), new PreparedStatementCache());
+  }
+
+}
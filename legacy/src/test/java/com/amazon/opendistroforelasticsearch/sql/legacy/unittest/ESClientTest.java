@@ -32,6 +32,8 @@ import org.mockito.stubbing.Answer;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ESClientTest {
@@ -71,4 +73,16 @@ public class ESClientTest {
         Assert.assertFalse(res[1].isFailure());
     }
 
+    @Test
+    public void awaitSubmittedMultiSearchRetryOneTime() {
+        ESClient esClient = new ESClient(client);
+        MultiSearchRequest request = new MultiSearchRequest().add(new SearchRequest()).add(new SearchRequest());
+        ActionFuture<MultiSearchResponse> pending = esClient.submitMultiSearch(request);
+        MultiSearchResponse.Item[] res = esClient.awaitMultiSearch(request, pending);
+        Assert.assertEquals(res.length, 2);
+        Assert.assertFalse(res[0].isFailure());
+        Assert.assertFalse(res[1].isFailure());
+        verify(client, times(2)).multiSearch(any());
+    }
+
 }
@@ -28,6 +28,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.List;
+
 @RunWith(MockitoJUnitRunner.class)
 public class SqlRequestFactoryTest {
 
@@ -184,4 +186,62 @@ public class SqlRequestFactoryTest {
 
         SqlRequest sqlRequest = SqlRequestFactory.getSqlRequest(this.restRequest);
     }
+
+    @Test
+    public void testGenerateBatchSqlRequests() {
+        String payload = "{\n" +
+                "  \"batch\": [\n" +
+                "    {\n" +
+                "      \"query\": \"select * from my_table\"\n" +
+                "    },\n" +
+                "    {\n" +
+                "      \"query\": \"select * from my_table where int_param = ?\",\n" +
+                "      \"parameters\": [{\"type\": \"integer\", \"value\": 1}]\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+        Mockito.when(this.restRequest.content()).thenReturn(new BytesArray(payload));
+        Mockito.when(this.restRequest.method()).thenReturn(RestRequest.Method.POST);
+
+        List<SqlRequest> sqlRequests = SqlRequestFactory.getBatchSqlRequests(this.restRequest);
+
+        Assert.assertEquals(2, sqlRequests.size());
+        Assert.assertFalse(sqlRequests.get(0) instanceof PreparedStatementRequest);
+        Assert.assertEquals("select * from my_table", sqlRequests.get(0).getSql());
+        Assert.assertEquals(Integer.valueOf(0), sqlRequests.get(0).fetchSize());
+        Assert.assertTrue(sqlRequests.get(1) instanceof PreparedStatementRequest);
+        Assert.assertEquals("select * from my_table where int_param = 1", sqlRequests.get(1).getSql());
+        Assert.assertEquals(Integer.valueOf(0), sqlRequests.get(1).fetchSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGenerateBatchSqlRequests_emptyBatch() {
+        String payload = "{\"batch\": []}";
+        Mockito.when(this.restRequest.content()).thenReturn(new BytesArray(payload));
+        Mockito.when(this.restRequest.method()).thenReturn(RestRequest.Method.POST);
+
+        SqlRequestFactory.getBatchSqlRequests(this.restRequest);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGenerateBatchSqlRequests_cursorNotSupported() {
+        String payload = "{\"batch\": [{\"query\": \"select * from my_table\", \"fetch_size\": 5}]}";
+        Mockito.when(this.restRequest.content()).thenReturn(new BytesArray(payload));
+        Mockito.when(this.restRequest.method()).thenReturn(RestRequest.Method.POST);
+
+        SqlRequestFactory.getBatchSqlRequests(this.restRequest);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGenerateBatchSqlRequests_tooManyQueries() {
+        StringBuilder payload = new StringBuilder("{\"batch\": [");
+        for (int i = 0; i <= SqlRequestFactory.MAX_BATCH_SIZE; i++) {
+            payload.append(i == 0 ? "" : ",").append("{\"query\": \"select * from my_table\"}");
+        }
+        payload.append("]}");
+        Mockito.when(this.restRequest.content()).thenReturn(new BytesArray(payload.toString()));
+        Mockito.when(this.restRequest.method()).thenReturn(RestRequest.Method.POST);
+
+        SqlRequestFactory.getBatchSqlRequests(this.restRequest);
+    }
 }
@@ -48,6 +48,18 @@ public class DefaultCursorTest {
         assertThat(cursor.generateCursorId(), startsWith(cursor.getType().getId()+ ":") );
     }
 
+    @Test
+    public void cursorKeptInContextStoreShouldOnlyReferToContextId() {
+        DefaultCursor cursor = new DefaultCursor();
+        cursor.setRowsLeft(50);
+        cursor.setScrollId("dbdskbcdjksbcjkdsbcjk+//");
+        cursor.setContextId("contextId");
+        assertEquals(CursorType.CONTEXT.getId() + ":contextId", cursor.generateCursorId());
+
+        cursor.setRowsLeft(0);
+        assertThat(cursor.generateCursorId(), emptyOrNullString());
+    }
+
     @Test
     public void nullCursorWhenRowLeftIsLessThanEqualZero() {
         DefaultCursor cursor = new DefaultCursor();
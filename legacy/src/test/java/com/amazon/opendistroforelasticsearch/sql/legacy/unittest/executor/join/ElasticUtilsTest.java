@@ -19,6 +19,11 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.executor.join.ElasticUti
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.join.MetaSearchResult;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.TotalHits.Relation;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.search.ClearScrollRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.json.JSONObject;
@@ -30,12 +35,23 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.IOException;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 @RunWith(MockitoJUnitRunner.class)
 public class ElasticUtilsTest {
 
     @Mock
     MetaSearchResult metaSearchResult;
 
+    @Mock
+    Client client;
+
+    @Mock
+    ActionFuture<SearchResponse> page;
+
     /**
      * test handling {@link TotalHits} correctly.
      */
@@ -59,4 +75,38 @@ public class ElasticUtilsTest {
         Assert.assertEquals(0, new JSONObject(result).query("/hits/total/value"));
         Assert.assertEquals(Relation.EQUAL_TO.toString(), new JSONObject(result).query("/hits/total/relation"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void clearScrollOfPageFetchedAhead() {
+        SearchResponse response = mock(SearchResponse.class);
+        ClearScrollRequestBuilder clearScroll = mock(ClearScrollRequestBuilder.class);
+        when(page.actionGet()).thenReturn(response);
+        when(response.getScrollId()).thenReturn("scroll1");
+        when(client.prepareClearScroll()).thenReturn(clearScroll);
+        when(clearScroll.addScrollId("scroll1")).thenReturn(clearScroll);
+
+        ElasticUtils.clearScroll(client, page);
+        verify(clearScroll).get();
+    }
+
+    @Test
+    public void failureOfPageFetchedAheadShouldNotBeThrown() {
+        when(page.actionGet()).thenThrow(new ElasticsearchException("search failed"));
+
+        ElasticUtils.clearScroll(client, page);
+        verify(client, never()).prepareClearScroll();
+    }
+
+    @Test
+    public void clearScrollShouldBeSkippedIfNoScrollId() {
+        ElasticUtils.clearScroll(client, (String) null);
+        verify(client, never()).prepareClearScroll();
+    }
+
+    @Test
+    public void failureToClearScrollShouldNotBeThrown() {
+        when(client.prepareClearScroll()).thenThrow(new ElasticsearchException("node closed"));
+
+        ElasticUtils.clearScroll(client, "scroll1");
+    }
+}
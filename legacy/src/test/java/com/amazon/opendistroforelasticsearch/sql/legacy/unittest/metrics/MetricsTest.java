@@ -17,8 +17,10 @@ package com.amazon.opendistroforelasticsearch.sql.legacy.unittest.metrics;
 
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.BasicCounter;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metric;
+import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.MetricName;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metrics;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.NumericMetric;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 
 import org.json.JSONObject;
 import org.junit.Test;
@@ -28,6 +30,8 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class MetricsTest {
 
@@ -50,6 +54,21 @@ public class MetricsTest {
         assertThat(Metrics.getInstance().getAllMetrics().size(), equalTo(1));
     }
 
+    @Test
+    public void registerPlanCacheMetrics() {
+        Metrics.getInstance().clear();
+        LogicalPlanCache planCache = mock(LogicalPlanCache.class);
+        when(planCache.hitCount()).thenReturn(3L);
+        when(planCache.missCount()).thenReturn(2L);
+        when(planCache.size()).thenReturn(1L);
+        Metrics.getInstance().registerPlanCacheMetrics(planCache);
+
+        assertThat(Metrics.getInstance().getAllMetrics().size(), equalTo(3));
+        assertThat(Metrics.getInstance().getMetric(MetricName.PLAN_CACHE_HIT_COUNT.getName()).getValue(), equalTo(3L));
+        assertThat(Metrics.getInstance().getMetric(MetricName.PLAN_CACHE_MISS_COUNT.getName()).getValue(), equalTo(2L));
+        assertThat(Metrics.getInstance().getMetric(MetricName.PLAN_CACHE_SIZE.getName()).getValue(), equalTo(1L));
+    }
+
     @Test
     public void getMetric() {
         Metrics.getInstance().clear();
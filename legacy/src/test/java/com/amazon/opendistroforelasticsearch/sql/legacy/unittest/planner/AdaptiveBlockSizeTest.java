@@ -0,0 +1,84 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.unittest.planner;
+
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.blocksize.AdaptiveBlockSize;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Adaptive block size adjusted by feedback of each block.
+ */
+public class AdaptiveBlockSizeTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void initialSizeShouldBeDefault() {
+        assertEquals(AdaptiveBlockSize.DEFAULT_INITIAL_SIZE, new AdaptiveBlockSize(0).size());
+        assertEquals(500, new AdaptiveBlockSize(500).size());
+    }
+
+    @Test
+    public void sizeShouldGrowAtMostTwiceIfMemoryPlentiful() {
+        AdaptiveBlockSize blockSize = new AdaptiveBlockSize(0);
+        blockSize.feedback(10000, 10000 * 100, 0, 1024 * MB);
+        assertEquals(20000, blockSize.size());
+    }
+
+    @Test
+    public void sizeShouldGrowByHeadroomAndRowWidth() {
+        AdaptiveBlockSize blockSize = new AdaptiveBlockSize(0);
+
+        // (10000 rows * 1KB per row) and 30MB headroom with half used for next block => 5120 more rows allowed
+        blockSize.feedback(10000, 10000 * 1024, 0, 30 * MB);
+        assertEquals(10000 + 5120, blockSize.size());
+    }
+
+    @Test
+    public void higherHitRateShouldGrowLess() {
+        AdaptiveBlockSize blockSize = new AdaptiveBlockSize(0);
+
+        // Each row takes (3 + 2 * 100% hit rate) * 1KB
+        blockSize.feedback(10000, 10000 * 1024, 10000, 50 * MB);
+        assertEquals(10000 + 5120, blockSize.size());
+    }
+
+    @Test
+    public void sizeShouldShrinkByHalfIfNoHeadroom() {
+        AdaptiveBlockSize blockSize = new AdaptiveBlockSize(0);
+        blockSize.feedback(10000, 10000 * 1024, 0, -MB);
+        assertEquals(5000, blockSize.size());
+    }
+
+    @Test
+    public void sizeShouldBeWithinLimits() {
+        AdaptiveBlockSize blockSize = new AdaptiveBlockSize(15000);
+        blockSize.feedback(10000, 10000, 0, 1024 * MB);
+        assertEquals(15000, blockSize.size());
+
+        blockSize.feedback(150, 150 * 1024, 0, -MB);
+        assertEquals(AdaptiveBlockSize.LOWER_LIMIT, blockSize.size());
+    }
+
+    @Test
+    public void emptyBlockShouldBeIgnored() {
+        AdaptiveBlockSize blockSize = new AdaptiveBlockSize(0);
+        blockSize.feedback(0, 0, 0, -MB);
+        assertEquals(AdaptiveBlockSize.DEFAULT_INITIAL_SIZE, blockSize.size());
+    }
+}
@@ -490,6 +490,116 @@ public class QueryPlannerExecuteTest extends QueryPlannerTest {
         );
     }
 
+    @Test
+    public void simpleQueryWithOrderByAndLimit() {
+        MatcherAssert.assertThat(
+            query(
+                "SELECT d.name, e.lastname FROM employee e JOIN department d ON d.id = e.departmentId " +
+                "  ORDER BY e.lastname LIMIT 2",
+                employees(
+                    employee(1, "Hank", "1"),
+                    employee(2, "Alice", "2"),
+                    employee(3, "Allen", "1"),
+                    employee(4, "Ellis", "2"),
+                    employee(5, "Frank", "2")
+                ),
+                departments(
+                    department(1, "1", "AWS"),
+                    department(2, "2", "Retail")
+                )
+            ),
+            MatcherUtils.hitsInOrder(
+                hit(
+                    MatcherUtils.kv("d.name", "Retail"),
+                    MatcherUtils.kv("e.lastname", "Alice")
+                ),
+                hit(
+                    MatcherUtils.kv("d.name", "AWS"),
+                    MatcherUtils.kv("e.lastname", "Allen")
+                )
+            )
+        );
+    }
+
+    /** Employee is probed in order and matches single department, so join output order is deterministic */
+    @Test
+    public void simpleQueryWithOrderByInDescShouldKeepJoinOutputOrderOfTies() {
+        MatcherAssert.assertThat(
+            query(
+                "SELECT d.name, e.lastname FROM department d JOIN employee e ON d.id = e.departmentId " +
+                "  ORDER BY e.departmentId DESC",
+                twoDepartments(),
+                employeesOfTwoDepartments()
+            ),
+            MatcherUtils.hitsInOrder(
+                hit(
+                    MatcherUtils.kv("d.name", "Retail"),
+                    MatcherUtils.kv("e.lastname", "Alice")
+                ),
+                hit(
+                    MatcherUtils.kv("d.name", "Retail"),
+                    MatcherUtils.kv("e.lastname", "Ellis")
+                ),
+                hit(
+                    MatcherUtils.kv("d.name", "Retail"),
+                    MatcherUtils.kv("e.lastname", "Frank")
+                ),
+                hit(
+                    MatcherUtils.kv("d.name", "AWS"),
+                    MatcherUtils.kv("e.lastname", "Hank")
+                ),
+                hit(
+                    MatcherUtils.kv("d.name", "AWS"),
+                    MatcherUtils.kv("e.lastname", "Allen")
+                )
+            )
+        );
+    }
+
+    /** Ties in top N should be in the same order as in the full sort result of the same query above */
+    @Test
+    public void simpleQueryWithOrderByInDescAndLimitShouldKeepJoinOutputOrderOfTies() {
+        MatcherAssert.assertThat(
+            query(
+                "SELECT d.name, e.lastname FROM department d JOIN employee e ON d.id = e.departmentId " +
+                "  ORDER BY e.departmentId DESC LIMIT 3",
+                twoDepartments(),
+                employeesOfTwoDepartments()
+            ),
+            MatcherUtils.hitsInOrder(
+                hit(
+                    MatcherUtils.kv("d.name", "Retail"),
+                    MatcherUtils.kv("e.lastname", "Alice")
+                ),
+                hit(
+                    MatcherUtils.kv("d.name", "Retail"),
+                    MatcherUtils.kv("e.lastname", "Ellis")
+                ),
+                hit(
+                    MatcherUtils.kv("d.name", "Retail"),
+                    MatcherUtils.kv("e.lastname", "Frank")
+                )
+            )
+        );
+    }
+
+    private MockSearchHits employeesOfTwoDepartments() {
+        return employees(
+            employee(1, "Hank", "1"),
+            employee(2, "Alice", "2"),
+            employee(3, "Allen", "1"),
+            employee(4, "Ellis", "2"),
+            employee(5, "Frank", "2")
+        );
+    }
+
+    private MockSearchHits twoDepartments() {
+        return departments(
+            department(1, "1", "AWS"),
+            department(2, "2", "Retail")
+        );
+    }
+
     /** Doesn't support muliple columns from both tables (order is missing) */
     @Test
     public void simpleQueryWithLeftJoinAndOrderByMultipleColumnsFromOneTableInDesc() {
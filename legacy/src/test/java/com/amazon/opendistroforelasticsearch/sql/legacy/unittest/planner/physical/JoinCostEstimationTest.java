@@ -0,0 +1,155 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.unittest.planner.physical;
+
+import com.alibaba.druid.sql.ast.statement.SQLJoinTableSource.JoinType;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.ESJoinQueryActionFactory;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.HashJoinElasticRequestBuilder;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.LogicalOperator;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.node.Join;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.logical.node.Join.JoinCondition;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.PhysicalOperator;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.estimation.Cost;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.physical.node.join.BlockHashJoin;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.Stats;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.planner.resource.blocksize.BlockSize.FixedBlockSize;
+import org.elasticsearch.client.Client;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static java.util.Comparator.comparing;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost estimation of block hash join and build side selection between its candidates.
+ */
+@SuppressWarnings("unchecked")
+public class JoinCostEstimationTest {
+
+    private final LogicalOperator left = mock(LogicalOperator.class);
+
+    private final LogicalOperator right = mock(LogicalOperator.class);
+
+    @Test
+    public void unknownCostShouldBeEqualToAnyOtherCost() {
+        assertEquals(0, new Cost().compareTo(new Cost(100, 100)));
+        assertEquals(0, new Cost(100, 100).compareTo(new Cost()));
+        assertTrue(new Cost(10, 10).compareTo(new Cost(10, 20)) < 0);
+    }
+
+    @Test
+    public void hashJoinCostShouldIncludeRescanOfRightForEachBlock() {
+        BlockHashJoin<Object> join = new BlockHashJoin<>(
+                operator(new Cost(25, 25, 5)), operator(new Cost(100, 100, 10)),
+                JoinType.JOIN, condition(), new FixedBlockSize(10), false);
+
+        Cost cost = join.estimate();
+        assertEquals(25 + 3 * 100, cost.time());
+        assertEquals(25 * 100 / 10, cost.inputSize());
+        assertEquals(5, cost.distinctKeys());
+    }
+
+    @Test
+    public void hashJoinCostShouldBeUnknownIfAnySideUnknown() {
+        BlockHashJoin<Object> join = new BlockHashJoin<>(
+                operator(new Cost()), operator(new Cost(100, 100)),
+                JoinType.JOIN, condition(), new FixedBlockSize(10), false);
+
+        assertTrue(join.estimate().isUnknown());
+    }
+
+    @Test
+    public void leftJoinShouldOutputAtLeastAllLeftRows() {
+        BlockHashJoin<Object> join = new BlockHashJoin<>(
+                operator(new Cost(50, 50, 50)), operator(new Cost(10, 10, 10)),
+                JoinType.LEFT_OUTER_JOIN, condition(), new FixedBlockSize(100), false);
+
+        assertEquals(50, join.estimate().inputSize());
+    }
+
+    @Test
+    public void smallerTableShouldBeChosenAsBuildSide() {
+        BlockHashJoin<Object> optimal = optimal(JoinType.JOIN, new Cost(100000, 100000), new Cost(100, 100));
+
+        assertTrue(optimal.isSwapped());
+        assertThat(optimal.toString(), containsString("( b.aid = a.id )"));
+    }
+
+    @Test
+    public void tableOrderInQueryShouldBeKeptIfCostUnknown() {
+        assertFalse(optimal(JoinType.JOIN, new Cost(), new Cost(100, 100)).isSwapped());
+    }
+
+    @Test
+    public void leftJoinShouldNotBeSwapped() {
+        assertFalse(optimal(JoinType.LEFT_OUTER_JOIN, new Cost(100000, 100000), new Cost(100, 100)).isSwapped());
+    }
+
+    @Test
+    public void statsShouldNotProbeIfDisabledForExplain() {
+        Client client = mock(Client.class);
+        Stats stats = new Stats(client, false);
+
+        assertNull(stats.collectIndexStats(new String[]{"not_cached"}, null, Collections.emptyList()));
+        verifyZeroInteractions(client);
+    }
+
+    @Test
+    public void joinAlgorithmShouldNotBeChosenByStatsIfDecidedByHint() {
+        Client client = mock(Client.class);
+        HashJoinElasticRequestBuilder requestBuilder = new HashJoinElasticRequestBuilder();
+
+        assertSame(requestBuilder, ESJoinQueryActionFactory.chooseJoinAlgorithm(client, requestBuilder));
+        verifyZeroInteractions(client);
+    }
+
+    private BlockHashJoin<Object> optimal(JoinType type, Cost leftCost, Cost rightCost) {
+        Map<LogicalOperator, PhysicalOperator<Object>> optimalOps = new IdentityHashMap<>();
+        optimalOps.put(left, operator(leftCost));
+        optimalOps.put(right, operator(rightCost));
+
+        Join join = new Join(left, right, type, condition(), new FixedBlockSize(1000), false);
+        return (BlockHashJoin<Object>) Arrays.stream(join.toPhysical(optimalOps)).
+                min(comparing(PhysicalOperator::estimate)).
+                orElseThrow(IllegalStateException::new);
+    }
+
+    private PhysicalOperator<Object> operator(Cost cost) {
+        PhysicalOperator<Object> op = mock(PhysicalOperator.class);
+        when(op.estimate()).thenReturn(cost);
+        return op;
+    }
+
+    private JoinCondition condition() {
+        JoinCondition condition = new JoinCondition("a", "b", 1);
+        condition.addLeftColumnNames(0, new String[]{"id"});
+        condition.addRightColumnNames(0, new String[]{"aid"});
+        return condition;
+    }
+}
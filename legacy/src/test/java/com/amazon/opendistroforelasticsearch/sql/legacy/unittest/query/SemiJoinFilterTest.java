@@ -0,0 +1,177 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.legacy.unittest.query;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.BloomFilterExpression;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.DefaultExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.join.SemiJoinFilter;
+import com.amazon.opendistroforelasticsearch.sql.legacy.util.TestsConstants;
+import com.google.common.collect.ImmutableMap;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.ScriptQueryBuilder;
+import org.elasticsearch.index.query.TermsQueryBuilder;
+import org.elasticsearch.script.Script;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ExpressionScriptEngine.EXPRESSION_LANG_NAME;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.query.join.SemiJoinFilter.BLOOM_FILTER_MIN_VALUES;
+import static com.amazon.opendistroforelasticsearch.sql.legacy.util.CheckScriptContents.mockLocalClusterState;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SemiJoinFilterTest {
+
+    private static final String[] INDICES = {TestsConstants.TEST_INDEX_BANK};
+
+    private static final String MAPPING = "{\n" +
+        "  \"" + TestsConstants.TEST_INDEX_BANK + "\": {\n" +
+        "    \"mappings\": {\n" +
+        "      \"account\": {\n" +
+        "        \"properties\": {\n" +
+        "          \"address\": { \"type\": \"text\" },\n" +
+        "          \"age\": { \"type\": \"integer\" },\n" +
+        "          \"city\": { \"type\": \"keyword\" },\n" +
+        "          \"state\": { \"type\": \"keyword\", \"normalizer\": \"lowercase\" },\n" +
+        "          \"employer\": {\n" +
+        "            \"type\": \"text\",\n" +
+        "            \"fields\": { \"keyword\": { \"type\": \"keyword\", \"ignore_above\": 256 } }\n" +
+        "          }\n" +
+        "        }\n" +
+        "      }\n" +
+        "    },\n" +
+        "    \"settings\": {\n" +
+        "      \"index\": {\n" +
+        "        \"number_of_shards\": 5,\n" +
+        "        \"number_of_replicas\": 0,\n" +
+        "        \"version\": { \"created\": \"6050399\" }\n" +
+        "      }\n" +
+        "    },\n" +
+        "    \"mapping_version\": \"1\",\n" +
+        "    \"settings_version\": \"1\"\n" +
+        "  }\n" +
+        "}";
+
+    @Before
+    public void init() {
+        LocalClusterState.state(null);
+        mockLocalClusterState(MAPPING);
+    }
+
+    @Test
+    public void smallNumberOfValuesShouldUseTermsQueryInLowerCaseIfLowercase() {
+        SemiJoinFilter filter = new SemiJoinFilter(
+            Collections.singletonList(ImmutableMap.of("city", Arrays.<Object>asList("Seattle", "Portland"))), true);
+        BoolQueryBuilder andQuery = (BoolQueryBuilder) filter.toQuery(INDICES).should().get(0);
+        QueryBuilder query = andQuery.must().get(0);
+
+        assertThat(query, instanceOf(TermsQueryBuilder.class));
+        assertEquals(Arrays.asList("seattle", "portland"), ((TermsQueryBuilder) query).values());
+    }
+
+    @Test
+    public void smallNumberOfValuesShouldUseTermsQueryAsIsByDefault() {
+        QueryBuilder query = filter("city", Arrays.asList("Seattle", "Portland"));
+
+        assertThat(query, instanceOf(TermsQueryBuilder.class));
+        assertEquals(Arrays.asList("Seattle", "Portland"), ((TermsQueryBuilder) query).values());
+    }
+
+    @Test
+    public void largeNumberOfIntegersShouldUseBloomFilter() {
+        assertBloomFilter(filter("age", values(Integer::valueOf)), "age");
+    }
+
+    @Test
+    public void largeNumberOfKeywordsShouldUseBloomFilter() {
+        assertBloomFilter(filter("city", values(String::valueOf)), "city");
+        assertBloomFilter(filter("employer", values(String::valueOf)), "employer");
+    }
+
+    @Test
+    public void bloomFilterScriptSourceShouldBeSameForSameField() {
+        Script script1 = ((ScriptQueryBuilder) filter("age", values(Integer::valueOf))).script();
+        Script script2 = ((ScriptQueryBuilder) filter("age", values(i -> i + 5000))).script();
+
+        assertEquals(script1.getIdOrCode(), script2.getIdOrCode());
+        assertNotEquals(script1.getParams(), script2.getParams());
+    }
+
+    @Test
+    public void bloomFilterInScriptParamsShouldMatchAllValues() {
+        List<Object> values = values(Integer::valueOf, 100000);
+        QueryBuilder query = filter("age", values);
+        assertBloomFilter(query, "age");
+
+        Script script = ((ScriptQueryBuilder) query).script();
+        BloomFilterExpression expr = ((BloomFilterExpression) new DefaultExpressionSerializer()
+            .deserialize(script.getIdOrCode())).bind(script.getParams());
+        for (Object value : values) {
+            assertTrue(expr.valueOf(ref -> ExprValueUtils.integerValue((Integer) value)).booleanValue());
+        }
+    }
+
+    @Test
+    public void fieldWithoutExactDocValueShouldUseTermsQuery() {
+        assertThat(filter("address", values(String::valueOf)), instanceOf(TermsQueryBuilder.class));
+        assertThat(filter("state", values(String::valueOf)), instanceOf(TermsQueryBuilder.class));
+        assertThat(filter("age", values(String::valueOf)), instanceOf(TermsQueryBuilder.class));
+        assertThat(filter("unknown", values(String::valueOf)), instanceOf(TermsQueryBuilder.class));
+    }
+
+    private QueryBuilder filter(String field, Collection<Object> values) {
+        SemiJoinFilter filter = new SemiJoinFilter(
+            Collections.singletonList(ImmutableMap.of(field, values)));
+        BoolQueryBuilder orQuery = filter.toQuery(INDICES);
+        BoolQueryBuilder andQuery = (BoolQueryBuilder) orQuery.should().get(0);
+        return andQuery.must().get(0);
+    }
+
+    private List<Object> values(IntFunction<Object> func) {
+        return values(func, BLOOM_FILTER_MIN_VALUES);
+    }
+
+    private List<Object> values(IntFunction<Object> func, int size) {
+        return IntStream.range(0, size).mapToObj(func).collect(Collectors.toList());
+    }
+
+    private void assertBloomFilter(QueryBuilder query, String field) {
+        assertThat(query, instanceOf(ScriptQueryBuilder.class));
+        assertEquals(EXPRESSION_LANG_NAME, ((ScriptQueryBuilder) query).script().getLang());
+
+        Expression expr = new DefaultExpressionSerializer().deserialize(
+            ((ScriptQueryBuilder) query).script().getIdOrCode());
+        assertThat(expr, instanceOf(BloomFilterExpression.class));
+        assertEquals("bloom_filter(" + field + ")", expr.toString());
+    }
+
+}
@@ -15,6 +15,9 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.unittest.utils;
 
+import com.alibaba.druid.sql.SQLUtils;
+import com.alibaba.druid.sql.ast.expr.SQLQueryExpr;
+import com.amazon.opendistroforelasticsearch.sql.legacy.query.ESActionFactory;
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.QueryDataAnonymizer;
 import org.junit.Assert;
 import org.junit.Test;
@@ -95,4 +98,20 @@ public class QueryDataAnonymizerTest {
                 "UNION SELECT identifier, identifier FROM table )";
         Assert.assertEquals(expectedQuery, QueryDataAnonymizer.anonymizeData(query));
     }
+
+    @Test
+    public void parsedQueryShouldNotBeModifiedByAnonymization() {
+        SQLQueryExpr sqlExpr = ESActionFactory.parseSelect("SELECT name FROM accounts WHERE age > 30;");
+        String expectedQuery = "( SELECT identifier FROM table WHERE identifier > number )";
+        Assert.assertEquals(expectedQuery, QueryDataAnonymizer.anonymizeData(sqlExpr));
+
+        String originalQuery = SQLUtils.toMySqlString(sqlExpr);
+        Assert.assertTrue(originalQuery.contains("accounts"));
+        Assert.assertTrue(originalQuery.contains("30"));
+    }
+
+    @Test
+    public void nonSelectQueryShouldNotBeParsedForSharing() {
+        Assert.assertNull(ESActionFactory.parseSelect("SHOW TABLES LIKE accounts"));
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.plugin;
+
+import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.OpenDistroSqlAnalyzer;
+import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.SqlAnalysisConfig;
+import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.PPLSyntaxParser;
+import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Warm up SQL, PPL and legacy SQL parser by parsing a representative query corpus.
+ * ANTLR deserializes ATN and builds DFA lazily in static cache shared by all parser instances
+ * of the same grammar. Doing this once at plugin initialization avoids paying the cost on the
+ * first user queries after node start.
+ */
+public class ParserWarmUp implements Runnable {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final List<String> SQL_QUERIES = ImmutableList.of(
+      "SELECT 1",
+      "SELECT * FROM test",
+      "SELECT name, age FROM test WHERE age > 30 AND name LIKE 'J%' ORDER BY age DESC LIMIT 10",
+      "SELECT gender, COUNT(*) AS c, AVG(age) FROM test WHERE balance IS NOT NULL "
+          + "GROUP BY gender HAVING COUNT(*) > 1",
+      "SELECT ABS(age), CAST(age AS DOUBLE), DATE('2020-01-01') FROM test t "
+          + "WHERE t.age BETWEEN 20 AND 30 OR t.name IN ('a', 'b')",
+      "SELECT a.name, b.city FROM test a JOIN account b ON a.id = b.id WHERE a.age <> 10",
+      "SHOW TABLES LIKE test%",
+      "DESCRIBE TABLES LIKE test%");
+
+  private static final List<String> PPL_QUERIES = ImmutableList.of(
+      "source=test",
+      "search source=test age>30 name='John' | fields name, age | sort - age | head 10",
+      "source=test | where age > 30 and name != 'a' | eval a = abs(age) + 1 | fields a",
+      "source=test | stats avg(age), count() by gender | rename gender as g",
+      "source=test | dedup 1 name keepempty=true | rare age by gender",
+      "source=test | top 3 age by gender | fields - gender");
+
+  @Override
+  public void run() {
+    long start = System.currentTimeMillis();
+    SQLSyntaxParser sqlParser = new SQLSyntaxParser();
+    OpenDistroSqlAnalyzer legacyAnalyzer =
+        new OpenDistroSqlAnalyzer(new SqlAnalysisConfig(true, true, 200));
+    for (String query : SQL_QUERIES) {
+      warmUp(() -> sqlParser.parse(query));
+      warmUp(() -> legacyAnalyzer.analyzeSyntax(query));
+    }
+
+    PPLSyntaxParser pplParser = new PPLSyntaxParser();
+    for (String query : PPL_QUERIES) {
+      warmUp(() -> pplParser.analyzeSyntax(query));
+    }
+    LOG.info("Parser warm up finished in {} ms", System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Query unsupported by a grammar still warms up the decisions made before failure.
+   */
+  private void warmUp(Runnable parse) {
+    try {
+      parse.run();
+    } catch (RuntimeException e) {
+      LOG.debug("Query in warm up corpus failed to parse", e);
+    }
+  }
+
+}
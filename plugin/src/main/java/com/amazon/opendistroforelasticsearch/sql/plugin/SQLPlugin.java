@@ -15,16 +15,23 @@
 
 package com.amazon.opendistroforelasticsearch.sql.plugin;
 
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.setting.ElasticsearchSettings;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ExpressionScriptEngine;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.DefaultExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.legacy.cursor.CursorContextStore;
 import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.AsyncRestExecutor;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.scroll.ScrollContextRegistry;
+import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.GaugeMetric;
+import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.MetricName;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metrics;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlSettingsAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlStatsAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.PreparedStatementCache;
 import com.amazon.opendistroforelasticsearch.sql.plugin.rest.RestPPLQueryAction;
 import com.amazon.opendistroforelasticsearch.sql.plugin.rest.RestPPLStatsAction;
 import com.google.common.collect.ImmutableList;
@@ -76,6 +83,21 @@ public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin {
    */
   private com.amazon.opendistroforelasticsearch.sql.common.setting.Settings pluginSettings;
 
+  /**
+   * Node level index mapping cache for new query engine shared by all requests.
+   */
+  private final IndexMappingCache mappingCache = new IndexMappingCache();
+
+  /**
+   * Node level logical plan cache for new query engine shared by all requests.
+   */
+  private final LogicalPlanCache planCache = new LogicalPlanCache();
+
+  /**
+   * Node level prepared statement cache for new query engine shared by all requests.
+   */
+  private final PreparedStatementCache statementCache = new PreparedStatementCache();
+
   public String name() {
     return "sql";
   }
@@ -96,10 +118,32 @@ public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin {
 
     LocalClusterState.state().setResolver(indexNameExpressionResolver);
     Metrics.getInstance().registerDefaultMetrics();
+    Metrics.getInstance().registerPlanCacheMetrics(planCache);
+    CursorContextStore cursorContexts = CursorContextStore.getInstance();
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.CURSOR_CONTEXT_COUNT.getName(), cursorContexts::size));
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.CURSOR_CONTEXT_MEMORY_IN_BYTES.getName(), cursorContexts::memoryInBytes));
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.CURSOR_CONTEXT_EXPIRED_COUNT.getName(), cursorContexts::expiredCount));
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.CURSOR_CONTEXT_EVICTED_COUNT.getName(), cursorContexts::evictedCount));
+    ScrollContextRegistry scrollContexts = ScrollContextRegistry.getInstance();
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.SCROLL_CONTEXT_COUNT.getName(), scrollContexts::size));
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.SCROLL_CONTEXT_OLDEST_AGE_IN_MILLIS.getName(),
+        scrollContexts::oldestAgeInMillis));
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.SCROLL_CONTEXT_OPENED_COUNT.getName(), scrollContexts::openedCount));
+    Metrics.getInstance().registerMetric(new GaugeMetric<>(
+        MetricName.SCROLL_CONTEXT_LEAKED_COUNT.getName(), scrollContexts::leakedCount));
 
     return Arrays.asList(
-        new RestPPLQueryAction(restController, clusterService, pluginSettings, settings),
-        new RestSqlAction(settings, clusterService, pluginSettings),
+        new RestPPLQueryAction(restController, clusterService, pluginSettings, settings,
+            mappingCache, planCache),
+        new RestSqlAction(settings, clusterService, pluginSettings, mappingCache, planCache,
+            statementCache),
         new RestSqlStatsAction(settings, restController),
         new RestSqlSettingsAction(settings, restController),
         new RestPPLStatsAction(settings, restController)
@@ -120,9 +164,11 @@ public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin {
                                                        repositoriesServiceSupplier) {
     this.clusterService = clusterService;
     this.pluginSettings = new ElasticsearchSettings(clusterService.getClusterSettings());
+    clusterService.addListener(mappingCache);
 
     LocalClusterState.state().setClusterService(clusterService);
     LocalClusterState.state().setSqlSettings(sqlSettings);
+    threadPool.generic().execute(new ParserWarmUp());
 
     return super
         .createComponents(client, clusterService, threadPool, resourceWatcherService, scriptService,
@@ -22,6 +22,7 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.Elasticsea
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.ElasticsearchExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ElasticsearchExecutionProtector;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ExecutionProtector;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchMemoryHealthy;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.ElasticsearchStorageEngine;
@@ -50,9 +51,12 @@ public class ElasticsearchPluginConfig {
   @Autowired
   private Settings settings;
 
+  @Autowired
+  private IndexMappingCache mappingCache;
+
   @Bean
   public ElasticsearchClient client() {
-    return new ElasticsearchNodeClient(clusterService, nodeClient);
+    return new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
   }
 
   @Bean
@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.plugin.rest;
 
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
 import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
 import static org.elasticsearch.rest.RestStatus.BAD_REQUEST;
 import static org.elasticsearch.rest.RestStatus.OK;
@@ -23,20 +24,25 @@ import static org.elasticsearch.rest.RestStatus.SERVICE_UNAVAILABLE;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.error.ErrorMessageFactory;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.security.SecurityAccess;
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
 import com.amazon.opendistroforelasticsearch.sql.exception.QueryEngineException;
 import com.amazon.opendistroforelasticsearch.sql.exception.SemanticCheckException;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import com.amazon.opendistroforelasticsearch.sql.legacy.executor.ResponseCompression;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.MetricName;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metrics;
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.LogUtils;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.plugin.request.PPLQueryRequestFactory;
 import com.amazon.opendistroforelasticsearch.sql.ppl.PPLService;
 import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
-import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.SimpleJsonResponseFormatter;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.ColumnarBinaryResponseFormatter;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.StreamingJsonResponseFormatter;
 import java.io.IOException;
 import java.security.PrivilegedExceptionAction;
 import java.util.Collections;
@@ -46,6 +52,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.BytesRestResponse;
@@ -58,6 +65,8 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 public class RestPPLQueryAction extends BaseRestHandler {
   public static final String QUERY_API_ENDPOINT = "/_opendistro/_ppl";
 
+  public static final String COLUMNAR_FORMAT = "columnar";
+
   private static final Logger LOG = LogManager.getLogger();
 
   /**
@@ -70,6 +79,16 @@ public class RestPPLQueryAction extends BaseRestHandler {
    */
   private final Settings pluginSettings;
 
+  /**
+   * Node level index mapping cache shared by all requests.
+   */
+  private final IndexMappingCache mappingCache;
+
+  /**
+   * Node level logical plan cache shared by all requests.
+   */
+  private final LogicalPlanCache planCache;
+
   private final Supplier<Boolean> pplEnabled;
 
   /**
@@ -77,10 +96,13 @@ public class RestPPLQueryAction extends BaseRestHandler {
    */
   public RestPPLQueryAction(RestController restController, ClusterService clusterService,
                             Settings pluginSettings,
-                            org.elasticsearch.common.settings.Settings clusterSettings) {
+                            org.elasticsearch.common.settings.Settings clusterSettings,
+                            IndexMappingCache mappingCache, LogicalPlanCache planCache) {
     super();
     this.clusterService = clusterService;
     this.pluginSettings = pluginSettings;
+    this.mappingCache = mappingCache;
+    this.planCache = planCache;
     this.pplEnabled =
         () -> MULTI_ALLOW_EXPLICIT_INDEX.get(clusterSettings)
             && (Boolean) pluginSettings.getSettingValue(Settings.Key.PPL_ENABLED);
@@ -111,8 +133,10 @@ public class RestPPLQueryAction extends BaseRestHandler {
       ), BAD_REQUEST);
     }
     PPLService pplService = createPPLService(nodeClient);
+    Style style = request.paramAsBoolean("pretty", false) ? PRETTY : COMPACT;
+    boolean columnar = COLUMNAR_FORMAT.equalsIgnoreCase(request.param("format"));
     return channel -> pplService.execute(
-        PPLQueryRequestFactory.getPPLRequest(request), createListener(channel));
+        PPLQueryRequestFactory.getPPLRequest(request), createListener(channel, style, columnar));
   }
 
   /**
@@ -133,6 +157,8 @@ public class RestPPLQueryAction extends BaseRestHandler {
       context.registerBean(ClusterService.class, () -> clusterService);
       context.registerBean(NodeClient.class, () -> client);
       context.registerBean(Settings.class, () -> pluginSettings);
+      context.registerBean(IndexMappingCache.class, () -> mappingCache);
+      context.registerBean(LogicalPlanCache.class, () -> planCache);
       context.register(ElasticsearchPluginConfig.class);
       context.register(PPLServiceConfig.class);
       context.refresh();
@@ -140,14 +166,29 @@ public class RestPPLQueryAction extends BaseRestHandler {
     });
   }
 
-  private ResponseListener<QueryResponse> createListener(RestChannel channel) {
-    SimpleJsonResponseFormatter formatter =
-        new SimpleJsonResponseFormatter(PRETTY); // TODO: decide format and pretty from URL param
+  /**
+   * Response is written to the byte stream sent back directly without intermediate string.
+   * Compact JSON is returned by default unless pretty URL param is specified. Columnar binary
+   * format is returned instead if requested by format URL param. Either is gzip compressed
+   * if accepted by client.
+   */
+  private ResponseListener<QueryResponse> createListener(RestChannel channel, Style style,
+                                                         boolean columnar) {
+    StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(style);
     return new ResponseListener<QueryResponse>() {
       @Override
       public void onResponse(QueryResponse response) {
-        sendResponse(OK, formatter.format(new QueryResult(response.getSchema(),
-            response.getResults())));
+        QueryResult result = new QueryResult(response.getSchema(), response.getResults());
+        BytesStreamOutput content = new BytesStreamOutput();
+        if (columnar) {
+          new ColumnarBinaryResponseFormatter().format(result, content);
+          sendResponse(new BytesRestResponse(
+              OK, ColumnarBinaryResponseFormatter.CONTENT_TYPE, content.bytes()));
+        } else {
+          formatter.format(result, content);
+          sendResponse(
+              new BytesRestResponse(OK, "application/json; charset=UTF-8", content.bytes()));
+        }
       }
 
       @Override
@@ -162,9 +203,9 @@ public class RestPPLQueryAction extends BaseRestHandler {
         }
       }
 
-      private void sendResponse(RestStatus status, String content) {
+      private void sendResponse(BytesRestResponse response) {
         channel.sendResponse(
-            new BytesRestResponse(status, "application/json; charset=UTF-8", content));
+            ResponseCompression.compressIfAccepted(channel, response));
       }
     };
   }
@@ -23,6 +23,7 @@ import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.PPLSyntaxParser;
@@ -44,6 +45,8 @@ public class PPLService {
 
   private final ExecutionEngine executionEngine;
 
+  private final LogicalPlanCache planCache;
+
   /**
    * Execute the {@link PPLQueryRequest}, using {@link ResponseListener} to get response.
    * @param request {@link PPLQueryRequest}
@@ -51,21 +54,26 @@ public class PPLService {
    */
   public void execute(PPLQueryRequest request, ResponseListener<QueryResponse> listener) {
     try {
-      // 1.Parse query and convert parse tree (CST) to abstract syntax tree (AST)
-      ParseTree cst = parser.analyzeSyntax(request.getRequest());
-      UnresolvedPlan ast = cst.accept(new AstBuilder(new AstExpressionBuilder()));
-
-      // 2.Analyze abstract syntax to generate logical plan
-      LogicalPlan logicalPlan = analyzer.analyze(UnresolvedPlanHelper.addSelectAll(ast),
-          new AnalysisContext());
+      // 1.Get logical plan from cache or parse and analyze the query
+      LogicalPlan logicalPlan = planCache.getOrAnalyze("ppl", request.getRequest(),
+          storageEngine, () -> analyze(request.getRequest()));
 
-      // 3.Generate optimal physical plan from logical plan
+      // 2.Generate optimal physical plan from logical plan
       PhysicalPlan physicalPlan = new Planner(storageEngine).plan(logicalPlan);
 
-      // 4.Execute physical plan and send response
+      // 3.Execute physical plan and send response
       executionEngine.execute(physicalPlan, listener);
     } catch (Exception e) {
       listener.onFailure(e);
     }
   }
+
+  private LogicalPlan analyze(String query) {
+    // Parse query and convert parse tree (CST) to abstract syntax tree (AST)
+    ParseTree cst = parser.analyzeSyntax(query);
+    UnresolvedPlan ast = cst.accept(new AstBuilder(new AstExpressionBuilder()));
+
+    // Analyze abstract syntax to generate logical plan
+    return analyzer.analyze(UnresolvedPlanHelper.addSelectAll(ast), new AnalysisContext());
+  }
 }
@@ -17,6 +17,7 @@ package com.amazon.opendistroforelasticsearch.sql.ppl.antlr;
 
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.CaseInsensitiveCharStream;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxAnalysisErrorListener;
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.TwoStageParser;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.parser.OpenDistroPPLLexer;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.parser.OpenDistroPPLParser;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -28,12 +29,12 @@ import org.antlr.v4.runtime.tree.ParseTree;
  */
 public class PPLSyntaxParser {
   /**
-   * Analyze the query syntax.
+   * Analyze the query syntax with SLL prediction first and fall back to LL if failed.
    */
   public ParseTree analyzeSyntax(String query) {
     OpenDistroPPLParser parser = createParser(createLexer(query));
-    parser.addErrorListener(new SyntaxAnalysisErrorListener());
-    return parser.root();
+    return TwoStageParser.parse(
+        parser, OpenDistroPPLParser::root, new SyntaxAnalysisErrorListener());
   }
 
   private OpenDistroPPLParser createParser(Lexer lexer) {
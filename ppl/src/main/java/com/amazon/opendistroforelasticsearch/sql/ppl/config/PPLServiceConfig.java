@@ -20,6 +20,7 @@ import com.amazon.opendistroforelasticsearch.sql.analysis.ExpressionAnalyzer;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.ppl.PPLService;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.PPLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
@@ -41,6 +42,9 @@ public class PPLServiceConfig {
   @Autowired
   private BuiltinFunctionRepository functionRepository;
 
+  @Autowired
+  private LogicalPlanCache planCache;
+
   @Bean
   public Analyzer analyzer() {
     return new Analyzer(new ExpressionAnalyzer(functionRepository), storageEngine);
@@ -48,7 +52,8 @@ public class PPLServiceConfig {
 
   @Bean
   public PPLService pplService() {
-    return new PPLService(new PPLSyntaxParser(), analyzer(), storageEngine, executionEngine);
+    return new PPLService(new PPLSyntaxParser(), analyzer(), storageEngine, executionEngine,
+        planCache);
   }
 
 }
@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.ppl;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
@@ -23,6 +24,7 @@ import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListene
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.ppl.domain.PPLQueryRequest;
@@ -59,6 +61,8 @@ public class PPLServiceTest {
   @Mock
   private ExecutionEngine.Schema schema;
 
+  private final LogicalPlanCache planCache = new LogicalPlanCache();
+
   /**
    * Setup the test context.
    */
@@ -70,6 +74,7 @@ public class PPLServiceTest {
 
     context.registerBean(StorageEngine.class, () -> storageEngine);
     context.registerBean(ExecutionEngine.class, () -> executionEngine);
+    context.registerBean(LogicalPlanCache.class, () -> planCache);
     context.register(PPLServiceConfig.class);
     context.refresh();
     pplService = context.getBean(PPLService.class);
@@ -97,6 +102,31 @@ public class PPLServiceTest {
         });
   }
 
+  @Test
+  public void testExecuteSameQueryShouldHitPlanCache() {
+    doAnswer(invocation -> {
+      ResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onResponse(new QueryResponse(schema, Collections.emptyList()));
+      return null;
+    }).when(executionEngine).execute(any(), any());
+
+    ResponseListener<QueryResponse> listener = new ResponseListener<QueryResponse>() {
+      @Override
+      public void onResponse(QueryResponse pplQueryResponse) {
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        Assert.fail();
+      }
+    };
+    pplService.execute(new PPLQueryRequest("search source=t a=1", null), listener);
+    pplService.execute(new PPLQueryRequest("search source=t a=1", null), listener);
+
+    assertEquals(1, planCache.missCount());
+    assertEquals(1, planCache.hitCount());
+  }
+
   @Test
   public void testExecuteWithIllegalQueryShouldBeCaughtByHandler() {
     pplService.execute(new PPLQueryRequest("search", null), new ResponseListener<QueryResponse>() {
@@ -16,7 +16,13 @@
 package com.amazon.opendistroforelasticsearch.sql.ppl.antlr;
 
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.CaseInsensitiveCharStream;
+import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.parser.OpenDistroPPLLexer;
+import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.parser.OpenDistroPPLParser;
+import java.util.Arrays;
+import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.junit.Rule;
 import org.junit.Test;
@@ -27,6 +33,19 @@ public class PPLSyntaxParserTest {
   @Rule
   public ExpectedException exceptionRule = ExpectedException.none();
 
+  /**
+   * Parser warm up on plugin start relies on DFA built by one parse being reused by all parsers.
+   */
+  @Test
+  public void parseShouldBuildDfaSharedByOtherParsers() {
+    new PPLSyntaxParser().analyzeSyntax("source=t | where a > 1 | fields a");
+
+    OpenDistroPPLParser another = new OpenDistroPPLParser(new CommonTokenStream(
+        new OpenDistroPPLLexer(new CaseInsensitiveCharStream(""))));
+    assertTrue(Arrays.stream(another.getInterpreter().decisionToDFA)
+        .anyMatch(dfa -> !dfa.states.isEmpty()));
+  }
+
   @Test
   public void testSearchCommandShouldPass() {
     ParseTree tree = new PPLSyntaxParser().analyzeSyntax("search source=t a=1 b=2");
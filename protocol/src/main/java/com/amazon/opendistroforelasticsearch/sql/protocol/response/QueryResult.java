@@ -19,6 +19,7 @@ package com.amazon.opendistroforelasticsearch.sql.protocol.response;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.google.common.collect.Iterables;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -59,6 +60,15 @@ public class QueryResult implements Iterable<Object[]> {
     return colNameTypes;
   }
 
+  /**
+   * Values of each row in the same order as columns, without copying them to an array.
+   *
+   * @return view of row values
+   */
+  public Iterable<Collection<ExprValue>> rows() {
+    return Iterables.transform(exprValues, row -> ExprValueUtils.getTupleValue(row).values());
+  }
+
   @Override
   public Iterator<Object[]> iterator() {
     // Any chance to avoid copy for json response generation?
@@ -0,0 +1,246 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprCollectionValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar binary response formatter. Instead of JSON rows, the result is written column by
+ * column so that client only decodes each value once with its type known up front.
+ * The layout in big-endian order is:
+ * <pre>
+ *   int     magic number "ODCR"
+ *   byte    format version
+ *   int     column count, followed by name and type string of each column
+ *   int     row count
+ *   For each column:
+ *     byte    value kind
+ *     byte[]  null bitmap with bit i set if value in row i is null or missing
+ *     LONG:    long for each non-null value
+ *     DOUBLE:  double for each non-null value
+ *     BOOLEAN: bitmap with bit i set if i-th non-null value is true
+ *     STRING and JSON: dictionary of distinct strings, index width (1, 2 or 4 bytes)
+ *                      and dictionary index for each non-null value
+ * </pre>
+ * String is written as its UTF-8 byte length followed by the bytes. Struct and array values,
+ * as well as column with values of mixed kinds, are encoded as JSON text in JSON kind.
+ * Error is still returned in JSON so the client can handle it in the same way as before.
+ */
+public class ColumnarBinaryResponseFormatter implements ResponseFormatter<QueryResult> {
+
+  public static final String CONTENT_TYPE = "application/vnd.opendistro.columnar";
+
+  public static final int MAGIC = 0x4F444352;
+
+  public static final byte VERSION = 1;
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final StreamingJsonResponseFormatter errorFormatter =
+      new StreamingJsonResponseFormatter(COMPACT);
+
+  /**
+   * Value kind of a column block.
+   */
+  enum Kind {
+    LONG, DOUBLE, BOOLEAN, STRING, JSON
+  }
+
+  /**
+   * Write response to the output stream in columnar binary format.
+   *
+   * @param response response
+   * @param out      output stream which is not closed after written
+   */
+  public void format(QueryResult response, OutputStream out) {
+    try {
+      DataOutputStream data = new DataOutputStream(out);
+      writeResponse(data, response);
+      data.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write columnar response", e);
+    }
+  }
+
+  /**
+   * Format response into Base64 text of the binary content for channel which requires string.
+   */
+  @Override
+  public String format(QueryResult response) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    format(response, out);
+    return Base64.getEncoder().encodeToString(out.toByteArray());
+  }
+
+  @Override
+  public String format(Throwable t) {
+    return errorFormatter.format(t);
+  }
+
+  private void writeResponse(DataOutputStream out, QueryResult response) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+
+    Map<String, String> columns = response.columnNameTypes();
+    out.writeInt(columns.size());
+    for (Map.Entry<String, String> column : columns.entrySet()) {
+      writeString(out, column.getKey());
+      writeString(out, column.getValue());
+    }
+
+    List<ExprValue[]> rows = new ArrayList<>(response.size());
+    for (Collection<ExprValue> row : response.rows()) {
+      rows.add(row.toArray(new ExprValue[0]));
+    }
+    out.writeInt(rows.size());
+
+    for (int col = 0; col < columns.size(); col++) {
+      writeColumn(out, rows, col);
+    }
+  }
+
+  private void writeColumn(DataOutputStream out, List<ExprValue[]> rows, int col)
+      throws IOException {
+    List<ExprValue> values = new ArrayList<>(rows.size());
+    byte[] nulls = new byte[bitmapLength(rows.size())];
+    Kind kind = null;
+    for (int i = 0; i < rows.size(); i++) {
+      ExprValue value = rows.get(i)[col];
+      if (value.isNull() || value.isMissing()) {
+        nulls[i >> 3] |= 1 << (i & 7);
+        continue;
+      }
+      values.add(value);
+      Kind valueKind = kindOf(value);
+      kind = (kind == null || kind == valueKind) ? valueKind : Kind.JSON;
+    }
+    if (kind == null) {
+      kind = Kind.STRING;
+    }
+
+    out.writeByte(kind.ordinal());
+    out.write(nulls);
+    switch (kind) {
+      case LONG:
+        for (ExprValue value : values) {
+          out.writeLong(((Number) value.value()).longValue());
+        }
+        break;
+      case DOUBLE:
+        for (ExprValue value : values) {
+          out.writeDouble(((Number) value.value()).doubleValue());
+        }
+        break;
+      case BOOLEAN:
+        byte[] bits = new byte[bitmapLength(values.size())];
+        for (int i = 0; i < values.size(); i++) {
+          if ((Boolean) values.get(i).value()) {
+            bits[i >> 3] |= 1 << (i & 7);
+          }
+        }
+        out.write(bits);
+        break;
+      case STRING:
+        writeDictionary(out, values, false);
+        break;
+      default:
+        writeDictionary(out, values, true);
+    }
+  }
+
+  private void writeDictionary(DataOutputStream out, List<ExprValue> values, boolean json)
+      throws IOException {
+    Map<String, Integer> dictionary = new LinkedHashMap<>();
+    int[] indexes = new int[values.size()];
+    for (int i = 0; i < values.size(); i++) {
+      String text = json ? toJson(values.get(i)) : values.get(i).value().toString();
+      indexes[i] = dictionary.computeIfAbsent(text, key -> dictionary.size());
+    }
+
+    out.writeInt(dictionary.size());
+    for (String text : dictionary.keySet()) {
+      writeString(out, text);
+    }
+
+    int width = dictionary.size() <= 0xFF ? 1 : (dictionary.size() <= 0xFFFF ? 2 : 4);
+    out.writeByte(width);
+    for (int index : indexes) {
+      if (width == 1) {
+        out.writeByte(index);
+      } else if (width == 2) {
+        out.writeShort(index);
+      } else {
+        out.writeInt(index);
+      }
+    }
+  }
+
+  private Kind kindOf(ExprValue value) {
+    if (value instanceof ExprTupleValue || value instanceof ExprCollectionValue) {
+      return Kind.JSON;
+    }
+    Object object = value.value();
+    if (object instanceof Integer || object instanceof Long || object instanceof Short
+        || object instanceof Byte) {
+      return Kind.LONG;
+    } else if (object instanceof Float || object instanceof Double) {
+      return Kind.DOUBLE;
+    } else if (object instanceof Boolean) {
+      return Kind.BOOLEAN;
+    }
+    return Kind.STRING;
+  }
+
+  private String toJson(ExprValue value) throws IOException {
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+      StreamingJsonResponseFormatter.writeValue(generator, value);
+    }
+    return writer.toString();
+  }
+
+  private void writeString(DataOutputStream out, String text) throws IOException {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private int bitmapLength(int bits) {
+    return (bits + 7) >> 3;
+  }
+
+}
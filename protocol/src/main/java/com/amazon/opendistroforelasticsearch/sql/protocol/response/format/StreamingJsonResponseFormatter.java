@@ -0,0 +1,163 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprCollectionValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JSON response formatter which produces the same schema and data rows response as
+ * {@link SimpleJsonResponseFormatter}. Instead of building an intermediate object graph and
+ * rendering it to a string, it writes each {@link ExprValue} to the output stream directly.
+ * So the response content is only materialized once in the target stream.
+ */
+@RequiredArgsConstructor
+public class StreamingJsonResponseFormatter implements ResponseFormatter<QueryResult> {
+
+  private static final JsonFactory JSON_FACTORY =
+      new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  /**
+   * JSON format style.
+   */
+  private final Style style;
+
+  /**
+   * Write response to the output stream in JSON format.
+   *
+   * @param response response
+   * @param out      output stream which is not closed after written
+   */
+  public void format(QueryResult response, OutputStream out) {
+    write(out, generator -> writeResponse(generator, response));
+  }
+
+  @Override
+  public String format(QueryResult response) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    format(response, out);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public String format(Throwable t) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    write(out, generator -> {
+      generator.writeStartObject();
+      generator.writeStringField("type", t.getClass().getSimpleName());
+      generator.writeStringField("reason", t.getMessage());
+      generator.writeEndObject();
+    });
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private void write(OutputStream out, JsonWriter writer) {
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      if (style == PRETTY) {
+        generator.useDefaultPrettyPrinter();
+      }
+      writer.write(generator);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write JSON response", e);
+    }
+  }
+
+  private void writeResponse(JsonGenerator generator, QueryResult response) throws IOException {
+    generator.writeStartObject();
+
+    generator.writeArrayFieldStart("schema");
+    for (Map.Entry<String, String> column : response.columnNameTypes().entrySet()) {
+      generator.writeStartObject();
+      generator.writeStringField("name", column.getKey());
+      generator.writeStringField("type", column.getValue());
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+
+    generator.writeArrayFieldStart("datarows");
+    for (Collection<ExprValue> row : response.rows()) {
+      generator.writeStartArray();
+      for (ExprValue value : row) {
+        writeValue(generator, value);
+      }
+      generator.writeEndArray();
+    }
+    generator.writeEndArray();
+
+    generator.writeNumberField("total", response.size());
+    generator.writeNumberField("size", response.size());
+    generator.writeEndObject();
+  }
+
+  static void writeValue(JsonGenerator generator, ExprValue exprValue) throws IOException {
+    if (exprValue instanceof ExprTupleValue) {
+      generator.writeStartObject();
+      for (Map.Entry<String, ExprValue> entry : exprValue.tupleValue().entrySet()) {
+        generator.writeFieldName(entry.getKey());
+        writeValue(generator, entry.getValue());
+      }
+      generator.writeEndObject();
+    } else if (exprValue instanceof ExprCollectionValue) {
+      generator.writeStartArray();
+      for (ExprValue element : exprValue.collectionValue()) {
+        writeValue(generator, element);
+      }
+      generator.writeEndArray();
+    } else {
+      writeScalar(generator, exprValue.value());
+    }
+  }
+
+  private static void writeScalar(JsonGenerator generator, Object value) throws IOException {
+    if (value == null) {
+      generator.writeNull();
+    } else if (value instanceof String) {
+      generator.writeString((String) value);
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+      generator.writeNumber(((Number) value).longValue());
+    } else if (value instanceof Float) {
+      generator.writeNumber((Float) value);
+    } else if (value instanceof Double) {
+      generator.writeNumber((Double) value);
+    } else {
+      generator.writeString(value.toString());
+    }
+  }
+
+  @FunctionalInterface
+  private interface JsonWriter {
+    void write(JsonGenerator generator) throws IOException;
+  }
+
+}
@@ -0,0 +1,233 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_FALSE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.collectionValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprShortValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.Schema.Column;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ColumnarBinaryResponseFormatterTest {
+
+  private final ColumnarBinaryResponseFormatter formatter = new ColumnarBinaryResponseFormatter();
+
+  @Test
+  void formatResponse() throws IOException {
+    QueryResult response =
+        new QueryResult(
+            new ExecutionEngine.Schema(ImmutableList.of(
+                new Column("firstname", "name", STRING),
+                new Column("age", "age", INTEGER))),
+            Arrays.asList(
+                tupleValue(ImmutableMap.of("firstname", "John", "age", 20)),
+                tupleValue(ImmutableMap.of("firstname", "Smith", "age", 30)),
+                tupleValue(ImmutableMap.of("firstname", "John", "age", 40))));
+
+    DataInputStream in = decode(formatter.format(response));
+    assertEquals(ColumnarBinaryResponseFormatter.MAGIC, in.readInt());
+    assertEquals(ColumnarBinaryResponseFormatter.VERSION, in.readByte());
+    assertEquals(2, in.readInt());
+    assertEquals("firstname", readString(in));
+    assertEquals("string", readString(in));
+    assertEquals("age", readString(in));
+    assertEquals("integer", readString(in));
+    assertEquals(3, in.readInt());
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.STRING.ordinal(), in.readByte());
+    assertEquals(0, in.readByte());
+    assertEquals(2, in.readInt());
+    assertEquals("John", readString(in));
+    assertEquals("Smith", readString(in));
+    assertEquals(1, in.readByte());
+    assertArrayEquals(new byte[] {0, 1, 0}, readBytes(in, 3));
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.LONG.ordinal(), in.readByte());
+    assertEquals(0, in.readByte());
+    assertEquals(20L, in.readLong());
+    assertEquals(30L, in.readLong());
+    assertEquals(40L, in.readLong());
+    assertEquals(-1, in.read());
+  }
+
+  @Test
+  void formatResponseWithAllValueKinds() throws IOException {
+    QueryResult response = new QueryResult(
+        schema("short", "double", "boolean", "struct", "mixed", "null"),
+        Arrays.asList(
+            row(new ExprShortValue(1), doubleValue(1.5), LITERAL_TRUE,
+                tupleValue(ImmutableMap.of("city", "Seattle")), integerValue(1), LITERAL_NULL),
+            row(LITERAL_NULL, floatValue(2.5F), LITERAL_MISSING,
+                collectionValue(ImmutableList.of(1, 2)), stringValue("a"), LITERAL_MISSING),
+            row(longValue(3L), LITERAL_NULL, LITERAL_FALSE,
+                LITERAL_NULL, LITERAL_NULL, LITERAL_NULL)));
+
+    DataInputStream in = decode(formatter.format(response));
+    skipHeader(in, 6);
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.LONG.ordinal(), in.readByte());
+    assertEquals(0b010, in.readByte());
+    assertEquals(1L, in.readLong());
+    assertEquals(3L, in.readLong());
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.DOUBLE.ordinal(), in.readByte());
+    assertEquals(0b100, in.readByte());
+    assertEquals(1.5, in.readDouble());
+    assertEquals(2.5, in.readDouble());
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.BOOLEAN.ordinal(), in.readByte());
+    assertEquals(0b010, in.readByte());
+    assertEquals(0b01, in.readByte());
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.JSON.ordinal(), in.readByte());
+    assertEquals(0b100, in.readByte());
+    assertEquals(2, in.readInt());
+    assertEquals("{\"city\":\"Seattle\"}", readString(in));
+    assertEquals("[1,2]", readString(in));
+    assertEquals(1, in.readByte());
+    assertArrayEquals(new byte[] {0, 1}, readBytes(in, 2));
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.JSON.ordinal(), in.readByte());
+    assertEquals(0b100, in.readByte());
+    assertEquals(2, in.readInt());
+    assertEquals("1", readString(in));
+    assertEquals("\"a\"", readString(in));
+    assertEquals(1, in.readByte());
+    assertArrayEquals(new byte[] {0, 1}, readBytes(in, 2));
+
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.STRING.ordinal(), in.readByte());
+    assertEquals(0b111, in.readByte());
+    assertEquals(0, in.readInt());
+    assertEquals(1, in.readByte());
+    assertEquals(-1, in.read());
+  }
+
+  @Test
+  void formatResponseWithWideDictionaryIndex() throws IOException {
+    assertDictionaryIndexWidth(0x100, 2);
+    assertDictionaryIndexWidth(0x10000, 4);
+  }
+
+  @Test
+  void formatResponseToFailedOutputStream() {
+    QueryResult response = new QueryResult(schema("name"), Collections.emptyList());
+    OutputStream out = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Connection closed");
+      }
+    };
+    assertThrows(UncheckedIOException.class, () -> formatter.format(response, out));
+  }
+
+  @Test
+  void formatErrorInJson() {
+    assertEquals(
+        "{\"type\":\"RuntimeException\",\"reason\":\"This is an exception\"}",
+        formatter.format(new RuntimeException("This is an exception")));
+  }
+
+  private void assertDictionaryIndexWidth(int distinctValues, int width) throws IOException {
+    List<ExprValue> rows = new ArrayList<>(distinctValues);
+    for (int i = 0; i < distinctValues; i++) {
+      rows.add(row(stringValue(String.valueOf(i))));
+    }
+    DataInputStream in = decode(formatter.format(new QueryResult(schema("name"), rows)));
+    skipHeader(in, 1);
+    assertEquals(ColumnarBinaryResponseFormatter.Kind.STRING.ordinal(), in.readByte());
+    readBytes(in, (distinctValues + 7) / 8);
+    assertEquals(distinctValues, in.readInt());
+    for (int i = 0; i < distinctValues; i++) {
+      readString(in);
+    }
+    assertEquals(width, in.readByte());
+    readBytes(in, distinctValues * width - width);
+    assertEquals(distinctValues - 1, width == 2 ? in.readShort() & 0xFFFF : in.readInt());
+  }
+
+  private ExecutionEngine.Schema schema(String... names) {
+    List<Column> columns = new ArrayList<>();
+    for (String name : names) {
+      columns.add(new Column(name, name, STRING));
+    }
+    return new ExecutionEngine.Schema(columns);
+  }
+
+  private ExprValue row(ExprValue... values) {
+    ImmutableMap.Builder<String, ExprValue> builder = ImmutableMap.builder();
+    for (int i = 0; i < values.length; i++) {
+      builder.put("col" + i, values[i]);
+    }
+    return ExprTupleValue.fromExprValueMap(builder.build());
+  }
+
+  private DataInputStream decode(String base64) {
+    return new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64)));
+  }
+
+  private void skipHeader(DataInputStream in, int columns) throws IOException {
+    in.readInt();
+    in.readByte();
+    assertEquals(columns, in.readInt());
+    for (int i = 0; i < columns * 2; i++) {
+      readString(in);
+    }
+    in.readInt();
+  }
+
+  private String readString(DataInputStream in) throws IOException {
+    return new String(readBytes(in, in.readInt()), StandardCharsets.UTF_8);
+  }
+
+  private byte[] readBytes(DataInputStream in, int length) throws IOException {
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.collectionValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.intervalValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprShortValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class StreamingJsonResponseFormatterTest {
+
+  private final ExecutionEngine.Schema schema = new ExecutionEngine.Schema(ImmutableList.of(
+      new ExecutionEngine.Schema.Column("firstname", "name", STRING),
+      new ExecutionEngine.Schema.Column("age", "age", INTEGER)));
+
+  @Test
+  void formatResponse() {
+    QueryResult response =
+        new QueryResult(
+            schema,
+            Arrays.asList(
+                tupleValue(ImmutableMap.of("firstname", "John", "age", 20)),
+                tupleValue(ImmutableMap.of("firstname", "Smith", "age", 30))));
+    StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(COMPACT);
+    assertEquals(
+        "{\"schema\":[{\"name\":\"firstname\",\"type\":\"string\"},"
+            + "{\"name\":\"age\",\"type\":\"integer\"}],\"datarows\":"
+            + "[[\"John\",20],[\"Smith\",30]],\"total\":2,\"size\":2}",
+        formatter.format(response));
+  }
+
+  @Test
+  void formatResponseWithAllValueTypes() {
+    Map<String, ExprValue> row = new LinkedHashMap<>();
+    row.put("string", stringValue("John"));
+    row.put("integer", integerValue(1));
+    row.put("long", longValue(2L));
+    row.put("short", new ExprShortValue(3));
+    row.put("float", floatValue(1.5F));
+    row.put("double", doubleValue(2.5));
+    row.put("boolean", LITERAL_TRUE);
+    row.put("null", LITERAL_NULL);
+    row.put("missing", LITERAL_MISSING);
+    row.put("struct", tupleValue(ImmutableMap.of("city", "Seattle")));
+    row.put("array", collectionValue(ImmutableList.of(1, 2)));
+    row.put("interval", intervalValue(Duration.ofHours(1)));
+
+    QueryResult response = new QueryResult(
+        new ExecutionEngine.Schema(Collections.emptyList()),
+        Collections.singletonList(ExprTupleValue.fromExprValueMap(row)));
+    StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(COMPACT);
+    assertEquals(
+        "{\"schema\":[],\"datarows\":[[\"John\",1,2,3,1.5,2.5,true,null,null,"
+            + "{\"city\":\"Seattle\"},[1,2],\"PT1H\"]],\"total\":1,\"size\":1}",
+        formatter.format(response));
+  }
+
+  @Test
+  void formatResponseToFailedOutputStream() {
+    QueryResult response = new QueryResult(schema, Collections.emptyList());
+    StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(COMPACT);
+    OutputStream out = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Connection closed");
+      }
+    };
+    assertThrows(UncheckedIOException.class, () -> formatter.format(response, out));
+  }
+
+  @Test
+  void formatError() {
+    StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(COMPACT);
+    assertEquals(
+        "{\"type\":\"RuntimeException\",\"reason\":\"This is an exception\"}",
+        formatter.format(new RuntimeException("This is an exception")));
+  }
+
+  @Test
+  void formatErrorPretty() {
+    StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(PRETTY);
+    assertEquals(
+        "{\n"
+            + "  \"type\" : \"RuntimeException\",\n"
+            + "  \"reason\" : \"This is an exception\"\n"
+            + "}",
+        formatter.format(new RuntimeException("This is an exception")));
+  }
+}
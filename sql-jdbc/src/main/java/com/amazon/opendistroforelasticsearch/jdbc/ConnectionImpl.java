@@ -26,7 +26,9 @@ import com.amazon.opendistroforelasticsearch.jdbc.protocol.ClusterMetadata;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.ConnectionResponse;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.Protocol;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.ProtocolFactory;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.ResultFormat;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.ColumnarHttpProtocolFactory;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonHttpProtocolFactory;
 import com.amazon.opendistroforelasticsearch.jdbc.transport.Transport;
 import com.amazon.opendistroforelasticsearch.jdbc.transport.TransportException;
@@ -61,13 +63,20 @@ public class ConnectionImpl implements ElasticsearchConnection, JdbcWrapper, Log
     private String user;
     private Logger log;
     private int fetchSize;
+    private int prefetchPages;
+    private boolean serverPrepare;
     private boolean open = false;
     private Transport transport;
     private Protocol protocol;
     private ClusterMetadata clusterMetadata;
 
     public ConnectionImpl(ConnectionConfig connectionConfig, Logger log) throws SQLException {
-        this(connectionConfig, ApacheHttpTransportFactory.INSTANCE, JsonHttpProtocolFactory.INSTANCE, log);
+        this(connectionConfig, ApacheHttpTransportFactory.INSTANCE, getProtocolFactory(connectionConfig), log);
+    }
+
+    private static ProtocolFactory getProtocolFactory(ConnectionConfig connectionConfig) {
+        return connectionConfig.getResultFormat() == ResultFormat.COLUMNAR ?
+                ColumnarHttpProtocolFactory.INSTANCE : JsonHttpProtocolFactory.INSTANCE;
     }
 
     public ConnectionImpl(ConnectionConfig connectionConfig, TransportFactory transportFactory,
@@ -76,6 +85,8 @@ public class ConnectionImpl implements ElasticsearchConnection, JdbcWrapper, Log
         this.url = connectionConfig.getUrl();
         this.user = connectionConfig.getUser();
         this.fetchSize = connectionConfig.getFetchSize();
+        this.prefetchPages = connectionConfig.getPrefetchPages();
+        this.serverPrepare = connectionConfig.serverPrepare();
 
         try {
             this.transport = transportFactory.getTransport(connectionConfig, log, getUserAgent());
@@ -107,6 +118,14 @@ public class ConnectionImpl implements ElasticsearchConnection, JdbcWrapper, Log
         return fetchSize;
     }
 
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    public boolean isServerPrepare() {
+        return serverPrepare;
+    }
+
     @Override
     public Statement createStatement() throws SQLException {
         log.debug(() -> logEntry("createStatement()"));
@@ -18,6 +18,7 @@ package com.amazon.opendistroforelasticsearch.jdbc;
 
 import com.amazon.opendistroforelasticsearch.jdbc.internal.JdbcWrapper;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.Version;
+import com.amazon.opendistroforelasticsearch.jdbc.internal.results.ColumnVector;
 import com.amazon.opendistroforelasticsearch.jdbc.logging.LoggingSource;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.ColumnDescriptor;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
@@ -1224,24 +1225,20 @@ public class DatabaseMetaDataImpl implements DatabaseMetaData, JdbcWrapper, Logg
 
         static class ColumnMetadataResultSet extends ResultSetImpl {
 
+            // JDBC indexes of the columns whose values are derived from
+            // the Elasticsearch type name received in TYPE_NAME column
+            private static final int DATA_TYPE_COLUMN_INDEX = 5;
+            private static final int TYPE_NAME_COLUMN_INDEX = 6;
+            private static final int COLUMN_SIZE_COLUMN_INDEX = 7;
+
             ColumnMetadataResultSet(StatementImpl statement, List<? extends ColumnDescriptor> columnDescriptors,
                                     List<List<Object>> dataRows, Logger log) throws SQLException {
                 super(statement, columnDescriptors, dataRows, log);
             }
 
-            private int getDataType() {
-                String esDataType = (String) cursor.getColumn(5);
-                return ElasticsearchType.fromTypeName(esDataType, false).sqlTypeNumber();
-            }
-
-            private String getDataTypeName() {
-                String esDataType = (String) cursor.getColumn(5);
-                return ElasticsearchType.fromTypeName(esDataType, false).name();
-            }
-
-            private int getColumnSize() {
-                String esDataType = (String) cursor.getColumn(5);
-                return ElasticsearchType.fromTypeName(esDataType, false).getPrecision();
+            private ElasticsearchType getElasticsearchType() {
+                String esDataType = (String) cursor.getColumn(TYPE_NAME_COLUMN_INDEX - 1);
+                return ElasticsearchType.fromTypeName(esDataType, false);
             }
 
             @Override
@@ -1251,14 +1248,14 @@ public class DatabaseMetaDataImpl implements DatabaseMetaData, JdbcWrapper, Logg
                 Object columnData = null;
 
                 switch (columnIndex) {
-                    case 5:
-                        columnData = getDataType();
+                    case DATA_TYPE_COLUMN_INDEX:
+                        columnData = getElasticsearchType().sqlTypeNumber();
                         break;
-                    case 6:
-                        columnData = getDataTypeName();
+                    case TYPE_NAME_COLUMN_INDEX:
+                        columnData = getElasticsearchType().name();
                         break;
-                    case 7:
-                        columnData = getColumnSize();
+                    case COLUMN_SIZE_COLUMN_INDEX:
+                        columnData = getElasticsearchType().getPrecision();
                         break;
                     default:
                         columnData = super.getColumnFromCursor(columnIndex);
@@ -1267,6 +1264,19 @@ public class DatabaseMetaDataImpl implements DatabaseMetaData, JdbcWrapper, Logg
 
                 return columnData;
             }
+
+            @Override
+            protected ColumnVector getTypedColumnVector(int columnIndex) throws SQLException {
+                // the overridden columns can only be read with getColumnFromCursor
+                switch (columnIndex) {
+                    case DATA_TYPE_COLUMN_INDEX:
+                    case TYPE_NAME_COLUMN_INDEX:
+                    case COLUMN_SIZE_COLUMN_INDEX:
+                        return null;
+                    default:
+                        return super.getTypedColumnVector(columnIndex);
+                }
+            }
         }
 
         @Override
@@ -23,7 +23,9 @@ import com.amazon.opendistroforelasticsearch.jdbc.internal.util.SqlParser;
 import com.amazon.opendistroforelasticsearch.jdbc.logging.Logger;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.JdbcDateTimeFormatter;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.JdbcQueryParam;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
@@ -57,6 +59,8 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
     // TODO - support String representations containing Timestamp With Timezone
     protected String sql;
     private JdbcQueryParam[] parameters;
+    private String statementId;
+    private boolean preparedOnServer;
 
     public PreparedStatementImpl(ConnectionImpl connection, String sql, Logger log) throws SQLException {
         super(connection, log);
@@ -71,6 +75,26 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
         }
     }
 
+    /**
+     * Prepares the statement on the server on its first execution if enabled
+     * by connection property, so that later executions only bind the parameters
+     * to it instead of having the query parsed and planned again. If the server
+     * can't prepare the statement, parameters are sent along with the query
+     * text on each execution instead.
+     */
+    private String prepareOnServerIfEnabled() {
+        if (preparedOnServer || parameters.length == 0 || !connection.isServerPrepare()) {
+            return statementId;
+        }
+        preparedOnServer = true;
+        try {
+            statementId = connection.getProtocol().prepare(sql);
+        } catch (ResponseException | IOException ex) {
+            log.debug(() -> "Statement not prepared on server: " + ex.getMessage());
+        }
+        return statementId;
+    }
+
     @Override
     public ResultSet executeQuery() throws SQLException {
         log.debug(() -> logEntry("executeQuery()"));
@@ -84,6 +108,7 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
         checkParamsFilled();
         JdbcQueryRequest jdbcQueryRequest = new JdbcQueryRequest(sql, fetchSize);
         jdbcQueryRequest.setParameters(Arrays.asList(parameters));
+        jdbcQueryRequest.setStatementId(prepareOnServerIfEnabled());
         return executeQueryRequest(jdbcQueryRequest);
     }
 
@@ -300,7 +325,20 @@ public class PreparedStatementImpl extends StatementImpl implements PreparedStat
 
     @Override
     public void addBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException("addBatch is not supported");
+        log.debug(() -> logEntry("addBatch()"));
+        checkOpen();
+        checkParamsFilled();
+        JdbcQueryRequest jdbcQueryRequest = new JdbcQueryRequest(sql);
+        // parameter values are replaced, never modified, by the setters
+        jdbcQueryRequest.setParameters(Arrays.asList(parameters.clone()));
+        addToBatch(jdbcQueryRequest);
+        log.debug(() -> logExit("addBatch"));
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        // JDBC Spec: this method cannot be called on a PreparedStatement
+        throw new SQLException("addBatch(String) cannot be called on a PreparedStatement");
     }
 
     @Override
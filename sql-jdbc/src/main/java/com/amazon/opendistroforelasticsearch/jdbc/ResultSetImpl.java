@@ -17,7 +17,9 @@
 package com.amazon.opendistroforelasticsearch.jdbc;
 
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.ColumnMetaData;
+import com.amazon.opendistroforelasticsearch.jdbc.internal.results.ColumnVector;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.Cursor;
+import com.amazon.opendistroforelasticsearch.jdbc.internal.results.PagePrefetcher;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.exceptions.ObjectClosedException;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.Row;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.Schema;
@@ -31,6 +33,7 @@ import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseEx
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JdbcCursorQueryRequest;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonCursorHttpProtocol;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonCursorHttpProtocolFactory;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.StreamingJsonQueryResponse;
 import com.amazon.opendistroforelasticsearch.jdbc.transport.http.HttpTransport;
 import com.amazon.opendistroforelasticsearch.jdbc.types.TypeConverter;
 import com.amazon.opendistroforelasticsearch.jdbc.types.TypeConverters;
@@ -39,6 +42,7 @@ import com.amazon.opendistroforelasticsearch.jdbc.types.UnrecognizedElasticsearc
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Array;
@@ -60,6 +64,7 @@ import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -76,9 +81,17 @@ import java.util.stream.Collectors;
  */
 public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
 
+    /**
+     * Number of rows read at a time from a response that is streamed
+     */
+    static final int STREAMED_PAGE_SIZE = 1024;
+
     private StatementImpl statement;
     protected Cursor cursor;
     private String cursorId;
+    private StreamingJsonQueryResponse rowStream;
+    private CursorPageSource cursorPageSource;
+    private PagePrefetcher prefetcher;
     private boolean open = false;
     private boolean wasNull = false;
     private boolean afterLast = false;
@@ -86,7 +99,21 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
     private Logger log;
 
     public ResultSetImpl(StatementImpl statement, QueryResponse queryResponse, Logger log) throws SQLException {
-        this(statement, queryResponse.getColumnDescriptors(), queryResponse.getDatarows(), queryResponse.getCursor(), log);
+        this(statement, queryResponse.getColumnDescriptors(), Collections.emptyList(), null, log);
+
+        if (queryResponse instanceof StreamingJsonQueryResponse
+                && ((StreamingJsonQueryResponse) queryResponse).hasRemainingRows()) {
+            // rows are read from the response while it is still arriving
+            this.rowStream = (StreamingJsonQueryResponse) queryResponse;
+            buildNextPageFromRowStream();
+        } else {
+            try {
+                this.cursor = new Cursor(cursor.getSchema(), getRowsFromDataRows(queryResponse.getDatarows()));
+            } catch (UncheckedIOException ex) {
+                logAndThrowSQLException(log, new SQLException("Error reading query response", ex.getCause()));
+            }
+            initCursorPaging(queryResponse.getCursor());
+        }
     }
 
     public ResultSetImpl(StatementImpl statement, List<? extends ColumnDescriptor> columnDescriptors,
@@ -109,21 +136,45 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
             List<Row> rows = getRowsFromDataRows(dataRows);
 
             this.cursor = new Cursor(schema, rows);
-            this.cursorId = cursorId;
             this.open = true;
 
+            initCursorPaging(cursorId);
+
         } catch (UnrecognizedElasticsearchTypeException ex) {
             logAndThrowSQLException(log, new SQLException("Exception creating a ResultSet.", ex));
         }
 
     }
 
+    /**
+     * Sets up fetching of further pages with a cursor id received from the server.
+     */
+    private void initCursorPaging(String cursorId) throws SQLException {
+        this.cursorId = cursorId;
+
+        if (cursorId != null) {
+            ConnectionImpl connection = (ConnectionImpl) statement.getConnection();
+            JsonCursorHttpProtocol protocol = JsonCursorHttpProtocolFactory.INSTANCE.getProtocol(
+                    null, (HttpTransport) connection.getTransport());
+            this.cursorPageSource = new CursorPageSource(protocol);
+            int prefetchPages = connection.getPrefetchPages();
+            if (prefetchPages > 0) {
+                this.prefetcher = new PagePrefetcher(cursorId, prefetchPages, cursorPageSource, log);
+            }
+        }
+    }
+
     @Override
     public boolean next() throws SQLException {
         log.debug(() -> logEntry("next()"));
         checkOpen();
         boolean next = cursor.next();
 
+        if (!next && this.rowStream != null) {
+            buildNextPageFromRowStream();
+            next = cursor.next();
+        }
+
         if (!next && this.cursorId != null) {
             log.debug(() -> logEntry("buildNextPageFromCursorId()"));
             buildNextPageFromCursorId();
@@ -148,15 +199,18 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
      * Ideally fetching next set of rows using cursorId should be delegated to Cursor.
      * In addition, the cursor should be final.
      *
+     * If prefetch is enabled, the next page is taken from the pages fetched in background.
+     *
      **/
     protected void buildNextPageFromCursorId() throws SQLException {
         try {
-            JdbcCursorQueryRequest jdbcCursorQueryRequest = new JdbcCursorQueryRequest(this.cursorId);
-            JsonCursorHttpProtocolFactory protocolFactory = JsonCursorHttpProtocolFactory.INSTANCE;
-            ConnectionImpl connection = (ConnectionImpl) statement.getConnection();
+            QueryResponse queryResponse = prefetcher != null ?
+                    prefetcher.nextPage() : cursorPageSource.fetch(this.cursorId);
 
-            JsonCursorHttpProtocol protocol = protocolFactory.getProtocol(null, (HttpTransport) connection.getTransport());
-            QueryResponse queryResponse = protocol.execute(jdbcCursorQueryRequest);
+            if (queryResponse == null) {
+                cursorId = null;
+                return;
+            }
 
             if (queryResponse.getError() != null) {
                 throw new InternalServerErrorException(
@@ -173,6 +227,26 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
         }
     }
 
+    /**
+     * Reads the next page of rows from the response being streamed. Once its
+     * rows are read to the end, paging continues with the cursor id the
+     * response may carry after the rows.
+     */
+    private void buildNextPageFromRowStream() throws SQLException {
+        try {
+            List<List<Object>> dataRows = rowStream.nextRows(STREAMED_PAGE_SIZE);
+            cursor = new Cursor(cursor.getSchema(), getRowsFromDataRows(dataRows));
+
+            if (!rowStream.hasRemainingRows()) {
+                StreamingJsonQueryResponse queryResponse = rowStream;
+                rowStream = null;
+                initCursorPaging(queryResponse.getCursor());
+            }
+        } catch (IOException ex) {
+            logAndThrowSQLException(log, new SQLException("Error reading query response", ex));
+        }
+    }
+
     private List<Row> getRowsFromDataRows(List<List<Object>> dataRows) {
         return dataRows
                 .parallelStream()
@@ -188,6 +262,7 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
     }
 
     protected void closeX(boolean closeStatement) throws SQLException {
+        closeCursor();
         cursor = null;
         open = false;
         if (statement != null) {
@@ -195,6 +270,33 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
         }
     }
 
+    /**
+     * Stops reading a streamed response, cancels pages being prefetched and closes
+     * the cursor on the server if it is not read to the end.
+     */
+    private void closeCursor() {
+        if (rowStream != null) {
+            try {
+                rowStream.close();
+            } catch (IOException ex) {
+                log.warn("Failed to close query response", ex);
+            }
+            rowStream = null;
+        }
+
+        if (prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        } else if (cursorId != null) {
+            try {
+                cursorPageSource.close(cursorId);
+            } catch (ResponseException | IOException ex) {
+                log.warn("Failed to close cursor", ex);
+            }
+        }
+        cursorId = null;
+    }
+
     @Override
     public boolean wasNull() throws SQLException {
         return wasNull;
@@ -202,23 +304,39 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
 
     @Override
     public String getString(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getString (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getString (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         String value = getStringX(columnIndex);
-        log.debug(() -> logExit("getString", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getString", value));
+        }
         return value;
     }
 
     private String getStringX(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumnVector(columnIndex);
+        if (column != null) {
+            Object value = column.get(cursor.getCurrentRow());
+            if (value instanceof String) {
+                wasNull = false;
+                return (String) value;
+            }
+        }
         return getObjectX(columnIndex, String.class);
     }
 
     @Override
     public boolean getBoolean(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getBoolean (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getBoolean (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         boolean value = getBooleanX(columnIndex);
-        log.debug(() -> logExit("getBoolean", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getBoolean", value));
+        }
         return value;
     }
 
@@ -228,80 +346,152 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
 
     @Override
     public byte getByte(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getByte (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getByte (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         byte value = getByteX(columnIndex);
-        log.debug(() -> logExit("getByte", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getByte", value));
+        }
         return value;
     }
 
     private byte getByteX(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumnVector(columnIndex);
+        if (column != null && column.hasLongValues()) {
+            int row = cursor.getCurrentRow();
+            long value = column.getLong(row);
+            if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                wasNull = column.isNull(row);
+                return (byte) value;
+            }
+        }
         return getObjectX(columnIndex, Byte.class);
     }
 
     @Override
     public short getShort(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getShort (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getShort (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         short value = getShortX(columnIndex);
-        log.debug(() -> logExit("getShort", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getShort", value));
+        }
         return value;
     }
 
     private short getShortX(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumnVector(columnIndex);
+        if (column != null && column.hasLongValues()) {
+            int row = cursor.getCurrentRow();
+            long value = column.getLong(row);
+            if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                wasNull = column.isNull(row);
+                return (short) value;
+            }
+        }
         return getObjectX(columnIndex, Short.class);
     }
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getInt (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getInt (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         int value = getIntX(columnIndex);
-        log.debug(() -> logExit("getInt", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getInt", value));
+        }
         return value;
     }
 
     private int getIntX(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumnVector(columnIndex);
+        if (column != null && column.hasLongValues()) {
+            int row = cursor.getCurrentRow();
+            long value = column.getLong(row);
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                wasNull = column.isNull(row);
+                return (int) value;
+            }
+        }
         return getObjectX(columnIndex, Integer.class);
     }
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getLong (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getLong (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         long value = getLongX(columnIndex);
-        log.debug(() -> logExit("getLong", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getLong", value));
+        }
         return value;
     }
 
     private long getLongX(int columnIndex) throws SQLException {
         checkCursorOperationPossible();
+        ColumnVector column = getTypedColumnVector(columnIndex);
+        if (column != null && column.hasLongValues()) {
+            int row = cursor.getCurrentRow();
+            wasNull = column.isNull(row);
+            return column.getLong(row);
+        }
         return getObjectX(columnIndex, Long.class);
     }
 
     @Override
     public float getFloat(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getFloat (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getFloat (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         float value = getFloatX(columnIndex);
-        log.debug(() -> logExit("getFloat", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getFloat", value));
+        }
         return value;
     }
 
     private float getFloatX(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumnVector(columnIndex);
+        if (column != null && column.hasDoubleValues()) {
+            int row = cursor.getCurrentRow();
+            double value = column.getDouble(row);
+            if (value >= -Float.MAX_VALUE && value <= Float.MAX_VALUE) {
+                wasNull = column.isNull(row);
+                return (float) value;
+            }
+        }
         return getObjectX(columnIndex, Float.class);
     }
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        log.debug(() -> logEntry("getDouble (%d)", columnIndex));
+        if (log.isDebugEnabled()) {
+            log.debug(logEntry("getDouble (%d)", columnIndex));
+        }
         checkCursorOperationPossible();
         double value = getDoubleX(columnIndex);
-        log.debug(() -> logExit("getDouble", value));
+        if (log.isDebugEnabled()) {
+            log.debug(logExit("getDouble", value));
+        }
         return value;
     }
 
     private double getDoubleX(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumnVector(columnIndex);
+        if (column != null && column.hasDoubleValues()) {
+            int row = cursor.getCurrentRow();
+            wasNull = column.isNull(row);
+            return column.getDouble(row);
+        }
         return getObjectX(columnIndex, Double.class);
     }
 
@@ -1445,6 +1635,22 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
         return cursor.getColumn(columnIndex - 1);
     }
 
+    /**
+     * Returns the column values to read a typed value from directly, bypassing
+     * the type conversion of {@link #getObjectX(int, Class, Map)}. The typed
+     * getters fall back to the type conversion whenever the direct read could
+     * produce a different result.
+     *
+     * @param columnIndex JDBC index of the column
+     *
+     * @return {@link ColumnVector} of the column, or null if the values must
+     *         be read with {@link #getColumnFromCursor(int)}
+     */
+    protected ColumnVector getTypedColumnVector(int columnIndex) throws SQLException {
+        checkColumnIndex(columnIndex);
+        return cursor.getColumnVector(columnIndex - 1);
+    }
+
     private ColumnMetaData getColumnMetaData(int columnIndex) throws SQLException {
         checkColumnIndex(columnIndex);
         return cursor.getSchema().getColumnMetaData(columnIndex - 1);
@@ -1477,4 +1683,26 @@ public class ResultSetImpl implements ResultSet, JdbcWrapper, LoggingSource {
         return new SQLFeatureNotSupportedException("Updates are not supported");
     }
 
+
+    /**
+     * Fetches and closes cursor pages with the cursor protocol
+     */
+    private static class CursorPageSource implements PagePrefetcher.PageSource {
+
+        private final JsonCursorHttpProtocol protocol;
+
+        private CursorPageSource(JsonCursorHttpProtocol protocol) {
+            this.protocol = protocol;
+        }
+
+        @Override
+        public QueryResponse fetch(String cursorId) throws ResponseException, IOException {
+            return protocol.execute(new JdbcCursorQueryRequest(cursorId));
+        }
+
+        @Override
+        public void close(String cursorId) throws ResponseException, IOException {
+            protocol.closeCursor(cursorId);
+        }
+    }
 }
@@ -25,7 +25,9 @@ import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.InternalSe
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -33,14 +35,25 @@ import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLNonTransientException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 
 public class StatementImpl implements Statement, JdbcWrapper, LoggingSource {
 
+    /**
+     * Maximum number of queries in a batch, which are run concurrently by the server
+     */
+    static final int MAX_BATCH_SIZE = 100;
+
     protected ConnectionImpl connection;
     protected boolean open = false;
     protected int fetchSize;
     protected ResultSetImpl resultSet;
     protected Logger log;
+    protected List<JdbcQueryRequest> batch = new ArrayList<>();
+    private Deque<QueryResponse> batchResults = new ArrayDeque<>();
     private boolean closeOnCompletion;
 
     public StatementImpl(ConnectionImpl connection, Logger log) {
@@ -69,19 +82,33 @@ public class StatementImpl implements Statement, JdbcWrapper, LoggingSource {
         // object that generated it is closed, re-executed, or used to retrieve the
         // next result from a sequence of multiple results.
         closeResultSet(false);
+        batchResults.clear();
 
         try {
             QueryResponse queryResponse = connection.getProtocol().execute(jdbcQueryRequest);
 
-            if (queryResponse.getError() != null) {
-                throw new InternalServerErrorException(
-                        queryResponse.getError().getReason(),
-                        queryResponse.getError().getType(),
-                        queryResponse.getError().getDetails());
+            try {
+                if (queryResponse.getError() != null) {
+                    throw new InternalServerErrorException(
+                            queryResponse.getError().getReason(),
+                            queryResponse.getError().getType(),
+                            queryResponse.getError().getDetails());
+                }
+
+                resultSet = buildResultSet(queryResponse);
+            } catch (Exception ex) {
+                // a response whose rows are still being read must not be left open
+                // if no result set has taken it over
+                if (queryResponse instanceof Closeable) {
+                    try {
+                        ((Closeable) queryResponse).close();
+                    } catch (IOException closeEx) {
+                        ex.addSuppressed(closeEx);
+                    }
+                }
+                throw ex;
             }
 
-            resultSet = buildResultSet(queryResponse);
-
         } catch (ResponseException | IOException ex) {
             logAndThrowSQLException(log, new SQLException("Error executing query", ex));
         }
@@ -102,6 +129,8 @@ public class StatementImpl implements Statement, JdbcWrapper, LoggingSource {
     public void close() throws SQLException {
         log.debug(()->logEntry("close ()"));
         open = false;
+        batch.clear();
+        batchResults.clear();
         log.debug(()->logExit("close"));
     }
 
@@ -188,11 +217,21 @@ public class StatementImpl implements Statement, JdbcWrapper, LoggingSource {
         return -1;
     }
 
+    /**
+     * Moves to the next result. After {@link #executeBatch()} the results of
+     * the batched queries can be read in batch order, each query's result
+     * becoming the current result set in turn.
+     */
     @Override
     public boolean getMoreResults() throws SQLException {
         checkOpen();
-        closeResultSet(true);
-        return false;
+        closeResultSet(batchResults.isEmpty());
+        resultSet = null;
+        if (batchResults.isEmpty()) {
+            return false;
+        }
+        resultSet = buildResultSet(batchResults.poll());
+        return true;
     }
 
     @Override
@@ -227,17 +266,94 @@ public class StatementImpl implements Statement, JdbcWrapper, LoggingSource {
 
     @Override
     public void addBatch(String sql) throws SQLException {
-        throw new SQLFeatureNotSupportedException("Batch execution is not supported");
+        log.debug(() -> logEntry("addBatch (%s)", sql));
+        checkOpen();
+        addToBatch(new JdbcQueryRequest(sql));
+        log.debug(() -> logExit("addBatch"));
+    }
+
+    protected void addToBatch(JdbcQueryRequest jdbcQueryRequest) throws SQLException {
+        if (batch.size() >= MAX_BATCH_SIZE) {
+            logAndThrowSQLException(log, new SQLNonTransientException(String.format(
+                    "Batch can contain at most %d queries", MAX_BATCH_SIZE)));
+        }
+        batch.add(jdbcQueryRequest);
     }
 
     @Override
     public void clearBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException("Batch execution is not supported");
+        log.debug(() -> logEntry("clearBatch ()"));
+        checkOpen();
+        batch.clear();
+        log.debug(() -> logExit("clearBatch"));
     }
 
+    /**
+     * Executes the batched queries in a single request, which the server
+     * runs concurrently. As the queries do not update anything, each
+     * succeeded query is reported with {@link Statement#SUCCESS_NO_INFO},
+     * and its result can be read with {@link #getResultSet()} and
+     * {@link #getMoreResults()} in batch order.
+     */
     @Override
     public int[] executeBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException("Batch execution is not supported");
+        log.debug(() -> logEntry("executeBatch ()"));
+        checkOpen();
+        int[] updateCounts = executeBatchX();
+        log.debug(() -> logExit("executeBatch", updateCounts.length));
+        return updateCounts;
+    }
+
+    protected int[] executeBatchX() throws SQLException {
+        closeResultSet(false);
+        resultSet = null;
+        batchResults.clear();
+
+        // JDBC Spec: the batch is reset to empty once executeBatch returns
+        List<JdbcQueryRequest> requests = new ArrayList<>(batch);
+        batch.clear();
+        if (requests.isEmpty()) {
+            return new int[0];
+        }
+
+        List<QueryResponse> responses = null;
+        try {
+            responses = connection.getProtocol().executeBatch(requests);
+        } catch (ResponseException | IOException ex) {
+            logAndThrowSQLException(log, new SQLException("Error executing batch", ex));
+        }
+
+        if (responses.size() != requests.size()) {
+            logAndThrowSQLException(log, new SQLException(String.format(
+                    "Batch of %d queries answered with %d results", requests.size(), responses.size())));
+        }
+
+        int[] updateCounts = new int[responses.size()];
+        QueryResponse failed = null;
+        for (int i = 0; i < responses.size(); i++) {
+            QueryResponse response = responses.get(i);
+            if (response.getError() != null) {
+                updateCounts[i] = Statement.EXECUTE_FAILED;
+                if (failed == null) {
+                    failed = response;
+                }
+            } else {
+                updateCounts[i] = Statement.SUCCESS_NO_INFO;
+            }
+        }
+
+        if (failed != null) {
+            logAndThrowSQLException(log, new BatchUpdateException(
+                    failed.getError().getReason(), updateCounts,
+                    new InternalServerErrorException(
+                            failed.getError().getReason(),
+                            failed.getError().getType(),
+                            failed.getError().getDetails())));
+        }
+
+        batchResults.addAll(responses);
+        resultSet = buildResultSet(batchResults.poll());
+        return updateCounts;
     }
 
     @Override
@@ -20,6 +20,7 @@ import com.amazon.opendistroforelasticsearch.jdbc.auth.AuthenticationType;
 import com.amazon.opendistroforelasticsearch.jdbc.logging.LogLevel;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.util.AwsHostNameUtil;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.util.UrlParser;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.ResultFormat;
 import com.amazonaws.auth.AWSCredentialsProvider;
 
 import java.io.PrintWriter;
@@ -35,6 +36,7 @@ public class ConnectionConfig {
     private String host;
     private int port;
     private int fetchSize;
+    private int prefetchPages;
     private String path;
     private boolean useSSL;
     private int loginTimeout;
@@ -43,6 +45,14 @@ public class ConnectionConfig {
     private String user;
     private String password;
     private boolean requestCompression;
+    private boolean responseCompression;
+    private boolean serverPrepare;
+    private ResultFormat resultFormat;
+    private int maxConnectionsPerRoute;
+    private int idleConnectionTimeout;
+    private boolean tcpKeepAlive;
+    private int maxRetries;
+    private int retryBackoff;
     private AuthenticationType authenticationType;
     private AWSCredentialsProvider awsCredentialsProvider;
     private String region;
@@ -62,6 +72,7 @@ public class ConnectionConfig {
         this.host = builder.getHostProperty().getValue();
         this.port = builder.getPortProperty().getValue();
         this.fetchSize = builder.getFetchSizeProperty().getValue();
+        this.prefetchPages = builder.getPrefetchPagesProperty().getValue();
         this.path = builder.getPathProperty().getValue();
         this.useSSL = builder.getUseSSLProperty().getValue();
 
@@ -75,6 +86,15 @@ public class ConnectionConfig {
         this.password = builder.getPasswordProperty().getValue();
 
         this.requestCompression = builder.getRequestCompressionProperty().getValue();
+        this.responseCompression = builder.getResponseCompressionProperty().getValue();
+        this.serverPrepare = builder.getServerPrepareProperty().getValue();
+        this.resultFormat = builder.getResultFormatConnectionProperty().getValue();
+
+        this.maxConnectionsPerRoute = builder.getMaxConnectionsPerRouteConnectionProperty().getValue();
+        this.idleConnectionTimeout = builder.getIdleConnectionTimeoutConnectionProperty().getValue();
+        this.tcpKeepAlive = builder.getTcpKeepAliveConnectionProperty().getValue();
+        this.maxRetries = builder.getMaxRetriesConnectionProperty().getValue();
+        this.retryBackoff = builder.getRetryBackoffConnectionProperty().getValue();
         this.authenticationType = builder.getAuthConnectionProperty().getValue();
         this.awsCredentialsProvider = builder.getAwsCredentialProvider().getValue();
         this.region = builder.getRegionConnectionProperty().getValue();
@@ -112,6 +132,10 @@ public class ConnectionConfig {
         return fetchSize;
     }
 
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
     public String getPath() {
         return path;
     }
@@ -124,6 +148,38 @@ public class ConnectionConfig {
         return requestCompression;
     }
 
+    public boolean responseCompression() {
+        return responseCompression;
+    }
+
+    public boolean serverPrepare() {
+        return serverPrepare;
+    }
+
+    public ResultFormat getResultFormat() {
+        return resultFormat;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public int getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    public boolean tcpKeepAlive() {
+        return tcpKeepAlive;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public int getRetryBackoff() {
+        return retryBackoff;
+    }
+
     public int getLoginTimeout() {
         return loginTimeout;
     }
@@ -199,6 +255,7 @@ public class ConnectionConfig {
                 ", host='" + host + '\'' +
                 ", port=" + port +
                 ", fetchSize=" + fetchSize +
+                ", prefetchPages=" + prefetchPages +
                 ", path='" + path + '\'' +
                 ", useSSL=" + useSSL +
                 ", loginTimeout=" + loginTimeout +
@@ -207,6 +264,14 @@ public class ConnectionConfig {
                 ", user='" + user + '\'' +
                 ", password='" + mask(password) + '\'' +
                 ", requestCompression=" + requestCompression +
+                ", responseCompression=" + responseCompression +
+                ", serverPrepare=" + serverPrepare +
+                ", resultFormat=" + resultFormat +
+                ", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+                ", idleConnectionTimeout=" + idleConnectionTimeout +
+                ", tcpKeepAlive=" + tcpKeepAlive +
+                ", maxRetries=" + maxRetries +
+                ", retryBackoff=" + retryBackoff +
                 ", authenticationType=" + authenticationType +
                 ", awsCredentialsProvider=" + awsCredentialsProvider +
                 ", region='" + region + '\'' +
@@ -231,6 +296,7 @@ public class ConnectionConfig {
         private HostConnectionProperty hostProperty = new HostConnectionProperty();
         private PortConnectionProperty portProperty = new PortConnectionProperty();
         private FetchSizeProperty fetchSizeProperty = new FetchSizeProperty();
+        private PrefetchPagesConnectionProperty prefetchPagesProperty = new PrefetchPagesConnectionProperty();
         private LoginTimeoutConnectionProperty loginTimeoutProperty = new LoginTimeoutConnectionProperty();
         private UseSSLConnectionProperty useSSLProperty = new UseSSLConnectionProperty();
         private PathConnectionProperty pathProperty = new PathConnectionProperty();
@@ -239,7 +305,23 @@ public class ConnectionConfig {
         private PasswordConnectionProperty passwordProperty = new PasswordConnectionProperty();
         private RequestCompressionConnectionProperty requestCompressionProperty =
                 new RequestCompressionConnectionProperty();
+        private ResponseCompressionConnectionProperty responseCompressionProperty =
+                new ResponseCompressionConnectionProperty();
+        private ServerPrepareConnectionProperty serverPrepareProperty = new ServerPrepareConnectionProperty();
+        private ResultFormatConnectionProperty resultFormatConnectionProperty =
+                new ResultFormatConnectionProperty();
         private AuthConnectionProperty authConnectionProperty = new AuthConnectionProperty();
+
+        private MaxConnectionsPerRouteConnectionProperty maxConnectionsPerRouteConnectionProperty
+                = new MaxConnectionsPerRouteConnectionProperty();
+        private IdleConnectionTimeoutConnectionProperty idleConnectionTimeoutConnectionProperty
+                = new IdleConnectionTimeoutConnectionProperty();
+        private TcpKeepAliveConnectionProperty tcpKeepAliveConnectionProperty
+                = new TcpKeepAliveConnectionProperty();
+        private MaxRetriesConnectionProperty maxRetriesConnectionProperty
+                = new MaxRetriesConnectionProperty();
+        private RetryBackoffConnectionProperty retryBackoffConnectionProperty
+                = new RetryBackoffConnectionProperty();
         private RegionConnectionProperty regionConnectionProperty = new RegionConnectionProperty();
         private LogLevelConnectionProperty logLevelConnectionProperty = new LogLevelConnectionProperty();
 
@@ -270,6 +352,7 @@ public class ConnectionConfig {
                 hostProperty,
                 portProperty,
                 fetchSizeProperty,
+                prefetchPagesProperty,
                 loginTimeoutProperty,
                 useSSLProperty,
                 pathProperty,
@@ -278,6 +361,14 @@ public class ConnectionConfig {
                 userProperty,
                 passwordProperty,
                 requestCompressionProperty,
+                responseCompressionProperty,
+                serverPrepareProperty,
+                resultFormatConnectionProperty,
+                maxConnectionsPerRouteConnectionProperty,
+                idleConnectionTimeoutConnectionProperty,
+                tcpKeepAliveConnectionProperty,
+                maxRetriesConnectionProperty,
+                retryBackoffConnectionProperty,
                 authConnectionProperty,
                 awsCredentialsProviderProperty,
                 regionConnectionProperty,
@@ -315,6 +406,10 @@ public class ConnectionConfig {
             return fetchSizeProperty;
         }
 
+        public PrefetchPagesConnectionProperty getPrefetchPagesProperty() {
+            return prefetchPagesProperty;
+        }
+
         public LoginTimeoutConnectionProperty getLoginTimeoutProperty() {
             return loginTimeoutProperty;
         }
@@ -343,6 +438,38 @@ public class ConnectionConfig {
             return requestCompressionProperty;
         }
 
+        public ResponseCompressionConnectionProperty getResponseCompressionProperty() {
+            return responseCompressionProperty;
+        }
+
+        public ServerPrepareConnectionProperty getServerPrepareProperty() {
+            return serverPrepareProperty;
+        }
+
+        public ResultFormatConnectionProperty getResultFormatConnectionProperty() {
+            return resultFormatConnectionProperty;
+        }
+
+        public MaxConnectionsPerRouteConnectionProperty getMaxConnectionsPerRouteConnectionProperty() {
+            return maxConnectionsPerRouteConnectionProperty;
+        }
+
+        public IdleConnectionTimeoutConnectionProperty getIdleConnectionTimeoutConnectionProperty() {
+            return idleConnectionTimeoutConnectionProperty;
+        }
+
+        public TcpKeepAliveConnectionProperty getTcpKeepAliveConnectionProperty() {
+            return tcpKeepAliveConnectionProperty;
+        }
+
+        public MaxRetriesConnectionProperty getMaxRetriesConnectionProperty() {
+            return maxRetriesConnectionProperty;
+        }
+
+        public RetryBackoffConnectionProperty getRetryBackoffConnectionProperty() {
+            return retryBackoffConnectionProperty;
+        }
+
         public AuthConnectionProperty getAuthConnectionProperty() {
             return authConnectionProperty;
         }
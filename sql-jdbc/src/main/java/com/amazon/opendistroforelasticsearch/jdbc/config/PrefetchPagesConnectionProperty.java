@@ -0,0 +1,46 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.config;
+
+/**
+ * Number of cursor pages fetched ahead in background while
+ * the application consumes the current page. 0 disables prefetch.
+ */
+public class PrefetchPagesConnectionProperty extends IntConnectionProperty {
+
+    public static final String KEY = "prefetchPages";
+
+    public PrefetchPagesConnectionProperty() {
+        super(KEY);
+    }
+
+    @Override
+    protected Integer parseValue(Object value) throws ConnectionPropertyException {
+        int intValue = super.parseValue(value);
+
+        if (intValue < 0) {
+            throw new ConnectionPropertyException(getKey(),
+                    String.format("Prefetch pages property requires a valid integer >=0. Invalid value: %d", intValue));
+        }
+        return intValue;
+    }
+
+    @Override
+    public Integer getDefault() {
+        return 1;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+package com.amazon.opendistroforelasticsearch.jdbc.config;
+
+/**
+ * Whether parameterized statements are prepared on the server on their first
+ * execution so that later executions only bind parameters to the prepared
+ * statement. This costs one extra round trip per statement, so it only pays
+ * off for statements executed repeatedly.
+ */
+public class ServerPrepareConnectionProperty extends BoolConnectionProperty {
+
+    public static final String KEY = "serverPrepare";
+
+    public ServerPrepareConnectionProperty() {
+        super(KEY);
+    }
+
+    @Override
+    public Boolean getDefault() {
+        return false;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.jdbc.internal.results;
+
+import com.amazon.opendistroforelasticsearch.jdbc.types.ElasticsearchType;
+
+import java.util.List;
+
+/**
+ * Values of one column of a result page.
+ * <p>
+ * Besides the values as received from the server, numeric columns are
+ * decoded into primitive arrays so that typed getters can read them
+ * without a type conversion lookup or boxing. A primitive array is only
+ * present when it holds exactly the value the type conversion would
+ * produce for every row.
+ * </p>
+ */
+public class ColumnVector {
+
+    private final Object[] values;
+
+    /**
+     * Values as long, present only if every non-null value is an Integer or Long
+     */
+    private final long[] longValues;
+
+    /**
+     * Values as double, present only if every non-null value is a Number
+     */
+    private final double[] doubleValues;
+
+    public ColumnVector(ElasticsearchType type, List<Row> rows, int columnIndex) {
+        final int rowCount = rows.size();
+        values = new Object[rowCount];
+
+        boolean integral = isNumeric(type);
+        boolean numeric = integral;
+        for (int i = 0; i < rowCount; i++) {
+            Object value = rows.get(i).get(columnIndex);
+            values[i] = value;
+
+            if (value != null) {
+                integral &= value instanceof Integer || value instanceof Long;
+                numeric &= value instanceof Number;
+            }
+        }
+
+        longValues = integral ? new long[rowCount] : null;
+        doubleValues = numeric ? new double[rowCount] : null;
+        for (int i = 0; numeric && i < rowCount; i++) {
+            Number value = (Number) values[i];
+            if (value != null) {
+                if (integral) {
+                    longValues[i] = value.longValue();
+                }
+                doubleValues[i] = value.doubleValue();
+            }
+        }
+    }
+
+    public Object get(int row) {
+        return values[row];
+    }
+
+    public boolean isNull(int row) {
+        return values[row] == null;
+    }
+
+    public boolean hasLongValues() {
+        return longValues != null;
+    }
+
+    /**
+     * @return the value at the row as long, 0 for a null value
+     */
+    public long getLong(int row) {
+        return longValues[row];
+    }
+
+    public boolean hasDoubleValues() {
+        return doubleValues != null;
+    }
+
+    /**
+     * @return the value at the row as double, 0 for a null value
+     */
+    public double getDouble(int row) {
+        return doubleValues[row];
+    }
+
+    private static boolean isNumeric(ElasticsearchType type) {
+        switch (type.getJdbcType()) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case REAL:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
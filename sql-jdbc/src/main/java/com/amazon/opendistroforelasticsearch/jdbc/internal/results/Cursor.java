@@ -21,15 +21,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Rows of a result page, held column by column in {@link ColumnVector}s.
+ */
 public class Cursor {
     private Schema schema;
-    private List<Row> rows;
+    private ColumnVector[] columns;
+    private int rowCount;
     private int currentRow = -1;
     private Map<String, Integer> labelToIndexMap;
 
      public Cursor(Schema schema, List<Row> rows) {
          this.schema = schema;
-         this.rows = rows;
+         this.rowCount = rows.size();
+         initColumns(rows);
          initLabelToIndexMap();
      }
 
@@ -38,9 +43,27 @@ public class Cursor {
     }
 
     public Object getColumn(int index) {
+        return getColumnVector(index).get(currentRow);
+    }
+
+    /**
+     * Returns the values of a column for typed access at the current row.
+     *
+     * @param index the index of the column
+     *
+     * @return {@link ColumnVector} of the column
+     */
+    public ColumnVector getColumnVector(int index) {
         if (index < 0 || index >= getColumnCount())
             throw new IllegalArgumentException("Column Index out of range: " + index);
-        return rows.get(currentRow).get(index);
+        return columns[index];
+    }
+
+    /**
+     * @return index of the current row within the page
+     */
+    public int getCurrentRow() {
+        return currentRow;
     }
 
     public int getColumnCount() {
@@ -48,7 +71,7 @@ public class Cursor {
     }
 
     public boolean next() {
-        if (currentRow < rows.size() - 1) {
+        if (currentRow < rowCount - 1) {
             currentRow++;
             return true;
         } else {
@@ -60,6 +83,13 @@ public class Cursor {
          return labelToIndexMap.get(label);
     }
 
+    private void initColumns(List<Row> rows) {
+        columns = new ColumnVector[schema.getNumberOfColumns()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnVector(schema.getElasticsearchType(i), rows, i);
+        }
+    }
+
     private void initLabelToIndexMap() {
         labelToIndexMap = new HashMap<>();
         for (int i=0; i < schema.getNumberOfColumns(); i++) {
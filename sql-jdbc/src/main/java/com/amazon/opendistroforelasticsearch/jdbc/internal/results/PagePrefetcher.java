@@ -0,0 +1,181 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.internal.results;
+
+import com.amazon.opendistroforelasticsearch.jdbc.logging.Logger;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches the pages of a cursor on a background thread while the
+ * application consumes the current page.
+ * <p>
+ * Each page depends on the cursor id returned with the previous one,
+ * so pages are still requested one after another, but at most
+ * {@code maxPages} pages are fetched ahead of the page being consumed.
+ * Once the prefetcher is closed, no further page is requested and the
+ * latest cursor id received is closed on the server.
+ */
+public class PagePrefetcher implements AutoCloseable {
+
+    /**
+     * Source of cursor pages
+     */
+    public interface PageSource {
+
+        QueryResponse fetch(String cursorId) throws ResponseException, IOException;
+
+        void close(String cursorId) throws ResponseException, IOException;
+    }
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "es-jdbc-prefetch-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Page END = new Page(null, null);
+
+    private final BlockingQueue<Page> pages = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final PageSource source;
+    private final Logger log;
+
+    private volatile boolean closed = false;
+    private Thread worker;
+    private boolean done = false;
+
+    public PagePrefetcher(String cursorId, int maxPages, PageSource source, Logger log) {
+        this.permits = new Semaphore(maxPages);
+        this.source = source;
+        this.log = log;
+        executor.execute(() -> fetchPages(cursorId));
+    }
+
+    /**
+     * Returns the next page, waiting for it to be fetched if necessary.
+     *
+     * @return next page or null if there are no more pages
+     *
+     * @throws ResponseException if fetching the page failed
+     * @throws IOException if fetching the page failed
+     */
+    public QueryResponse nextPage() throws ResponseException, IOException {
+        if (done) {
+            return null;
+        }
+
+        Page page;
+        try {
+            page = pages.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the next page", ex);
+        }
+
+        if (page == END) {
+            done = true;
+            return null;
+        } else if (page.error != null) {
+            done = true;
+            if (page.error instanceof ResponseException) {
+                throw (ResponseException) page.error;
+            }
+            throw (IOException) page.error;
+        }
+        permits.release();
+        return page.response;
+    }
+
+    /**
+     * Stops fetching pages and closes the cursor on the server if it is not read to the end.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    private void fetchPages(String cursorId) {
+        synchronized (this) {
+            worker = Thread.currentThread();
+        }
+        try {
+            while (cursorId != null && !closed) {
+                permits.acquire();
+                if (closed) {
+                    break;
+                }
+                QueryResponse response = source.fetch(cursorId);
+                cursorId = response.getError() == null ? response.getCursor() : null;
+                pages.add(new Page(response, null));
+            }
+        } catch (InterruptedException ex) {
+            // closed while waiting for the application to consume a page
+        } catch (ResponseException | IOException ex) {
+            // a request interrupted by close still leaves the cursor open on the server
+            if (!closed) {
+                cursorId = null;
+                pages.add(new Page(null, ex));
+            }
+        } catch (RuntimeException ex) {
+            cursorId = null;
+            pages.add(new Page(null, new IOException("Error fetching the next page", ex)));
+        } finally {
+            synchronized (this) {
+                worker = null;
+                Thread.interrupted();
+            }
+            pages.add(END);
+            if (closed && cursorId != null) {
+                closeCursor(cursorId);
+            }
+        }
+    }
+
+    private void closeCursor(String cursorId) {
+        try {
+            source.close(cursorId);
+        } catch (ResponseException | IOException ex) {
+            log.warn("Failed to close cursor", ex);
+        }
+    }
+
+    private static class Page {
+        private final QueryResponse response;
+        private final Exception error;
+
+        private Page(QueryResponse response, Exception error) {
+            this.response = response;
+            this.error = error;
+        }
+    }
+}
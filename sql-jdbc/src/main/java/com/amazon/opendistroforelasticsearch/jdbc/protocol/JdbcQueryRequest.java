@@ -23,6 +23,7 @@ public class JdbcQueryRequest implements QueryRequest {
 
     private String statement;
     private int fetchSize;
+    private String statementId;
     List<JdbcQueryParam> parameters;
 
     public JdbcQueryRequest(String sql) {
@@ -68,11 +69,21 @@ public class JdbcQueryRequest implements QueryRequest {
         return fetchSize;
     }
 
+    @Override
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public void setStatementId(String statementId) {
+        this.statementId = statementId;
+    }
+
     @Override
     public String toString() {
         return "JdbcQueryRequest{" +
                 "statement='" + statement + '\'' +
                 ", fetchSize='" + fetchSize + '\'' +
+                ", statementId='" + statementId + '\'' +
                 ", parameters=" + parameters +
                 '}';
     }
@@ -19,6 +19,8 @@ package com.amazon.opendistroforelasticsearch.jdbc.protocol;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface Protocol extends AutoCloseable {
 
@@ -26,5 +28,28 @@ public interface Protocol extends AutoCloseable {
 
     QueryResponse execute(QueryRequest request) throws ResponseException, IOException;
 
+    /**
+     * Executes a batch of queries, returning one response per query in the
+     * order of the requests. Protocols without a batch request execute the
+     * queries one at a time.
+     */
+    default List<QueryResponse> executeBatch(List<? extends QueryRequest> requests)
+            throws ResponseException, IOException {
+        List<QueryResponse> responses = new ArrayList<>(requests.size());
+        for (QueryRequest request : requests) {
+            responses.add(execute(request));
+        }
+        return responses;
+    }
+
+    /**
+     * Prepares a statement with parameter markers on the server, returning
+     * the statement handle to send along with the parameters on execution,
+     * or null if the protocol has no server side prepared statements.
+     */
+    default String prepare(String sql) throws ResponseException, IOException {
+        return null;
+    }
+
     void close() throws IOException;
 }
@@ -26,4 +26,12 @@ public interface QueryRequest {
 
     public int getFetchSize();
 
+    /**
+     * Handle of the statement prepared on the server, if any,
+     * to which the parameters of this request are bound.
+     */
+    default String getStatementId() {
+        return null;
+    }
+
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.protocol.http;
+
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryRequest;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
+import com.amazon.opendistroforelasticsearch.jdbc.transport.http.HttpParam;
+import com.amazon.opendistroforelasticsearch.jdbc.transport.http.HttpTransport;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.message.BasicHeader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Http protocol which requests query results in the columnar binary format.
+ * <p>
+ * The server only responds in the columnar format for queries served by
+ * the new query engine, other queries are still answered in JDBC JSON format.
+ * So the response is decoded according to the content type returned.
+ */
+public class ColumnarHttpProtocol extends JsonHttpProtocol {
+
+    private static final Header acceptColumnar = new BasicHeader(HttpHeaders.ACCEPT,
+            ColumnarQueryResponse.CONTENT_TYPE + ", application/json");
+    private static final Header contentTypeJson = new BasicHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    private static final HttpParam requestColumnarFormatParam = new HttpParam("format", "columnar");
+    protected static final Header[] defaultColumnarHeaders = new Header[]{acceptColumnar, contentTypeJson};
+    protected static final HttpParam[] defaultColumnarParams = new HttpParam[]{requestColumnarFormatParam};
+
+    public ColumnarHttpProtocol(HttpTransport transport) {
+        this(transport, DEFAULT_SQL_CONTEXT_PATH);
+    }
+
+    public ColumnarHttpProtocol(HttpTransport transport, String sqlContextPath) {
+        super(transport, sqlContextPath);
+    }
+
+    @Override
+    public QueryResponse execute(QueryRequest request) throws ResponseException, IOException {
+        try (CloseableHttpResponse response = getTransport().doPost(
+                getSqlContextPath(),
+                defaultColumnarHeaders,
+                defaultColumnarParams,
+                mapper.writeValueAsString(new JsonQueryRequest(request)), 0)) {
+
+            return getJsonHttpResponseHandler().handleResponse(response,
+                    contentStream -> processQueryResponse(response, contentStream));
+
+        }
+    }
+
+    private QueryResponse processQueryResponse(HttpResponse response, InputStream contentStream) throws IOException {
+        if (isColumnarResponse(response.getEntity())) {
+            return ColumnarQueryResponse.decode(contentStream);
+        }
+        return StreamingJsonQueryResponse.parse(mapper, contentStream);
+    }
+
+    private boolean isColumnarResponse(HttpEntity entity) {
+        return entity.getContentType() != null && entity.getContentType().getValue() != null &&
+                entity.getContentType().getValue().startsWith(ColumnarQueryResponse.CONTENT_TYPE);
+    }
+}
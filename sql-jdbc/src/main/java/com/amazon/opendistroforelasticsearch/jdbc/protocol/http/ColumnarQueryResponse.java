@@ -0,0 +1,235 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.protocol.http;
+
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.RequestError;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonQueryResponse.SchemaEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link QueryResponse} implementation for the columnar binary format.
+ * <p>
+ * The response starts with the schema and row count, followed by a block
+ * for each column. Each block carries the value kind of the column, a null
+ * bitmap and the non-null values: longs, doubles, packed booleans, or
+ * dictionary indexes into the distinct strings (or JSON text) of the column.
+ * Values are decoded to the same Java types the JSON protocol produces.
+ */
+public class ColumnarQueryResponse implements QueryResponse {
+
+    public static final String CONTENT_TYPE = "application/vnd.opendistro.columnar";
+
+    public static final int MAGIC = 0x4F444352;
+
+    public static final byte VERSION = 1;
+
+    static final int KIND_LONG = 0;
+    static final int KIND_DOUBLE = 1;
+    static final int KIND_BOOLEAN = 2;
+    static final int KIND_STRING = 3;
+    static final int KIND_JSON = 4;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<SchemaEntry> schema;
+
+    private final List<List<Object>> datarows;
+
+    public ColumnarQueryResponse(List<SchemaEntry> schema, List<List<Object>> datarows) {
+        this.schema = schema;
+        this.datarows = datarows;
+    }
+
+    /**
+     * Decodes a columnar binary response.
+     *
+     * @param contentStream response content
+     *
+     * @return decoded response
+     *
+     * @throws IOException if the content is not a valid columnar response
+     */
+    public static ColumnarQueryResponse decode(InputStream contentStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(contentStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Response is not in columnar format");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported columnar format version " + version);
+        }
+
+        int columnCount = in.readInt();
+        List<SchemaEntry> schema = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            schema.add(new SchemaEntry(readString(in), readString(in), null));
+        }
+
+        Object[][] rows = new Object[in.readInt()][columnCount];
+        for (int col = 0; col < columnCount; col++) {
+            readColumn(in, rows, col);
+        }
+
+        List<List<Object>> datarows = new ArrayList<>(rows.length);
+        for (Object[] row : rows) {
+            datarows.add(Arrays.asList(row));
+        }
+        return new ColumnarQueryResponse(schema, datarows);
+    }
+
+    private static void readColumn(DataInputStream in, Object[][] rows, int col) throws IOException {
+        int kind = in.readByte();
+        byte[] nulls = readBytes(in, bitmapLength(rows.length));
+        List<Object[]> nonNullRows = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            if (!isSet(nulls, i)) {
+                nonNullRows.add(rows[i]);
+            }
+        }
+
+        switch (kind) {
+            case KIND_LONG:
+                for (Object[] row : nonNullRows) {
+                    long value = in.readLong();
+                    row[col] = value == (int) value ? (Object) (int) value : (Object) value;
+                }
+                break;
+            case KIND_DOUBLE:
+                for (Object[] row : nonNullRows) {
+                    row[col] = in.readDouble();
+                }
+                break;
+            case KIND_BOOLEAN:
+                byte[] bits = readBytes(in, bitmapLength(nonNullRows.size()));
+                for (int i = 0; i < nonNullRows.size(); i++) {
+                    nonNullRows.get(i)[col] = isSet(bits, i);
+                }
+                break;
+            case KIND_STRING:
+            case KIND_JSON:
+                Object[] dictionary = new Object[in.readInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    String text = readString(in);
+                    dictionary[i] = kind == KIND_JSON ? mapper.readValue(text, Object.class) : text;
+                }
+                int width = in.readByte();
+                for (Object[] row : nonNullRows) {
+                    row[col] = dictionary[readIndex(in, width)];
+                }
+                break;
+            default:
+                throw new IOException("Unknown column kind " + kind + " in columnar response");
+        }
+    }
+
+    private static int readIndex(DataInputStream in, int width) throws IOException {
+        switch (width) {
+            case 1:
+                return in.readUnsignedByte();
+            case 2:
+                return in.readUnsignedShort();
+            default:
+                return in.readInt();
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in, in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static boolean isSet(byte[] bitmap, int index) {
+        return (bitmap[index >> 3] & (1 << (index & 7))) != 0;
+    }
+
+    private static int bitmapLength(int bits) {
+        return (bits + 7) >> 3;
+    }
+
+    @Override
+    public List<SchemaEntry> getColumnDescriptors() {
+        return schema;
+    }
+
+    @Override
+    public List<List<Object>> getDatarows() {
+        return datarows;
+    }
+
+    @Override
+    public long getTotal() {
+        return datarows.size();
+    }
+
+    @Override
+    public long getSize() {
+        return datarows.size();
+    }
+
+    @Override
+    public int getStatus() {
+        return 200;
+    }
+
+    @Override
+    public String getCursor() {
+        return null;
+    }
+
+    @Override
+    public RequestError getError() {
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ColumnarQueryResponse)) return false;
+        ColumnarQueryResponse response = (ColumnarQueryResponse) o;
+        return Objects.equals(schema, response.schema) &&
+                Objects.equals(datarows, response.datarows);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(schema, datarows);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarQueryResponse{" +
+                "schema=" + schema +
+                ", datarows=" + datarows +
+                '}';
+    }
+}
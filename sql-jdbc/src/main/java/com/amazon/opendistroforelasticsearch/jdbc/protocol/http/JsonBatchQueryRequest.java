@@ -0,0 +1,71 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.protocol.http;
+
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.Parameter;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryRequest;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Definition of json batch request, holding the queries of a batch
+ * to be executed in one request.
+ */
+public class JsonBatchQueryRequest {
+
+    private final List<BatchEntry> batch;
+
+    public JsonBatchQueryRequest(List<? extends QueryRequest> queryRequests) {
+        this.batch = new ArrayList<>(queryRequests.size());
+        for (QueryRequest queryRequest : queryRequests) {
+            batch.add(new BatchEntry(queryRequest));
+        }
+    }
+
+    @JsonProperty("batch")
+    public List<BatchEntry> getBatch() {
+        return batch;
+    }
+
+    /**
+     * A query of the batch. The queries of a batch are not paged with a
+     * cursor, so no fetch size is sent.
+     */
+    public static class BatchEntry {
+
+        private final String query;
+        private final List<? extends Parameter> parameters;
+
+        public BatchEntry(QueryRequest queryRequest) {
+            this.query = queryRequest.getQuery();
+            this.parameters = queryRequest.getParameters();
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        @JsonInclude(Include.NON_NULL)
+        public List<? extends Parameter> getParameters() {
+            return parameters;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.protocol.http;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Response to a {@link JsonBatchQueryRequest}, holding the response to
+ * each query of the batch in the order the queries were sent.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class JsonBatchQueryResponse {
+
+    private List<JsonQueryResponse> results;
+
+    public List<JsonQueryResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<JsonQueryResponse> results) {
+        this.results = results;
+    }
+}
@@ -54,6 +54,23 @@ public class JsonCursorHttpProtocol extends JsonHttpProtocol {
         }
     }
 
+    /**
+     * Closes a cursor which is not read to the end to release its resources on the server.
+     *
+     * @param cursorId cursor to close
+     */
+    public void closeCursor(String cursorId) throws ResponseException, IOException {
+        try (CloseableHttpResponse response = getTransport().doPost(
+                getSqlContextPath() + "/close",
+                defaultJsonHeaders,
+                defaultJdbcParams,
+                buildQueryRequestBody(new JdbcCursorQueryRequest(cursorId)), 0)) {
+
+            getJsonHttpResponseHandler().handleResponse(response, contentStream -> null);
+
+        }
+    }
+
     private String buildQueryRequestBody(QueryRequest queryRequest) throws IOException {
         JsonCursorQueryRequest jsonQueryRequest = new JsonCursorQueryRequest(queryRequest);
         String requestBody = mapper.writeValueAsString(jsonQueryRequest);
@@ -61,7 +78,7 @@ public class JsonCursorHttpProtocol extends JsonHttpProtocol {
     }
 
     private JsonQueryResponse processQueryResponse(InputStream contentStream) throws IOException {
-        return mapper.readValue(contentStream, JsonQueryResponse.class);
+        return StreamingJsonQueryResponse.parse(mapper, contentStream);
     }
 
 }
@@ -54,4 +54,10 @@ public class JsonCursorQueryRequest implements QueryRequest  {
     public int getFetchSize() {
         return 0;
     }
+
+    @JsonIgnore
+    @Override
+    public String getStatementId() {
+        return null;
+    }
 }
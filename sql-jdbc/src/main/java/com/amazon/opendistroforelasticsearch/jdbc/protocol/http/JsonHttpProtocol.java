@@ -32,6 +32,9 @@ import org.apache.http.message.BasicHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class JsonHttpProtocol implements Protocol {
@@ -39,6 +42,8 @@ public class JsonHttpProtocol implements Protocol {
     // the value is based on the API endpoint the sql plugin sets up,
     // but this could be made configurable if required
     public static final String DEFAULT_SQL_CONTEXT_PATH = "/_opendistro/_sql";
+    public static final String BATCH_PATH = "/_batch";
+    public static final String PREPARE_PATH = "/_prepare";
 
     private static final Header acceptJson = new BasicHeader(HttpHeaders.ACCEPT, "application/json");
     private static final Header contentTypeJson = new BasicHeader(HttpHeaders.CONTENT_TYPE, "application/json");
@@ -86,15 +91,59 @@ public class JsonHttpProtocol implements Protocol {
         }
     }
 
+    /**
+     * Executes a query, returning a {@link StreamingJsonQueryResponse} whose rows
+     * are read from the response content as they are consumed. The response is
+     * closed once read to the end or when the returned response is closed.
+     */
     @Override
     public QueryResponse execute(QueryRequest request) throws ResponseException, IOException {
-        try (CloseableHttpResponse response = transport.doPost(
+        CloseableHttpResponse response = transport.doPost(
                 sqlContextPath,
                 defaultJsonHeaders,
                 defaultJdbcParams,
-                buildQueryRequestBody(request), 0)) {
+                buildQueryRequestBody(request), 0);
+
+        try {
+            return jsonHttpResponseHandler.handleStreamingResponse(response,
+                    contentStream -> new StreamingJsonQueryResponse(mapper, contentStream, response, true));
+        } catch (ResponseException | RuntimeException ex) {
+            response.close();
+            throw ex;
+        }
+    }
 
-            return jsonHttpResponseHandler.handleResponse(response, this::processQueryResponse);
+    /**
+     * Executes a batch of queries in a single request. The server runs
+     * the queries concurrently and answers with a response per query.
+     */
+    @Override
+    public List<QueryResponse> executeBatch(List<? extends QueryRequest> requests)
+            throws ResponseException, IOException {
+        try (CloseableHttpResponse response = transport.doPost(
+                sqlContextPath + BATCH_PATH,
+                defaultJsonHeaders,
+                defaultJdbcParams,
+                mapper.writeValueAsString(new JsonBatchQueryRequest(requests)), 0)) {
+
+            return jsonHttpResponseHandler.handleResponse(response, this::processBatchResponse);
+
+        }
+    }
+
+    /**
+     * Prepares a statement on the server. The statement handle returned is
+     * only valid together with the same query text it was prepared for.
+     */
+    @Override
+    public String prepare(String sql) throws ResponseException, IOException {
+        try (CloseableHttpResponse response = transport.doPost(
+                sqlContextPath + PREPARE_PATH,
+                defaultJsonHeaders,
+                defaultJdbcParams,
+                mapper.writeValueAsString(Collections.singletonMap("query", sql)), 0)) {
+
+            return jsonHttpResponseHandler.handleResponse(response, this::processPrepareResponse);
 
         }
     }
@@ -115,7 +164,19 @@ public class JsonHttpProtocol implements Protocol {
         return new JsonConnectionResponse(clusterMetadata);
     }
 
-    private JsonQueryResponse processQueryResponse(InputStream contentStream) throws IOException {
-        return mapper.readValue(contentStream, JsonQueryResponse.class);
+    private String processPrepareResponse(InputStream contentStream) throws IOException {
+        String statementId = mapper.readTree(contentStream).path("statement_id").asText(null);
+        if (statementId == null) {
+            throw new IOException("Prepare response has no statement id");
+        }
+        return statementId;
+    }
+
+    private List<QueryResponse> processBatchResponse(InputStream contentStream) throws IOException {
+        JsonBatchQueryResponse batchResponse = mapper.readValue(contentStream, JsonBatchQueryResponse.class);
+        if (batchResponse.getResults() == null) {
+            throw new IOException("Batch response has no results");
+        }
+        return new ArrayList<>(batchResponse.getResults());
     }
 }
@@ -62,6 +62,39 @@ public class JsonHttpResponseHandler {
         }
     }
 
+    /**
+     * Handles a response like {@link #handleResponse(HttpResponse, JsonContentParser)}
+     * but leaves the response content open for the parsed result to continue
+     * reading from. The content is only closed here if parsing fails.
+     */
+    public <R> R handleStreamingResponse(HttpResponse response, JsonContentParser<InputStream, R> contentParser)
+            throws ResponseException {
+        InputStream responseContent = null;
+        try {
+            checkResponseForErrors(response, null, true);
+
+            responseContent = response.getEntity().getContent();
+            return contentParser.apply(responseContent);
+
+        } catch (JsonProcessingException jpe) {
+            closeQuietly(responseContent);
+            throw new MalformedResponseException("Could not process server response", jpe);
+        } catch (IOException ioe) {
+            closeQuietly(responseContent);
+            throw new ResponseException("Error reading server response", ioe);
+        }
+    }
+
+    private void closeQuietly(InputStream responseContent) {
+        if (responseContent != null) {
+            try {
+                responseContent.close();
+            } catch (IOException ioe) {
+                // ignore
+            }
+        }
+    }
+
     /**
      * Checks if an HttpResponse meets the requirements to be accepted.
      *
@@ -29,11 +29,13 @@ public class JsonQueryRequest implements QueryRequest {
     private String query;
     private int fetchSize;
     private List<? extends Parameter> parameters;
+    private String statementId;
 
     public JsonQueryRequest(QueryRequest queryRequest) {
         this.query = queryRequest.getQuery();
         this.parameters = queryRequest.getParameters();
         this.fetchSize = queryRequest.getFetchSize();
+        this.statementId = queryRequest.getStatementId();
 
     }
 
@@ -53,4 +55,11 @@ public class JsonQueryRequest implements QueryRequest {
     public int getFetchSize() {
         return fetchSize;
     }
+
+    @JsonInclude(Include.NON_NULL)
+    @JsonProperty("statement_id")
+    @Override
+    public String getStatementId() {
+        return statementId;
+    }
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.jdbc.protocol.http;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link JsonQueryResponse} decoded incrementally from the response content
+ * with a streaming {@link JsonParser}.
+ * <p>
+ * When rows are streamed, decoding stops at the start of the datarows once the
+ * schema is known, and the rows are read in chunks with {@link #nextRows(int)}
+ * while the content is still arriving. The fields following the datarows,
+ * such as the cursor, are read after the last row. Until then, getters of
+ * those fields read all remaining rows first, in which case
+ * {@link #getDatarows()} only holds the rows not returned by
+ * {@link #nextRows(int)} yet.
+ * </p>
+ * The response content is closed once it has been read to the end, or by
+ * {@link #close()} if the rows are not read to the end.
+ */
+public class StreamingJsonQueryResponse extends JsonQueryResponse implements Closeable {
+
+    private static final TypeReference<List<SchemaEntry>> SCHEMA_TYPE = new TypeReference<List<SchemaEntry>>() {
+    };
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private final Closeable source;
+    private boolean inRows = false;
+    private boolean complete = false;
+    private boolean closed = false;
+
+    /**
+     * Decodes a response up to its rows.
+     *
+     * @param mapper ObjectMapper to decode nested values with
+     * @param contentStream response content
+     * @param source resource to close along with the content once it is read, may be null
+     * @param streamRows true to leave the rows to be read with {@link #nextRows(int)},
+     *         false to decode the whole response
+     *
+     * @throws IOException if the response content can not be read or decoded
+     */
+    public StreamingJsonQueryResponse(ObjectMapper mapper, InputStream contentStream, Closeable source,
+                                      boolean streamRows) throws IOException {
+        this.mapper = mapper;
+        this.parser = mapper.getFactory().createParser(contentStream);
+        this.source = source;
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object in the query response");
+        }
+        readFields(streamRows);
+    }
+
+    /**
+     * Decodes a whole response.
+     *
+     * @param mapper ObjectMapper to decode nested values with
+     * @param contentStream response content
+     *
+     * @return the decoded response
+     *
+     * @throws IOException if the response content can not be read or decoded
+     */
+    public static JsonQueryResponse parse(ObjectMapper mapper, InputStream contentStream) throws IOException {
+        return new StreamingJsonQueryResponse(mapper, contentStream, null, false);
+    }
+
+    /**
+     * @return true if there may be rows left to read with {@link #nextRows(int)}
+     */
+    public boolean hasRemainingRows() {
+        return inRows;
+    }
+
+    /**
+     * Reads the next rows from the response content. When the last row is read,
+     * the rest of the response is decoded and the response content closed.
+     *
+     * @param maxRows maximum number of rows to read
+     *
+     * @return the rows read, an empty list if there are no rows left
+     *
+     * @throws IOException if the response content can not be read or decoded
+     */
+    public List<List<Object>> nextRows(int maxRows) throws IOException {
+        List<List<Object>> rows = new ArrayList<>();
+        if (!inRows) {
+            return rows;
+        }
+
+        while (rows.size() < maxRows && parser.currentToken() != JsonToken.END_ARRAY) {
+            rows.add(readRow());
+            nextToken();
+        }
+
+        if (parser.currentToken() == JsonToken.END_ARRAY) {
+            inRows = false;
+            readFields(false);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<List<Object>> getDatarows() {
+        readRemainingRows();
+        return super.getDatarows();
+    }
+
+    @Override
+    public long getTotal() {
+        readRemainingRows();
+        return super.getTotal();
+    }
+
+    @Override
+    public long getSize() {
+        readRemainingRows();
+        return super.getSize();
+    }
+
+    @Override
+    public int getStatus() {
+        readRemainingRows();
+        return super.getStatus();
+    }
+
+    @Override
+    public String getCursor() {
+        readRemainingRows();
+        return super.getCursor();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        inRows = false;
+
+        if (complete) {
+            parser.close();
+            if (source != null) {
+                source.close();
+            }
+        } else {
+            // closing the source first drops the connection of an unfinished
+            // response rather than reading the rest of its content
+            try {
+                if (source != null) {
+                    source.close();
+                }
+            } finally {
+                closeUnfinishedContent();
+            }
+        }
+    }
+
+    private void closeUnfinishedContent() {
+        try {
+            parser.close();
+        } catch (IOException ex) {
+            // the rest of the content is not needed anymore
+        }
+    }
+
+    private void readRemainingRows() {
+        if (inRows) {
+            try {
+                setDatarows(nextRows(Integer.MAX_VALUE));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Error reading server response", ex);
+            }
+        }
+    }
+
+    /**
+     * Decodes the fields of the response object, stopping at the rows if they are
+     * to be streamed.
+     */
+    private void readFields(boolean streamRows) throws IOException {
+        while (nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            nextToken();
+
+            switch (field) {
+                case "schema":
+                    setSchema(mapper.readValue(parser, SCHEMA_TYPE));
+                    break;
+                case "datarows":
+                    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                        setDatarows(null);
+                    } else if (streamRows && getColumnDescriptors() != null) {
+                        // rows can only be streamed if the schema has preceded them
+                        expect(JsonToken.START_ARRAY);
+                        nextToken();
+                        inRows = true;
+                        return;
+                    } else {
+                        setDatarows(readRows());
+                    }
+                    break;
+                case "total":
+                    setTotal(parser.getValueAsInt());
+                    break;
+                case "size":
+                    setSize(parser.getValueAsInt());
+                    break;
+                case "status":
+                    setStatus(parser.getValueAsInt());
+                    break;
+                case "cursor":
+                    setCursor(parser.getValueAsString());
+                    break;
+                case "error":
+                    setError(mapper.readValue(parser, JsonRequestError.class));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        expect(JsonToken.END_OBJECT);
+        complete = true;
+        close();
+    }
+
+    private List<List<Object>> readRows() throws IOException {
+        expect(JsonToken.START_ARRAY);
+        List<List<Object>> rows = new ArrayList<>();
+        while (nextToken() != JsonToken.END_ARRAY) {
+            rows.add(readRow());
+        }
+        return rows;
+    }
+
+    private List<Object> readRow() throws IOException {
+        expect(JsonToken.START_ARRAY);
+        List<Object> row = new ArrayList<>(getColumnDescriptors() != null ? getColumnDescriptors().size() : 10);
+        while (nextToken() != JsonToken.END_ARRAY) {
+            row.add(readValue());
+        }
+        return row;
+    }
+
+    /**
+     * Decodes the current value the same way as the ObjectMapper decodes
+     * an untyped value.
+     */
+    private Object readValue() throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                return mapper.readValue(parser, Object.class);
+        }
+    }
+
+    private JsonToken nextToken() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of the query response");
+        }
+        return token;
+    }
+
+    private void expect(JsonToken token) throws IOException {
+        if (parser.currentToken() != token) {
+            throw new JsonParseException(parser,
+                    String.format("Expected %s in the query response but found %s", token, parser.currentToken()));
+        }
+    }
+}
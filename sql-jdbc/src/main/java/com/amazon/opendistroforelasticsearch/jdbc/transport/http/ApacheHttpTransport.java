@@ -26,6 +26,7 @@ import com.amazonaws.auth.AWS4Signer;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
@@ -33,6 +34,7 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.protocol.ResponseContentEncoding;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
@@ -46,9 +48,11 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.BasicHttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.SSLContexts;
 import org.apache.http.ssl.TrustStrategy;
@@ -64,8 +68,14 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.concurrent.TimeUnit;
 
 public class ApacheHttpTransport implements HttpTransport, LoggingSource {
+
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+    private static final Header ACCEPT_GZIP_ENCODING = new BasicHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
     String scheme;
     String host;
     int port;
@@ -73,6 +83,12 @@ public class ApacheHttpTransport implements HttpTransport, LoggingSource {
     int readTimeout;
 
     private RequestConfig requestConfig;
+
+    /**
+     * Headers added to every POST request in addition to the headers from the protocol.
+     */
+    private Header[] postHeaders = new Header[0];
+
     private CloseableHttpClient httpClient;
 
     public ApacheHttpTransport(ConnectionConfig connectionConfig, Logger log, String userAgent) throws TransportException {
@@ -99,17 +115,40 @@ public class ApacheHttpTransport implements HttpTransport, LoggingSource {
         ApacheHttpClientConnectionFactory connectionFactory =
                 new ApacheHttpClientConnectionFactory(new JclLoggerAdapter(log, getSource()));
 
+        // connections are pooled so that statements sharing the connection are not serialized
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(socketFactoryRegistry, connectionFactory);
+        connectionManager.setDefaultMaxPerRoute(connectionConfig.getMaxConnectionsPerRoute());
+        connectionManager.setMaxTotal(connectionConfig.getMaxConnectionsPerRoute());
+        connectionManager.setDefaultSocketConfig(buildDefaultSocketConfig(connectionConfig.tcpKeepAlive()));
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+
         HttpClientBuilder httpClientBuilder = HttpClients.custom()
-                .setConnectionManager(
-                        new BasicHttpClientConnectionManager(socketFactoryRegistry, connectionFactory))
-                .setDefaultSocketConfig(buildDefaultSocketConfig())
+                .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(getRequestConfig())
+                .setRetryHandler(new DefaultHttpRequestRetryHandler(connectionConfig.getMaxRetries(), false))
+                .setServiceUnavailableRetryStrategy(
+                        new BackoffRetryStrategy(connectionConfig.getMaxRetries(), connectionConfig.getRetryBackoff()))
                 .setUserAgent(userAgent);
 
+        // idle connection eviction
+        if (connectionConfig.getIdleConnectionTimeout() > 0) {
+            httpClientBuilder
+                    .evictExpiredConnections()
+                    .evictIdleConnections(connectionConfig.getIdleConnectionTimeout(), TimeUnit.SECONDS);
+        }
+
         // request compression
-        if (!connectionConfig.requestCompression())
+        if (!connectionConfig.requestCompression()) {
             httpClientBuilder.disableContentCompression();
 
+            // query responses are still negotiated for compression and decoded transparently
+            if (connectionConfig.responseCompression()) {
+                httpClientBuilder.addInterceptorLast(new ResponseContentEncoding());
+                this.postHeaders = new Header[]{ACCEPT_GZIP_ENCODING};
+            }
+        }
+
         // setup authentication
         if (connectionConfig.getAuthenticationType() == AuthenticationType.BASIC) {
             CredentialsProvider basicCredsProvider = new BasicCredentialsProvider();
@@ -132,7 +171,6 @@ public class ApacheHttpTransport implements HttpTransport, LoggingSource {
                             provider));
         }
 
-        // TODO - can apply settings retry & backoff
         this.httpClient = httpClientBuilder.build();
     }
 
@@ -196,9 +234,9 @@ public class ApacheHttpTransport implements HttpTransport, LoggingSource {
         return new SSLConnectionSocketFactory(sslContext, hostnameVerifier);
     }
 
-    private SocketConfig buildDefaultSocketConfig() {
+    private SocketConfig buildDefaultSocketConfig(boolean tcpKeepAlive) {
         return SocketConfig.custom()
-                .setSoKeepAlive(true)
+                .setSoKeepAlive(tcpKeepAlive)
                 .setSoTimeout(this.readTimeout)
                 .build();
     }
@@ -213,6 +251,13 @@ public class ApacheHttpTransport implements HttpTransport, LoggingSource {
         return this.requestConfig;
     }
 
+    private RequestConfig getRequestConfig(int readTimeout) {
+        // requests may be sent from multiple threads, so the timeout is only applied to the request itself
+        RequestConfig config = this.requestConfig;
+        return config.getSocketTimeout() == readTimeout ?
+                config : RequestConfig.copy(config).setSocketTimeout(readTimeout).build();
+    }
+
     public void setReadTimeout(int readTimeout) {
         if (readTimeout != this.readTimeout) {
             this.readTimeout = readTimeout;
@@ -245,10 +290,9 @@ public class ApacheHttpTransport implements HttpTransport, LoggingSource {
 
     private CloseableHttpResponse doGet(URI uri, Header[] headers, int readTimeout) throws TransportException {
         try {
-            setReadTimeout(readTimeout);
             HttpGet request = new HttpGet(uri);
             request.setHeaders(headers);
-            request.setConfig(getRequestConfig());
+            request.setConfig(getRequestConfig(readTimeout));
             return httpClient.execute(request);
         } catch (IOException e) {
             throw new TransportException(e);
@@ -257,11 +301,12 @@ public class ApacheHttpTransport implements HttpTransport, LoggingSource {
 
     private CloseableHttpResponse doPost(URI uri, Header[] headers, String body, int readTimeout) throws TransportException {
         try {
-            setReadTimeout(readTimeout);
             HttpPost request = new HttpPost(uri);
             request.setHeaders(headers);
+            for (Header header : postHeaders)
+                request.addHeader(header);
             request.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
-            request.setConfig(getRequestConfig());
+            request.setConfig(getRequestConfig(readTimeout));
             return httpClient.execute(request);
         } catch (IOException e) {
             throw new TransportException(e);
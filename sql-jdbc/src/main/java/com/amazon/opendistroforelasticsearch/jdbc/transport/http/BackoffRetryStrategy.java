@@ -0,0 +1,60 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.transport.http;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Retries requests rejected by an overloaded server (HTTP 429) with
+ * exponential backoff. Other error responses are not retried because
+ * the server reports failed queries with error status codes as well.
+ */
+public class BackoffRetryStrategy implements ServiceUnavailableRetryStrategy {
+
+    private final int maxRetries;
+    private final long initialBackoff;
+
+    /**
+     * Interval of the retry decided by the last call to retryRequest on the current thread,
+     * which is how the client executes a request and asks for the retry interval.
+     */
+    private final ThreadLocal<Long> retryInterval = new ThreadLocal<>();
+
+    public BackoffRetryStrategy(int maxRetries, long initialBackoff) {
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+    }
+
+    @Override
+    public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+        if (executionCount > maxRetries
+                || response.getStatusLine().getStatusCode() != HttpStatus.SC_TOO_MANY_REQUESTS) {
+            return false;
+        }
+        retryInterval.set(initialBackoff << Math.min(executionCount - 1, 16));
+        return true;
+    }
+
+    @Override
+    public long getRetryInterval() {
+        Long interval = retryInterval.get();
+        return interval == null ? initialBackoff : interval;
+    }
+}
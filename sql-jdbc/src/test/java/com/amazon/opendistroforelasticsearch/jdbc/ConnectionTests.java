@@ -21,6 +21,7 @@ import com.amazon.opendistroforelasticsearch.jdbc.config.ConnectionPropertyExcep
 import com.amazon.opendistroforelasticsearch.jdbc.config.PasswordConnectionProperty;
 import com.amazon.opendistroforelasticsearch.jdbc.config.RegionConnectionProperty;
 import com.amazon.opendistroforelasticsearch.jdbc.config.RequestCompressionConnectionProperty;
+import com.amazon.opendistroforelasticsearch.jdbc.config.ResponseCompressionConnectionProperty;
 import com.amazon.opendistroforelasticsearch.jdbc.config.UserConnectionProperty;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonHttpProtocol;
 import com.amazon.opendistroforelasticsearch.jdbc.test.PerTestWireMockServerExtension;
@@ -202,6 +203,48 @@ class ConnectionTests implements WireMockServerHelpers {
         con.close();
     }
 
+    @Test
+    void testQueryWithDefaultResponseCompression(final WireMockServer mockServer) throws SQLException, IOException {
+        QueryMock.NycTaxisQueryMock queryMock = new QueryMock.NycTaxisQueryMock();
+        queryMock.setupMockServerStub(mockServer);
+
+        // return HTTP 400 if query request does not accept gzip response
+        mockServer.stubFor(
+                post(urlEqualTo(JsonHttpProtocol.DEFAULT_SQL_CONTEXT_PATH + "?format=jdbc"))
+                        .withHeader("Accept-Encoding", absent())
+                        .willReturn(aResponse()
+                                .withStatus(400)
+                                .withStatusMessage("Query request does not seek gzip response by default")));
+
+        // WireMockServer returns a gzip response which is expected to be decoded transparently
+        Connection con = new Driver().connect(getBaseURLForMockServer(mockServer), new Properties());
+        Statement st = con.createStatement();
+        queryMock.getMockResultSet().assertMatches(assertDoesNotThrow(() -> st.executeQuery(queryMock.getSql())));
+        con.close();
+    }
+
+    @Test
+    void testQueryWithoutResponseCompression(final WireMockServer mockServer) throws SQLException, IOException {
+        QueryMock.NycTaxisQueryMock queryMock = new QueryMock.NycTaxisQueryMock();
+        queryMock.setupMockServerStub(mockServer);
+
+        // return HTTP 400 if query request accepts gzip response
+        mockServer.stubFor(
+                post(urlEqualTo(JsonHttpProtocol.DEFAULT_SQL_CONTEXT_PATH + "?format=jdbc"))
+                        .withHeader("Accept-Encoding", containing("gzip"))
+                        .willReturn(aResponse()
+                                .withStatus(400)
+                                .withStatusMessage("Query request seeks gzip response")));
+
+        Properties props = new Properties();
+        props.setProperty(ResponseCompressionConnectionProperty.KEY, "false");
+
+        Connection con = new Driver().connect(getBaseURLForMockServer(mockServer), props);
+        Statement st = con.createStatement();
+        queryMock.getMockResultSet().assertMatches(assertDoesNotThrow(() -> st.executeQuery(queryMock.getSql())));
+        con.close();
+    }
+
     // TODO - find a way to test this differently?
     @Disabled("currently this does not work because Host header value " +
             "is included in signature which is of 'localhost:port' form " +
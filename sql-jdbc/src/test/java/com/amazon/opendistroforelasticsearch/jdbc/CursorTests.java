@@ -17,11 +17,13 @@
 package com.amazon.opendistroforelasticsearch.jdbc;
 
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.ColumnMetaData;
+import com.amazon.opendistroforelasticsearch.jdbc.internal.results.ColumnVector;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.Cursor;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.Row;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.results.Schema;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonQueryResponse;
 import com.amazon.opendistroforelasticsearch.jdbc.types.ElasticsearchType;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -30,8 +32,10 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CursorTests {
 
@@ -149,6 +153,51 @@ public class CursorTests {
         assertEquals(rowCount, cursorRowCount, "Unexpected number of rows retrieved from cursor.");
     }
 
+    @Test
+    void testCursorTypedColumnValues() {
+        final List<ColumnMetaData> columnMetaDatas = Arrays.asList(
+                toColumnMetaData("intval", ElasticsearchType.INTEGER.getTypeName()),
+                toColumnMetaData("longval", ElasticsearchType.LONG.getTypeName()),
+                toColumnMetaData("doubleval", ElasticsearchType.DOUBLE.getTypeName()),
+                toColumnMetaData("stringval", ElasticsearchType.KEYWORD.getTypeName()),
+                toColumnMetaData("mixedval", ElasticsearchType.LONG.getTypeName())
+        );
+
+        List<Row> rows = Arrays.asList(
+                toRow(1, 12345678901234567L, 100.25, "1", "100"),
+                toRow(null, null, 7, null, 200));
+
+        Cursor cursor = new Cursor(new Schema(columnMetaDatas), rows);
+
+        ColumnVector intColumn = cursor.getColumnVector(0);
+        ColumnVector longColumn = cursor.getColumnVector(1);
+        ColumnVector doubleColumn = cursor.getColumnVector(2);
+
+        assertTrue(intColumn.hasLongValues());
+        assertTrue(intColumn.hasDoubleValues());
+        assertTrue(longColumn.hasLongValues());
+        assertFalse(doubleColumn.hasLongValues(), "Fractional values decoded as long");
+        assertTrue(doubleColumn.hasDoubleValues());
+        assertFalse(cursor.getColumnVector(3).hasLongValues(), "Non-numeric column decoded as long");
+        assertFalse(cursor.getColumnVector(3).hasDoubleValues(), "Non-numeric column decoded as double");
+        assertFalse(cursor.getColumnVector(4).hasLongValues(), "String values decoded as long");
+
+        assertTrue(cursor.next());
+        assertEquals(0, cursor.getCurrentRow());
+        assertEquals(1, intColumn.getLong(0));
+        assertEquals(12345678901234567L, longColumn.getLong(0));
+        assertEquals(100.25, doubleColumn.getDouble(0));
+        assertFalse(intColumn.isNull(0));
+
+        assertTrue(cursor.next());
+        assertTrue(intColumn.isNull(1));
+        assertEquals(0, intColumn.getLong(1));
+        assertNull(cursor.getColumn(0));
+        assertEquals(7, cursor.getColumn(2), "Value received from server not preserved");
+        assertEquals(7.0, doubleColumn.getDouble(1));
+        assertFalse(cursor.next());
+    }
+
     private Object columnObject(Cursor cursor, String columnLabel) {
         return cursor.getColumn(cursor.findColumn(columnLabel));
     }
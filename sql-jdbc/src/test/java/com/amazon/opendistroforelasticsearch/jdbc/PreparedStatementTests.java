@@ -1,8 +1,11 @@
 package com.amazon.opendistroforelasticsearch.jdbc;
 
 import com.amazon.opendistroforelasticsearch.jdbc.config.ConnectionConfig;
+import com.amazon.opendistroforelasticsearch.jdbc.config.ConnectionPropertyException;
+import com.amazon.opendistroforelasticsearch.jdbc.config.ServerPrepareConnectionProperty;
 import com.amazon.opendistroforelasticsearch.jdbc.logging.NoOpLogger;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.ConnectionResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.JdbcQueryRequest;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.Protocol;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.ProtocolFactory;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryRequest;
@@ -16,25 +19,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.sql.SQLNonTransientException;
+import java.sql.Statement;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -122,6 +135,137 @@ public class PreparedStatementTests {
         }
     }
 
+    @Test
+    void testPreparedStatementBatch() throws ResponseException, IOException, SQLException {
+        TransportFactory tf = mock(TransportFactory.class);
+        ProtocolFactory pf = mock(ProtocolFactory.class);
+        Protocol mockProtocol = mock(Protocol.class);
+
+        when(mockProtocol.connect(anyInt())).thenReturn(mock(ConnectionResponse.class));
+        when(tf.getTransport(any(), any(), any())).thenReturn(mock(Transport.class));
+        when(pf.getProtocol(any(ConnectionConfig.class), any(Transport.class))).thenReturn(mockProtocol);
+        when(mockProtocol.executeBatch(anyList()))
+                .thenReturn(Arrays.asList(mock(QueryResponse.class), mock(QueryResponse.class)));
+
+        try (Connection con = new ConnectionImpl(ConnectionConfig.builder().build(), tf, pf, NoOpLogger.INSTANCE);
+             PreparedStatement pstm = con.prepareStatement("select * from t where name = ?")) {
+
+            // a parameter set can only be batched with all parameters filled
+            assertThrows(SQLDataException.class, pstm::addBatch);
+
+            // JDBC Spec: SQL text cannot be batched on a PreparedStatement
+            assertThrows(SQLException.class, () -> pstm.addBatch("select 1"));
+
+            pstm.setString(1, "first");
+            pstm.addBatch();
+            pstm.setString(1, "second");
+            pstm.addBatch();
+
+            assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO},
+                    pstm.executeBatch());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<JdbcQueryRequest>> captor = ArgumentCaptor.forClass(List.class);
+            verify(mockProtocol).executeBatch(captor.capture());
+
+            List<JdbcQueryRequest> requests = captor.getValue();
+            assertEquals(2, requests.size());
+            assertEquals("select * from t where name = ?", requests.get(0).getQuery());
+            assertEquals("first", requests.get(0).getParameters().get(0).getValue());
+            assertEquals("second", requests.get(1).getParameters().get(0).getValue());
+        }
+    }
+
+    @Test
+    void testPreparedStatementWithServerHandle() throws ResponseException, IOException, SQLException {
+        TransportFactory tf = mock(TransportFactory.class);
+        ProtocolFactory pf = mock(ProtocolFactory.class);
+        Protocol mockProtocol = mock(Protocol.class);
+
+        when(mockProtocol.connect(anyInt())).thenReturn(mock(ConnectionResponse.class));
+        when(tf.getTransport(any(), any(), any())).thenReturn(mock(Transport.class));
+        when(pf.getProtocol(any(ConnectionConfig.class), any(Transport.class))).thenReturn(mockProtocol);
+        when(mockProtocol.prepare("select * from t where age = ?")).thenReturn("statement-1");
+        when(mockProtocol.execute(any(QueryRequest.class))).thenReturn(mock(QueryResponse.class));
+
+        try (Connection con = new ConnectionImpl(serverPrepareConfig(), tf, pf, NoOpLogger.INSTANCE);
+             PreparedStatement pstm = con.prepareStatement("select * from t where age = ?")) {
+
+            verify(mockProtocol, never()).prepare(any());
+
+            pstm.setInt(1, 30);
+            pstm.executeQuery().close();
+            pstm.setInt(1, 40);
+            pstm.executeQuery().close();
+
+            ArgumentCaptor<JdbcQueryRequest> captor = ArgumentCaptor.forClass(JdbcQueryRequest.class);
+            verify(mockProtocol, times(1)).prepare("select * from t where age = ?");
+            verify(mockProtocol, times(2)).execute(captor.capture());
+            assertEquals("statement-1", captor.getAllValues().get(0).getStatementId());
+            assertEquals("statement-1", captor.getAllValues().get(1).getStatementId());
+            assertEquals("select * from t where age = ?", captor.getValue().getQuery());
+            assertEquals(40, captor.getValue().getParameters().get(0).getValue());
+        }
+    }
+
+    @Test
+    void testPreparedStatementWithoutServerHandle() throws ResponseException, IOException, SQLException {
+        TransportFactory tf = mock(TransportFactory.class);
+        ProtocolFactory pf = mock(ProtocolFactory.class);
+        Protocol mockProtocol = mock(Protocol.class);
+
+        when(mockProtocol.connect(anyInt())).thenReturn(mock(ConnectionResponse.class));
+        when(tf.getTransport(any(), any(), any())).thenReturn(mock(Transport.class));
+        when(pf.getProtocol(any(ConnectionConfig.class), any(Transport.class))).thenReturn(mockProtocol);
+        when(mockProtocol.prepare(any())).thenThrow(new IOException("not supported"));
+        when(mockProtocol.execute(any(QueryRequest.class))).thenReturn(mock(QueryResponse.class));
+
+        try (Connection con = new ConnectionImpl(serverPrepareConfig(), tf, pf, NoOpLogger.INSTANCE);
+             PreparedStatement pstm = con.prepareStatement("select * from t where age = ?")) {
+
+            pstm.setInt(1, 30);
+            pstm.executeQuery().close();
+            pstm.executeQuery().close();
+
+            ArgumentCaptor<JdbcQueryRequest> captor = ArgumentCaptor.forClass(JdbcQueryRequest.class);
+            verify(mockProtocol, times(1)).prepare(any());
+            verify(mockProtocol, times(2)).execute(captor.capture());
+            assertNull(captor.getValue().getStatementId());
+            assertEquals(30, captor.getValue().getParameters().get(0).getValue());
+        }
+    }
+
+    @Test
+    void testPreparedStatementNotPreparedOnServerByDefault() throws ResponseException, IOException, SQLException {
+        TransportFactory tf = mock(TransportFactory.class);
+        ProtocolFactory pf = mock(ProtocolFactory.class);
+        Protocol mockProtocol = mock(Protocol.class);
+
+        when(mockProtocol.connect(anyInt())).thenReturn(mock(ConnectionResponse.class));
+        when(tf.getTransport(any(), any(), any())).thenReturn(mock(Transport.class));
+        when(pf.getProtocol(any(ConnectionConfig.class), any(Transport.class))).thenReturn(mockProtocol);
+        when(mockProtocol.execute(any(QueryRequest.class))).thenReturn(mock(QueryResponse.class));
+
+        try (Connection con = new ConnectionImpl(ConnectionConfig.builder().build(), tf, pf, NoOpLogger.INSTANCE);
+             PreparedStatement pstm = con.prepareStatement("select * from t where age = ?")) {
+
+            pstm.setInt(1, 30);
+            pstm.executeQuery().close();
+
+            ArgumentCaptor<JdbcQueryRequest> captor = ArgumentCaptor.forClass(JdbcQueryRequest.class);
+            verify(mockProtocol, never()).prepare(any());
+            verify(mockProtocol).execute(captor.capture());
+            assertNull(captor.getValue().getStatementId());
+            assertEquals(30, captor.getValue().getParameters().get(0).getValue());
+        }
+    }
+
+    private ConnectionConfig serverPrepareConfig() throws ConnectionPropertyException {
+        Properties props = new Properties();
+        props.setProperty(ServerPrepareConnectionProperty.KEY, "true");
+        return ConnectionConfig.builder().setProperties(props).build();
+    }
+
     private Connection getMockConnection() throws IOException, ResponseException, SQLException {
         TransportFactory tf = mock(TransportFactory.class);
         ProtocolFactory pf = mock(ProtocolFactory.class);
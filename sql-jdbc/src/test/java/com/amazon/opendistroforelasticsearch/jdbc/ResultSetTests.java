@@ -20,6 +20,8 @@ import com.amazon.opendistroforelasticsearch.jdbc.internal.exceptions.ObjectClos
 import com.amazon.opendistroforelasticsearch.jdbc.logging.NoOpLogger;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonHttpProtocol;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonQueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.StreamingJsonQueryResponse;
 import com.amazon.opendistroforelasticsearch.jdbc.test.TestResources;
 import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockES;
 import com.amazon.opendistroforelasticsearch.jdbc.types.ElasticsearchType;
@@ -29,6 +31,7 @@ import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockResultSet;
 import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockResultSetRows;
 import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockResultSetMetaData;
 import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.QueryMock;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,12 +39,18 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
@@ -52,6 +61,9 @@ import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(PerTestWireMockServerExtension.class)
 public class ResultSetTests implements WireMockServerHelpers {
@@ -240,6 +252,102 @@ public class ResultSetTests implements WireMockServerHelpers {
         con.close();
     }
 
+    @Test
+    void testTypedGetters() throws SQLException {
+        List<JsonQueryResponse.SchemaEntry> schema = Arrays.asList(
+                new JsonQueryResponse.SchemaEntry("intval", ElasticsearchType.INTEGER.getTypeName(), null),
+                new JsonQueryResponse.SchemaEntry("longval", ElasticsearchType.LONG.getTypeName(), null),
+                new JsonQueryResponse.SchemaEntry("doubleval", ElasticsearchType.DOUBLE.getTypeName(), null),
+                new JsonQueryResponse.SchemaEntry("stringval", ElasticsearchType.KEYWORD.getTypeName(), null));
+        List<List<Object>> dataRows = Arrays.asList(
+                Arrays.<Object>asList(7, 12345678901234567L, 2.5, "text"),
+                Arrays.<Object>asList(null, null, null, null));
+
+        ResultSetImpl rs = new ResultSetImpl(mock(StatementImpl.class), schema, dataRows, NoOpLogger.INSTANCE);
+
+        assertTrue(rs.next());
+        assertEquals(7, rs.getInt(1));
+        assertEquals(7L, rs.getLong(1));
+        assertEquals((short) 7, rs.getShort(1));
+        assertEquals((byte) 7, rs.getByte(1));
+        assertEquals(7.0, rs.getDouble(1));
+        assertEquals(7.0f, rs.getFloat(1));
+        assertFalse(rs.wasNull());
+        assertEquals(12345678901234567L, rs.getLong(2));
+        assertEquals(12345678901234567L, rs.getLong("longval"));
+        assertEquals(12345678901234567.0, rs.getDouble(2));
+        assertEquals(2.5, rs.getDouble(3));
+        assertEquals("text", rs.getString(4));
+        assertEquals(7, rs.getObject(1));
+
+        // values that need conversion fall back to the type converters
+        assertThrows(SQLException.class, () -> rs.getInt(2));
+        assertEquals(3, rs.getInt(3));
+        assertEquals("7", rs.getString(1));
+
+        assertTrue(rs.next());
+        assertEquals(0, rs.getInt(1));
+        assertTrue(rs.wasNull());
+        assertEquals(0L, rs.getLong(2));
+        assertTrue(rs.wasNull());
+        assertEquals(0.0, rs.getDouble(3));
+        assertTrue(rs.wasNull());
+        assertNull(rs.getString(4));
+        assertTrue(rs.wasNull());
+        assertFalse(rs.next());
+    }
+
+    @Test
+    void testResultSetOnStreamedResponse() throws SQLException, IOException {
+        final int rowCount = ResultSetImpl.STREAMED_PAGE_SIZE * 2 + 3;
+        StringBuilder body = new StringBuilder("{\"schema\":[{\"name\":\"id\",\"type\":\"integer\"}],\"datarows\":[");
+        for (int i = 1; i <= rowCount; i++) {
+            body.append(i == 1 ? "" : ",").append("[").append(i).append("]");
+        }
+        body.append("],\"total\":").append(rowCount).append(",\"size\":").append(rowCount).append(",\"status\":200}");
+
+        Closeable source = mock(Closeable.class);
+        StreamingJsonQueryResponse response = new StreamingJsonQueryResponse(new ObjectMapper(),
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), source, true);
+
+        ResultSetImpl rs = new ResultSetImpl(mock(StatementImpl.class), response, NoOpLogger.INSTANCE);
+        assertTrue(response.hasRemainingRows(), "Response read before rows are consumed");
+
+        int rowNum = 0;
+        while (rs.next()) {
+            assertEquals(++rowNum, rs.getInt(1));
+        }
+        assertEquals(rowCount, rowNum);
+        verify(source, times(1)).close();
+        rs.close();
+        verify(source, times(1)).close();
+    }
+
+    @Test
+    void testCloseResultSetOnStreamedResponse() throws SQLException, IOException {
+        String body = "{\"schema\":[{\"name\":\"id\",\"type\":\"integer\"}],\"datarows\":[[1],[2]],\"status\":200}";
+        Closeable source = mock(Closeable.class);
+        StreamingJsonQueryResponse response = new StreamingJsonQueryResponse(new ObjectMapper(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), source, true);
+        ResultSetImpl rs = new ResultSetImpl(mock(StatementImpl.class), response, NoOpLogger.INSTANCE);
+
+        // the whole response fits into the first page
+        verify(source, times(1)).close();
+        assertTrue(rs.next());
+        rs.close();
+        verify(source, times(1)).close();
+    }
+
+    @Test
+    void testResultSetOnUnreadableResponse() {
+        QueryResponse response = mock(QueryResponse.class);
+        when(response.getDatarows()).thenThrow(new UncheckedIOException(new IOException("reset")));
+
+        SQLException ex = assertThrows(SQLException.class,
+                () -> new ResultSetImpl(mock(StatementImpl.class), response, NoOpLogger.INSTANCE));
+        assertEquals("reset", ex.getCause().getMessage());
+    }
+
     @Test
     void testResultSetWrapper() throws SQLException {
         ResultSetImpl rsImpl = new ResultSetImpl(mock(StatementImpl.class), mock(QueryResponse.class), NoOpLogger.INSTANCE);
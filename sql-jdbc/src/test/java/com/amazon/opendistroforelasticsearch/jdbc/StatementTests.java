@@ -24,8 +24,10 @@ import com.amazon.opendistroforelasticsearch.jdbc.protocol.Protocol;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.ProtocolFactory;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryRequest;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.RequestError;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.InternalServerErrorException;
 import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.StreamingJsonQueryResponse;
 import com.amazon.opendistroforelasticsearch.jdbc.test.PerTestWireMockServerExtension;
 import com.amazon.opendistroforelasticsearch.jdbc.transport.Transport;
 import com.amazon.opendistroforelasticsearch.jdbc.transport.TransportFactory;
@@ -36,10 +38,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
 import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Properties;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
@@ -49,7 +56,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -142,6 +151,44 @@ public class StatementTests implements WireMockServerHelpers {
 
     }
 
+    @Test
+    void testStreamedResponseClosedOnQueryError() throws ResponseException, IOException, SQLException {
+        StreamingJsonQueryResponse response = mock(StreamingJsonQueryResponse.class);
+        when(response.getError()).thenReturn(mock(RequestError.class));
+
+        try (Connection con = getConnectionReturning(response);
+             Statement st = con.createStatement()) {
+            assertThrows(InternalServerErrorException.class, () -> st.executeQuery("select * from t"));
+        }
+        verify(response).close();
+    }
+
+    @Test
+    void testStreamedResponseClosedOnUncheckedError() throws ResponseException, IOException, SQLException {
+        StreamingJsonQueryResponse response = mock(StreamingJsonQueryResponse.class);
+        when(response.getColumnDescriptors()).thenThrow(new UncheckedIOException(new IOException("reset")));
+
+        try (Connection con = getConnectionReturning(response);
+             Statement st = con.createStatement()) {
+            assertThrows(UncheckedIOException.class, () -> st.executeQuery("select * from t"));
+        }
+        verify(response).close();
+    }
+
+    private Connection getConnectionReturning(QueryResponse response)
+            throws ResponseException, IOException, SQLException {
+        TransportFactory tf = mock(TransportFactory.class);
+        ProtocolFactory pf = mock(ProtocolFactory.class);
+        Protocol mockProtocol = mock(Protocol.class);
+
+        when(mockProtocol.connect(anyInt())).thenReturn(mock(ConnectionResponse.class));
+        when(tf.getTransport(any(), any(), any())).thenReturn(mock(Transport.class));
+        when(pf.getProtocol(any(ConnectionConfig.class), any(Transport.class))).thenReturn(mockProtocol);
+        when(mockProtocol.execute(any(QueryRequest.class))).thenReturn(response);
+
+        return new ConnectionImpl(ConnectionConfig.builder().build(), tf, pf, NoOpLogger.INSTANCE);
+    }
+
     @Test
     void testQueryInternalServerError(WireMockServer mockServer) throws SQLException, IOException {
         QueryMock queryMock = new QueryMock.NycTaxisQueryInternalErrorMock();
@@ -165,4 +212,143 @@ public class StatementTests implements WireMockServerHelpers {
         st.close();
         con.close();
     }
+
+    @Test
+    void testExecuteBatch() throws ResponseException, IOException, SQLException {
+        Protocol mockProtocol = mock(Protocol.class);
+        Connection con = getMockConnection(mockProtocol);
+
+        when(mockProtocol.executeBatch(anyList()))
+                .thenReturn(Arrays.asList(mock(QueryResponse.class), mock(QueryResponse.class)));
+
+        Statement st = con.createStatement();
+        st.addBatch("select 1");
+        st.addBatch("select 2");
+
+        int[] updateCounts = st.executeBatch();
+
+        assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}, updateCounts);
+        verify(mockProtocol).executeBatch(
+                Arrays.asList(new JdbcQueryRequest("select 1"), new JdbcQueryRequest("select 2")));
+
+        // results of the batched queries are read in batch order
+        ResultSet first = st.getResultSet();
+        assertNotNull(first);
+        assertTrue(st.getMoreResults());
+        assertTrue(first.isClosed());
+        assertNotNull(st.getResultSet());
+        assertFalse(st.getMoreResults());
+        assertNull(st.getResultSet());
+
+        // the batch is empty once executed
+        assertArrayEquals(new int[0], st.executeBatch());
+        verify(mockProtocol).executeBatch(anyList());
+
+        st.addBatch("select 3");
+        st.clearBatch();
+        assertArrayEquals(new int[0], st.executeBatch());
+
+        st.close();
+        con.close();
+    }
+
+    @Test
+    void testBatchResultsDiscardedOnQuery() throws ResponseException, IOException, SQLException {
+        Protocol mockProtocol = mock(Protocol.class);
+        Connection con = getMockConnection(mockProtocol);
+
+        when(mockProtocol.executeBatch(anyList()))
+                .thenReturn(Arrays.asList(mock(QueryResponse.class), mock(QueryResponse.class)));
+        when(mockProtocol.execute(any(QueryRequest.class))).thenReturn(mock(QueryResponse.class));
+
+        Statement st = con.createStatement();
+        st.addBatch("select 1");
+        st.addBatch("select 2");
+        st.executeBatch();
+
+        // results of the batch left unread are no longer reachable after another query
+        st.executeQuery("select 3");
+        assertFalse(st.getMoreResults());
+        assertNull(st.getResultSet());
+
+        st.close();
+        con.close();
+    }
+
+    @Test
+    void testAddBatchBeyondMaxBatchSize() throws ResponseException, IOException, SQLException {
+        Protocol mockProtocol = mock(Protocol.class);
+        Connection con = getMockConnection(mockProtocol);
+
+        Statement st = con.createStatement();
+        for (int i = 0; i < StatementImpl.MAX_BATCH_SIZE; i++) {
+            st.addBatch("select " + i);
+        }
+        assertThrows(SQLNonTransientException.class, () -> st.addBatch("select 0"));
+
+        st.close();
+        con.close();
+    }
+
+    @Test
+    void testExecuteBatchWithFailedQuery() throws ResponseException, IOException, SQLException {
+        Protocol mockProtocol = mock(Protocol.class);
+        Connection con = getMockConnection(mockProtocol);
+
+        RequestError error = mock(RequestError.class);
+        when(error.getReason()).thenReturn("error reason");
+        when(error.getType()).thenReturn("SemanticCheckException");
+        QueryResponse failed = mock(QueryResponse.class);
+        when(failed.getError()).thenReturn(error);
+
+        when(mockProtocol.executeBatch(anyList()))
+                .thenReturn(Arrays.asList(mock(QueryResponse.class), failed));
+
+        Statement st = con.createStatement();
+        st.addBatch("select 1");
+        st.addBatch("select unknown");
+
+        BatchUpdateException ex = assertThrows(BatchUpdateException.class, st::executeBatch);
+        assertEquals("error reason", ex.getMessage());
+        assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED}, ex.getUpdateCounts());
+        assertTrue(ex.getCause() instanceof InternalServerErrorException);
+        assertNull(st.getResultSet());
+
+        st.close();
+        con.close();
+    }
+
+    @Test
+    void testExecuteBatchWithMissingResults() throws ResponseException, IOException, SQLException {
+        Protocol mockProtocol = mock(Protocol.class);
+        Connection con = getMockConnection(mockProtocol);
+
+        when(mockProtocol.executeBatch(anyList()))
+                .thenReturn(Collections.singletonList(mock(QueryResponse.class)));
+
+        Statement st = con.createStatement();
+        st.addBatch("select 1");
+        st.addBatch("select 2");
+
+        assertThrows(SQLException.class, st::executeBatch);
+        verify(mockProtocol, never()).execute(any(QueryRequest.class));
+
+        st.close();
+        con.close();
+    }
+
+    private Connection getMockConnection(Protocol mockProtocol) throws ResponseException, IOException, SQLException {
+        TransportFactory tf = mock(TransportFactory.class);
+        ProtocolFactory pf = mock(ProtocolFactory.class);
+
+        when(mockProtocol.connect(anyInt())).thenReturn(mock(ConnectionResponse.class));
+
+        when(tf.getTransport(any(), any(), any()))
+                .thenReturn(mock(Transport.class));
+
+        when(pf.getProtocol(any(ConnectionConfig.class), any(Transport.class)))
+                .thenReturn(mockProtocol);
+
+        return new ConnectionImpl(ConnectionConfig.builder().build(), tf, pf, NoOpLogger.INSTANCE);
+    }
 }
@@ -19,6 +19,7 @@ package com.amazon.opendistroforelasticsearch.jdbc.config;
 import com.amazon.opendistroforelasticsearch.jdbc.auth.AuthenticationType;
 import com.amazon.opendistroforelasticsearch.jdbc.internal.util.UrlParser;
 import com.amazon.opendistroforelasticsearch.jdbc.logging.LogLevel;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.ResultFormat;
 import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -160,6 +161,18 @@ class ConnectionConfigTests {
                         logLevel.name().toLowerCase(), logLevel));
     }
 
+    @Test
+    void testPrefetchPagesConfig() {
+        // exception with invalid values
+        assertPropertyRejects(PrefetchPagesConnectionProperty.KEY, -1, "invalid", "1.5");
+
+        // valid values
+        assertPropertyAccepts(PrefetchPagesConnectionProperty.KEY, ConnectionConfig::getPrefetchPages,
+                0, 1, 4);
+        assertPropertyAcceptsParsedValue(PrefetchPagesConnectionProperty.KEY, ConnectionConfig::getPrefetchPages,
+                "2", 2);
+    }
+
     @Test
     void testLoginTimeoutConfig() {
         // exception with invalid values
@@ -188,6 +201,81 @@ class ConnectionConfigTests {
         assertCommonBooleanPropertyTests(RequestCompressionConnectionProperty.KEY, ConnectionConfig::requestCompression);
     }
 
+    @Test
+    void testResponseCompressionConfig() {
+        assertCommonBooleanPropertyTests(
+                ResponseCompressionConnectionProperty.KEY, ConnectionConfig::responseCompression);
+    }
+
+    @Test
+    void testServerPrepareConfig() {
+        assertCommonBooleanPropertyTests(ServerPrepareConnectionProperty.KEY, ConnectionConfig::serverPrepare);
+    }
+
+    @Test
+    void testMaxConnectionsPerRouteConfig() {
+        // exception with invalid values
+        assertPropertyRejects(MaxConnectionsPerRouteConnectionProperty.KEY, 0, -1, "invalid", "2.5");
+
+        // valid values
+        assertPropertyAccepts(MaxConnectionsPerRouteConnectionProperty.KEY,
+                ConnectionConfig::getMaxConnectionsPerRoute, 1, 10, 100);
+        assertPropertyAcceptsParsedValue(MaxConnectionsPerRouteConnectionProperty.KEY,
+                ConnectionConfig::getMaxConnectionsPerRoute, "20", 20);
+    }
+
+    @Test
+    void testIdleConnectionTimeoutConfig() {
+        // exception with invalid values
+        assertPropertyRejects(IdleConnectionTimeoutConnectionProperty.KEY, -1, "invalid", "2.5");
+
+        // valid values
+        assertPropertyAccepts(IdleConnectionTimeoutConnectionProperty.KEY,
+                ConnectionConfig::getIdleConnectionTimeout, 0, 30, 3600);
+        assertPropertyAcceptsParsedValue(IdleConnectionTimeoutConnectionProperty.KEY,
+                ConnectionConfig::getIdleConnectionTimeout, "120", 120);
+    }
+
+    @Test
+    void testTcpKeepAliveConfig() {
+        assertCommonBooleanPropertyTests(TcpKeepAliveConnectionProperty.KEY, ConnectionConfig::tcpKeepAlive);
+    }
+
+    @Test
+    void testMaxRetriesConfig() {
+        // exception with invalid values
+        assertPropertyRejects(MaxRetriesConnectionProperty.KEY, -1, "invalid", "2.5");
+
+        // valid values
+        assertPropertyAccepts(MaxRetriesConnectionProperty.KEY, ConnectionConfig::getMaxRetries, 0, 3, 10);
+        assertPropertyAcceptsParsedValue(MaxRetriesConnectionProperty.KEY, ConnectionConfig::getMaxRetries,
+                "5", 5);
+    }
+
+    @Test
+    void testRetryBackoffConfig() {
+        // exception with invalid values
+        assertPropertyRejects(RetryBackoffConnectionProperty.KEY, -1, "invalid", "2.5");
+
+        // valid values
+        assertPropertyAccepts(RetryBackoffConnectionProperty.KEY, ConnectionConfig::getRetryBackoff, 0, 100, 5000);
+        assertPropertyAcceptsParsedValue(RetryBackoffConnectionProperty.KEY, ConnectionConfig::getRetryBackoff,
+                "250", 250);
+    }
+
+    @Test
+    void testResultFormatConfig() {
+        // exception with invalid values
+        assertPropertyRejects(ResultFormatConnectionProperty.KEY, 42, "unknown", "true", true, false);
+
+        // valid values
+        Arrays.stream(ResultFormat.values()).forEach(
+                resultFormat -> assertPropertyAcceptsValue(
+                        ResultFormatConnectionProperty.KEY,
+                        ConnectionConfig::getResultFormat,
+                        resultFormat.name().toLowerCase(), resultFormat));
+    }
+
     @Test
     void testAuthConfig() {
         // exception with invalid values
@@ -892,10 +980,19 @@ class ConnectionConfigTests {
         assertEquals(9200, connectionConfig.getPort());
         assertEquals("", connectionConfig.getPath());
         assertEquals(0, connectionConfig.getFetchSize());
+        assertEquals(1, connectionConfig.getPrefetchPages());
         assertEquals("localhost", connectionConfig.getHost());
         assertEquals(0, connectionConfig.getLoginTimeout());
+        assertEquals(10, connectionConfig.getMaxConnectionsPerRoute());
+        assertEquals(60, connectionConfig.getIdleConnectionTimeout());
+        assertTrue(connectionConfig.tcpKeepAlive());
+        assertEquals(3, connectionConfig.getMaxRetries());
+        assertEquals(100, connectionConfig.getRetryBackoff());
         assertFalse(connectionConfig.isUseSSL());
         assertFalse(connectionConfig.requestCompression());
+        assertTrue(connectionConfig.responseCompression());
+        assertFalse(connectionConfig.serverPrepare());
+        assertEquals(ResultFormat.JDBC, connectionConfig.getResultFormat());
         assertEquals(AuthenticationType.NONE, connectionConfig.getAuthenticationType());
         assertNull(connectionConfig.getRegion());
         assertEquals(LogLevel.OFF, connectionConfig.getLogLevel());
@@ -0,0 +1,124 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.internal.results;
+
+import com.amazon.opendistroforelasticsearch.jdbc.logging.NoOpLogger;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.QueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class PagePrefetcherTests {
+
+    @Test
+    void testAllPagesReturnedInOrder() throws Exception {
+        PagePrefetcher.PageSource source = mock(PagePrefetcher.PageSource.class);
+        QueryResponse page1 = page("c2");
+        QueryResponse page2 = page(null);
+        when(source.fetch("c1")).thenReturn(page1);
+        when(source.fetch("c2")).thenReturn(page2);
+
+        PagePrefetcher prefetcher = new PagePrefetcher("c1", 2, source, NoOpLogger.INSTANCE);
+
+        assertSame(page1, prefetcher.nextPage());
+        assertSame(page2, prefetcher.nextPage());
+        assertNull(prefetcher.nextPage());
+        assertNull(prefetcher.nextPage());
+
+        prefetcher.close();
+        verify(source, after(100).never()).close(anyString());
+    }
+
+    @Test
+    void testPagesFetchedAheadAreLimited() throws Exception {
+        PagePrefetcher.PageSource source = mock(PagePrefetcher.PageSource.class);
+        when(source.fetch("c1")).thenReturn(page("c2"));
+        when(source.fetch("c2")).thenReturn(page("c3"));
+        when(source.fetch("c3")).thenReturn(page(null));
+
+        PagePrefetcher prefetcher = new PagePrefetcher("c1", 1, source, NoOpLogger.INSTANCE);
+
+        // only one page is fetched ahead until it is consumed
+        verify(source, timeout(1000)).fetch("c1");
+        verify(source, after(200).never()).fetch("c2");
+
+        assertNotNull(prefetcher.nextPage());
+        verify(source, timeout(1000)).fetch("c2");
+        prefetcher.close();
+    }
+
+    @Test
+    void testCloseReleasesCursor() throws Exception {
+        PagePrefetcher.PageSource source = mock(PagePrefetcher.PageSource.class);
+        when(source.fetch("c1")).thenReturn(page("c2"));
+
+        PagePrefetcher prefetcher = new PagePrefetcher("c1", 1, source, NoOpLogger.INSTANCE);
+        verify(source, timeout(1000)).fetch("c1");
+
+        prefetcher.close();
+
+        // the cursor of the latest page fetched is closed on the server
+        verify(source, timeout(1000)).close("c2");
+        verify(source, never()).fetch("c2");
+    }
+
+    @Test
+    void testCloseCursorFailureIgnored() throws Exception {
+        PagePrefetcher.PageSource source = mock(PagePrefetcher.PageSource.class);
+        when(source.fetch("c1")).thenReturn(page("c2"));
+        doThrow(new ResponseException("cursor expired")).when(source).close("c2");
+
+        PagePrefetcher prefetcher = new PagePrefetcher("c1", 1, source, NoOpLogger.INSTANCE);
+        verify(source, timeout(1000)).fetch("c1");
+
+        assertDoesNotThrow(prefetcher::close);
+        verify(source, timeout(1000)).close("c2");
+    }
+
+    @Test
+    void testFetchErrorThrownToConsumer() throws Exception {
+        PagePrefetcher.PageSource source = mock(PagePrefetcher.PageSource.class);
+        when(source.fetch("c1")).thenThrow(new IOException("connection reset"));
+
+        PagePrefetcher prefetcher = new PagePrefetcher("c1", 1, source, NoOpLogger.INSTANCE);
+
+        IOException ex = assertThrows(IOException.class, prefetcher::nextPage);
+        assertEquals("connection reset", ex.getMessage());
+        assertNull(prefetcher.nextPage());
+    }
+
+    @Test
+    void testResponseErrorThrownToConsumer() throws Exception {
+        PagePrefetcher.PageSource source = mock(PagePrefetcher.PageSource.class);
+        when(source.fetch("c1")).thenThrow(new ResponseException("bad cursor"));
+
+        PagePrefetcher prefetcher = new PagePrefetcher("c1", 1, source, NoOpLogger.INSTANCE);
+
+        assertThrows(ResponseException.class, prefetcher::nextPage);
+    }
+
+    private QueryResponse page(String cursorId) {
+        QueryResponse response = mock(QueryResponse.class);
+        when(response.getCursor()).thenReturn(cursorId);
+        return response;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.jdbc.protocol;
+
+import com.amazon.opendistroforelasticsearch.jdbc.config.ConnectionConfig;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.exceptions.ResponseException;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.ColumnarHttpProtocol;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.ColumnarHttpProtocolFactory;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.ColumnarQueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonQueryResponse;
+import com.amazon.opendistroforelasticsearch.jdbc.protocol.http.JsonQueryResponse.SchemaEntry;
+import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockCloseableHttpResponseBuilder;
+import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockHttpTransport;
+import com.amazon.opendistroforelasticsearch.jdbc.transport.http.HttpParam;
+import com.amazon.opendistroforelasticsearch.jdbc.transport.http.HttpTransport;
+import org.apache.http.Header;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ColumnarHttpProtocolTests {
+
+    @Test
+    void testQueryResponseInColumnarFormat() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ColumnarQueryResponse.MAGIC);
+        out.writeByte(ColumnarQueryResponse.VERSION);
+        out.writeInt(5);
+        writeString(out, "name");
+        writeString(out, "string");
+        writeString(out, "age");
+        writeString(out, "long");
+        writeString(out, "balance");
+        writeString(out, "double");
+        writeString(out, "active");
+        writeString(out, "boolean");
+        writeString(out, "address");
+        writeString(out, "object");
+        out.writeInt(3);
+
+        // name: string with dictionary, last row null
+        out.writeByte(3);
+        out.writeByte(0b100);
+        out.writeInt(1);
+        writeString(out, "John");
+        out.writeByte(1);
+        out.writeByte(0);
+        out.writeByte(0);
+
+        // age: long, second row null
+        out.writeByte(0);
+        out.writeByte(0b010);
+        out.writeLong(30L);
+        out.writeLong(5000000000L);
+
+        // balance: double
+        out.writeByte(1);
+        out.writeByte(0);
+        out.writeDouble(1.5);
+        out.writeDouble(2.5);
+        out.writeDouble(3.5);
+
+        // active: boolean, first row null
+        out.writeByte(2);
+        out.writeByte(0b001);
+        out.writeByte(0b10);
+
+        // address: json with two byte dictionary index
+        out.writeByte(4);
+        out.writeByte(0);
+        out.writeInt(2);
+        writeString(out, "{\"city\":\"Seattle\"}");
+        writeString(out, "[1,2]");
+        out.writeByte(2);
+        out.writeShort(0);
+        out.writeShort(1);
+        out.writeShort(0);
+        out.flush();
+
+        ColumnarHttpProtocol protocol = setupProtocol(new MockCloseableHttpResponseBuilder()
+                .withHttpReturnCode(200)
+                .withContentType(ColumnarQueryResponse.CONTENT_TYPE)
+                .withResponseBody(bytes.toByteArray())
+                .build());
+
+        QueryResponse response = assertDoesNotThrow(() -> protocol.execute(new JdbcQueryRequest("select")));
+
+        Map<String, Object> address = new HashMap<>();
+        address.put("city", "Seattle");
+        assertEquals(
+                Arrays.asList(
+                        new SchemaEntry("name", "string", null),
+                        new SchemaEntry("age", "long", null),
+                        new SchemaEntry("balance", "double", null),
+                        new SchemaEntry("active", "boolean", null),
+                        new SchemaEntry("address", "object", null)),
+                response.getColumnDescriptors());
+        assertEquals(
+                Arrays.asList(
+                        Arrays.asList("John", 30, 1.5, null, address),
+                        Arrays.asList("John", null, 2.5, false, Arrays.asList(1, 2)),
+                        Arrays.asList(null, 5000000000L, 3.5, true, address)),
+                response.getDatarows());
+        assertEquals(3, response.getSize());
+        assertEquals(3, response.getTotal());
+        assertEquals(200, response.getStatus());
+        assertNull(response.getCursor());
+        assertNull(response.getError());
+    }
+
+    @Test
+    void testQueryRequestsColumnarFormat() throws IOException {
+        HttpTransport mockTransport = mock(HttpTransport.class);
+        ColumnarHttpProtocol protocol = ColumnarHttpProtocolFactory.INSTANCE.getProtocol(
+                mock(ConnectionConfig.class), mockTransport);
+
+        CloseableHttpResponse mockResponse = new MockCloseableHttpResponseBuilder()
+                .withHttpReturnCode(200)
+                .withContentType(ColumnarQueryResponse.CONTENT_TYPE)
+                .withResponseBody(emptyResponse())
+                .build();
+
+        ArgumentCaptor<Header[]> headers = ArgumentCaptor.forClass(Header[].class);
+        ArgumentCaptor<HttpParam[]> params = ArgumentCaptor.forClass(HttpParam[].class);
+        when(mockTransport.doPost(eq(protocol.getSqlContextPath()), headers.capture(), params.capture(),
+                anyString(), anyInt())).thenReturn(mockResponse);
+
+        QueryResponse response = assertDoesNotThrow(() -> protocol.execute(new JdbcQueryRequest("select")));
+        assertEquals(new ColumnarQueryResponse(Collections.emptyList(), Collections.emptyList()), response);
+
+        assertTrue(Arrays.stream(params.getValue()).anyMatch(
+                param -> "format".equals(param.getName()) && "columnar".equals(param.getValue())));
+        assertTrue(Arrays.stream(headers.getValue()).anyMatch(
+                header -> "Accept".equals(header.getName()) &&
+                        header.getValue().contains(ColumnarQueryResponse.CONTENT_TYPE)));
+    }
+
+    @Test
+    void testQueryResponseFallbackToJsonFormat() throws IOException {
+        String responseBody = "{\"schema\":[{\"name\":\"name\",\"type\":\"keyword\"}]," +
+                "\"datarows\":[[\"John\"]],\"total\":1,\"size\":1,\"status\":200}";
+
+        ColumnarHttpProtocol protocol = setupProtocol(new MockCloseableHttpResponseBuilder()
+                .withHttpReturnCode(200)
+                .withContentType("application/json; charset=UTF-8")
+                .withResponseBody(responseBody)
+                .build());
+
+        QueryResponse response = assertDoesNotThrow(() -> protocol.execute(new JdbcQueryRequest("select")));
+
+        assertTrue(response instanceof JsonQueryResponse);
+        assertEquals(Collections.singletonList(Collections.singletonList("John")), response.getDatarows());
+    }
+
+    @Test
+    void testMalformedColumnarResponse() throws IOException {
+        ColumnarHttpProtocol protocol = setupProtocol(new MockCloseableHttpResponseBuilder()
+                .withHttpReturnCode(200)
+                .withContentType(ColumnarQueryResponse.CONTENT_TYPE)
+                .withResponseBody("{}")
+                .build());
+
+        assertThrows(ResponseException.class, () -> protocol.execute(new JdbcQueryRequest("select")));
+    }
+
+    private ColumnarHttpProtocol setupProtocol(CloseableHttpResponse mockResponse) throws IOException {
+        HttpTransport mockTransport = mock(HttpTransport.class);
+        ColumnarHttpProtocol protocol = new ColumnarHttpProtocol(mockTransport);
+        MockHttpTransport.setupQueryResponse(protocol, mockTransport, mockResponse);
+        return protocol;
+    }
+
+    private byte[] emptyResponse() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ColumnarQueryResponse.MAGIC);
+        out.writeByte(ColumnarQueryResponse.VERSION);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeString(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -29,7 +29,9 @@ import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockES;
 import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.MockHttpTransport;
 import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.QueryMock;
 import com.amazon.opendistroforelasticsearch.jdbc.transport.TransportException;
+import com.amazon.opendistroforelasticsearch.jdbc.transport.http.HttpParam;
 import com.amazon.opendistroforelasticsearch.jdbc.transport.http.HttpTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.Header;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.junit.jupiter.api.Assertions;
@@ -41,6 +43,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
@@ -346,6 +350,109 @@ public class JsonHttpProtocolTests {
 
     }
 
+    @Test
+    void testBatchQueryResponse() throws IOException {
+        HttpTransport mockTransport = mock(HttpTransport.class);
+
+        CloseableHttpResponse mockResponse = new MockCloseableHttpResponseBuilder()
+                .withHttpReturnCode(200)
+                .withResponseBody("{\"results\":[" +
+                        "{\"schema\":[{\"name\":\"age\",\"type\":\"integer\"}]," +
+                        "\"datarows\":[[32]],\"total\":1,\"size\":1,\"status\":200}," +
+                        "{\"error\":{\"reason\":\"error reason\",\"details\":\"details\"," +
+                        "\"type\":\"SemanticCheckException\"},\"status\":400}]}")
+                .build();
+
+        JsonHttpProtocol protocol = JsonHttpProtocolFactory.INSTANCE.getProtocol(
+                mock(ConnectionConfig.class), mockTransport);
+
+        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
+        when(mockTransport.doPost(eq(protocol.getSqlContextPath() + JsonHttpProtocol.BATCH_PATH),
+                any(Header[].class), any(HttpParam[].class), bodyCaptor.capture(), anyInt()))
+                .thenReturn(mockResponse);
+
+        JdbcQueryRequest parameterized = new JdbcQueryRequest("select name from people where age = ?");
+        parameterized.setParameters(Arrays.asList(new JdbcQueryParam("integer", 32)));
+
+        List<QueryResponse> responses = assertDoesNotThrow(() -> protocol.executeBatch(
+                Arrays.asList(new JdbcQueryRequest("select age from people", 100), parameterized)));
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(
+                mapper.readTree("{\"batch\":[{\"query\":\"select age from people\"}," +
+                        "{\"query\":\"select name from people where age = ?\"," +
+                        "\"parameters\":[{\"type\":\"integer\",\"value\":32}]}]}"),
+                mapper.readTree(bodyCaptor.getValue()));
+
+        assertEquals(2, responses.size());
+        assertEquals(
+                buildJsonQueryResponse(
+                        toSchema(schemaEntry("age", "integer")),
+                        toDatarows(toDatarow(32)),
+                        1, 1, 200),
+                responses.get(0));
+        assertEquals("error reason", responses.get(1).getError().getReason());
+        assertEquals(400, responses.get(1).getStatus());
+        verify(mockResponse).close();
+    }
+
+    @Test
+    void testPrepareStatementResponse() throws IOException {
+        HttpTransport mockTransport = mock(HttpTransport.class);
+
+        CloseableHttpResponse mockResponse = new MockCloseableHttpResponseBuilder()
+                .withHttpReturnCode(200)
+                .withResponseBody("{\"statement_id\":\"statement-1\"}")
+                .build();
+
+        JsonHttpProtocol protocol = JsonHttpProtocolFactory.INSTANCE.getProtocol(
+                mock(ConnectionConfig.class), mockTransport);
+
+        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
+        when(mockTransport.doPost(eq(protocol.getSqlContextPath() + JsonHttpProtocol.PREPARE_PATH),
+                any(Header[].class), any(HttpParam[].class), bodyCaptor.capture(), anyInt()))
+                .thenReturn(mockResponse);
+
+        String statementId = assertDoesNotThrow(() ->
+                protocol.prepare("select name from people where age = ?"));
+
+        assertEquals("statement-1", statementId);
+        assertEquals("{\"query\":\"select name from people where age = ?\"}", bodyCaptor.getValue());
+        verify(mockResponse).close();
+    }
+
+    @Test
+    void testPrepareStatementResponseWithoutStatementId() throws IOException {
+        HttpTransport mockTransport = mock(HttpTransport.class);
+
+        CloseableHttpResponse mockResponse = new MockCloseableHttpResponseBuilder()
+                .withHttpReturnCode(200)
+                .withResponseBody("{}")
+                .build();
+
+        JsonHttpProtocol protocol = JsonHttpProtocolFactory.INSTANCE.getProtocol(
+                mock(ConnectionConfig.class), mockTransport);
+
+        when(mockTransport.doPost(eq(protocol.getSqlContextPath() + JsonHttpProtocol.PREPARE_PATH),
+                any(Header[].class), any(HttpParam[].class), any(String.class), anyInt()))
+                .thenReturn(mockResponse);
+
+        assertThrows(ResponseException.class, () -> protocol.prepare("select name from people where age = ?"));
+    }
+
+    @Test
+    void testQueryRequestWithStatementId() throws IOException {
+        JdbcQueryRequest request = new JdbcQueryRequest("select name from people where age = ?");
+        request.setParameters(Arrays.asList(new JdbcQueryParam("integer", 32)));
+        request.setStatementId("statement-1");
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(
+                mapper.readTree("{\"query\":\"select name from people where age = ?\"," +
+                        "\"parameters\":[{\"type\":\"integer\",\"value\":32}]," +
+                        "\"fetch_size\":0,\"statement_id\":\"statement-1\"}"),
+                mapper.readTree(mapper.writeValueAsString(new JsonQueryRequest(request))));
+    }
 
     private JsonQueryRequest buildJsonQueryRequest(QueryMock queryMock) {
         return buildJsonQueryRequest(queryMock.getSql());
@@ -0,0 +1,169 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.jdbc.protocol.http;
+
+import com.amazon.opendistroforelasticsearch.jdbc.test.mocks.QueryMock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class StreamingJsonQueryResponseTests {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String STREAMED_RESPONSE = "{\"schema\":[{\"name\":\"id\",\"type\":\"integer\"}," +
+            "{\"name\":\"obj\",\"type\":\"object\"}]," +
+            "\"datarows\":[[1,{\"a\":[1,2]}],[2,null],[3000000000,1.5],[true,\"text\"]]," +
+            "\"total\":4,\"size\":4,\"status\":200,\"cursor\":\"abc\"}";
+
+    static Stream<Arguments> queryMocks() {
+        return Stream.of(
+                Arguments.of(new QueryMock.NycTaxisQueryMock()),
+                Arguments.of(new QueryMock.NycTaxisQueryWithAliasMock()),
+                Arguments.of(new QueryMock.SoNestedQueryMock()),
+                Arguments.of(new QueryMock.NycTaxisQueryInternalErrorMock()),
+                Arguments.of(new QueryMock.NullableFieldsQueryMock()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("queryMocks")
+    void testParseMatchesObjectMapper(QueryMock queryMock) throws IOException {
+        String body = queryMock.getResponseBody();
+
+        assertEquals(mapper.readValue(body, JsonQueryResponse.class),
+                StreamingJsonQueryResponse.parse(mapper, toStream(body)));
+        assertEquals(mapper.readValue(body, JsonQueryResponse.class),
+                new StreamingJsonQueryResponse(mapper, toStream(body), null, true));
+    }
+
+    @Test
+    void testRowsReadInChunks() throws IOException {
+        Closeable source = mock(Closeable.class);
+        StreamingJsonQueryResponse response = new StreamingJsonQueryResponse(
+                mapper, toStream(STREAMED_RESPONSE), source, true);
+
+        assertTrue(response.hasRemainingRows());
+        assertEquals(2, response.getColumnDescriptors().size());
+
+        assertEquals(Arrays.asList(
+                Arrays.asList(1, Collections.singletonMap("a", Arrays.asList(1, 2))),
+                Arrays.asList(2, null)),
+                response.nextRows(2));
+        assertTrue(response.hasRemainingRows());
+        verify(source, never()).close();
+
+        assertEquals(Arrays.asList(
+                Arrays.asList(3000000000L, 1.5),
+                Arrays.asList(true, "text")),
+                response.nextRows(2));
+        assertFalse(response.hasRemainingRows());
+        verify(source, times(1)).close();
+
+        assertEquals("abc", response.getCursor());
+        assertEquals(4, response.getTotal());
+        assertEquals(200, response.getStatus());
+        assertEquals(Collections.emptyList(), response.nextRows(2));
+    }
+
+    @Test
+    void testGetterReadsRemainingRows() throws IOException {
+        StreamingJsonQueryResponse response = new StreamingJsonQueryResponse(
+                mapper, toStream(STREAMED_RESPONSE), null, true);
+
+        assertEquals(1, response.nextRows(1).size());
+        assertEquals("abc", response.getCursor());
+        assertFalse(response.hasRemainingRows());
+        assertEquals(3, response.getDatarows().size());
+    }
+
+    @Test
+    void testRowsPrecedingSchemaAreNotStreamed() throws IOException {
+        String body = "{\"datarows\":[[1],[2]],\"schema\":[{\"name\":\"id\",\"type\":\"integer\"}],\"status\":200}";
+        Closeable source = mock(Closeable.class);
+        StreamingJsonQueryResponse response = new StreamingJsonQueryResponse(mapper, toStream(body), source, true);
+
+        assertFalse(response.hasRemainingRows());
+        assertEquals(Arrays.asList(Arrays.asList(1), Arrays.asList(2)), response.getDatarows());
+        verify(source, times(1)).close();
+    }
+
+    @Test
+    void testCloseUnfinishedResponse() throws IOException {
+        Closeable source = mock(Closeable.class);
+        StreamingJsonQueryResponse response = new StreamingJsonQueryResponse(
+                mapper, toStream(STREAMED_RESPONSE), source, true);
+
+        response.close();
+        response.close();
+
+        verify(source, times(1)).close();
+        assertFalse(response.hasRemainingRows());
+        assertEquals(Collections.emptyList(), response.nextRows(10));
+    }
+
+    @Test
+    void testMalformedResponse() throws IOException {
+        assertThrows(JsonProcessingException.class,
+                () -> StreamingJsonQueryResponse.parse(mapper, toStream("")));
+        assertThrows(JsonProcessingException.class,
+                () -> StreamingJsonQueryResponse.parse(mapper, toStream("[1, 2]")));
+        assertThrows(JsonProcessingException.class,
+                () -> StreamingJsonQueryResponse.parse(mapper, toStream("{\"datarows\":[1, 2]}")));
+
+        StreamingJsonQueryResponse truncated = new StreamingJsonQueryResponse(
+                mapper, toStream(STREAMED_RESPONSE.substring(0, 110)), null, true);
+        assertThrows(JsonProcessingException.class, () -> truncated.nextRows(10));
+    }
+
+    @Test
+    void testNullFields() throws IOException {
+        JsonQueryResponse response = StreamingJsonQueryResponse.parse(mapper,
+                toStream("{\"schema\":null,\"datarows\":null,\"cursor\":null,\"status\":200}"));
+
+        assertNull(response.getColumnDescriptors());
+        assertNull(response.getDatarows());
+        assertNull(response.getCursor());
+        assertEquals(200, response.getStatus());
+    }
+
+    private static InputStream toStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
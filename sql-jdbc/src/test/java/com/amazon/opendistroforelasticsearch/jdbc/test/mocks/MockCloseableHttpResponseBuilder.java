@@ -24,6 +24,7 @@ import org.apache.http.message.BasicHeader;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -31,7 +32,7 @@ import static org.mockito.Mockito.when;
 public class MockCloseableHttpResponseBuilder {
 
     private int httpCode;
-    private String responseBody;
+    private byte[] responseBody;
     private Header contentTypeHeader;
 
     public MockCloseableHttpResponseBuilder withHttpReturnCode(int httpCode) {
@@ -40,6 +41,11 @@ public class MockCloseableHttpResponseBuilder {
     }
 
     public MockCloseableHttpResponseBuilder withResponseBody(String responseBody) {
+        this.responseBody = responseBody == null ? null : responseBody.getBytes(StandardCharsets.UTF_8);
+        return this;
+    }
+
+    public MockCloseableHttpResponseBuilder withResponseBody(byte[] responseBody) {
         this.responseBody = responseBody;
         return this;
     }
@@ -64,7 +70,7 @@ public class MockCloseableHttpResponseBuilder {
         // response object single-use with regards to reading the
         // response content.
         when(mockEntity.getContent()).thenReturn(responseBody == null ? null
-                        : new ByteArrayInputStream(responseBody.getBytes("UTF-8")));
+                        : new ByteArrayInputStream(responseBody));
         return mockResponse;
     }
 }
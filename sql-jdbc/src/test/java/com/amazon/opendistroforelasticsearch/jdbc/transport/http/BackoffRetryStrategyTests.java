@@ -0,0 +1,66 @@
+/*
+ * Copyright <2019> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ */
+
+
+package com.amazon.opendistroforelasticsearch.jdbc.transport.http;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BackoffRetryStrategyTests {
+
+    @Test
+    void testRetriesTooManyRequestsWithExponentialBackoff() {
+        BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, 100);
+        HttpResponse response = response(HttpStatus.SC_TOO_MANY_REQUESTS);
+
+        assertTrue(strategy.retryRequest(response, 1, null));
+        assertEquals(100, strategy.getRetryInterval());
+        assertTrue(strategy.retryRequest(response, 2, null));
+        assertEquals(200, strategy.getRetryInterval());
+        assertTrue(strategy.retryRequest(response, 3, null));
+        assertEquals(400, strategy.getRetryInterval());
+        assertFalse(strategy.retryRequest(response, 4, null));
+    }
+
+    @Test
+    void testDoesNotRetryOtherResponses() {
+        BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, 100);
+
+        assertFalse(strategy.retryRequest(response(HttpStatus.SC_OK), 1, null));
+        assertFalse(strategy.retryRequest(response(HttpStatus.SC_SERVICE_UNAVAILABLE), 1, null));
+        assertFalse(strategy.retryRequest(response(HttpStatus.SC_INTERNAL_SERVER_ERROR), 1, null));
+        assertEquals(100, strategy.getRetryInterval());
+    }
+
+    @Test
+    void testDoesNotRetryWhenRetriesDisabled() {
+        BackoffRetryStrategy strategy = new BackoffRetryStrategy(0, 100);
+
+        assertFalse(strategy.retryRequest(response(HttpStatus.SC_TOO_MANY_REQUESTS), 1, null));
+    }
+
+    private static HttpResponse response(int statusCode) {
+        return new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+    }
+}
@@ -312,6 +312,7 @@ SINGLE_QUOTE_SYMB:                  '\'';
 DOUBLE_QUOTE_SYMB:                  '"';
 REVERSE_QUOTE_SYMB:                 '`';
 COLON_SYMB:                         ':';
+QUESTION_SYMB:                      '?';
 
 
 // Literal Primitives
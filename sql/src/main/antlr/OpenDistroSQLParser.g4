@@ -107,6 +107,7 @@ constant
     | datetimeLiteral           #datetime
     | intervalLiteral           #interval
     | nullLiteral               #null
+    | QUESTION_SYMB             #parameterMarker
     // Doesn't support the following types for now
     //| BIT_STRING
     //| NOT? nullLiteral=(NULL_LITERAL | NULL_SPEC_LITERAL)
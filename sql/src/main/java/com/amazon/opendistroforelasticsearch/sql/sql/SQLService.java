@@ -20,15 +20,23 @@ import com.amazon.opendistroforelasticsearch.sql.analysis.AnalysisContext;
 import com.amazon.opendistroforelasticsearch.sql.analysis.Analyzer;
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
 import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.PreparedStatementCache;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.ParameterBinder;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.sql.parser.AstBuilder;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 /**
@@ -44,23 +52,38 @@ public class SQLService {
 
   private final ExecutionEngine executionEngine;
 
+  private final LogicalPlanCache planCache;
+
+  private final PreparedStatementCache statementCache;
+
+  private final ParameterBinder parameterBinder;
+
   /**
    * Initialize SQL service.
    * @param parser              SQL syntax parser
    * @param analyzer            AST analyzer
    * @param storageEngine       storage engine
    * @param executionEngine     execution engine
+   * @param planCache           logical plan cache
+   * @param statementCache      prepared statement cache
+   * @param parameterBinder     parameter binder for prepared statement
    */
   public SQLService(SQLSyntaxParser parser, Analyzer analyzer,
-                    StorageEngine storageEngine, ExecutionEngine executionEngine) {
+                    StorageEngine storageEngine, ExecutionEngine executionEngine,
+                    LogicalPlanCache planCache, PreparedStatementCache statementCache,
+                    ParameterBinder parameterBinder) {
     this.parser = parser;
     this.analyzer = analyzer;
     this.storageEngine = storageEngine;
     this.executionEngine = executionEngine;
+    this.planCache = planCache;
+    this.statementCache = statementCache;
+    this.parameterBinder = parameterBinder;
   }
 
   /**
-   * Parse, analyze, plan and execute the query.
+   * Parse, analyze, plan and execute the query. Parsing and analysis is skipped
+   * if the logical plan of the same query is found in plan cache.
    * @param request       SQL query request
    * @param listener      callback listener
    */
@@ -68,8 +91,7 @@ public class SQLService {
     try {
       executionEngine.execute(
                         plan(
-                            analyze(
-                                parse(request.getQuery()))), listener);
+                            analyze(request)), listener);
     } catch (Exception e) {
       listener.onFailure(e);
     }
@@ -96,6 +118,53 @@ public class SQLService {
     return cst.accept(new AstBuilder(query));
   }
 
+  /**
+   * Parse the query with parameter markers and cache it as prepared statement.
+   * @param query   query text with parameter markers
+   * @return        statement id
+   */
+  public String prepare(String query) {
+    return statementCache.prepare(query, () -> parse(query));
+  }
+
+  /**
+   * Get logical plan of the request which is either a plain query or a prepared statement.
+   */
+  public LogicalPlan analyze(SQLQueryRequest request) {
+    if (request.isPreparedStatement()) {
+      return analyze(request.getStatementId(), request.getQuery(), request.getParameters());
+    }
+    return analyze(request.getQuery());
+  }
+
+  /**
+   * Get parameterized logical plan of the prepared statement from plan cache, or analyze it
+   * if not cached, and bind the parameter values to it. Parsing is skipped as well if the
+   * prepared statement is found in prepared statement cache.
+   * @param statementId   statement id, or null if not prepared before
+   * @param query         query text with parameter markers
+   * @param parameters    parameter values
+   * @return              logical plan with parameter values bound
+   */
+  public LogicalPlan analyze(String statementId, String query, List<ExprValue> parameters) {
+    List<ExprType> parameterTypes =
+        parameters.stream().map(ExprValue::type).collect(Collectors.toList());
+    Supplier<UnresolvedPlan> ast = (statementId == null)
+        ? () -> parse(query)
+        : () -> statementCache.getOrPrepare(statementId, query, () -> parse(query));
+
+    LogicalPlan plan = planCache.getOrAnalyze("sql", query, parameterTypes, storageEngine,
+        () -> analyzer.analyze(ast.get(), new AnalysisContext(parameterTypes)));
+    return parameterBinder.bind(plan, parameters);
+  }
+
+  /**
+   * Get logical plan of the query from plan cache, or parse and analyze it if not cached.
+   */
+  public LogicalPlan analyze(String query) {
+    return planCache.getOrAnalyze("sql", query, storageEngine, () -> analyze(parse(query)));
+  }
+
   /**
    * Analyze abstract syntax to generate logical plan.
    */
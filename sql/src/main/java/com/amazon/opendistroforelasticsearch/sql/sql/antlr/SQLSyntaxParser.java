@@ -18,6 +18,7 @@ package com.amazon.opendistroforelasticsearch.sql.sql.antlr;
 
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.CaseInsensitiveCharStream;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxAnalysisErrorListener;
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.TwoStageParser;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLLexer;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -29,15 +30,15 @@ import org.antlr.v4.runtime.tree.ParseTree;
 public class SQLSyntaxParser {
 
   /**
-   * Parse a SQL query by ANTLR parser.
+   * Parse a SQL query by ANTLR parser with SLL prediction first and fall back to LL if failed.
    * @param query   a SQL query
    * @return        parse tree root
    */
   public ParseTree parse(String query) {
     OpenDistroSQLLexer lexer = new OpenDistroSQLLexer(new CaseInsensitiveCharStream(query));
     OpenDistroSQLParser parser = new OpenDistroSQLParser(new CommonTokenStream(lexer));
-    parser.addErrorListener(new SyntaxAnalysisErrorListener());
-    return parser.root();
+    return TwoStageParser.parse(
+        parser, OpenDistroSQLParser::root, new SyntaxAnalysisErrorListener());
   }
 
 }
@@ -21,6 +21,9 @@ import com.amazon.opendistroforelasticsearch.sql.analysis.ExpressionAnalyzer;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.PreparedStatementCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.ParameterBinder;
 import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
@@ -45,6 +48,12 @@ public class SQLServiceConfig {
   @Autowired
   private BuiltinFunctionRepository functionRepository;
 
+  @Autowired
+  private LogicalPlanCache planCache;
+
+  @Autowired
+  private PreparedStatementCache statementCache;
+
   @Bean
   public Analyzer analyzer() {
     return new Analyzer(new ExpressionAnalyzer(functionRepository), storageEngine);
@@ -52,7 +61,8 @@ public class SQLServiceConfig {
 
   @Bean
   public SQLService sqlService() {
-    return new SQLService(new SQLSyntaxParser(), analyzer(), storageEngine, executionEngine);
+    return new SQLService(new SQLSyntaxParser(), analyzer(), storageEngine, executionEngine,
+        planCache, statementCache, new ParameterBinder(functionRepository));
   }
 
 }
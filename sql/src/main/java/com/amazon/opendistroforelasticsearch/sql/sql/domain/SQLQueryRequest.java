@@ -16,12 +16,20 @@
 
 package com.amazon.opendistroforelasticsearch.sql.sql.domain;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
@@ -33,6 +41,9 @@ import org.json.JSONObject;
 @RequiredArgsConstructor
 public class SQLQueryRequest {
 
+  private static final Set<String> SUPPORTED_FIELDS =
+      ImmutableSet.of("query", "fetch_size", "statement_id", "parameters");
+
   /**
    * JSON payload in REST request.
    */
@@ -56,17 +67,62 @@ public class SQLQueryRequest {
   /**
    * Pre-check if the request can be supported by meeting the following criteria:
    *  1.Not explain request
-   *  2.Only "query" field in payload. In other word, it's not a cursor request
-   *   (with either "fetch_size" or "cursor" field) or request with extra field
-   *   such as "filter".
-   *  3.Response format expected is default JDBC format.
+   *  2.Only "query" field in payload, optionally with prepared statement id and parameters.
+   *   In other word, it's not a cursor request (with either "fetch_size" or "cursor" field)
+   *   or request with extra field such as "filter".
+   *  3.Response format expected is default JDBC format or columnar format.
+   *  4.Type of all parameter values is supported.
    *
    * @return  true if supported.
    */
   public boolean isSupported() {
     return !isExplainRequest()
         && isOnlyQueryFieldInPayload()
-        && isDefaultFormat();
+        && isDefaultFormat()
+        && getParameters() != null;
+  }
+
+  /**
+   * Is the request executing a prepared statement, either by statement id or parameters.
+   *
+   * @return true if prepared statement request
+   */
+  public boolean isPreparedStatement() {
+    return jsonContent.has("statement_id") || jsonContent.has("parameters");
+  }
+
+  /**
+   * Get id of the prepared statement returned by prepare request.
+   *
+   * @return statement id or null if absent
+   */
+  public String getStatementId() {
+    return jsonContent.optString("statement_id", null);
+  }
+
+  /**
+   * Parse the parameter values in payload, ex. [{"type": "integer", "value": 1}].
+   *
+   * @return parameter values in the order of parameter markers, or null if any unsupported
+   */
+  public List<ExprValue> getParameters() {
+    List<ExprValue> parameters = new ArrayList<>();
+    if (!jsonContent.has("parameters")) {
+      return parameters;
+    }
+
+    JSONArray params = jsonContent.optJSONArray("parameters");
+    if (params == null) {
+      return null;
+    }
+    for (int i = 0; i < params.length(); i++) {
+      ExprValue value = parameterValue(params, i);
+      if (value == null) {
+        return null;
+      }
+      parameters.add(value);
+    }
+    return parameters;
   }
 
   private boolean isExplainRequest() {
@@ -74,13 +130,53 @@ public class SQLQueryRequest {
   }
 
   private boolean isOnlyQueryFieldInPayload() {
-    return (jsonContent.keySet().size() == 1 && jsonContent.has("query"))
-        || (jsonContent.keySet().size() == 2 && jsonContent.has("query")
-            && jsonContent.has("fetch_size") && jsonContent.getInt("fetch_size") == 0);
+    return jsonContent.has("query")
+        && SUPPORTED_FIELDS.containsAll(jsonContent.keySet())
+        && jsonContent.optInt("fetch_size", 0) == 0;
+  }
+
+  /**
+   * Date and null parameter is not supported yet and thus falls back to old engine.
+   * So does malformed parameter which is left to old engine to report error.
+   */
+  private ExprValue parameterValue(JSONArray params, int index) {
+    try {
+      JSONObject param = params.getJSONObject(index);
+      switch (param.getString("type").toLowerCase()) {
+        case "boolean":
+          return ExprValueUtils.booleanValue(param.getBoolean("value"));
+        case "byte":
+        case "short":
+        case "integer":
+          return ExprValueUtils.integerValue(param.getInt("value"));
+        case "long":
+          return ExprValueUtils.longValue(param.getLong("value"));
+        case "float":
+          return ExprValueUtils.floatValue(param.getFloat("value"));
+        case "double":
+          return ExprValueUtils.doubleValue(param.getDouble("value"));
+        case "string":
+        case "keyword":
+          return ExprValueUtils.stringValue(param.getString("value"));
+        default:
+          return null;
+      }
+    } catch (JSONException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Is columnar binary format requested, which is supported in addition to default JDBC format.
+   *
+   * @return true if columnar format
+   */
+  public boolean isColumnarFormat() {
+    return "columnar".equalsIgnoreCase(format);
   }
 
   private boolean isDefaultFormat() {
-    return Strings.isNullOrEmpty(format) || "jdbc".equalsIgnoreCase(format);
+    return Strings.isNullOrEmpty(format) || "jdbc".equalsIgnoreCase(format) || isColumnarFormat();
   }
 
 }
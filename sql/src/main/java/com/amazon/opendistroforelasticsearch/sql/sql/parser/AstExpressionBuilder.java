@@ -29,6 +29,8 @@ import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDis
 import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.MathExpressionAtomContext;
 import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.NotExpressionContext;
 import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.NullLiteralContext;
+import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.ParameterMarkerContext;
+import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.QUESTION_SYMB;
 import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.ScalarFunctionCallContext;
 import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.SignedDecimalContext;
 import static com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser.SignedRealContext;
@@ -60,13 +62,26 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.Trees;
 
 /**
  * Expression builder to parse text to expression in AST.
  */
 public class AstExpressionBuilder extends OpenDistroSQLParserBaseVisitor<UnresolvedExpression> {
 
+  /**
+   * Root of the parse tree whose parameter markers are collected in markerTokenIndexes.
+   */
+  private ParserRuleContext markerRoot;
+
+  /**
+   * Token indexes of all parameter markers in the parse tree in ascending order.
+   */
+  private int[] markerTokenIndexes;
+
   @Override
   public UnresolvedExpression visitTableName(TableNameContext ctx) {
     return visitQualifiedName(ctx.qualifiedName());
@@ -178,6 +193,29 @@ public class AstExpressionBuilder extends OpenDistroSQLParserBaseVisitor<Unresol
     return AstDSL.nullLiteral();
   }
 
+  /**
+   * Parameter marker is numbered by its position among all parameter markers in the query.
+   * Token indexes of all markers are collected in a single pass over the parse tree on the
+   * first marker visited, and then looked up for the rest of markers in the same tree.
+   */
+  @Override
+  public UnresolvedExpression visitParameterMarker(ParameterMarkerContext ctx) {
+    ParserRuleContext root = ctx;
+    while (root.getParent() != null) {
+      root = root.getParent();
+    }
+
+    if (root != markerRoot) {
+      markerRoot = root;
+      markerTokenIndexes = Trees.findAllTokenNodes(root, QUESTION_SYMB).stream()
+          .mapToInt(marker -> ((TerminalNode) marker).getSymbol().getTokenIndex())
+          .sorted()
+          .toArray();
+    }
+    return AstDSL.parameter(
+        Arrays.binarySearch(markerTokenIndexes, ctx.getStart().getTokenIndex()));
+  }
+
   @Override
   public UnresolvedExpression visitDateLiteral(DateLiteralContext ctx) {
     return AstDSL.dateLiteral(StringUtils.unquoteText(ctx.date.getText()));
@@ -17,20 +17,30 @@
 package com.amazon.opendistroforelasticsearch.sql.sql;
 
 import static com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.cache.PreparedStatementCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.sql.config.SQLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import com.amazon.opendistroforelasticsearch.sql.storage.Table;
+import com.google.common.collect.ImmutableMap;
 import java.util.Collections;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,10 +65,19 @@ class SQLServiceTest {
   @Mock
   private ExecutionEngine.Schema schema;
 
+  @Mock
+  private Table table;
+
+  private final LogicalPlanCache planCache = new LogicalPlanCache();
+
+  private final PreparedStatementCache statementCache = new PreparedStatementCache();
+
   @BeforeEach
   public void setUp() {
     context.registerBean(StorageEngine.class, () -> storageEngine);
     context.registerBean(ExecutionEngine.class, () -> executionEngine);
+    context.registerBean(LogicalPlanCache.class, () -> planCache);
+    context.registerBean(PreparedStatementCache.class, () -> statementCache);
     context.register(SQLServiceConfig.class);
     context.refresh();
     sqlService = context.getBean(SQLService.class);
@@ -87,6 +106,140 @@ class SQLServiceTest {
         });
   }
 
+  @Test
+  public void canReuseCachedLogicalPlanForSameQuery() {
+    doAnswer(invocation -> {
+      ResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onResponse(new QueryResponse(schema, Collections.emptyList()));
+      return null;
+    }).when(executionEngine).execute(any(), any());
+
+    ResponseListener<QueryResponse> listener = new ResponseListener<QueryResponse>() {
+      @Override
+      public void onResponse(QueryResponse response) {
+        assertNotNull(response);
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        fail(e);
+      }
+    };
+    sqlService.execute(
+        new SQLQueryRequest(new JSONObject(), "SELECT 123", "_opendistro/_sql", "jdbc"), listener);
+    sqlService.execute(
+        new SQLQueryRequest(new JSONObject(), "SELECT 123", "_opendistro/_sql", "jdbc"), listener);
+
+    assertEquals(1, planCache.missCount());
+    assertEquals(1, planCache.hitCount());
+  }
+
+  @Test
+  public void canReuseCachedLogicalPlanForPreparedStatement() {
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", ExprCoreType.INTEGER));
+    doAnswer(invocation -> {
+      ResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onResponse(new QueryResponse(schema, Collections.emptyList()));
+      return null;
+    }).when(executionEngine).execute(any(), any());
+
+    ResponseListener<QueryResponse> listener = new ResponseListener<QueryResponse>() {
+      @Override
+      public void onResponse(QueryResponse response) {
+        assertNotNull(response);
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        fail(e);
+      }
+    };
+    String query = "SELECT age FROM test WHERE age = ?";
+    String statementId = sqlService.prepare(query);
+    assertEquals(1, statementCache.size());
+
+    sqlService.execute(
+        new SQLQueryRequest(preparedStatement(query, statementId, 30), query,
+            "_opendistro/_sql", "jdbc"), listener);
+    sqlService.execute(
+        new SQLQueryRequest(preparedStatement(query, statementId, 40), query,
+            "_opendistro/_sql", "jdbc"), listener);
+
+    assertEquals(1, planCache.missCount());
+    assertEquals(1, planCache.hitCount());
+  }
+
+  @Test
+  public void canNameColumnByOwnQueryTextIfOnlyWhitespacesDiffer() {
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", ExprCoreType.INTEGER));
+
+    LogicalPlan first = sqlService.analyze("SELECT ABS(age)  +  1 FROM test");
+    LogicalPlan second = sqlService.analyze("SELECT ABS(age) + 1 FROM test");
+
+    assertEquals("ABS(age)  +  1", ((LogicalProject) first).getProjectList().get(0).getName());
+    assertEquals("ABS(age) + 1", ((LogicalProject) second).getProjectList().get(0).getName());
+    assertEquals(2, planCache.missCount());
+  }
+
+  @Test
+  public void canPrepareStatementAgainIfNotFoundByStatementId() {
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", ExprCoreType.INTEGER));
+    doAnswer(invocation -> {
+      ResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onResponse(new QueryResponse(schema, Collections.emptyList()));
+      return null;
+    }).when(executionEngine).execute(any(), any());
+
+    String query = "SELECT age FROM test WHERE age = ?";
+    sqlService.execute(
+        new SQLQueryRequest(preparedStatement(query, "unknown", 30), query,
+            "_opendistro/_sql", "jdbc"),
+        new ResponseListener<QueryResponse>() {
+          @Override
+          public void onResponse(QueryResponse response) {
+            assertNotNull(response);
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail(e);
+          }
+        });
+    assertEquals(1, statementCache.size());
+  }
+
+  @Test
+  public void canExecutePreparedStatementWithoutStatementId() {
+    when(storageEngine.getTable("test")).thenReturn(table);
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("age", ExprCoreType.INTEGER));
+    doAnswer(invocation -> {
+      ResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onResponse(new QueryResponse(schema, Collections.emptyList()));
+      return null;
+    }).when(executionEngine).execute(any(), any());
+
+    String query = "SELECT age FROM test WHERE age = ?";
+    JSONObject jsonContent = preparedStatement(query, "unknown", 30);
+    jsonContent.remove("statement_id");
+    sqlService.execute(
+        new SQLQueryRequest(jsonContent, query, "_opendistro/_sql", "jdbc"),
+        new ResponseListener<QueryResponse>() {
+          @Override
+          public void onResponse(QueryResponse response) {
+            assertNotNull(response);
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail(e);
+          }
+        });
+    assertEquals(0, statementCache.size());
+  }
+
   @Test
   public void canExecuteFromPhysicalPlan() {
     doAnswer(invocation -> {
@@ -144,4 +297,12 @@ class SQLServiceTest {
         });
   }
 
-}
\ No newline at end of file
+  private JSONObject preparedStatement(String query, String statementId, int value) {
+    return new JSONObject()
+        .put("query", query)
+        .put("statement_id", statementId)
+        .put("parameters", new JSONArray()
+            .put(new JSONObject().put("type", "integer").put("value", value)));
+  }
+
+}
@@ -18,14 +18,33 @@ package com.amazon.opendistroforelasticsearch.sql.sql.antlr;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.CaseInsensitiveCharStream;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
+import com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLLexer;
+import com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser;
+import java.util.Arrays;
+import org.antlr.v4.runtime.CommonTokenStream;
 import org.junit.jupiter.api.Test;
 
 class SQLSyntaxParserTest {
 
   private final SQLSyntaxParser parser = new SQLSyntaxParser();
 
+  /**
+   * Parser warm up on plugin start relies on DFA built by one parse being reused by all parsers.
+   */
+  @Test
+  public void parseShouldBuildDfaSharedByOtherParsers() {
+    parser.parse("SELECT name FROM test WHERE age > 30");
+
+    OpenDistroSQLParser another = new OpenDistroSQLParser(new CommonTokenStream(
+        new OpenDistroSQLLexer(new CaseInsensitiveCharStream(""))));
+    assertTrue(Arrays.stream(another.getInterpreter().decisionToDFA)
+        .anyMatch(dfa -> !dfa.states.isEmpty()));
+  }
+
   @Test
   public void canParseQueryEndWithSemiColon() {
     assertNotNull(parser.parse("SELECT 123;"));
@@ -16,9 +16,18 @@
 
 package com.amazon.opendistroforelasticsearch.sql.sql.domain;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.booleanValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
@@ -38,6 +47,15 @@ public class SQLQueryRequestTest {
     assertTrue(request.isSupported());
   }
 
+  @Test
+  public void shouldSupportQueryWithColumnarFormat() {
+    SQLQueryRequest request = SQLQueryRequestBuilder.request("SELECT 1")
+                                                    .format("columnar")
+                                                    .build();
+    assertTrue(request.isSupported());
+    assertTrue(request.isColumnarFormat());
+  }
+
   @Test
   public void shouldSupportQueryWithZeroFetchSize() {
     SQLQueryRequest request =
@@ -47,6 +65,76 @@ public class SQLQueryRequestTest {
     assertTrue(request.isSupported());
   }
 
+  @Test
+  public void shouldSupportPreparedStatement() {
+    SQLQueryRequest request =
+        SQLQueryRequestBuilder.request("SELECT ?")
+                              .jsonContent("{\"query\": \"SELECT ?\", \"statement_id\": \"abc\", "
+                                  + "\"parameters\": [{\"type\": \"integer\", \"value\": 1}]}")
+                              .build();
+    assertTrue(request.isSupported());
+    assertTrue(request.isPreparedStatement());
+    assertEquals("abc", request.getStatementId());
+    assertEquals(Arrays.asList(integerValue(1)), request.getParameters());
+  }
+
+  @Test
+  public void shouldParseParametersOfAllSupportedTypes() {
+    SQLQueryRequest request =
+        SQLQueryRequestBuilder.request("SELECT ?")
+                              .jsonContent("{\"query\": \"SELECT ?\", \"parameters\": ["
+                                  + "{\"type\": \"boolean\", \"value\": true},"
+                                  + "{\"type\": \"byte\", \"value\": 1},"
+                                  + "{\"type\": \"short\", \"value\": 2},"
+                                  + "{\"type\": \"integer\", \"value\": 3},"
+                                  + "{\"type\": \"long\", \"value\": 4},"
+                                  + "{\"type\": \"float\", \"value\": 5.0},"
+                                  + "{\"type\": \"double\", \"value\": 6.0},"
+                                  + "{\"type\": \"string\", \"value\": \"a\"},"
+                                  + "{\"type\": \"keyword\", \"value\": \"b\"}]}")
+                              .build();
+    assertTrue(request.isPreparedStatement());
+    assertNull(request.getStatementId());
+    assertEquals(
+        Arrays.asList(booleanValue(true), integerValue(1), integerValue(2), integerValue(3),
+            longValue(4L), floatValue(5.0F), doubleValue(6.0), stringValue("a"),
+            stringValue("b")),
+        request.getParameters());
+  }
+
+  @Test
+  public void shouldNotSupportUnsupportedParameter() {
+    SQLQueryRequest dateParamRequest =
+        SQLQueryRequestBuilder.request("SELECT ?")
+                              .jsonContent("{\"query\": \"SELECT ?\", \"parameters\": "
+                                  + "[{\"type\": \"date\", \"value\": \"2020-01-01\"}]}")
+                              .build();
+    assertFalse(dateParamRequest.isSupported());
+
+    SQLQueryRequest invalidParamRequest =
+        SQLQueryRequestBuilder.request("SELECT ?")
+                              .jsonContent("{\"query\": \"SELECT ?\", \"parameters\": "
+                                  + "[{\"type\": \"integer\", \"value\": \"abc\"}]}")
+                              .build();
+    assertFalse(invalidParamRequest.isSupported());
+  }
+
+  @Test
+  public void shouldNotSupportMalformedParameters() {
+    SQLQueryRequest nonObjectParamRequest =
+        SQLQueryRequestBuilder.request("SELECT ?")
+                              .jsonContent("{\"query\": \"SELECT ?\", \"parameters\": [1]}")
+                              .build();
+    assertFalse(nonObjectParamRequest.isSupported());
+
+    SQLQueryRequest nonArrayParamRequest =
+        SQLQueryRequestBuilder.request("SELECT ?")
+                              .jsonContent("{\"query\": \"SELECT ?\", \"parameters\": "
+                                  + "{\"type\": \"integer\", \"value\": 1}}")
+                              .build();
+    assertFalse(nonArrayParamRequest.isSupported());
+  }
+
   @Test
   public void shouldNotSupportExplain() {
     SQLQueryRequest explainRequest =
@@ -69,6 +157,12 @@ public class SQLQueryRequestTest {
                               .jsonContent("{\"cursor\": \"abcdefgh...\"}")
                               .build();
     assertFalse(cursorRequest.isSupported());
+
+    SQLQueryRequest filterRequest =
+        SQLQueryRequestBuilder.request("SELECT 1")
+                              .jsonContent("{\"query\": \"SELECT 1\", \"filter\": {}}")
+                              .build();
+    assertFalse(filterRequest.isSupported());
   }
 
   @Test
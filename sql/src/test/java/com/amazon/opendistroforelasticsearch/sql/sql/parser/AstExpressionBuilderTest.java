@@ -26,6 +26,7 @@ import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.intervalL
 import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.not;
 import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.nullLiteral;
 import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.or;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.parameter;
 import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.stringLiteral;
 import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.timeLiteral;
 import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.timestampLiteral;
@@ -76,6 +77,22 @@ class AstExpressionBuilderTest {
     );
   }
 
+  @Test
+  public void canBuildParameterMarker() {
+    assertEquals(
+        function("+", parameter(0), parameter(1)),
+        buildExprAst("? + ?")
+    );
+  }
+
+  @Test
+  public void canNumberParameterMarkersByPositionInNestedExpression() {
+    assertEquals(
+        function("+", function("abs", function("+", parameter(0), parameter(1))), parameter(2)),
+        buildExprAst("abs(? + ?) + ?")
+    );
+  }
+
   @Test
   public void canBuildDateLiteral() {
     assertEquals(